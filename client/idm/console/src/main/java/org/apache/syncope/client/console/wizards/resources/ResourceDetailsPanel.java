@@ -88,6 +88,11 @@ public class ResourceDetailsPanel extends WizardStep {
                 new PropertyModel<>(resourceTO, "randomPwdIfNotProvided"),
                 false));
 
+        container.add(new AjaxCheckBoxPanel("trustedPropagation",
+                new ResourceModel("trustedPropagation", "trustedPropagation").getObject(),
+                new PropertyModel<>(resourceTO, "trustedPropagation"),
+                false));
+
         container.add(new AjaxPalettePanel.Builder<String>().
                 setAllowMoveAll(true).setAllowOrder(true).
                 build("propagationActions",
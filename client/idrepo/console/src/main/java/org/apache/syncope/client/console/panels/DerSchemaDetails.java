@@ -20,6 +20,7 @@ package org.apache.syncope.client.console.panels;
 
 import de.agilecoders.wicket.core.markup.html.bootstrap.components.TooltipConfig;
 import org.apache.syncope.client.ui.commons.Constants;
+import org.apache.syncope.client.ui.commons.markup.html.form.AjaxCheckBoxPanel;
 import org.apache.syncope.common.lib.to.DerSchemaTO;
 import org.apache.wicket.markup.html.form.TextField;
 import org.apache.wicket.model.PropertyModel;
@@ -35,6 +36,8 @@ public class DerSchemaDetails extends AbstractSchemaDetailsPanel {
         expression.setRequired(true);
         add(expression);
 
+        add(new AjaxCheckBoxPanel("indexed", getString("indexed"), new PropertyModel<>(schemaTO, "indexed")));
+
         add(Constants.getJEXLPopover(this, TooltipConfig.Placement.right));
     }
 }
@@ -99,7 +99,7 @@ public class TaskRestClient extends BaseRestClient implements ExecutionRestClien
 
         return getService(TaskService.class).
                 <PropagationTaskTO>search(new TaskQuery.Builder(TaskType.PROPAGATION).
-                        resource(resource).
+                        resource(resource).details(false).
                         page(page).size(size).
                         orderBy(toOrderBy(sort)).build()).
                 getResult();
@@ -111,7 +111,7 @@ public class TaskRestClient extends BaseRestClient implements ExecutionRestClien
 
         return getService(TaskService.class).
                 <PropagationTaskTO>search(new TaskQuery.Builder(TaskType.PROPAGATION).
-                        anyTypeKind(anyTypeKind).entityKey(entityKey).
+                        anyTypeKind(anyTypeKind).entityKey(entityKey).details(false).
                         page(page).size(size).
                         orderBy(toOrderBy(sort)).build()).
                 getResult();
@@ -191,7 +191,8 @@ public class TaskRestClient extends BaseRestClient implements ExecutionRestClien
     }
 
     public static PropagationTaskTO readPropagationTask(final String taskKey) {
-        return getService(TaskService.class).read(TaskType.PROPAGATION, taskKey, false);
+        // attributes are only returned with details
+        return getService(TaskService.class).read(TaskType.PROPAGATION, taskKey, true);
     }
 
     public static NotificationTaskTO readNotificationTask(final String taskKey) {
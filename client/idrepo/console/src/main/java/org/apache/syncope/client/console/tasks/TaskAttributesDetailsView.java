@@ -23,6 +23,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.client.console.panels.MultilevelPanel;
+import org.apache.syncope.client.console.rest.TaskRestClient;
 import org.apache.syncope.client.console.wicket.markup.html.bootstrap.dialog.BaseModal;
 import org.apache.syncope.client.console.wicket.markup.html.form.JsonEditorPanel;
 import org.apache.syncope.common.lib.to.PropagationTaskTO;
@@ -47,7 +48,9 @@ public class TaskAttributesDetailsView extends MultilevelPanel.SecondLevel {
             final PageReference pageRef) {
         super();
 
-        Pair<String, String> info = Pair.of(taskTO.getEntityKey(), getJSONInfo(taskTO));
+        // tasks are listed without attributes, which are read on demand
+        Pair<String, String> info = Pair.of(
+                taskTO.getEntityKey(), getJSONInfo(TaskRestClient.readPropagationTask(taskTO.getKey())));
         JsonEditorPanel jsonPanel =
                 new JsonEditorPanel(null, new PropertyModel<String>(info, "value"), true,
                         null) {
@@ -60,6 +60,8 @@ public class ResourceTO implements EntityTO {
 
     private boolean randomPwdIfNotProvided;
 
+    private boolean trustedPropagation;
+
     private boolean enforceMandatoryCondition;
 
     private TraceLevel createTraceLevel = TraceLevel.ALL;
@@ -137,6 +139,14 @@ public class ResourceTO implements EntityTO {
         this.randomPwdIfNotProvided = randomPwdIfNotProvided;
     }
 
+    public boolean isTrustedPropagation() {
+        return trustedPropagation;
+    }
+
+    public void setTrustedPropagation(final boolean trustedPropagation) {
+        this.trustedPropagation = trustedPropagation;
+    }
+
     public TraceLevel getCreateTraceLevel() {
         return createTraceLevel;
     }
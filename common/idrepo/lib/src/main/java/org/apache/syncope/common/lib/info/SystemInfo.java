@@ -20,6 +20,8 @@ package org.apache.syncope.common.lib.info;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
@@ -45,6 +47,12 @@ public class SystemInfo implements Serializable {
 
     private final CircularFifoQueue<LoadInstant> load = new CircularFifoQueue<>(10);
 
+    private final List<ConnectorLoad> connectorLoad = new ArrayList<>();
+
+    private long avoidedRemoteReads;
+
+    private AuditLoad auditLoad;
+
     public String getHostname() {
         return hostname;
     }
@@ -92,6 +100,29 @@ public class SystemInfo implements Serializable {
         return load;
     }
 
+    @XmlElementWrapper(name = "connectorLoad")
+    @XmlElement(name = "connector")
+    @JsonProperty("connectorLoad")
+    public List<ConnectorLoad> getConnectorLoad() {
+        return connectorLoad;
+    }
+
+    public long getAvoidedRemoteReads() {
+        return avoidedRemoteReads;
+    }
+
+    public void setAvoidedRemoteReads(final long avoidedRemoteReads) {
+        this.avoidedRemoteReads = avoidedRemoteReads;
+    }
+
+    public AuditLoad getAuditLoad() {
+        return auditLoad;
+    }
+
+    public void setAuditLoad(final AuditLoad auditLoad) {
+        this.auditLoad = auditLoad;
+    }
+
     @XmlRootElement(name = "loadInstant")
     @XmlType
     public static class LoadInstant implements Serializable {
@@ -149,4 +180,148 @@ public class SystemInfo implements Serializable {
         }
     }
 
+
+    @XmlRootElement(name = "connectorLoad")
+    @XmlType
+    public static class ConnectorLoad implements Serializable {
+
+        private static final long serialVersionUID = -6198765431207154328L;
+
+        private String connector;
+
+        private int limit;
+
+        private int inFlight;
+
+        private int queueDepth;
+
+        private long rejected;
+
+        public String getConnector() {
+            return connector;
+        }
+
+        public void setConnector(final String connector) {
+            this.connector = connector;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(final int limit) {
+            this.limit = limit;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public void setInFlight(final int inFlight) {
+            this.inFlight = inFlight;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public void setQueueDepth(final int queueDepth) {
+            this.queueDepth = queueDepth;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public void setRejected(final long rejected) {
+            this.rejected = rejected;
+        }
+    }
+
+    @XmlRootElement(name = "auditLoad")
+    @XmlType
+    public static class AuditLoad implements Serializable {
+
+        private static final long serialVersionUID = 4419271405862873914L;
+
+        private int queueDepth;
+
+        private int capacity;
+
+        private long written;
+
+        private long dropped;
+
+        private long failed;
+
+        private long flushes;
+
+        private long lastFlushTime;
+
+        private long totalFlushTime;
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public void setQueueDepth(final int queueDepth) {
+            this.queueDepth = queueDepth;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        public void setWritten(final long written) {
+            this.written = written;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public void setDropped(final long dropped) {
+            this.dropped = dropped;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public void setFailed(final long failed) {
+            this.failed = failed;
+        }
+
+        public long getFlushes() {
+            return flushes;
+        }
+
+        public void setFlushes(final long flushes) {
+            this.flushes = flushes;
+        }
+
+        public long getLastFlushTime() {
+            return lastFlushTime;
+        }
+
+        public void setLastFlushTime(final long lastFlushTime) {
+            this.lastFlushTime = lastFlushTime;
+        }
+
+        public long getTotalFlushTime() {
+            return totalFlushTime;
+        }
+
+        public void setTotalFlushTime(final long totalFlushTime) {
+            this.totalFlushTime = totalFlushTime;
+        }
+    }
 }
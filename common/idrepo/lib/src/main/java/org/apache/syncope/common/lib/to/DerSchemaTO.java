@@ -35,6 +35,8 @@ public class DerSchemaTO extends SchemaTO {
 
     private String expression;
 
+    private boolean indexed;
+
     @XmlTransient
     @JsonProperty("@class")
     @Schema(name = "@class", required = true, example = "org.apache.syncope.common.lib.to.DerSchemaTO")
@@ -51,11 +53,20 @@ public class DerSchemaTO extends SchemaTO {
         this.expression = expression;
     }
 
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(final boolean indexed) {
+        this.indexed = indexed;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder().
                 appendSuper(super.hashCode()).
                 append(expression).
+                append(indexed).
                 build();
     }
 
@@ -74,6 +85,7 @@ public class DerSchemaTO extends SchemaTO {
         return new EqualsBuilder().
                 appendSuper(super.equals(obj)).
                 append(expression, other.expression).
+                append(indexed, other.indexed).
                 build();
     }
 }
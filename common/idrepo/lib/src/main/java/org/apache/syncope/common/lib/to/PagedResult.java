@@ -31,6 +31,7 @@ import javax.xml.bind.annotation.XmlType;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.syncope.common.lib.BaseBean;
+import org.apache.syncope.common.lib.types.CountMode;
 
 @XmlRootElement(name = "pagedResult")
 @XmlType
@@ -50,6 +51,10 @@ public class PagedResult<T extends BaseBean> implements Serializable {
 
     private int totalCount;
 
+    private CountMode totalCountMode = CountMode.EXACT;
+
+    private String after;
+
     public URI getPrev() {
         return prev;
     }
@@ -98,6 +103,29 @@ public class PagedResult<T extends BaseBean> implements Serializable {
         this.totalCount = totalCount;
     }
 
+    /**
+     * @return how {@link #getTotalCount()} was computed: {@link CountMode#EXACT}, {@link CountMode#ESTIMATE} or
+     * {@link CountMode#NONE}, in which case total count is -1
+     */
+    public CountMode getTotalCountMode() {
+        return totalCountMode;
+    }
+
+    public void setTotalCountMode(final CountMode totalCountMode) {
+        this.totalCountMode = totalCountMode;
+    }
+
+    /**
+     * @return opaque token to pass for requesting the page following this one, when paginating by position
+     */
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(final String after) {
+        this.after = after;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder().
@@ -107,6 +135,8 @@ public class PagedResult<T extends BaseBean> implements Serializable {
                 append(page).
                 append(size).
                 append(totalCount).
+                append(totalCountMode).
+                append(after).
                 build();
     }
 
@@ -130,6 +160,8 @@ public class PagedResult<T extends BaseBean> implements Serializable {
                 append(page, other.page).
                 append(size, other.size).
                 append(totalCount, other.totalCount).
+                append(totalCountMode, other.totalCountMode).
+                append(after, other.after).
                 build();
     }
 }
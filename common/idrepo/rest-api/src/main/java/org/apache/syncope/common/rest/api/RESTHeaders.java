@@ -77,6 +77,16 @@ public final class RESTHeaders {
      */
     public static final MediaType TEXT_CSV_TYPE = new MediaType("text", "csv");
 
+    /**
+     * Mediatype for newline-delimited JSON, not defined in {@link javax.ws.rs.core.MediaType}.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Mediatype for newline-delimited JSON, not defined in {@link javax.ws.rs.core.MediaType}.
+     */
+    public static final MediaType APPLICATION_NDJSON_TYPE = new MediaType("application", "x-ndjson");
+
     /**
      * Mediatype for multipart/mixed, not defined in {@link javax.ws.rs.core.MediaType}.
      */
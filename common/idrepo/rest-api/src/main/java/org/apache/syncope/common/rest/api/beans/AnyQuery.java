@@ -24,6 +24,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.QueryParam;
 import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.common.rest.api.service.JAXRSService;
 
 import java.util.Optional;
@@ -54,6 +55,18 @@ public class AnyQuery extends AbstractQuery {
 
             return this;
         }
+
+        public Builder after(final String after) {
+            getInstance().setAfter(after);
+
+            return this;
+        }
+
+        public Builder count(final CountMode count) {
+            getInstance().setCount(count);
+
+            return this;
+        }
     }
 
     private String realm;
@@ -62,6 +75,10 @@ public class AnyQuery extends AbstractQuery {
 
     private String fiql;
 
+    private String after;
+
+    private CountMode count;
+
     @Parameter(name = JAXRSService.PARAM_REALM, description = "realms define a hierarchical security domain tree, "
             + "primarily meant for containing Users, Groups and Any Objects", schema =
             @Schema(implementation = String.class, defaultValue = SyncopeConstants.ROOT_REALM, externalDocs =
@@ -105,4 +122,30 @@ public class AnyQuery extends AbstractQuery {
     public void setFiql(final String fiql) {
         this.fiql = fiql;
     }
+
+    public String getAfter() {
+        return after;
+    }
+
+    @Parameter(name = JAXRSService.PARAM_AFTER, description = "opaque token, as returned by a previous search, "
+            + "to request the page following it; when provided, even empty for the first page, results are "
+            + "paginated by position rather than by page number, which is ignored", schema =
+            @Schema(implementation = String.class))
+    @QueryParam(JAXRSService.PARAM_AFTER)
+    public void setAfter(final String after) {
+        this.after = after;
+    }
+
+    @Parameter(name = JAXRSService.PARAM_COUNT, description = "how the total count of matching entities is to be "
+            + "computed: skipping it or relying on database statistics speeds up searches on large repositories",
+            schema = @Schema(implementation = CountMode.class, defaultValue = "EXACT"))
+    public CountMode getCount() {
+        return Optional.ofNullable(count).orElse(CountMode.EXACT);
+    }
+
+    @QueryParam(JAXRSService.PARAM_COUNT)
+    @DefaultValue("EXACT")
+    public void setCount(final CountMode count) {
+        this.count = count;
+    }
 }
@@ -26,17 +26,20 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import java.util.List;
 import java.util.Set;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.BeanParam;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -46,6 +49,7 @@ import org.apache.syncope.common.lib.to.AnyTO;
 import org.apache.syncope.common.lib.Attr;
 import org.apache.syncope.common.lib.to.PagedResult;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.ResourceAssociationAction;
 import org.apache.syncope.common.lib.types.ResourceDeassociationAction;
 import org.apache.syncope.common.lib.types.SchemaType;
@@ -109,6 +113,23 @@ public interface AnyService<TO extends AnyTO> extends JAXRSService {
     @Produces({ MediaType.APPLICATION_JSON, RESTHeaders.APPLICATION_YAML, MediaType.APPLICATION_XML })
     PagedResult<TO> search(@BeanParam AnyQuery anyQuery);
 
+    /**
+     * Streams all any objects matching the given query, in the requested format: results are read with a single
+     * forward-only query and written as soon as available, hence page, size, after and count are ignored.
+     *
+     * @param anyQuery query conditions
+     * @param format output format
+     * @param plainAttrs plain attributes to report as CSV columns, ignored for NDJSON
+     * @return any objects matching the given query, as downloadable content
+     */
+    @GET
+    @Path("stream")
+    @Produces({ RESTHeaders.APPLICATION_NDJSON, RESTHeaders.TEXT_CSV })
+    Response stream(
+            @BeanParam AnyQuery anyQuery,
+            @QueryParam("format") @DefaultValue("NDJSON") AnyExportFormat format,
+            @QueryParam("plainAttrs") List<String> plainAttrs);
+
     /**
      * Adds or replaces the attribute, owned by the given any object, for the given schema type and schema.
      *
@@ -28,6 +28,10 @@ public interface JAXRSService {
 
     String PARAM_ORDERBY = "orderby";
 
+    String PARAM_AFTER = "after";
+
+    String PARAM_COUNT = "count";
+
     String PARAM_RESOURCE = "resource";
 
     String PARAM_NOTIFICATION = "notification";
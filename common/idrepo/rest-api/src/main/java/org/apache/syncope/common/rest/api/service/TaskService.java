@@ -64,7 +64,7 @@ public interface TaskService extends ExecutableService {
      *
      * @param type task type
      * @param key key of task to be read
-     * @param details whether include executions or not, defaults to true
+     * @param details whether include executions and propagation attributes or not, defaults to true
      * @param <T> type of taskTO
      * @return task with matching id
      */
@@ -62,6 +62,21 @@ public class Domain implements Serializable {
             return this;
         }
 
+        public Builder replicaJdbcURL(final String replicaJdbcURL) {
+            this.domain.replicaJdbcURL = replicaJdbcURL;
+            return this;
+        }
+
+        public Builder replicaMaxLag(final long replicaMaxLag) {
+            this.domain.replicaMaxLag = replicaMaxLag;
+            return this;
+        }
+
+        public Builder replicaLagQuery(final String replicaLagQuery) {
+            this.domain.replicaLagQuery = replicaLagQuery;
+            return this;
+        }
+
         public Builder dbSchema(final String dbSchema) {
             if (StringUtils.isNotBlank(dbSchema)) {
                 this.domain.dbSchema = dbSchema;
@@ -140,6 +155,12 @@ public class Domain implements Serializable {
 
     private String jdbcURL;
 
+    private String replicaJdbcURL;
+
+    private long replicaMaxLag = 5000L;
+
+    private String replicaLagQuery;
+
     private String dbSchema;
 
     private String dbUsername;
@@ -178,6 +199,18 @@ public class Domain implements Serializable {
         return jdbcURL;
     }
 
+    public String getReplicaJdbcURL() {
+        return replicaJdbcURL;
+    }
+
+    public long getReplicaMaxLag() {
+        return replicaMaxLag;
+    }
+
+    public String getReplicaLagQuery() {
+        return replicaLagQuery;
+    }
+
     public String getDbSchema() {
         return dbSchema;
     }
@@ -271,6 +304,9 @@ public class Domain implements Serializable {
                 append(key).
                 append(jdbcDriver).
                 append(jdbcURL).
+                append(replicaJdbcURL).
+                append(replicaMaxLag).
+                append(replicaLagQuery).
                 append(dbSchema).
                 append(dbUsername).
                 append(dbPassword).
@@ -303,6 +339,9 @@ public class Domain implements Serializable {
                 append(key, other.key).
                 append(jdbcDriver, other.jdbcDriver).
                 append(jdbcURL, other.jdbcURL).
+                append(replicaJdbcURL, other.replicaJdbcURL).
+                append(replicaMaxLag, other.replicaMaxLag).
+                append(replicaLagQuery, other.replicaLagQuery).
                 append(dbSchema, other.dbSchema).
                 append(dbUsername, other.dbUsername).
                 append(dbPassword, other.dbPassword).
@@ -325,6 +364,9 @@ public class Domain implements Serializable {
                 + "key=" + key
                 + ", jdbcDriver=" + jdbcDriver
                 + ", jdbcURL=" + jdbcURL
+                + ", replicaJdbcURL=" + replicaJdbcURL
+                + ", replicaMaxLag=" + replicaMaxLag
+                + ", replicaLagQuery=" + replicaLagQuery
                 + ", dbSchema=" + dbSchema
                 + ", dbUsername=" + dbUsername
                 + ", dbPassword=" + dbPassword
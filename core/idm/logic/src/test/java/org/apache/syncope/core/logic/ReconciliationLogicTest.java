@@ -36,6 +36,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.UserTO;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.common.rest.api.beans.CSVPullSpec;
 import org.apache.syncope.common.lib.to.ProvisioningReport;
@@ -89,7 +90,7 @@ public class ReconciliationLogicTest extends AbstractTest {
     @Test
     public void pushToCSV() throws IOException {
         Pair<Integer, List<UserTO>> search = AuthContextUtils.callAsAdmin(SyncopeConstants.MASTER_DOMAIN,
-                () -> userLogic.search(null, 1, 100, List.of(), SyncopeConstants.ROOT_REALM, false));
+                () -> userLogic.search(null, 1, 100, List.of(), SyncopeConstants.ROOT_REALM, false, CountMode.EXACT));
         assertNotNull(search);
 
         CSVPushSpec spec = new CSVPushSpec.Builder(AnyTypeKind.USER.name()).
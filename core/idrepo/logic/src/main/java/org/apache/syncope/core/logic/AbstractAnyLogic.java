@@ -18,11 +18,27 @@
  */
 package org.apache.syncope.core.logic;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Resource;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.lib.SyncopeClientException;
 import org.apache.syncope.common.lib.request.AnyCR;
 import org.apache.syncope.common.lib.request.AnyObjectCR;
@@ -32,10 +48,13 @@ import org.apache.syncope.common.lib.request.UserCR;
 import org.apache.syncope.common.lib.to.AnyTO;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.provisioning.java.utils.TemplateUtils;
 import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
@@ -43,17 +62,32 @@ import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.provisioning.api.LogicActions;
 import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.spring.ImplementationManager;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 public abstract class AbstractAnyLogic<TO extends AnyTO, C extends AnyCR, U extends AnyUR>
         extends AbstractResourceAssociator<TO> {
 
+    protected static final int STREAM_BATCH_SIZE = 100;
+
+    protected static final CsvMapper CSV_MAPPER = CsvMapper.builder().
+            disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+
     @Autowired
     protected UserDAO userDAO;
 
@@ -63,6 +97,12 @@ public abstract class AbstractAnyLogic<TO extends AnyTO, C extends AnyCR, U exte
     @Autowired
     protected AnyObjectDAO anyObjectDAO;
 
+    @Autowired
+    protected AnySearchDAO searchDAO;
+
+    @Resource(name = "searchCountExecutor")
+    protected AsyncTaskExecutor searchCountExecutor;
+
     @Autowired
     private RealmDAO realmDAO;
 
@@ -86,6 +126,137 @@ public abstract class AbstractAnyLogic<TO extends AnyTO, C extends AnyCR, U exte
         return actions;
     }
 
+    /**
+     * Fetches search results, along with their total count, computed according to the given mode.
+     *
+     * @param <R> search results type
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any object
+     * @param countMode how total count shall be computed
+     * @param fetch fetches search results
+     * @return total count, -1 for {@link CountMode#NONE}, and search results
+     */
+    protected <R> Pair<Integer, R> search(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final CountMode countMode,
+            final Supplier<R> fetch) {
+
+        switch (countMode) {
+            case NONE:
+                return Pair.of(-1, fetch.get());
+
+            case ESTIMATE:
+                return Pair.of(searchDAO.estimate(adminRealms, cond, kind), fetch.get());
+
+            case PARALLEL:
+                String domain = AuthContextUtils.getDomain();
+                TransactionTemplate txTemplate = new TransactionTemplate(BeanFactoryAnnotationUtils.qualifiedBeanOfType(
+                        ApplicationContextProvider.getBeanFactory(), PlatformTransactionManager.class, domain));
+                txTemplate.setReadOnly(true);
+
+                Future<Integer> count;
+                try {
+                    count = searchCountExecutor.submit(new DelegatingSecurityContextCallable<>(
+                            () -> txTemplate.execute(status -> searchDAO.count(adminRealms, cond, kind))));
+                } catch (TaskRejectedException e) {
+                    LOG.warn("Could not count search results in parallel, reverting to sequential", e);
+                    return search(adminRealms, cond, kind, CountMode.EXACT, fetch);
+                }
+
+                R result = fetch.get();
+                try {
+                    return Pair.of(count.get(), result);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while counting search results", e);
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause()
+                            : new IllegalStateException("While counting search results", e.getCause());
+                }
+
+            case EXACT:
+            default:
+                return Pair.of(searchDAO.count(adminRealms, cond, kind), fetch.get());
+        }
+    }
+
+    /**
+     * Writes all any objects matching the given condition onto the given output stream, in the requested format;
+     * matching any objects are read and bound one batch at a time, and each batch is flushed once written.
+     *
+     * @param <A> any
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param binder binds each matching any object
+     * @param name provides the name (or username) to report as CSV column
+     * @param format output format
+     * @param plainAttrs plain attributes to report as CSV columns
+     * @param jsonMapper mapper for JSON output
+     * @param os output stream
+     */
+    protected <A extends Any<?>> void stream(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind,
+            final Function<A, TO> binder,
+            final Function<TO, String> name,
+            final AnyExportFormat format,
+            final List<String> plainAttrs,
+            final ObjectMapper jsonMapper,
+            final OutputStream os) {
+
+        try {
+            SequenceWriter writer;
+            if (format == AnyExportFormat.CSV) {
+                CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true).
+                        addColumn("key").addColumn("name").addColumn("realm").addColumn("status");
+                plainAttrs.forEach(schema::addColumn);
+
+                writer = CSV_MAPPER.writerFor(Map.class).with(schema.build()).writeValues(os);
+            } else {
+                writer = jsonMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).
+                        withRootValueSeparator("\n").writeValues(os);
+            }
+
+            searchDAO.<A>stream(adminRealms, cond, orderBy, kind, STREAM_BATCH_SIZE, batch -> {
+                try {
+                    for (A any : batch) {
+                        TO anyTO = binder.apply(any);
+                        if (format == AnyExportFormat.CSV) {
+                            Map<String, String> row = new HashMap<>();
+                            row.put("key", anyTO.getKey());
+                            row.put("name", name.apply(anyTO));
+                            row.put("realm", anyTO.getRealm());
+                            row.put("status", anyTO.getStatus());
+                            plainAttrs.forEach(schema -> anyTO.getPlainAttr(schema).
+                                    ifPresent(attr -> row.put(schema, String.join(";", attr.getValues()))));
+                            writer.write(row);
+                        } else {
+                            writer.write(anyTO);
+                        }
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.close();
+        } catch (IOException | UncheckedIOException e) {
+            LOG.error("While streaming {} search results", kind, e);
+            SyncopeClientException sce = SyncopeClientException.build(ClientExceptionType.Unknown);
+            sce.getElements().add(e.getMessage());
+            throw sce;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected Pair<C, List<LogicActions>> beforeCreate(final C input) {
         Realm realm = realmDAO.findByFullPath(input.getRealm());
@@ -260,7 +431,25 @@ public abstract class AbstractAnyLogic<TO extends AnyTO, C extends AnyCR, U exte
             SearchCond searchCond,
             int page, int size, List<OrderByClause> orderBy,
             String realm,
-            boolean details);
+            boolean details,
+            CountMode countMode);
+
+    public abstract Triple<Integer, List<TO>, SearchAfter> search(
+            SearchCond searchCond,
+            SearchAfter after, int size, List<OrderByClause> orderBy,
+            String realm,
+            boolean details,
+            CountMode countMode);
+
+    public abstract void stream(
+            SearchCond searchCond,
+            List<OrderByClause> orderBy,
+            String realm,
+            boolean details,
+            AnyExportFormat format,
+            List<String> plainAttrs,
+            ObjectMapper jsonMapper,
+            OutputStream os);
 
     public abstract ProvisioningResult<TO> update(U updateReq, boolean nullPriorityAsync);
 
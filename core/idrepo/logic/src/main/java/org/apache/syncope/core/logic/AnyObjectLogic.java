@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.logic;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.HashSet;
@@ -27,6 +29,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.lib.SyncopeClientException;
 import org.apache.syncope.common.lib.request.AnyObjectCR;
 import org.apache.syncope.common.lib.request.AnyObjectUR;
@@ -35,11 +38,13 @@ import org.apache.syncope.common.lib.to.AnyObjectTO;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.types.AnyEntitlement;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.common.lib.types.PatchOperation;
-import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
@@ -59,9 +64,6 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectCR, AnyObjectUR> {
 
-    @Autowired
-    protected AnySearchDAO searchDAO;
-
     @Autowired
     protected AnyObjectDataBinder binder;
 
@@ -80,7 +82,8 @@ public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectCR, A
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final CountMode countMode) {
 
         if (searchCond.hasAnyTypeCond() == null) {
             throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
@@ -90,15 +93,65 @@ public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectCR, A
                 AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
                 realm);
 
-        int count = searchDAO.count(adminRealms, searchCond, AnyTypeKind.ANY_OBJECT);
+        Pair<Integer, List<AnyObject>> matching = search(adminRealms, searchCond, AnyTypeKind.ANY_OBJECT, countMode,
+                () -> searchDAO.search(adminRealms, searchCond, page, size, orderBy, AnyTypeKind.ANY_OBJECT));
+        List<AnyObjectTO> result = matching.getRight().stream().
+                map(anyObject -> binder.getAnyObjectTO(anyObject, details)).
+                collect(Collectors.toList());
+
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Triple<Integer, List<AnyObjectTO>, SearchAfter> search(
+            final SearchCond searchCond,
+            final SearchAfter after, final int size, final List<OrderByClause> orderBy,
+            final String realm,
+            final boolean details,
+            final CountMode countMode) {
+
+        if (searchCond.hasAnyTypeCond() == null) {
+            throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
+        }
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
+                realm);
 
-        List<AnyObject> matching = searchDAO.search(
-                adminRealms, searchCond, page, size, orderBy, AnyTypeKind.ANY_OBJECT);
-        List<AnyObjectTO> result = matching.stream().
+        Pair<Integer, Pair<List<AnyObject>, SearchAfter>> matching = search(
+                adminRealms, searchCond, AnyTypeKind.ANY_OBJECT, countMode,
+                () -> searchDAO.searchAfter(adminRealms, searchCond, after, size, orderBy, AnyTypeKind.ANY_OBJECT));
+        List<AnyObjectTO> result = matching.getRight().getLeft().stream().
                 map(anyObject -> binder.getAnyObjectTO(anyObject, details)).
                 collect(Collectors.toList());
 
-        return Pair.of(count, result);
+        return Triple.of(matching.getLeft(), result, matching.getRight().getRight());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void stream(
+            final SearchCond searchCond,
+            final List<OrderByClause> orderBy,
+            final String realm,
+            final boolean details,
+            final AnyExportFormat format,
+            final List<String> plainAttrs,
+            final ObjectMapper jsonMapper,
+            final OutputStream os) {
+
+        if (searchCond.hasAnyTypeCond() == null) {
+            throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
+        }
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
+                realm);
+
+        this.<AnyObject>stream(adminRealms, searchCond, orderBy, AnyTypeKind.ANY_OBJECT,
+                anyObject -> binder.getAnyObjectTO(anyObject, details), AnyObjectTO::getName,
+                format, plainAttrs, jsonMapper, os);
     }
 
     public ProvisioningResult<AnyObjectTO> create(final AnyObjectCR createReq, final boolean nullPriorityAsync) {
@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.logic;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Date;
@@ -30,6 +32,7 @@ import javax.annotation.Resource;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.keymaster.client.api.ConfParamOps;
 import org.apache.syncope.common.lib.SyncopeClientException;
 import org.apache.syncope.common.lib.request.GroupCR;
@@ -39,7 +42,9 @@ import org.apache.syncope.common.lib.to.ExecTO;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.common.lib.types.ProvisionAction;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.common.lib.types.IdRepoImplementationType;
@@ -47,11 +52,11 @@ import org.apache.syncope.common.lib.types.ImplementationEngine;
 import org.apache.syncope.common.lib.types.JobType;
 import org.apache.syncope.common.lib.types.PatchOperation;
 import org.apache.syncope.common.lib.types.IdRepoEntitlement;
-import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.ImplementationDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
@@ -85,9 +90,6 @@ public class GroupLogic extends AbstractAnyLogic<GroupTO, GroupCR, GroupUR> {
     @Resource(name = "adminUser")
     protected String adminUser;
 
-    @Autowired
-    protected AnySearchDAO searchDAO;
-
     @Autowired
     protected ImplementationDAO implementationDAO;
 
@@ -155,22 +157,69 @@ public class GroupLogic extends AbstractAnyLogic<GroupTO, GroupCR, GroupUR> {
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final CountMode countMode) {
 
         Set<String> adminRealms = RealmUtils.getEffective(
                 AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.GROUP_SEARCH), realm);
 
         SearchCond effectiveCond = searchCond == null ? groupDAO.getAllMatchingCond() : searchCond;
 
-        int count = searchDAO.count(adminRealms, effectiveCond, AnyTypeKind.GROUP);
+        Pair<Integer, List<Group>> matching = search(adminRealms, effectiveCond, AnyTypeKind.GROUP, countMode,
+                () -> searchDAO.search(adminRealms, effectiveCond, page, size, orderBy, AnyTypeKind.GROUP));
+        List<GroupTO> result = matching.getRight().stream().
+                map(group -> binder.getGroupTO(group, details)).
+                collect(Collectors.toList());
+
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @PreAuthorize("hasRole('" + IdRepoEntitlement.GROUP_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public Triple<Integer, List<GroupTO>, SearchAfter> search(
+            final SearchCond searchCond,
+            final SearchAfter after, final int size, final List<OrderByClause> orderBy,
+            final String realm,
+            final boolean details,
+            final CountMode countMode) {
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.GROUP_SEARCH), realm);
+
+        SearchCond effectiveCond = searchCond == null ? groupDAO.getAllMatchingCond() : searchCond;
 
-        List<Group> matching = searchDAO.search(
-                adminRealms, effectiveCond, page, size, orderBy, AnyTypeKind.GROUP);
-        List<GroupTO> result = matching.stream().
+        Pair<Integer, Pair<List<Group>, SearchAfter>> matching = search(
+                adminRealms, effectiveCond, AnyTypeKind.GROUP, countMode,
+                () -> searchDAO.searchAfter(adminRealms, effectiveCond, after, size, orderBy, AnyTypeKind.GROUP));
+        List<GroupTO> result = matching.getRight().getLeft().stream().
                 map(group -> binder.getGroupTO(group, details)).
                 collect(Collectors.toList());
 
-        return Pair.of(count, result);
+        return Triple.of(matching.getLeft(), result, matching.getRight().getRight());
+    }
+
+    @PreAuthorize("hasRole('" + IdRepoEntitlement.GROUP_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public void stream(
+            final SearchCond searchCond,
+            final List<OrderByClause> orderBy,
+            final String realm,
+            final boolean details,
+            final AnyExportFormat format,
+            final List<String> plainAttrs,
+            final ObjectMapper jsonMapper,
+            final OutputStream os) {
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.GROUP_SEARCH), realm);
+
+        SearchCond effectiveCond = searchCond == null ? groupDAO.getAllMatchingCond() : searchCond;
+
+        this.<Group>stream(adminRealms, effectiveCond, orderBy, AnyTypeKind.GROUP,
+                group -> binder.getGroupTO(group, details), GroupTO::getName,
+                format, plainAttrs, jsonMapper, os);
     }
 
     @PreAuthorize("hasRole('" + IdRepoEntitlement.GROUP_CREATE + "')")
@@ -27,6 +27,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @PropertySource("classpath:logic.properties")
 @PropertySource(value = "file:${conf.directory}/logic.properties", ignoreResourceNotFound = true)
@@ -52,6 +53,22 @@ public class LogicContext implements EnvironmentAware {
         return env.getProperty("buildNumber");
     }
 
+    /**
+     * Used by {@link AbstractAnyLogic} to count search results while fetching the requested page.
+     *
+     * @return executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor searchCountExecutor() {
+        ThreadPoolTaskExecutor searchCountExecutor = new ThreadPoolTaskExecutor();
+        searchCountExecutor.setCorePoolSize(env.getProperty("searchCountExecutor.corePoolSize", Integer.class));
+        searchCountExecutor.setMaxPoolSize(env.getProperty("searchCountExecutor.maxPoolSize", Integer.class));
+        searchCountExecutor.setQueueCapacity(env.getProperty("searchCountExecutor.queueCapacity", Integer.class));
+        searchCountExecutor.setThreadNamePrefix("SearchCount-");
+        searchCountExecutor.initialize();
+        return searchCountExecutor;
+    }
+
     @Bean
     public LogicInvocationHandler logicInvocationHandler()
             throws ClassNotFoundException, InstantiationException, IllegalAccessException, 
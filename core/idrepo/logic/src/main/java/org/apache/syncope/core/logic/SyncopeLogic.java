@@ -91,6 +91,10 @@ import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
 import org.apache.syncope.core.provisioning.api.data.GroupDataBinder;
 import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskExecutor;
+import org.apache.syncope.core.provisioning.java.audit.AsyncAuditWriter;
+import org.apache.syncope.core.provisioning.java.propagation.AbstractPropagationTaskExecutor;
+import org.apache.syncope.core.provisioning.java.propagation.ConnectorBulkheads;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.workflow.api.AnyObjectWorkflowAdapter;
 import org.apache.syncope.core.workflow.api.GroupWorkflowAdapter;
@@ -369,10 +373,51 @@ public class SyncopeLogic extends AbstractLogic<EntityTO> {
         }
     }
 
+    private static void refreshConnectorLoad() {
+        SYSTEM_INFO.getConnectorLoad().clear();
+
+        ApplicationContextProvider.getBeanFactory().getBeanProvider(ConnectorBulkheads.class).ifAvailable(bulkheads -> {
+            Map<String, Integer> inFlight = bulkheads.getInFlight();
+            Map<String, Integer> queueDepths = bulkheads.getQueueDepths();
+            Map<String, Long> rejected = bulkheads.getRejected();
+            bulkheads.getLimits().forEach((connector, limit) -> {
+                SystemInfo.ConnectorLoad load = new SystemInfo.ConnectorLoad();
+                load.setConnector(connector);
+                load.setLimit(limit);
+                load.setInFlight(inFlight.getOrDefault(connector, 0));
+                load.setQueueDepth(queueDepths.getOrDefault(connector, 0));
+                load.setRejected(rejected.getOrDefault(connector, 0L));
+                SYSTEM_INFO.getConnectorLoad().add(load);
+            });
+        });
+
+        ApplicationContextProvider.getBeanFactory().getBeanProvider(AbstractPropagationTaskExecutor.class).
+                ifAvailable(executor -> SYSTEM_INFO.setAvoidedRemoteReads(executor.getAvoidedRemoteReads()));
+    }
+
+    private static void refreshAuditLoad() {
+        SYSTEM_INFO.setAuditLoad(null);
+
+        ApplicationContextProvider.getBeanFactory().getBeanProvider(AsyncAuditWriter.class).ifAvailable(writer -> {
+            SystemInfo.AuditLoad load = new SystemInfo.AuditLoad();
+            load.setQueueDepth(writer.getQueueDepth());
+            load.setCapacity(writer.getCapacity());
+            load.setWritten(writer.getWritten());
+            load.setDropped(writer.getDropped());
+            load.setFailed(writer.getFailed());
+            load.setFlushes(writer.getFlushes());
+            load.setLastFlushTime(writer.getLastFlushTime());
+            load.setTotalFlushTime(writer.getTotalFlushTime());
+            SYSTEM_INFO.setAuditLoad(load);
+        });
+    }
+
     @PreAuthorize("isAuthenticated()")
     public static SystemInfo system() {
         synchronized (MONITOR) {
             initSystemInfo();
+            refreshConnectorLoad();
+            refreshAuditLoad();
         }
 
         return SYSTEM_INFO;
@@ -243,7 +243,7 @@ public class TaskLogic extends AbstractExecutableLogic<TaskTO> {
                 taskInfo.setOperation(taskTO.getOperation());
                 taskInfo.setConnObjectKey(taskTO.getConnObjectKey());
                 taskInfo.setOldConnObjectKey(taskTO.getOldConnObjectKey());
-                taskInfo.setAttributes(taskTO.getAttributes());
+                taskInfo.setAttributes(((PropagationTask) task).getSerializedAttributes());
                 taskInfo.setObjectClassName(taskTO.getObjectClassName());
                 taskInfo.setAnyTypeKind(taskTO.getAnyTypeKind());
                 taskInfo.setAnyType(taskTO.getAnyType());
@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.logic;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,6 +30,7 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.keymaster.client.api.ConfParamOps;
 import org.apache.syncope.common.lib.SyncopeClientException;
 import org.apache.syncope.common.lib.request.BooleanReplacePatchItem;
@@ -39,14 +42,16 @@ import org.apache.syncope.common.lib.request.UserUR;
 import org.apache.syncope.common.lib.to.PropagationStatus;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.common.lib.types.PatchOperation;
 import org.apache.syncope.common.lib.types.IdRepoEntitlement;
 import org.apache.syncope.core.persistence.api.dao.AccessTokenDAO;
-import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.user.User;
@@ -68,9 +73,6 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 public class UserLogic extends AbstractAnyLogic<UserTO, UserCR, UserUR> {
 
-    @Autowired
-    protected AnySearchDAO searchDAO;
-
     @Autowired
     protected AccessTokenDAO accessTokenDAO;
 
@@ -108,21 +110,69 @@ public class UserLogic extends AbstractAnyLogic<UserTO, UserCR, UserUR> {
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final CountMode countMode) {
 
         Set<String> adminRealms = RealmUtils.getEffective(
                 AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.USER_SEARCH), realm);
 
         SearchCond effectiveCond = searchCond == null ? userDAO.getAllMatchingCond() : searchCond;
 
-        int count = searchDAO.count(adminRealms, effectiveCond, AnyTypeKind.USER);
+        Pair<Integer, List<User>> matching = search(adminRealms, effectiveCond, AnyTypeKind.USER, countMode,
+                () -> searchDAO.search(adminRealms, effectiveCond, page, size, orderBy, AnyTypeKind.USER));
+        List<UserTO> result = matching.getRight().stream().
+                map(user -> binder.returnUserTO(binder.getUserTO(user, details))).
+                collect(Collectors.toList());
+
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @PreAuthorize("hasRole('" + IdRepoEntitlement.USER_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public Triple<Integer, List<UserTO>, SearchAfter> search(
+            final SearchCond searchCond,
+            final SearchAfter after, final int size, final List<OrderByClause> orderBy,
+            final String realm,
+            final boolean details,
+            final CountMode countMode) {
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.USER_SEARCH), realm);
+
+        SearchCond effectiveCond = searchCond == null ? userDAO.getAllMatchingCond() : searchCond;
 
-        List<User> matching = searchDAO.search(adminRealms, effectiveCond, page, size, orderBy, AnyTypeKind.USER);
-        List<UserTO> result = matching.stream().
+        Pair<Integer, Pair<List<User>, SearchAfter>> matching = search(
+                adminRealms, effectiveCond, AnyTypeKind.USER, countMode,
+                () -> searchDAO.searchAfter(adminRealms, effectiveCond, after, size, orderBy, AnyTypeKind.USER));
+        List<UserTO> result = matching.getRight().getLeft().stream().
                 map(user -> binder.returnUserTO(binder.getUserTO(user, details))).
                 collect(Collectors.toList());
 
-        return Pair.of(count, result);
+        return Triple.of(matching.getLeft(), result, matching.getRight().getRight());
+    }
+
+    @PreAuthorize("hasRole('" + IdRepoEntitlement.USER_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public void stream(
+            final SearchCond searchCond,
+            final List<OrderByClause> orderBy,
+            final String realm,
+            final boolean details,
+            final AnyExportFormat format,
+            final List<String> plainAttrs,
+            final ObjectMapper jsonMapper,
+            final OutputStream os) {
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.USER_SEARCH), realm);
+
+        SearchCond effectiveCond = searchCond == null ? userDAO.getAllMatchingCond() : searchCond;
+
+        this.<User>stream(adminRealms, effectiveCond, orderBy, AnyTypeKind.USER,
+                user -> binder.returnUserTO(binder.getUserTO(user, details)), UserTO::getUsername,
+                format, plainAttrs, jsonMapper, os);
     }
 
     @PreAuthorize("isAnonymous() or hasRole('" + IdRepoEntitlement.ANONYMOUS + "')")
@@ -65,10 +65,16 @@ public class LoggerLoader implements SyncopeCoreLoader {
         return 300;
     }
 
+    private static ColumnMapping mdcColumnMapping(final LoggerContext ctx, final String column) {
+        return ColumnMapping.newBuilder().
+                setConfiguration(ctx.getConfiguration()).setName(column).setPattern("%X{" + column + "}").build();
+    }
+
     private static ColumnMapping[] buildColumnMappings(final LoggerContext ctx) {
         return new ColumnMapping[] {
             ColumnMapping.newBuilder().
-            setConfiguration(ctx.getConfiguration()).setName("EVENT_DATE").setType(Timestamp.class).build(),
+            setConfiguration(ctx.getConfiguration()).setName(AuditDAO.EVENT_DATE_COLUMN).setType(Timestamp.class).
+            build(),
             ColumnMapping.newBuilder().
             setConfiguration(ctx.getConfiguration()).setName("LOGGER_LEVEL").setPattern("%level").build(),
             ColumnMapping.newBuilder().
@@ -76,7 +82,14 @@ public class LoggerLoader implements SyncopeCoreLoader {
             ColumnMapping.newBuilder().
             setConfiguration(ctx.getConfiguration()).setName(AuditDAO.MESSAGE_COLUMN).setPattern("%message").build(),
             ColumnMapping.newBuilder().
-            setConfiguration(ctx.getConfiguration()).setName("THROWABLE").setPattern("%ex{full}").build()
+            setConfiguration(ctx.getConfiguration()).setName("THROWABLE").setPattern("%ex{full}").build(),
+            mdcColumnMapping(ctx, AuditDAO.WHO_COLUMN),
+            mdcColumnMapping(ctx, AuditDAO.ENTITY_KEY_COLUMN),
+            mdcColumnMapping(ctx, AuditDAO.EVENT_TYPE_COLUMN),
+            mdcColumnMapping(ctx, AuditDAO.EVENT_CATEGORY_COLUMN),
+            mdcColumnMapping(ctx, AuditDAO.EVENT_SUBCATEGORY_COLUMN),
+            mdcColumnMapping(ctx, AuditDAO.EVENT_NAME_COLUMN),
+            mdcColumnMapping(ctx, AuditDAO.EVENT_RESULT_COLUMN)
         };
     }
 
@@ -25,6 +25,7 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import javax.annotation.Resource;
@@ -46,6 +47,7 @@ import org.apache.cxf.validation.BeanValidationProvider;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.search.SyncopeFiqlParser;
 import org.apache.syncope.common.rest.api.DateParamConverterProvider;
+import org.apache.syncope.core.spring.VirtualThreadTaskExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.servlet.ServletListenerRegistrationBean;
 import org.springframework.context.ApplicationContext;
@@ -53,6 +55,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @ComponentScan("org.apache.syncope.core.rest.cxf.service")
@@ -60,22 +63,38 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 @Configuration
 public class RESTCXFContext {
 
+    private static final int BATCH_CONCURRENCY = 10;
+
     @Autowired
     private Bus bus;
 
     @Autowired
     private ApplicationContext ctx;
 
+    @Autowired
+    private Environment env;
+
     @Resource(name = "version")
     private String version;
 
+    /**
+     * Runs asynchronous batch requests, at most {@link #BATCH_CONCURRENCY} at a time - also with virtual threads.
+     *
+     * @return executor
+     */
     @Bean
     public Executor batchExecutor() {
-        ThreadPoolTaskExecutor batchExecutor = new ThreadPoolTaskExecutor();
-        batchExecutor.setCorePoolSize(10);
-        batchExecutor.setThreadNamePrefix("Batch-");
-        batchExecutor.initialize();
-        return batchExecutor;
+        Optional<VirtualThreadTaskExecutor> virtualThreads = env.getProperty(
+                "virtualThreads.enabled", Boolean.class, false)
+                ? VirtualThreadTaskExecutor.of("Batch-", BATCH_CONCURRENCY)
+                : Optional.empty();
+        return virtualThreads.map(Executor.class::cast).orElseGet(() -> {
+            ThreadPoolTaskExecutor batchExecutor = new ThreadPoolTaskExecutor();
+            batchExecutor.setCorePoolSize(BATCH_CONCURRENCY);
+            batchExecutor.setThreadNamePrefix("Batch-");
+            batchExecutor.initialize();
+            return batchExecutor;
+        });
     }
 
     @Bean
@@ -18,15 +18,21 @@
  */
 package org.apache.syncope.core.rest.cxf.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.request.AnyCR;
 import org.apache.syncope.common.lib.request.AnyUR;
@@ -38,6 +44,8 @@ import org.apache.syncope.common.lib.to.AnyTO;
 import org.apache.syncope.common.lib.Attr;
 import org.apache.syncope.common.lib.to.PagedResult;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.common.lib.types.PatchOperation;
 import org.apache.syncope.common.lib.types.ResourceAssociationAction;
 import org.apache.syncope.common.lib.types.ResourceDeassociationAction;
@@ -51,14 +59,20 @@ import org.apache.syncope.common.rest.api.service.AnyService;
 import org.apache.syncope.core.logic.AbstractAnyLogic;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.NotFoundException;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.spring.security.SecureRandomUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 public abstract class AbstractAnyService<TO extends AnyTO, CR extends AnyCR, UR extends AnyUR>
         extends AbstractServiceImpl
         implements AnyService<TO> {
 
+    @Autowired
+    protected JacksonJaxbJsonProvider jsonProvider;
+
     protected abstract AnyDAO<?> getAnyDAO();
 
     protected abstract AbstractAnyLogic<TO, CR, UR> getAnyLogic();
@@ -129,15 +143,67 @@ public abstract class AbstractAnyService<TO extends AnyTO, CR extends AnyCR, UR
                 ? null
                 : getSearchCond(anyQuery.getFiql(), realm);
 
+        // counted in parallel, the total is still exact
+        CountMode totalCountMode = anyQuery.getCount() == CountMode.PARALLEL ? CountMode.EXACT : anyQuery.getCount();
+
+        if (anyQuery.getAfter() != null) {
+            Triple<Integer, List<TO>, SearchAfter> result = getAnyLogic().search(
+                    searchCond,
+                    getSearchAfter(anyQuery.getAfter()),
+                    anyQuery.getSize(),
+                    getOrderByClauses(anyQuery.getOrderBy()),
+                    isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
+                    anyQuery.getDetails(),
+                    anyQuery.getCount());
+
+            return buildPagedResult(
+                    result.getMiddle(), result.getRight(), anyQuery.getSize(), result.getLeft(), totalCountMode);
+        }
+
         Pair<Integer, List<TO>> result = getAnyLogic().search(
                 searchCond,
                 anyQuery.getPage(),
                 anyQuery.getSize(),
                 getOrderByClauses(anyQuery.getOrderBy()),
                 isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
-                anyQuery.getDetails());
+                anyQuery.getDetails(),
+                anyQuery.getCount());
+
+        return buildPagedResult(
+                result.getRight(), anyQuery.getPage(), anyQuery.getSize(), result.getLeft(), totalCountMode);
+    }
+
+    @Override
+    public Response stream(final AnyQuery anyQuery, final AnyExportFormat format, final List<String> plainAttrs) {
+        String realm = StringUtils.prependIfMissing(anyQuery.getRealm(), SyncopeConstants.ROOT_REALM);
+
+        // if an assignable query is provided in the FIQL string, start anyway from root realm
+        boolean isAssignableCond = StringUtils.isBlank(anyQuery.getFiql())
+                ? false
+                : -1 != anyQuery.getFiql().indexOf(SpecialAttr.ASSIGNABLE.toString());
+
+        SearchCond searchCond = StringUtils.isBlank(anyQuery.getFiql())
+                ? null
+                : getSearchCond(anyQuery.getFiql(), realm);
 
-        return buildPagedResult(result.getRight(), anyQuery.getPage(), anyQuery.getSize(), result.getLeft());
+        ObjectMapper jsonMapper = jsonProvider.locateMapper(Object.class, MediaType.APPLICATION_JSON_TYPE);
+
+        StreamingOutput sout = (os) -> getAnyLogic().stream(
+                searchCond,
+                getOrderByClauses(anyQuery.getOrderBy()),
+                isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
+                anyQuery.getDetails(),
+                format,
+                Optional.ofNullable(plainAttrs).orElse(List.of()),
+                jsonMapper,
+                os);
+
+        return Response.ok(sout).
+                type(format == AnyExportFormat.CSV ? RESTHeaders.TEXT_CSV : RESTHeaders.APPLICATION_NDJSON).
+                header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + AuthContextUtils.getDomain()
+                        + (format == AnyExportFormat.CSV ? ".csv" : ".ndjson")).
+                build();
     }
 
     protected Date findLastChange(final String key) {
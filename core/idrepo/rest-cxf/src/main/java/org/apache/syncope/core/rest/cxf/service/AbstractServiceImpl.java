@@ -39,12 +39,14 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.PagedResult;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.common.rest.api.service.JAXRSService;
 import org.apache.syncope.common.rest.api.Preference;
 import org.apache.syncope.common.rest.api.RESTHeaders;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -180,6 +182,22 @@ abstract class AbstractServiceImpl implements JAXRSService {
         }
     }
 
+    protected SearchAfter getSearchAfter(final String after) {
+        if (StringUtils.isBlank(after)) {
+            return null;
+        }
+
+        try {
+            return SearchAfter.decode(after);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Invalid search token: {}", after, e);
+
+            SyncopeClientException sce = SyncopeClientException.build(ClientExceptionType.InvalidSearchExpression);
+            sce.getElements().add(after);
+            throw sce;
+        }
+    }
+
     protected List<OrderByClause> getOrderByClauses(final String orderBy) {
         if (StringUtils.isBlank(orderBy)) {
             return List.of();
@@ -217,12 +235,32 @@ abstract class AbstractServiceImpl implements JAXRSService {
     protected <T extends BaseBean> PagedResult<T> buildPagedResult(
             final List<T> list, final int page, final int size, final int totalCount) {
 
+        return buildPagedResult(list, page, size, totalCount, CountMode.EXACT);
+    }
+
+    /**
+     * Builds a paged result out of a list of items and additional information; when total count is not exact, the
+     * next link is provided as long as the current page is full.
+     *
+     * @param <T> result item type
+     * @param list bare list of items to be returned
+     * @param page current page
+     * @param size requested size
+     * @param totalCount total result size (not considering pagination)
+     * @param totalCountMode how total count was computed
+     * @return paged result
+     */
+    protected <T extends BaseBean> PagedResult<T> buildPagedResult(
+            final List<T> list, final int page, final int size, final int totalCount,
+            final CountMode totalCountMode) {
+
         PagedResult<T> result = new PagedResult<>();
         result.getResult().addAll(list);
 
         result.setPage(page);
         result.setSize(result.getResult().size());
         result.setTotalCount(totalCount);
+        result.setTotalCountMode(totalCountMode);
 
         UriBuilder builder = uriInfo.getAbsolutePathBuilder();
         MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
@@ -234,7 +272,9 @@ abstract class AbstractServiceImpl implements JAXRSService {
                     replaceQueryParam(PARAM_SIZE, size).
                     build());
         }
-        if ((result.getPage() - 1) * size + result.getSize() < totalCount) {
+        if (totalCountMode == CountMode.EXACT
+                ? (result.getPage() - 1) * size + result.getSize() < totalCount
+                : result.getSize() == size) {
             result.setNext(builder.
                     replaceQueryParam(PARAM_PAGE, result.getPage() + 1).
                     replaceQueryParam(PARAM_SIZE, size).
@@ -244,4 +284,44 @@ abstract class AbstractServiceImpl implements JAXRSService {
         return result;
     }
 
+    /**
+     * Builds a paged result for searches paginated by position: no previous link is provided, as such pagination
+     * only moves forward.
+     *
+     * @param <T> result item type
+     * @param list result items
+     * @param after position of the last result item, if any
+     * @param size requested page size
+     * @param totalCount total number of matching items
+     * @param totalCountMode how total count was computed
+     * @return paged result
+     */
+    protected <T extends BaseBean> PagedResult<T> buildPagedResult(
+            final List<T> list, final SearchAfter after, final int size, final int totalCount,
+            final CountMode totalCountMode) {
+
+        PagedResult<T> result = new PagedResult<>();
+        result.getResult().addAll(list);
+
+        result.setPage(1);
+        result.setSize(result.getResult().size());
+        result.setTotalCount(totalCount);
+        result.setTotalCountMode(totalCountMode);
+
+        if (after != null && result.getSize() == size) {
+            result.setAfter(after.encode());
+
+            UriBuilder builder = uriInfo.getAbsolutePathBuilder();
+            MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+            queryParams.forEach((key, value) -> builder.queryParam(key, value.toArray()));
+
+            result.setNext(builder.
+                    replaceQueryParam(PARAM_PAGE).
+                    replaceQueryParam(PARAM_AFTER, result.getAfter()).
+                    replaceQueryParam(PARAM_SIZE, size).
+                    build());
+        }
+
+        return result;
+    }
 }
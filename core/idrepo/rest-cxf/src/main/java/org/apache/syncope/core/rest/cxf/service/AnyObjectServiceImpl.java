@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.rest.cxf.service;
 
+import java.util.List;
 import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.SyncopeClientException;
@@ -27,6 +28,7 @@ import org.apache.syncope.common.lib.search.SpecialAttr;
 import org.apache.syncope.common.lib.to.AnyObjectTO;
 import org.apache.syncope.common.lib.to.PagedResult;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.common.rest.api.beans.AnyQuery;
 import org.apache.syncope.common.rest.api.service.AnyObjectService;
@@ -73,8 +75,7 @@ public class AnyObjectServiceImpl extends AbstractAnyService<AnyObjectTO, AnyObj
         return doUpdate(updateReq);
     }
 
-    @Override
-    public PagedResult<AnyObjectTO> search(final AnyQuery anyQuery) {
+    private static void checkType(final AnyQuery anyQuery) {
         if (StringUtils.isBlank(anyQuery.getFiql())
                 || -1 == anyQuery.getFiql().indexOf(SpecialAttr.TYPE.toString())) {
 
@@ -82,7 +83,19 @@ public class AnyObjectServiceImpl extends AbstractAnyService<AnyObjectTO, AnyObj
             sce.getElements().add(SpecialAttr.TYPE.toString() + " is required in the FIQL string");
             throw sce;
         }
+    }
+
+    @Override
+    public PagedResult<AnyObjectTO> search(final AnyQuery anyQuery) {
+        checkType(anyQuery);
 
         return super.search(anyQuery);
     }
+
+    @Override
+    public Response stream(final AnyQuery anyQuery, final AnyExportFormat format, final List<String> plainAttrs) {
+        checkType(anyQuery);
+
+        return super.stream(anyQuery, format, plainAttrs);
+    }
 }
@@ -52,13 +52,13 @@ import org.apache.syncope.common.rest.api.service.SyncopeService;
 import org.apache.syncope.core.logic.SyncopeLogic;
 import org.apache.syncope.core.rest.cxf.batch.BatchProcess;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 import org.apache.syncope.core.persistence.api.dao.BatchDAO;
 import org.apache.syncope.core.persistence.api.entity.Batch;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 @Service
@@ -67,7 +67,7 @@ public class SyncopeServiceImpl extends AbstractServiceImpl implements SyncopeSe
     private static final String CONTENT_XML = "Content.xml";
 
     @Resource(name = "batchExecutor")
-    private ThreadPoolTaskExecutor batchExecutor;
+    private TaskExecutor batchExecutor;
 
     @Autowired
     private SyncopeLogic logic;
@@ -55,6 +55,7 @@ public interface AnyDAO<A extends Any<?>> extends DAO<A> {
      * into the derived attribute value provided derive from identifier (schema key) replacement. When you are going to
      * specify a derived attribute expression you must be quite sure that string literals used to build the expression
      * cannot be found into the attribute values used to replace attribute schema keys used as identifiers.
+     * Such limitation does not apply to indexed derived schemas, whose values are looked up as stored.
      *
      * @param schema derived schema
      * @param value derived attribute value
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.function.Predicate;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 
@@ -32,4 +33,21 @@ public interface AnyMatchDAO extends DAO<Any<?>> {
      * @return true if any matches cond
      */
     <T extends Any<?>> boolean matches(T any, SearchCond cond);
+
+    /**
+     * Returns a predicate verifying if the given any matches search conditions: information about the any which
+     * requires DB access is loaded at most once, hence this is meant to check the same any against several
+     * conditions, within the current transaction and as long as such information is not changed.
+     *
+     * @param any to be checked
+     * @param <T> any
+     * @return predicate verifying if any matches the given search condition
+     */
+    <T extends Any<?>> Predicate<SearchCond> matcher(T any);
+
+    /**
+     * Discards the search conditions compiled so far, as needed when any of the information they depend on - as
+     * plain schemas - is changed.
+     */
+    void clearCompiled();
 }
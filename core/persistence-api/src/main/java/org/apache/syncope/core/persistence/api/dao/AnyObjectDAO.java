@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.Relationship;
@@ -57,5 +58,5 @@ public interface AnyObjectDAO extends AnyDAO<AnyObject> {
 
     Collection<ExternalResource> findAllResources(AnyObject anyObject);
 
-    Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(AnyObject anyObject);
+    Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(AnyObject anyObject, SearchCondRefs changed);
 }
@@ -20,8 +20,11 @@ package org.apache.syncope.core.persistence.api.dao;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 
@@ -35,6 +38,17 @@ public interface AnySearchDAO extends DAO<Any<?>> {
      */
     int count(Set<String> adminRealms, SearchCond searchCondition, AnyTypeKind kind);
 
+    /**
+     * Cheaper alternative to {@link #count(Set, SearchCond, AnyTypeKind)}, relying on database statistics where
+     * available, hence not always accurate; when no statistics can be used, the exact count is returned.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param kind any object
+     * @return estimated size of search result
+     */
+    int estimate(Set<String> adminRealms, SearchCond searchCondition, AnyTypeKind kind);
+
     /**
      * @param searchCondition the search condition
      * @param kind any object
@@ -65,4 +79,40 @@ public interface AnySearchDAO extends DAO<Any<?>> {
     <T extends Any<?>> List<T> search(
             Set<String> adminRealms, SearchCond searchCondition, int page, int itemsPerPage,
             List<OrderByClause> orderBy, AnyTypeKind kind);
+
+    /**
+     * Keyset pagination: rather than skipping a number of rows, results are taken right after the position of the
+     * last item returned by the previous invocation, according to the given ordering clauses, with any object key
+     * as tie-breaker; cost per page does not grow with the number of pages already read.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param after position of the last item in the previous page, null for the first page
+     * @param itemsPerPage number of results per page
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param <T> any
+     * @return the list of any objects matching the given search condition (in the requested page), and the position
+     * of the last of them, to be used for requesting the next page; null if no results were found
+     */
+    <T extends Any<?>> Pair<List<T>, SearchAfter> searchAfter(
+            Set<String> adminRealms, SearchCond searchCondition, SearchAfter after, int itemsPerPage,
+            List<OrderByClause> orderBy, AnyTypeKind kind);
+
+    /**
+     * Reads all any objects matching the given search condition with a single forward-only query, handing them over
+     * in batches as rows are fetched; memory usage does not grow with the number of matching any objects, as
+     * batches are released after being consumed.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param batchSize maximum number of any objects per batch
+     * @param consumer invoked for each batch of matching any objects
+     * @param <T> any
+     */
+    <T extends Any<?>> void stream(
+            Set<String> adminRealms, SearchCond searchCondition, List<OrderByClause> orderBy, AnyTypeKind kind,
+            int batchSize, Consumer<List<T>> consumer);
 }
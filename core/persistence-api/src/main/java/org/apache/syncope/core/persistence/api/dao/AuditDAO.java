@@ -28,8 +28,24 @@ public interface AuditDAO {
 
     String TABLE = "SYNCOPEAUDIT";
 
+    String EVENT_DATE_COLUMN = "EVENT_DATE";
+
     String MESSAGE_COLUMN = "MESSAGE";
 
+    String WHO_COLUMN = "WHO";
+
+    String ENTITY_KEY_COLUMN = "ENTITY_KEY";
+
+    String EVENT_TYPE_COLUMN = "EVENT_TYPE";
+
+    String EVENT_CATEGORY_COLUMN = "EVENT_CATEGORY";
+
+    String EVENT_SUBCATEGORY_COLUMN = "EVENT_SUBCATEGORY";
+
+    String EVENT_NAME_COLUMN = "EVENT_NAME";
+
+    String EVENT_RESULT_COLUMN = "EVENT_RESULT";
+
     List<AuditEntry> findByEntityKey(
             String entityKey,
             int page,
@@ -18,8 +18,42 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.List;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 
 public interface DerSchemaDAO extends SchemaDAO<DerSchema> {
 
+    /**
+     * Computes and stores the values of the indexed derived schemas available to the given any object, replacing
+     * any value previously stored.
+     *
+     * @param any any object
+     */
+    void refreshIndexedValues(Any<?> any);
+
+    /**
+     * Removes all indexed derived values stored for the given any object.
+     *
+     * @param anyKey any object key
+     */
+    void removeIndexedValues(String anyKey);
+
+    /**
+     * Rebuilds the indexed values for the given derived schema, for all any objects it is available to; stored values
+     * are just removed if the schema is not indexed.
+     *
+     * @param schema derived schema
+     */
+    void reindex(DerSchema schema);
+
+    /**
+     * Finds the keys of the any objects whose indexed value for the given derived schema matches.
+     *
+     * @param schema indexed derived schema
+     * @param value derived attribute value
+     * @param ignoreCaseMatch whether comparison for string values should take case into account or not
+     * @return keys of any objects
+     */
+    List<String> findByIndexedValue(DerSchema schema, String value, boolean ignoreCaseMatch);
 }
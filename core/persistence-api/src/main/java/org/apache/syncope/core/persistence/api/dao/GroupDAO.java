@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AMembership;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
@@ -63,12 +64,14 @@ public interface GroupDAO extends AnyDAO<Group> {
     void clearADynMembers(Group group);
 
     /**
-     * Evaluates all the dynamic group membership conditions against the given anyObject (invoked during save).
+     * Evaluates the dynamic group membership conditions referencing what was changed against the given anyObject
+     * (invoked during save).
      *
      * @param anyObject anyObject being saved
+     * @param changed what was changed on the given anyObject, {@link SearchCondRefs#ALL} if unknown
      * @return pair of groups dynamically assigned before and after refresh
      */
-    Pair<Set<String>, Set<String>> refreshDynMemberships(AnyObject anyObject);
+    Pair<Set<String>, Set<String>> refreshDynMemberships(AnyObject anyObject, SearchCondRefs changed);
 
     /**
      * Removes the dynamic group memberships of the given anyObject (invoked during delete).
@@ -83,12 +86,14 @@ public interface GroupDAO extends AnyDAO<Group> {
     void clearUDynMembers(Group group);
 
     /**
-     * Evaluates all the dynamic group membership conditions against the given user (invoked during save).
+     * Evaluates the dynamic group membership conditions referencing what was changed against the given user
+     * (invoked during save).
      *
      * @param user user being saved
+     * @param changed what was changed on the given user, {@link SearchCondRefs#ALL} if unknown
      * @return pair of groups dynamically assigned before and after refresh
      */
-    Pair<Set<String>, Set<String>> refreshDynMemberships(User user);
+    Pair<Set<String>, Set<String>> refreshDynMemberships(User user, SearchCondRefs changed);
 
     /**
      * Removes the dynamic group memberships of the given anyObject (invoked during delete).
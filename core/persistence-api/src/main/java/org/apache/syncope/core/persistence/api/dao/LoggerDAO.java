@@ -28,6 +28,15 @@ public interface LoggerDAO extends DAO<Logger> {
 
     List<Logger> findAll(LoggerType type);
 
+    /**
+     * Tells whether the audit logger with the given key is enabled, by looking up an in-memory snapshot which is
+     * updated upon changes, either local or performed by other Core instances.
+     *
+     * @param key audit logger key
+     * @return whether the audit logger with the given key is set to DEBUG
+     */
+    boolean isAuditEnabled(String key);
+
     Logger save(Logger logger);
 
     void delete(String key);
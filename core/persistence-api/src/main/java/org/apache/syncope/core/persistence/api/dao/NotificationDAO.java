@@ -33,6 +33,15 @@ public interface NotificationDAO extends DAO<Notification> {
 
     List<Notification> findAll();
 
+    /**
+     * Returns the keys of active notifications listening to the given event, from a registry kept in memory and
+     * refreshed as notifications are created, updated or removed.
+     *
+     * @param event event, as built by {@code AuditLoggerName#buildEvent}
+     * @return keys of active notifications listening to the given event
+     */
+    List<String> findActiveByEvent(String event);
+
     Notification save(Notification notification);
 
     void delete(String key);
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao;
+
+import java.util.Date;
+import java.util.List;
+import org.apache.syncope.core.persistence.api.entity.OutboxEvent;
+
+public interface OutboxEventDAO extends DAO<OutboxEvent> {
+
+    OutboxEvent find(String key);
+
+    /**
+     * Finds the events created before the given date, which are expected to be left over by Core instances that
+     * stopped before handling them; events already claimed {@code maxAttempts} times are parked, hence not found.
+     *
+     * @param before creation date threshold
+     * @param maxAttempts maximum number of handling attempts
+     * @param max maximum number of results
+     * @return keys of the matching events, oldest first
+     */
+    List<String> findStale(Date before, int maxAttempts, int max);
+
+    /**
+     * Takes ownership of the given stale event, by moving its creation date forward and counting one more attempt;
+     * only one Core instance can succeed on the same event.
+     *
+     * @param key event key
+     * @param before creation date threshold, as used for {@link #findStale(java.util.Date, int, int)}
+     * @return whether ownership was taken
+     */
+    boolean claim(String key, Date before);
+
+    OutboxEvent save(OutboxEvent event);
+
+    void delete(String key);
+}
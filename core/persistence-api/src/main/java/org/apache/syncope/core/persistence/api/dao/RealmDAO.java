@@ -51,6 +51,22 @@ public interface RealmDAO extends DAO<Realm> {
 
     List<Realm> findDescendants(Realm realm);
 
+    /**
+     * Finds the keys of the realm with the given full path and of all its descendants.
+     *
+     * @param fullPath realm full path
+     * @return keys of the realm and of its descendants, empty if no realm exists for the given full path
+     */
+    List<String> findDescendantKeys(String fullPath);
+
+    /**
+     * Finds the full paths of the realm with the given full path and of all its descendants.
+     *
+     * @param fullPath realm full path
+     * @return full paths of the realm and of its descendants, empty if no realm exists for the given full path
+     */
+    List<String> findDescendantFullPaths(String fullPath);
+
     List<Realm> findAll();
 
     Realm save(Realm realm);
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.Date;
 import java.util.List;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.TaskType;
@@ -25,6 +26,7 @@ import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.entity.Notification;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
 import org.apache.syncope.core.persistence.api.entity.task.PullTask;
 import org.apache.syncope.core.persistence.api.entity.task.PushTask;
 import org.apache.syncope.core.persistence.api.entity.task.SchedTask;
@@ -48,6 +50,8 @@ public interface TaskDAO extends DAO<Task> {
 
     <T extends Task> List<T> findAll(TaskType type);
 
+    List<PropagationTask> findByLatestExec(String status, String messagePrefix, int max);
+
     <T extends Task> List<T> findAll(
             TaskType type,
             ExternalResource resource,
@@ -73,4 +77,6 @@ public interface TaskDAO extends DAO<Task> {
 
     void deleteAll(ExternalResource resource, TaskType type);
 
+    int purgePropagations(ExternalResource resource, Date endedBefore, int max);
+
 }
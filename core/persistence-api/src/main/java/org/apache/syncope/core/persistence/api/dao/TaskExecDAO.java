@@ -20,7 +20,9 @@ package org.apache.syncope.core.persistence.api.dao;
 
 import java.util.Date;
 import java.util.List;
+import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.task.Task;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 
@@ -48,4 +50,6 @@ public interface TaskExecDAO extends DAO<TaskExec> {
     void delete(String key);
 
     void delete(TaskExec execution);
+
+    int purge(TaskType type, ExternalResource resource, Date endedBefore, int max);
 }
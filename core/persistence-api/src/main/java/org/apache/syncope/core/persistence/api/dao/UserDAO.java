@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.Privilege;
 import org.apache.syncope.core.persistence.api.entity.Role;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
@@ -73,5 +74,5 @@ public interface UserDAO extends AnyDAO<User> {
 
     Pair<Boolean, Boolean> enforcePolicies(User user);
 
-    Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(User user);
+    Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(User user, SearchCondRefs changed);
 }
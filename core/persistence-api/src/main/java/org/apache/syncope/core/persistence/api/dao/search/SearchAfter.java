@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao.search;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Position of the last item returned by a keyset paginated search: values of the ordering clauses for such item,
+ * followed by its key, used as tie-breaker.
+ * Instances can be exchanged with clients as opaque tokens via {@link #encode()} and {@link #decode(String)}.
+ */
+public class SearchAfter implements Serializable {
+
+    private static final long serialVersionUID = 6186219286441957323L;
+
+    private static final String SEPARATOR = "~";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Parses the given token, as previously returned by {@link #encode()}.
+     *
+     * @param token opaque token
+     * @return position represented by the given token
+     * @throws IllegalArgumentException if the given token cannot be parsed
+     */
+    public static SearchAfter decode(final String token) {
+        String[] elements;
+        try {
+            elements = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search token: " + token, e);
+        }
+        if (elements.length == 0 || StringUtils.isEmpty(elements[0]) || elements[0].charAt(0) != 'S') {
+            throw new IllegalArgumentException("Invalid search token: " + token);
+        }
+
+        List<Object> values = new ArrayList<>(elements.length - 1);
+        for (int i = 1; i < elements.length; i++) {
+            values.add(decodeValue(elements[i], token));
+        }
+        return new SearchAfter((String) decodeValue(elements[0], token), values);
+    }
+
+    private static Object decodeValue(final String element, final String token) {
+        if (element.isEmpty()) {
+            throw new IllegalArgumentException("Invalid search token: " + token);
+        }
+
+        String payload = element.substring(1);
+        try {
+            switch (element.charAt(0)) {
+                case 'N':
+                    return null;
+
+                case 'S':
+                    return new String(DECODER.decode(payload), StandardCharsets.UTF_8);
+
+                case 'L':
+                    return Long.valueOf(payload);
+
+                case 'D':
+                    return Double.valueOf(payload);
+
+                case 'M':
+                    return new BigDecimal(payload);
+
+                case 'B':
+                    return Boolean.valueOf(payload);
+
+                case 'T':
+                    String[] parts = payload.split("\\.");
+                    Timestamp timestamp = new Timestamp(Long.parseLong(parts[0]));
+                    if (parts.length > 1) {
+                        timestamp.setNanos(Integer.parseInt(parts[1]));
+                    }
+                    return timestamp;
+
+                default:
+                    throw new IllegalArgumentException("Invalid search token: " + token);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search token: " + token, e);
+        }
+    }
+
+    private static String encodeValue(final Object value) {
+        if (value == null) {
+            return "N";
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return "L" + ((Number) value).longValue();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return "D" + ((Number) value).doubleValue();
+        }
+        if (value instanceof BigDecimal) {
+            return "M" + ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof BigInteger) {
+            return "M" + value;
+        }
+        if (value instanceof Boolean) {
+            return "B" + value;
+        }
+        if (value instanceof Timestamp) {
+            return "T" + ((Timestamp) value).getTime() + '.' + ((Timestamp) value).getNanos();
+        }
+        if (value instanceof Date) {
+            return "T" + ((Date) value).getTime();
+        }
+        return "S" + ENCODER.encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private final String key;
+
+    private final List<Object> values;
+
+    public SearchAfter(final String key, final List<Object> values) {
+        this.key = key;
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * @return opaque, URL-safe token representing this position
+     */
+    public String encode() {
+        StringBuilder token = new StringBuilder(encodeValue(key));
+        values.forEach(value -> token.append(SEPARATOR).append(encodeValue(value)));
+        return ENCODER.encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().
+                append(key).
+                append(values).
+                build();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final SearchAfter other = (SearchAfter) obj;
+        return new EqualsBuilder().
+                append(key, other.key).
+                append(values, other.values).
+                build();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).
+                append(key).
+                append(values).
+                build();
+    }
+}
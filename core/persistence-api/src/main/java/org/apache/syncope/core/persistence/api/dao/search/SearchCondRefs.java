@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.dao.search;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Fields, plain schemas, memberships, relationships, resources and roles referenced by a {@link SearchCond} or,
+ * symmetrically, changed on a given any object: a condition needs to be evaluated again against an any object only
+ * if what it references {@link #intersects(SearchCondRefs)} what was changed.
+ */
+public class SearchCondRefs implements Serializable {
+
+    private static final long serialVersionUID = -3514573719429497011L;
+
+    /**
+     * Matches everything: to be used when references cannot be determined.
+     */
+    public static final SearchCondRefs ALL = new SearchCondRefs(true);
+
+    /**
+     * Collects what is referenced by the given condition.
+     *
+     * @param cond search condition
+     * @return what is referenced by the given condition
+     */
+    public static SearchCondRefs of(final SearchCond cond) {
+        SearchCondRefs refs = new SearchCondRefs();
+        return refs.collect(cond) ? refs : ALL;
+    }
+
+    private final boolean all;
+
+    private final Set<String> fields = new HashSet<>();
+
+    private final Set<String> plainSchemas = new HashSet<>();
+
+    private boolean memberships;
+
+    private boolean relationships;
+
+    private boolean resources;
+
+    private boolean roles;
+
+    public SearchCondRefs() {
+        this(false);
+    }
+
+    private SearchCondRefs(final boolean all) {
+        this.all = all;
+    }
+
+    private boolean collect(final SearchCond cond) {
+        if (cond == null) {
+            return true;
+        }
+
+        switch (cond.getType()) {
+            case LEAF:
+            case NOT_LEAF:
+                AbstractSearchCond leaf = cond.getLeaf(AbstractSearchCond.class).orElse(null);
+                if (leaf instanceof AnyCond) {
+                    field(((AnyCond) leaf).getSchema());
+                } else if (leaf instanceof AttrCond) {
+                    plainSchema(((AttrCond) leaf).getSchema());
+                } else if (leaf instanceof AnyTypeCond) {
+                    field("type");
+                } else if (leaf instanceof AssignableCond) {
+                    field("realm");
+                } else if (leaf instanceof MembershipCond || leaf instanceof MemberCond) {
+                    memberships();
+                } else if (leaf instanceof RelationshipCond || leaf instanceof RelationshipTypeCond) {
+                    relationships();
+                } else if (leaf instanceof ResourceCond) {
+                    resources();
+                } else if (leaf instanceof RoleCond || leaf instanceof PrivilegeCond) {
+                    roles();
+                } else {
+                    // dynamic realms and any other condition can change as side effect of any change
+                    return false;
+                }
+                return true;
+
+            case AND:
+            case OR:
+                return collect(cond.getLeft()) && collect(cond.getRight());
+
+            default:
+                return false;
+        }
+    }
+
+    public SearchCondRefs field(final String field) {
+        if (!all) {
+            fields.add(field);
+        }
+        return this;
+    }
+
+    public SearchCondRefs plainSchema(final String plainSchema) {
+        if (!all) {
+            plainSchemas.add(plainSchema);
+        }
+        return this;
+    }
+
+    public SearchCondRefs memberships() {
+        if (!all) {
+            memberships = true;
+        }
+        return this;
+    }
+
+    public SearchCondRefs relationships() {
+        if (!all) {
+            relationships = true;
+        }
+        return this;
+    }
+
+    public SearchCondRefs resources() {
+        if (!all) {
+            resources = true;
+        }
+        return this;
+    }
+
+    public SearchCondRefs roles() {
+        if (!all) {
+            roles = true;
+        }
+        return this;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public Set<String> getFields() {
+        return Collections.unmodifiableSet(fields);
+    }
+
+    public Set<String> getPlainSchemas() {
+        return Collections.unmodifiableSet(plainSchemas);
+    }
+
+    public boolean isMemberships() {
+        return memberships;
+    }
+
+    public boolean isRelationships() {
+        return relationships;
+    }
+
+    public boolean isResources() {
+        return resources;
+    }
+
+    public boolean isRoles() {
+        return roles;
+    }
+
+    /**
+     * Tells whether this instance shares anything with the given one.
+     *
+     * @param other references to compare with
+     * @return whether this instance shares anything with the given one
+     */
+    public boolean intersects(final SearchCondRefs other) {
+        return all || other.all
+                || (memberships && other.memberships)
+                || (relationships && other.relationships)
+                || (resources && other.resources)
+                || (roles && other.roles)
+                || !Collections.disjoint(fields, other.fields)
+                || !Collections.disjoint(plainSchemas, other.plainSchemas);
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().
+                append(all).
+                append(fields).
+                append(plainSchemas).
+                append(memberships).
+                append(relationships).
+                append(resources).
+                append(roles).
+                build();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final SearchCondRefs other = (SearchCondRefs) obj;
+        return new EqualsBuilder().
+                append(all, other.all).
+                append(fields, other.fields).
+                append(plainSchemas, other.plainSchemas).
+                append(memberships, other.memberships).
+                append(relationships, other.relationships).
+                append(resources, other.resources).
+                append(roles, other.roles).
+                build();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).
+                append(all).
+                append(fields).
+                append(plainSchemas).
+                append(memberships).
+                append(relationships).
+                append(resources).
+                append(roles).
+                build();
+    }
+}
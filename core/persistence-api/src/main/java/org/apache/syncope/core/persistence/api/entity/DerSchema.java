@@ -23,4 +23,11 @@ public interface DerSchema extends Schema {
     String getExpression();
 
     void setExpression(String expression);
+
+    /**
+     * @return whether the values computed for this schema are materialized, for lookup by value
+     */
+    boolean isIndexed();
+
+    void setIndexed(boolean indexed);
 }
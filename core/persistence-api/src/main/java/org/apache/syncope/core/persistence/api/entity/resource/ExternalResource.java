@@ -98,6 +98,10 @@ public interface ExternalResource extends ProvidedKeyEntity {
 
     void setRandomPwdIfNotProvided(boolean condition);
 
+    boolean isTrustedPropagation();
+
+    void setTrustedPropagation(boolean trustedPropagation);
+
     boolean add(Provision provision);
 
     Optional<? extends Provision> getProvision(String anyType);
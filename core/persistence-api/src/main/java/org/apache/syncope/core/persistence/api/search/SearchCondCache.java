@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+
+/**
+ * Bounded cache of {@link SearchCond} instances parsed from FIQL expressions via {@link SearchCondConverter}, keyed by
+ * FIQL plus the optional realm provided to {@link SearchCondVisitor}.
+ *
+ * Entries are tracked by owner (group, role, dynamic realm, notification, task, ...) so that they can be invalidated
+ * when the owner is updated or removed; least recently used entries are evicted once the maximum size is reached.
+ *
+ * Cached instances are shared among callers, hence they must not be modified.
+ */
+public class SearchCondCache {
+
+    private final SearchCondVisitor visitor;
+
+    private final int maxSize;
+
+    private final Map<Pair<String, String>, SearchCond> conds;
+
+    /**
+     * Keys of the cached entries, per owner; guarded by {@link #conds}.
+     */
+    private final Map<String, Set<Pair<String, String>>> byOwner = new HashMap<>();
+
+    /**
+     * Owners of the cached entries, per key, for {@link #byOwner} to be pruned upon eviction; guarded by
+     * {@link #conds}.
+     */
+    private final Map<Pair<String, String>, Set<String>> owners = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public SearchCondCache(final SearchCondVisitor visitor, final int maxSize) {
+        this.visitor = visitor;
+        this.maxSize = maxSize;
+        this.conds = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = -3460209155839473407L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Pair<String, String>, SearchCond> eldest) {
+                if (size() > SearchCondCache.this.maxSize) {
+                    forget(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the {@link SearchCond} for the given FIQL expression, parsing it only if not already cached.
+     *
+     * @param owner key of the entity owning the given FIQL expression
+     * @param fiql FIQL string
+     * @param realm optional realm to provide to {@link SearchCondVisitor}
+     * @return {@link SearchCond} instance for given FIQL expression, not to be modified
+     */
+    public SearchCond get(final String owner, final String fiql, final String realm) {
+        Pair<String, String> key = Pair.of(fiql, realm);
+
+        SearchCond cond;
+        synchronized (conds) {
+            cond = conds.get(key);
+        }
+
+        if (cond == null) {
+            misses.incrementAndGet();
+
+            if (realm == null) {
+                visitor.setRealm(null);
+                cond = SearchCondConverter.convert(visitor, fiql);
+            } else {
+                cond = SearchCondConverter.convert(visitor, fiql, realm);
+            }
+
+            synchronized (conds) {
+                conds.put(key, cond);
+                track(owner, key);
+            }
+        } else {
+            hits.incrementAndGet();
+
+            synchronized (conds) {
+                // might have been evicted or invalidated in the meanwhile
+                if (conds.containsKey(key)) {
+                    track(owner, key);
+                }
+            }
+        }
+
+        return cond;
+    }
+
+    private void track(final String owner, final Pair<String, String> key) {
+        if (owner != null) {
+            byOwner.computeIfAbsent(owner, k -> new HashSet<>()).add(key);
+            owners.computeIfAbsent(key, k -> new HashSet<>()).add(owner);
+        }
+    }
+
+    /**
+     * Drops the references to the given key, which is no longer cached.
+     *
+     * @param key key of the entry removed from cache
+     */
+    private void forget(final Pair<String, String> key) {
+        Set<String> keyOwners = owners.remove(key);
+        if (keyOwners != null) {
+            keyOwners.forEach(owner -> byOwner.computeIfPresent(owner, (k, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            }));
+        }
+    }
+
+    /**
+     * Same as {@link #get(java.lang.String, java.lang.String, java.lang.String)}, with no realm.
+     *
+     * @param owner key of the entity owning the given FIQL expression
+     * @param fiql FIQL string
+     * @return {@link SearchCond} instance for given FIQL expression, not to be modified
+     */
+    public SearchCond get(final String owner, final String fiql) {
+        return get(owner, fiql, null);
+    }
+
+    /**
+     * Removes all entries obtained on behalf of the given owner.
+     *
+     * @param owner key of the entity which was updated or removed
+     */
+    public void invalidate(final String owner) {
+        if (owner == null) {
+            return;
+        }
+
+        synchronized (conds) {
+            Set<Pair<String, String>> keys = byOwner.remove(owner);
+            if (keys != null) {
+                keys.forEach(key -> {
+                    conds.remove(key);
+                    forget(key);
+                });
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (conds) {
+            conds.clear();
+            byOwner.clear();
+            owners.clear();
+        }
+    }
+
+    /**
+     * @return number of owners with cached entries
+     */
+    int owners() {
+        synchronized (conds) {
+            return byOwner.size();
+        }
+    }
+
+    public int size() {
+        synchronized (conds) {
+            return conds.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
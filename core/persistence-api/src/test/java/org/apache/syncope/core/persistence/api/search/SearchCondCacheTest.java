@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.api.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.junit.jupiter.api.Test;
+
+public class SearchCondCacheTest {
+
+    @Test
+    public void hitAndMiss() {
+        SearchCondCache cache = new SearchCondCache(new SearchCondVisitor(), 10);
+
+        SearchCond cond = cache.get("owner", "username==rossini");
+        assertEquals(SearchCondConverter.convert(new SearchCondVisitor(), "username==rossini"), cond);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        assertSame(cond, cache.get("other", "username==rossini"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // same FIQL, different realm
+        assertNotSame(cond, cache.get("owner", "username==rossini", "/even"));
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void invalidate() {
+        SearchCondCache cache = new SearchCondCache(new SearchCondVisitor(), 10);
+
+        SearchCond cond = cache.get("owner", "username==rossini");
+        cache.get("other", "username==verdi");
+        assertEquals(2, cache.size());
+
+        cache.invalidate("owner");
+        assertEquals(1, cache.size());
+
+        assertNotSame(cond, cache.get("owner", "username==rossini"));
+        assertEquals(3, cache.getMisses());
+
+        cache.get("other", "username==verdi");
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void evict() {
+        SearchCondCache cache = new SearchCondCache(new SearchCondVisitor(), 2);
+
+        SearchCond rossini = cache.get(null, "username==rossini");
+        cache.get(null, "username==verdi");
+        // rossini becomes most recently used
+        cache.get(null, "username==rossini");
+        cache.get(null, "username==bellini");
+        assertEquals(2, cache.size());
+
+        assertSame(rossini, cache.get(null, "username==rossini"));
+        cache.get(null, "username==verdi");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void evictPrunesOwners() {
+        SearchCondCache cache = new SearchCondCache(new SearchCondVisitor(), 2);
+
+        cache.get("owner", "username==rossini");
+        cache.get("other", "username==rossini");
+        cache.get("other", "username==verdi");
+        assertEquals(2, cache.owners());
+
+        // rossini is evicted, owner has no more entries
+        cache.get(null, "username==bellini");
+        assertEquals(1, cache.owners());
+
+        // verdi is evicted, other has no more entries
+        cache.get(null, "username==puccini");
+        assertEquals(0, cache.owners());
+    }
+}
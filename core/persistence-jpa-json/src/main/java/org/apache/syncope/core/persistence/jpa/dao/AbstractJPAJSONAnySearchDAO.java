@@ -18,8 +18,16 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.util.List;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
+import org.apache.syncope.core.persistence.api.entity.AnyUtils;
+import org.apache.syncope.core.persistence.api.entity.JSONPlainAttr;
+import org.apache.syncope.core.persistence.api.entity.PlainAttr;
+import org.apache.syncope.core.persistence.api.entity.PlainAttrUniqueValue;
+import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
+import org.apache.syncope.core.persistence.api.entity.PlainSchema;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
 
 abstract class AbstractJPAJSONAnySearchDAO extends JPAAnySearchDAO {
 
@@ -28,6 +36,30 @@ abstract class AbstractJPAJSONAnySearchDAO extends JPAAnySearchDAO {
         return new SearchSupport(kind);
     }
 
+    /**
+     * Serializes a plain attribute holding the given value only, to be matched against the stored plain attributes.
+     *
+     * @param anyUtils any utils
+     * @param schema plain schema
+     * @param attrValue plain attribute value
+     * @return serialized plain attribute
+     */
+    protected static String serialize(
+            final AnyUtils anyUtils,
+            final PlainSchema schema,
+            final PlainAttrValue attrValue) {
+
+        PlainAttr<?> container = anyUtils.newPlainAttr();
+        container.setSchema(schema);
+        if (attrValue instanceof PlainAttrUniqueValue) {
+            container.setUniqueValue((PlainAttrUniqueValue) attrValue);
+        } else {
+            ((JSONPlainAttr) container).add(attrValue);
+        }
+
+        return POJOHelper.serialize(List.of(container));
+    }
+
     protected void appendOp(final StringBuilder query, final AttrCond.Type condType, final boolean not) {
         switch (condType) {
             case LIKE:
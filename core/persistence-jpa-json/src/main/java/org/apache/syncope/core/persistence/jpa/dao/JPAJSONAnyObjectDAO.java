@@ -27,6 +27,7 @@ import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAJSONAnyObject;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.JPAJSONAnyDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrUniqueValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
@@ -65,7 +66,7 @@ public class JPAJSONAnyObjectDAO extends JPAAnyObjectDAO {
     }
 
     @Override
-    public List<AnyObject> findByDerAttrValue(
+    protected List<AnyObject> doFindByDerAttrValue(
             final DerSchema schema,
             final String value,
             final boolean ignoreCaseMatch) {
@@ -74,7 +75,9 @@ public class JPAJSONAnyObjectDAO extends JPAAnyObjectDAO {
     }
 
     @Override
-    protected Pair<AnyObject, Pair<Set<String>, Set<String>>> doSave(final AnyObject anyObject) {
+    protected Pair<AnyObject, Pair<Set<String>, Set<String>>> doSave(
+            final AnyObject anyObject, final SearchCondRefs changed) {
+
         AnyObject merged = entityManager().merge(anyObject);
 
         // ensure that entity listeners are invoked at this point
@@ -82,8 +85,9 @@ public class JPAJSONAnyObjectDAO extends JPAAnyObjectDAO {
 
         publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, merged, AuthContextUtils.getDomain()));
 
-        Pair<Set<String>, Set<String>> dynGroupMembs = groupDAO.refreshDynMemberships(merged);
+        Pair<Set<String>, Set<String>> dynGroupMembs = groupDAO.refreshDynMemberships(merged, changed);
         dynRealmDAO.refreshDynMemberships(merged);
+        derSchemaDAO.refreshIndexedValues(merged);
 
         return Pair.of(merged, dynGroupMembs);
     }
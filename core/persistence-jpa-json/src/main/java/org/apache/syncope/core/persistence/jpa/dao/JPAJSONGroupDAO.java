@@ -61,7 +61,7 @@ public class JPAJSONGroupDAO extends JPAGroupDAO {
     }
 
     @Override
-    public List<Group> findByDerAttrValue(
+    protected List<Group> doFindByDerAttrValue(
             final DerSchema schema,
             final String value,
             final boolean ignoreCaseMatch) {
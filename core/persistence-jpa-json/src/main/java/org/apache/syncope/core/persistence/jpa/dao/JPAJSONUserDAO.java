@@ -28,6 +28,7 @@ import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAJSONUser;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.JPAJSONAnyDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrUniqueValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
@@ -67,7 +68,7 @@ public class JPAJSONUserDAO extends JPAUserDAO {
     }
 
     @Override
-    public List<User> findByDerAttrValue(
+    protected List<User> doFindByDerAttrValue(
             final DerSchema schema,
             final String value,
             final boolean ignoreCaseMatch) {
@@ -76,7 +77,7 @@ public class JPAJSONUserDAO extends JPAUserDAO {
     }
 
     @Override
-    protected Pair<User, Pair<Set<String>, Set<String>>> doSave(final User user) {
+    protected Pair<User, Pair<Set<String>, Set<String>>> doSave(final User user, final SearchCondRefs changed) {
         // 1. save clear password value before save
         String clearPwd = user.getClearPassword();
 
@@ -100,8 +101,9 @@ public class JPAJSONUserDAO extends JPAUserDAO {
         publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, merged, AuthContextUtils.getDomain()));
 
         roleDAO.refreshDynMemberships(merged);
-        Pair<Set<String>, Set<String>> dynGroupMembs = groupDAO.refreshDynMemberships(merged);
+        Pair<Set<String>, Set<String>> dynGroupMembs = groupDAO.refreshDynMemberships(merged, changed);
         dynRealmDAO.refreshDynMemberships(merged);
+        derSchemaDAO.refreshIndexedValues(merged);
 
         return Pair.of(merged, dynGroupMembs);
     }
@@ -113,8 +115,8 @@ public class JPAJSONUserDAO extends JPAUserDAO {
     }
 
     @Override
-    public Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(final User user) {
+    public Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(final User user, final SearchCondRefs changed) {
         anyDAO().checkBeforeSave(JPAJSONUser.TABLE, anyUtils(), user);
-        return super.saveAndGetDynGroupMembs(user);
+        return super.saveAndGetDynGroupMembs(user, changed);
     }
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -27,41 +28,11 @@ import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
 import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
-import org.apache.syncope.core.persistence.api.entity.PlainAttr;
-import org.apache.syncope.core.persistence.api.entity.PlainAttrUniqueValue;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
-import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
-import org.apache.syncope.core.persistence.api.entity.JSONPlainAttr;
 
 public class MyJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
 
-    @Override
-    protected String buildAdminRealmsFilter(
-            final Set<String> realmKeys,
-            final SearchSupport svs,
-            final List<Object> parameters) {
-
-        StringBuilder adminRealmsFilter = new StringBuilder("u.any_id IN (").
-                append("SELECT any_id FROM ").append(svs.field().name).
-                append(" WHERE realm_id IN (SELECT id AS realm_id FROM Realm");
-
-        boolean firstRealm = true;
-        for (String realmKey : realmKeys) {
-            if (firstRealm) {
-                adminRealmsFilter.append(" WHERE");
-                firstRealm = false;
-            } else {
-                adminRealmsFilter.append(" OR");
-            }
-            adminRealmsFilter.append(" id=?").append(setParameter(parameters, realmKey));
-        }
-
-        adminRealmsFilter.append("))");
-
-        return adminRealmsFilter.toString();
-    }
-
     @Override
     protected void processOBS(
             final SearchSupport svs,
@@ -159,17 +130,9 @@ public class MyJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
             query.append(')');
         } else {
             if (!not && cond.getType() == AttrCond.Type.EQ) {
-                PlainAttr<?> container = anyUtils.newPlainAttr();
-                container.setSchema(schema);
-                if (attrValue instanceof PlainAttrUniqueValue) {
-                    container.setUniqueValue((PlainAttrUniqueValue) attrValue);
-                } else {
-                    ((JSONPlainAttr) container).add(attrValue);
-                }
-
-                query.append("JSON_CONTAINS(plainAttrs, '").
-                        append(POJOHelper.serialize(List.of(container)).replace("'", "''")).
-                        append("')");
+                query.append("JSON_CONTAINS(plainAttrs, ?").
+                        append(setParameter(parameters, serialize(anyUtils, schema, attrValue))).
+                        append(')');
             } else {
                 String key = key(schema.getType());
                 boolean lower = (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum)
@@ -192,6 +155,25 @@ public class MyJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
         }
     }
 
+    @Override
+    protected List<Object> getValues(
+            final AttrCond cond,
+            final boolean not,
+            final Pair<PlainSchema, PlainAttrValue> checked,
+            final SearchSupport svs) {
+
+        if (cond.getType() == AttrCond.Type.ISNULL || cond.getType() == AttrCond.Type.ISNOTNULL) {
+            return List.of();
+        }
+
+        // negated conditions on multivalue schemas are matched as not negated, see fillAttrQuery
+        if (cond.getType() == AttrCond.Type.EQ && (!not || checked.getLeft().isMultivalue())) {
+            return List.of(serialize(
+                    anyUtilsFactory.getInstance(svs.anyTypeKind), checked.getLeft(), checked.getRight()));
+        }
+        return Arrays.asList(cond.getSchema(), cond.getExpression());
+    }
+
     @Override
     protected String getQuery(
             final AttrCond cond,
@@ -206,18 +188,19 @@ public class MyJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
             return EMPTY_QUERY;
         }
 
-        // normalize NULL / NOT NULL checks
+        // normalize NULL / NOT NULL checks, without modifying the given condition, which might be shared
+        AttrCond.Type type = cond.getType();
         if (not) {
-            if (cond.getType() == AttrCond.Type.ISNULL) {
-                cond.setType(AttrCond.Type.ISNOTNULL);
-            } else if (cond.getType() == AttrCond.Type.ISNOTNULL) {
-                cond.setType(AttrCond.Type.ISNULL);
+            if (type == AttrCond.Type.ISNULL) {
+                type = AttrCond.Type.ISNOTNULL;
+            } else if (type == AttrCond.Type.ISNOTNULL) {
+                type = AttrCond.Type.ISNULL;
             }
         }
 
         StringBuilder query =
                 new StringBuilder("SELECT DISTINCT any_id FROM ").append(svs.field().name).append(" WHERE ");
-        switch (cond.getType()) {
+        switch (type) {
             case ISNOTNULL:
                 query.append("JSON_SEARCH(plainAttrs, 'one', '").
                         append(checked.getLeft().getKey()).
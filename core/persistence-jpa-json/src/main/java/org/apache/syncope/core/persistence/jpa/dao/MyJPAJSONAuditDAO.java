@@ -18,36 +18,8 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import java.util.List;
-import java.util.stream.Collectors;
-import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
-
-public class MyJPAJSONAuditDAO extends AbstractJPAJSONAuditDAO {
-
-    private static class MyMessageCriteriaBuilder extends JSONMessageCriteriaBuilder {
-
-        @Override
-        protected String doBuild(final List<ObjectNode> containers) {
-            query.append('(').append(MESSAGE_COLUMN).append(" -> '$.before' LIKE '%").append(entityKey).
-                    append("%' OR ").append(MESSAGE_COLUMN).append(" -> '$.input' LIKE '%").append(entityKey).
-                    append("%' OR ").append(MESSAGE_COLUMN).append(" -> '$.output' LIKE '%").append(entityKey).
-                    append("%')");
-
-            if (!containers.isEmpty()) {
-                query.append(" AND (").
-                        append(containers.stream().map(container -> "JSON_CONTAINS(" + MESSAGE_COLUMN + ", '"
-                        + POJOHelper.serialize(container).replace("'", "''")
-                        + "')").collect(Collectors.joining(" OR "))).
-                        append(')');
-            }
-
-            return query.toString();
-        }
-    }
-
-    @Override
-    protected MessageCriteriaBuilder messageCriteriaBuilder(final String entityKey) {
-        return new MyMessageCriteriaBuilder().entityKey(entityKey);
-    }
+/**
+ * Searches rely on the structured audit columns, as for {@link JPAAuditDAO}; MESSAGE is only read as JSON payload.
+ */
+public class MyJPAJSONAuditDAO extends JPAAuditDAO {
 }
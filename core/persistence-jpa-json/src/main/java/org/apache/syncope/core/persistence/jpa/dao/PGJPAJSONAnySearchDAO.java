@@ -19,6 +19,7 @@
 package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -28,12 +29,8 @@ import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
 import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
-import org.apache.syncope.core.persistence.api.entity.PlainAttr;
-import org.apache.syncope.core.persistence.api.entity.PlainAttrUniqueValue;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
-import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
-import org.apache.syncope.core.persistence.api.entity.JSONPlainAttr;
 import org.apache.syncope.core.provisioning.api.utils.FormatUtils;
 
 public class PGJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
@@ -128,17 +125,9 @@ public class PGJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
             query.append(')');
         } else {
             if (!not && cond.getType() == AttrCond.Type.EQ) {
-                PlainAttr<?> container = anyUtils.newPlainAttr();
-                container.setSchema(schema);
-                if (attrValue instanceof PlainAttrUniqueValue) {
-                    container.setUniqueValue((PlainAttrUniqueValue) attrValue);
-                } else {
-                    ((JSONPlainAttr) container).add(attrValue);
-                }
-
-                query.append("plainAttrs @> '").
-                        append(POJOHelper.serialize(List.of(container)).replace("'", "''")).
-                        append("'::jsonb");
+                query.append("plainAttrs @> CAST(?").
+                        append(setParameter(parameters, serialize(anyUtils, schema, attrValue))).
+                        append(" AS jsonb)");
             } else {
                 String key = key(schema.getType());
                 boolean lower = (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum)
@@ -154,21 +143,44 @@ public class PGJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
 
                 appendOp(query, cond.getType(), not);
 
-                String value = cond.getExpression();
-                if (schema.getType() == AttrSchemaType.Date) {
-                    try {
-                        value = String.valueOf(FormatUtils.parseDate(value).getTime());
-                    } catch (ParseException e) {
-                        LOG.error("Could not parse {} as date", value, e);
-                    }
-                }
                 query.append(lower ? "LOWER(" : "").
-                        append('?').append(setParameter(parameters, value)).
+                        append('?').append(setParameter(parameters, getValue(schema, cond))).
                         append(lower ? ")" : "");
             }
         }
     }
 
+    private static String getValue(final PlainSchema schema, final AttrCond cond) {
+        String value = cond.getExpression();
+        if (schema.getType() == AttrSchemaType.Date) {
+            try {
+                value = String.valueOf(FormatUtils.parseDate(value).getTime());
+            } catch (ParseException e) {
+                LOG.error("Could not parse {} as date", value, e);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    protected List<Object> getValues(
+            final AttrCond cond,
+            final boolean not,
+            final Pair<PlainSchema, PlainAttrValue> checked,
+            final SearchSupport svs) {
+
+        if (cond.getType() == AttrCond.Type.ISNULL || cond.getType() == AttrCond.Type.ISNOTNULL) {
+            return List.of();
+        }
+
+        // negated conditions on multivalue schemas are matched as not negated, see fillAttrQuery
+        if (cond.getType() == AttrCond.Type.EQ && (!not || checked.getLeft().isMultivalue())) {
+            return List.of(serialize(
+                    anyUtilsFactory.getInstance(svs.anyTypeKind), checked.getLeft(), checked.getRight()));
+        }
+        return Arrays.asList(cond.getSchema(), getValue(checked.getLeft(), cond));
+    }
+
     @Override
     protected String getQuery(
             final AttrCond cond,
@@ -183,18 +195,19 @@ public class PGJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
             return EMPTY_QUERY;
         }
 
-        // normalize NULL / NOT NULL checks
+        // normalize NULL / NOT NULL checks, without modifying the given condition, which might be shared
+        AttrCond.Type type = cond.getType();
         if (not) {
-            if (cond.getType() == AttrCond.Type.ISNULL) {
-                cond.setType(AttrCond.Type.ISNOTNULL);
-            } else if (cond.getType() == AttrCond.Type.ISNOTNULL) {
-                cond.setType(AttrCond.Type.ISNULL);
+            if (type == AttrCond.Type.ISNULL) {
+                type = AttrCond.Type.ISNOTNULL;
+            } else if (type == AttrCond.Type.ISNOTNULL) {
+                type = AttrCond.Type.ISNULL;
             }
         }
 
         StringBuilder query =
                 new StringBuilder("SELECT DISTINCT any_id FROM ").append(svs.field().name).append(" WHERE ");
-        switch (cond.getType()) {
+        switch (type) {
             case ISNOTNULL:
                 query.append("plainAttrs @> '[{\"schema\":\"").
                         append(checked.getLeft().getKey()).
@@ -18,42 +18,10 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import java.util.List;
-import java.util.stream.Collectors;
-import org.apache.syncope.core.persistence.jpa.dao.AbstractJPAJSONAuditDAO.JSONMessageCriteriaBuilder;
-import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
-
-public class PGJPAJSONAuditDAO extends AbstractJPAJSONAuditDAO {
-
-    private static class PGMessageCriteriaBuilder extends JSONMessageCriteriaBuilder {
-
-        @Override
-        protected String doBuild(final List<ObjectNode> containers) {
-            query.append('(').append(MESSAGE_COLUMN).append(" ->> 'before' LIKE '%").append(entityKey).
-                    append("%' OR ").append(MESSAGE_COLUMN).append(" ->> 'input' LIKE '%").append(entityKey).
-                    append("%' OR ").append(MESSAGE_COLUMN).append(" ->> 'output' LIKE '%").append(entityKey).
-                    append("%')");
-
-            if (!containers.isEmpty()) {
-                query.append(" AND (").
-                        append(containers.stream().map(container -> MESSAGE_COLUMN + " @> '"
-                        + POJOHelper.serialize(container).replace("'", "''")
-                        + "'::jsonb").collect(Collectors.joining(" OR "))).
-                        append(')');
-            }
-
-            return query.toString();
-        }
-    }
+public class PGJPAJSONAuditDAO extends JPAAuditDAO {
 
     @Override
     protected String select() {
         return MESSAGE_COLUMN + "::text";
     }
-
-    @Override
-    protected MessageCriteriaBuilder messageCriteriaBuilder(final String entityKey) {
-        return new PGMessageCriteriaBuilder().entityKey(entityKey);
-    }
 }
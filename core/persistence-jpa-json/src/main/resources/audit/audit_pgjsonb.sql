@@ -20,6 +20,25 @@ CREATE TABLE IF NOT EXISTS SYNCOPEAUDIT (
   LOGGER_LEVEL VARCHAR(255) NOT NULL,
   LOGGER VARCHAR(255) NOT NULL,
   MESSAGE JSONB NOT NULL,
-  THROWABLE TEXT
+  THROWABLE TEXT,
+  WHO VARCHAR(255),
+  ENTITY_KEY VARCHAR(255),
+  EVENT_TYPE VARCHAR(255),
+  EVENT_CATEGORY VARCHAR(255),
+  EVENT_SUBCATEGORY VARCHAR(255),
+  EVENT_NAME VARCHAR(255),
+  EVENT_RESULT VARCHAR(255)
 );
-CREATE INDEX SYNCOPEAUDIT_idx ON SYNCOPEAUDIT USING gin ((MESSAGE) jsonb_path_ops)
+
+-- upgrade from tables without structured columns, existing rows are backfilled by AuditMigrationLoader
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS WHO VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS ENTITY_KEY VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_TYPE VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_CATEGORY VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_SUBCATEGORY VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_NAME VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_RESULT VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS SYNCOPEAUDIT_entity_idx ON SYNCOPEAUDIT(ENTITY_KEY, EVENT_DATE);
+CREATE INDEX IF NOT EXISTS SYNCOPEAUDIT_event_idx ON SYNCOPEAUDIT(EVENT_TYPE, EVENT_CATEGORY, EVENT_SUBCATEGORY, EVENT_NAME, EVENT_RESULT);
+CREATE INDEX IF NOT EXISTS SYNCOPEAUDIT_date_idx ON SYNCOPEAUDIT(EVENT_DATE);
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.core.persistence.api.SyncopeCoreLoader;
+import org.apache.syncope.core.persistence.api.dao.AuditDAO;
+import org.apache.syncope.core.provisioning.api.AuditEntryImpl;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Backfills the structured columns of audit entries written before such columns were introduced, by parsing their
+ * JSON message.
+ *
+ * As the audit table has no primary key, entries sharing the same event date are deleted and inserted again with
+ * structured columns set, in a single transaction; migration stops if any other Core instance is doing the same.
+ * Migration runs in background, not to delay startup: entries not yet migrated are only found once processed.
+ */
+@Component
+public class AuditMigrationLoader implements SyncopeCoreLoader {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(AuditMigrationLoader.class);
+
+    protected static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Event type set for entries whose message cannot be parsed, so that they are not processed again.
+     */
+    protected static final String UNKNOWN = "UNKNOWN";
+
+    protected static final String COLUMNS = String.join(",",
+            AuditDAO.EVENT_DATE_COLUMN, "LOGGER_LEVEL", "LOGGER", AuditDAO.MESSAGE_COLUMN, "THROWABLE");
+
+    protected static final String INSERT = "INSERT INTO " + AuditDAO.TABLE + '(' + COLUMNS + ','
+            + String.join(",",
+                    AuditDAO.WHO_COLUMN,
+                    AuditDAO.ENTITY_KEY_COLUMN,
+                    AuditDAO.EVENT_TYPE_COLUMN,
+                    AuditDAO.EVENT_CATEGORY_COLUMN,
+                    AuditDAO.EVENT_SUBCATEGORY_COLUMN,
+                    AuditDAO.EVENT_NAME_COLUMN,
+                    AuditDAO.EVENT_RESULT_COLUMN)
+            + ") VALUES (?,?,?,?,?,?,?,?,?,?,?,?)";
+
+    @Override
+    public int getOrder() {
+        return 310;
+    }
+
+    protected static Object[] structured(final ResultSet rs) throws SQLException {
+        String message = rs.getString(AuditDAO.MESSAGE_COLUMN);
+        AuditEntryImpl entry = message == null ? null : POJOHelper.deserialize(message, AuditEntryImpl.class);
+
+        Object[] values = new Object[] {
+            rs.getTimestamp(AuditDAO.EVENT_DATE_COLUMN), rs.getString("LOGGER_LEVEL"), rs.getString("LOGGER"),
+            message, rs.getString("THROWABLE"), null, null, UNKNOWN, null, null, null, null };
+        if (entry != null && entry.getLogger() != null) {
+            values[5] = entry.getWho();
+            values[6] = AuditEntryImpl.entityKey(entry);
+            values[7] = Optional.ofNullable(entry.getLogger().getType()).
+                    map(AuditElements.EventCategoryType::name).orElse(UNKNOWN);
+            values[8] = entry.getLogger().getCategory();
+            values[9] = entry.getLogger().getSubcategory();
+            values[10] = entry.getLogger().getEvent();
+            values[11] = Optional.ofNullable(entry.getLogger().getResult()).
+                    map(AuditElements.Result::name).orElse(null);
+        }
+        return values;
+    }
+
+    /**
+     * Rewrites all entries without structured columns for the given event date.
+     *
+     * @param jdbcTemplate JDBC template for the domain
+     * @param date event date, might be null
+     * @return the number of entries rewritten, or -1 if entries were concurrently modified
+     */
+    protected static int rewrite(final JdbcTemplate jdbcTemplate, final Timestamp date) {
+        String where = " WHERE " + AuditDAO.EVENT_TYPE_COLUMN + " IS NULL AND " + AuditDAO.EVENT_DATE_COLUMN
+                + (date == null ? " IS NULL" : "=?");
+        Object[] args = date == null ? new Object[0] : new Object[] { date };
+
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM " + AuditDAO.TABLE + where, (rs, rowNum) -> structured(rs), args);
+        if (jdbcTemplate.update("DELETE FROM " + AuditDAO.TABLE + where, args) != rows.size()) {
+            return -1;
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        return rows.size();
+    }
+
+    /**
+     * Processes entries without structured columns, for up to {@link #CHUNK_SIZE} event dates.
+     *
+     * @param jdbcTemplate JDBC template for the domain
+     * @param txTemplate transaction template for the domain
+     * @return the number of entries processed
+     */
+    protected static int migrate(final JdbcTemplate jdbcTemplate, final TransactionTemplate txTemplate) {
+        jdbcTemplate.setMaxRows(CHUNK_SIZE);
+        List<Timestamp> dates;
+        try {
+            dates = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT " + AuditDAO.EVENT_DATE_COLUMN + " FROM " + AuditDAO.TABLE
+                    + " WHERE " + AuditDAO.EVENT_TYPE_COLUMN + " IS NULL", Timestamp.class);
+        } finally {
+            jdbcTemplate.setMaxRows(-1);
+        }
+
+        int processed = 0;
+        for (Timestamp date : dates) {
+            int rewritten = Optional.ofNullable(txTemplate.execute(status -> {
+                int count = rewrite(jdbcTemplate, date);
+                if (count < 0) {
+                    status.setRollbackOnly();
+                }
+                return count;
+            })).orElse(0);
+            if (rewritten < 0) {
+                throw new IllegalStateException("Audit entries for " + date + " were concurrently modified");
+            }
+            processed += rewritten;
+        }
+        return processed;
+    }
+
+    /**
+     * Migrates all entries of the given domain, one chunk at a time.
+     *
+     * @param domain domain
+     * @param datasource domain data source
+     * @param txTemplate transaction template to run each chunk with
+     */
+    public void migrateAll(final String domain, final DataSource datasource, final TransactionTemplate txTemplate) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(datasource);
+
+        try {
+            int total = 0;
+            for (int processed = migrate(jdbcTemplate, txTemplate);
+                    processed > 0;
+                    processed = migrate(jdbcTemplate, txTemplate)) {
+
+                total += processed;
+                LOG.info("Domain {}: {} audit entries migrated to structured columns", domain, total);
+            }
+        } catch (Exception e) {
+            LOG.error("Domain {}: while migrating audit entries to structured columns", domain, e);
+        }
+    }
+
+    @Override
+    public void load(final String domain, final DataSource datasource) {
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(datasource));
+
+        Thread migration = new Thread(() -> migrateAll(domain, datasource, txTemplate), "AuditMigration-" + domain);
+        migration.setDaemon(true);
+        migration.start();
+    }
+}
@@ -27,8 +27,10 @@ import java.util.Objects;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.keymaster.client.api.model.Domain;
 import org.apache.syncope.core.persistence.jpa.spring.DomainEntityManagerFactoryBean;
+import org.apache.syncope.core.persistence.jpa.spring.DomainRoutingDataSource;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -82,12 +84,10 @@ public class DomainConfFactory implements DomainRegistry, EnvironmentAware {
         ApplicationContextProvider.getBeanFactory().registerBeanDefinition(name, beanDefinition);
     }
 
-    @Override
-    public void register(final Domain domain) {
-        // localDomainDataSource
+    private static DataSource hikariDataSource(final Domain domain, final String jdbcURL) {
         HikariConfig hikariConfig = new HikariConfig();
         hikariConfig.setDriverClassName(domain.getJdbcDriver());
-        hikariConfig.setJdbcUrl(domain.getJdbcURL());
+        hikariConfig.setJdbcUrl(jdbcURL);
         hikariConfig.setUsername(domain.getDbUsername());
         hikariConfig.setPassword(domain.getDbPassword());
         hikariConfig.setSchema(domain.getDbSchema());
@@ -95,7 +95,21 @@ public class DomainConfFactory implements DomainRegistry, EnvironmentAware {
         hikariConfig.setMaximumPoolSize(domain.getPoolMaxActive());
         hikariConfig.setMinimumIdle(domain.getPoolMinIdle());
 
-        HikariDataSource localDomainDataSource = new HikariDataSource(hikariConfig);
+        return new HikariDataSource(hikariConfig);
+    }
+
+    @Override
+    public void register(final Domain domain) {
+        // localDomainDataSource
+        DataSource localDomainDataSource = hikariDataSource(domain, domain.getJdbcURL());
+        if (StringUtils.isNotBlank(domain.getReplicaJdbcURL())) {
+            localDomainDataSource = new DomainRoutingDataSource(
+                    domain.getKey(),
+                    localDomainDataSource,
+                    hikariDataSource(domain, domain.getReplicaJdbcURL()),
+                    domain.getReplicaMaxLag(),
+                    domain.getReplicaLagQuery());
+        }
 
         // domainDataSource
         registerBeanDefinition(
@@ -26,8 +26,10 @@ import java.util.Map;
 import java.util.Objects;
 
 import javax.sql.DataSource;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.core.persistence.jpa.spring.CommonEntityManagerFactoryConf;
 import org.apache.syncope.core.persistence.jpa.spring.DomainEntityManagerFactoryBean;
+import org.apache.syncope.core.persistence.jpa.spring.DomainRoutingDataSource;
 import org.apache.syncope.core.spring.ResourceWithFallbackLoader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -84,6 +86,15 @@ public class MasterDomain {
     @Value("${Master.pool.minIdle:2}")
     private int minimumIdle;
 
+    @Value("${Master.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${Master.replica.maxLag:" + DomainRoutingDataSource.DEFAULT_MAX_LAG + "}")
+    private long replicaMaxLag;
+
+    @Value("${Master.replica.lagQuery:}")
+    private String replicaLagQuery;
+
     @Value("classpath:/audit/${Master.audit.sql}")
     private Resource auditSql;
 
@@ -99,9 +110,23 @@ public class MasterDomain {
     @Bean
     @ConditionalOnMissingBean(name = "localMasterDataSource")
     public DataSource localMasterDataSource() {
+        DataSource primary = hikariDataSource(url);
+        if (StringUtils.isBlank(replicaUrl)) {
+            return primary;
+        }
+
+        return new DomainRoutingDataSource(
+                "Master",
+                primary,
+                hikariDataSource(replicaUrl),
+                replicaMaxLag,
+                replicaLagQuery);
+    }
+
+    private DataSource hikariDataSource(final String jdbcUrl) {
         HikariConfig hikariConfig = new HikariConfig();
         hikariConfig.setDriverClassName(driverClassName);
-        hikariConfig.setJdbcUrl(url);
+        hikariConfig.setJdbcUrl(jdbcUrl);
         hikariConfig.setUsername(username);
         hikariConfig.setPassword(password);
         hikariConfig.setTransactionIsolation(transactionIsolation);
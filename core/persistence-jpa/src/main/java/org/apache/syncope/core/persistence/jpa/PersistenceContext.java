@@ -21,6 +21,7 @@ package org.apache.syncope.core.persistence.jpa;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
+import javax.persistence.SharedCacheMode;
 import javax.persistence.ValidationMode;
 import javax.validation.Validator;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
@@ -32,6 +33,7 @@ import org.apache.syncope.core.persistence.api.dao.PlainAttrValueDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.search.SearchCondCache;
 import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
 import org.apache.syncope.core.persistence.jpa.spring.CommonEntityManagerFactoryConf;
 import org.apache.syncope.core.persistence.jpa.spring.DomainTransactionInterceptorInjector;
@@ -75,6 +77,10 @@ public class PersistenceContext implements EnvironmentAware {
         CommonEntityManagerFactoryConf commonEMFConf = new CommonEntityManagerFactoryConf();
         commonEMFConf.setPackagesToScan("org.apache.syncope.core.persistence.jpa.entity");
         commonEMFConf.setValidationMode(ValidationMode.NONE);
+        // only entities marked as @Cacheable are cached by default; set on the persistence unit, as the unspecified
+        // shared cache mode would otherwise let OpenJPA cache every entity
+        commonEMFConf.setSharedCacheMode(SharedCacheMode.valueOf(
+                env.getProperty("openjpa.DataCacheMode", SharedCacheMode.ENABLE_SELECTIVE.name())));
         commonEMFConf.setPersistenceUnitPostProcessors(new MultiJarAwarePersistenceUnitPostProcessor());
         Map<String, Object> jpaPropertyMap = new HashMap<>();
 
@@ -93,8 +99,9 @@ public class PersistenceContext implements EnvironmentAware {
                 + "java.util.Locale=org.apache.syncope.core.persistence.jpa.openjpa.LocaleValueHandler,"
                 + "java.lang.Boolean=org.apache.syncope.core.persistence.jpa.openjpa.BooleanValueHandler'");
 
-        jpaPropertyMap.put("openjpa.DataCache", "true");
-        jpaPropertyMap.put("openjpa.QueryCache", "true");
+        // each domain gets its own data and query caches
+        jpaPropertyMap.put("openjpa.DataCache", env.getProperty("openjpa.DataCache", "true"));
+        jpaPropertyMap.put("openjpa.QueryCache", env.getProperty("openjpa.QueryCache", "true"));
 
         jpaPropertyMap.put("openjpa.RemoteCommitProvider", env.getProperty("openjpa.RemoteCommitProvider", "sjvm"));
 
@@ -155,6 +162,13 @@ public class PersistenceContext implements EnvironmentAware {
         return (SearchCondVisitor) Class.forName(env.getProperty("any.search.visitor")).getConstructor().newInstance();
     }
 
+    @ConditionalOnMissingBean
+    @Bean
+    public SearchCondCache searchCondCache(final SearchCondVisitor anySearchVisitor) {
+        return new SearchCondCache(
+                anySearchVisitor, env.getProperty("any.search.cond.cache.size", Integer.class, 1000));
+    }
+
     @ConditionalOnMissingBean(name = "userDAO")
     @Bean
     public UserDAO userDAO()
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.persistence.api.SyncopeCoreLoader;
+import org.apache.syncope.core.persistence.jpa.entity.task.AbstractTask;
+import org.apache.syncope.core.provisioning.api.serialization.AttributeCodec;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the attributes of propagation tasks stored as JSON to the binary format of {@link AttributeCodec}.
+ *
+ * Tasks are processed in key order, one chunk per transaction; tasks concurrently migrated by other Core instances,
+ * or whose JSON cannot be parsed, are left untouched.
+ * Migration runs in background, not to delay startup: tasks not yet migrated are read from JSON meanwhile.
+ */
+@Component
+public class PropagationTaskMigrationLoader implements SyncopeCoreLoader {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(PropagationTaskMigrationLoader.class);
+
+    protected static final int CHUNK_SIZE = 1000;
+
+    protected static final String SELECT = "SELECT id, attributes FROM " + AbstractTask.TABLE
+            + " WHERE DTYPE='PropagationTask' AND attributes IS NOT NULL";
+
+    protected static final String UPDATE = "UPDATE " + AbstractTask.TABLE
+            + " SET encodedAttributes=?, attributes=NULL WHERE id=? AND attributes IS NOT NULL";
+
+    @Override
+    public int getOrder() {
+        return 410;
+    }
+
+    /**
+     * Migrates up to {@link #CHUNK_SIZE} tasks with key greater than the given one.
+     *
+     * @param jdbcTemplate JDBC template for the domain
+     * @param txTemplate transaction template for the domain
+     * @param after key to start after, null to start from the first task
+     * @return the last key processed, or empty if none was found
+     */
+    protected static Optional<String> migrate(
+            final JdbcTemplate jdbcTemplate, final TransactionTemplate txTemplate, final String after) {
+
+        jdbcTemplate.setMaxRows(CHUNK_SIZE);
+        List<Pair<String, String>> rows;
+        try {
+            rows = jdbcTemplate.query(
+                    SELECT + (after == null ? "" : " AND id > ?") + " ORDER BY id",
+                    (rs, rowNum) -> Pair.of(rs.getString(1), rs.getString(2)),
+                    after == null ? new Object[0] : new Object[] { after });
+        } finally {
+            jdbcTemplate.setMaxRows(-1);
+        }
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        rows.forEach(row -> {
+            Attribute[] attributes = row.getRight() == null
+                    ? null
+                    : POJOHelper.deserialize(row.getRight(), Attribute[].class);
+            byte[] encoded = attributes == null ? null : AttributeCodec.encode(List.of(attributes));
+            if (encoded == null) {
+                LOG.warn("Could not migrate attributes of propagation task {}", row.getLeft());
+            } else {
+                updates.add(new Object[] { encoded, row.getLeft() });
+            }
+        });
+        txTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE, updates));
+
+        return Optional.of(rows.get(rows.size() - 1).getLeft());
+    }
+
+    /**
+     * Migrates all tasks of the given domain, one chunk at a time.
+     *
+     * @param domain domain
+     * @param datasource domain data source
+     * @param txTemplate transaction template to run each chunk with
+     */
+    public void migrateAll(final String domain, final DataSource datasource, final TransactionTemplate txTemplate) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(datasource);
+
+        try {
+            int chunks = 0;
+            for (Optional<String> last = migrate(jdbcTemplate, txTemplate, null);
+                    last.isPresent();
+                    last = migrate(jdbcTemplate, txTemplate, last.get())) {
+
+                chunks++;
+                LOG.info("Domain {}: {} chunks of propagation tasks migrated to binary attributes", domain, chunks);
+            }
+        } catch (Exception e) {
+            LOG.error("Domain {}: while migrating propagation task attributes", domain, e);
+        }
+    }
+
+    @Override
+    public void load(final String domain, final DataSource datasource) {
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(datasource));
+
+        Thread migration = new Thread(
+                () -> migrateAll(domain, datasource, txTemplate), "PropagationTaskMigration-" + domain);
+        migration.setDaemon(true);
+        migration.start();
+    }
+}
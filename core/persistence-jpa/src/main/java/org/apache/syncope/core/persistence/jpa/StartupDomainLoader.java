@@ -97,7 +97,13 @@ public class StartupDomainLoader implements SyncopeCoreLoader {
                         for (Enumeration<?> e = props.propertyNames(); e.hasMoreElements();) {
                             String prop = (String) e.nextElement();
 
-                            if (prop.endsWith(".driverClassName")) {
+                            if (prop.endsWith(".replica.url")) {
+                                builder.replicaJdbcURL(props.getProperty(prop));
+                            } else if (prop.endsWith(".replica.maxLag")) {
+                                builder.replicaMaxLag(Long.parseLong(props.getProperty(prop)));
+                            } else if (prop.endsWith(".replica.lagQuery")) {
+                                builder.replicaLagQuery(props.getProperty(prop));
+                            } else if (prop.endsWith(".driverClassName")) {
                                 builder.jdbcDriver(props.getProperty(prop));
                             } else if (prop.endsWith(".url")) {
                                 builder.jdbcURL(props.getProperty(prop));
@@ -20,6 +20,9 @@ package org.apache.syncope.core.persistence.jpa.content;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import javax.annotation.Resource;
 import javax.sql.DataSource;
@@ -28,6 +31,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import org.apache.syncope.core.persistence.api.content.ContentLoader;
+import org.apache.syncope.core.persistence.jpa.dao.RealmTree;
 import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.spring.ResourceWithFallbackLoader;
@@ -104,6 +108,37 @@ public class XMLContentLoader implements ContentLoader {
                 LOG.error("[{}] While loading default content", domain, e);
             }
         }
+
+        try {
+            refreshRealmFullPaths(domain, jdbcTemplate);
+        } catch (DataAccessException e) {
+            LOG.error("[{}] While refreshing realm full paths", domain, e);
+        }
+    }
+
+    /**
+     * Aligns the stored realm full paths with the realm hierarchy: this is needed after loading the default content
+     * and when upgrading databases created before the full path column was introduced.
+     *
+     * @param domain domain
+     * @param jdbcTemplate db access for the given domain
+     */
+    private void refreshRealmFullPaths(final String domain, final JdbcTemplate jdbcTemplate) {
+        Map<String, String> stored = new HashMap<>();
+        List<RealmTree.Node> nodes = jdbcTemplate.query(
+                "SELECT id, name, parent_id, fullPath FROM " + JPARealm.TABLE,
+                (rs, rowNum) -> {
+                    stored.put(rs.getString(1), rs.getString(4));
+                    return new RealmTree.Node(rs.getString(1), rs.getString(2), rs.getString(3));
+                });
+
+        RealmTree tree = RealmTree.build(0, nodes);
+        stored.forEach((key, fullPath) -> tree.getFullPath(key).
+                filter(computed -> !computed.equals(fullPath)).
+                ifPresent(computed -> {
+                    LOG.debug("[{}] Setting full path {} for realm {}", domain, computed, key);
+                    jdbcTemplate.update("UPDATE " + JPARealm.TABLE + " SET fullPath=? WHERE id=?", computed, key);
+                }));
     }
 
     private void loadDefaultContent(
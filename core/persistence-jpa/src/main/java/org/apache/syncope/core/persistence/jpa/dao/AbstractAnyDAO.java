@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -408,6 +409,26 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
             return List.of();
         }
 
+        if (schema.isIndexed() && value.length() <= JPADerSchemaDAO.INDEXED_VALUE_MAX_LENGTH) {
+            List<String> keys = derSchemaDAO.findByIndexedValue(schema, value, ignoreCaseMatch);
+            return keys.isEmpty() ? List.of() : findByKeys(keys);
+        }
+
+        return doFindByDerAttrValue(schema, value, ignoreCaseMatch);
+    }
+
+    /**
+     * Finds any objects by derived attribute value, by evaluating the derived schema expression against plain
+     * attribute values; used for derived schemas which are not indexed.
+     *
+     * @param schema derived schema
+     * @param value derived attribute value
+     * @param ignoreCaseMatch whether comparison for string values should take case into account or not
+     * @return list of any objects
+     */
+    protected List<A> doFindByDerAttrValue(
+            final DerSchema schema, final String value, final boolean ignoreCaseMatch) {
+
         // query string
         StringBuilder querystring = new StringBuilder();
 
@@ -429,19 +450,18 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
             }
         }
 
-        List<A> result = new ArrayList<>();
-        if (querystring.length() > 0) {
-            Query query = entityManager().createNativeQuery(querystring.toString());
+        if (querystring.length() == 0) {
+            return List.of();
+        }
 
-            for (Object anyKey : query.getResultList()) {
-                A any = find(anyKey.toString());
-                if (!result.contains(any)) {
-                    result.add(any);
-                }
-            }
+        Query query = entityManager().createNativeQuery(querystring.toString());
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (Object anyKey : query.getResultList()) {
+            keys.add(anyKey.toString());
         }
 
-        return result;
+        return keys.isEmpty() ? List.of() : findByKeys(new ArrayList<>(keys));
     }
 
     @SuppressWarnings("unchecked")
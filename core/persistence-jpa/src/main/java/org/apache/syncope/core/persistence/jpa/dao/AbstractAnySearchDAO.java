@@ -23,6 +23,7 @@ import java.lang.reflect.Field;
 import java.util.Optional;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.validation.ValidationException;
 import javax.validation.constraints.Max;
@@ -35,6 +36,7 @@ import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.DynRealmDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
@@ -48,6 +50,7 @@ import org.apache.syncope.core.persistence.api.dao.search.MemberCond;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.RelationshipCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
@@ -88,6 +91,9 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
     @Autowired
     protected PlainSchemaDAO schemaDAO;
 
+    @Autowired
+    protected DerSchemaDAO derSchemaDAO;
+
     @Autowired
     protected EntityFactory entityFactory;
 
@@ -109,18 +115,33 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
 
     @Override
     public int count(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
-        if (adminRealms == null || adminRealms.isEmpty()) {
-            LOG.error("No realms provided");
+        if (!isValid(adminRealms, cond)) {
             return 0;
         }
 
-        LOG.debug("Search condition:\n{}", cond);
-        if (cond == null || !cond.isValid()) {
-            LOG.error("Invalid search condition:\n{}", cond);
+        return doCount(adminRealms, cond, kind);
+    }
+
+    /**
+     * Implementations able to query database statistics shall override this method; exact count is returned
+     * otherwise.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any object
+     * @return estimated size of search result
+     */
+    protected int doEstimate(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
+        return doCount(adminRealms, cond, kind);
+    }
+
+    @Override
+    public int estimate(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
+        if (!isValid(adminRealms, cond)) {
             return 0;
         }
 
-        return doCount(adminRealms, cond, kind);
+        return doEstimate(adminRealms, cond, kind);
     }
 
     @Override
@@ -143,6 +164,14 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
             List<OrderByClause> orderBy,
             AnyTypeKind kind);
 
+    protected abstract <T extends Any<?>> Pair<List<T>, SearchAfter> doSearchAfter(
+            Set<String> adminRealms,
+            SearchCond searchCondition,
+            SearchAfter after,
+            int itemsPerPage,
+            List<OrderByClause> orderBy,
+            AnyTypeKind kind);
+
     protected Pair<PlainSchema, PlainAttrValue> check(final AttrCond cond, final AnyTypeKind kind) {
         AnyUtils anyUtils = anyUtilsFactory.getInstance(kind);
 
@@ -310,26 +339,22 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
         return (List<T>) anys;
     }
 
-    @Override
-    public <T extends Any<?>> List<T> search(
-            final Set<String> adminRealms,
-            final SearchCond cond,
-            final int page,
-            final int itemsPerPage,
-            final List<OrderByClause> orderBy,
-            final AnyTypeKind kind) {
-
+    protected boolean isValid(final Set<String> adminRealms, final SearchCond cond) {
         if (adminRealms == null || adminRealms.isEmpty()) {
             LOG.error("No realms provided");
-            return List.of();
+            return false;
         }
 
         LOG.debug("Search condition:\n{}", cond);
         if (cond == null || !cond.isValid()) {
             LOG.error("Invalid search condition:\n{}", cond);
-            return List.of();
+            return false;
         }
 
+        return true;
+    }
+
+    protected List<OrderByClause> effectiveOrderBy(final List<OrderByClause> orderBy, final AnyTypeKind kind) {
         List<OrderByClause> effectiveOrderBy;
         if (orderBy.isEmpty()) {
             OrderByClause keyClause = new OrderByClause();
@@ -341,7 +366,88 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
                     filter(clause -> !ArrayUtils.contains(ORDER_BY_NOT_ALLOWED, clause.getField())).
                     collect(Collectors.toList());
         }
+        return effectiveOrderBy;
+    }
+
+    @Override
+    public <T extends Any<?>> List<T> search(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final int page,
+            final int itemsPerPage,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
+        if (!isValid(adminRealms, cond)) {
+            return List.of();
+        }
+
+        return doSearch(adminRealms, cond, page, itemsPerPage, effectiveOrderBy(orderBy, kind), kind);
+    }
+
+    @Override
+    public <T extends Any<?>> Pair<List<T>, SearchAfter> searchAfter(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final SearchAfter after,
+            final int itemsPerPage,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
+        if (!isValid(adminRealms, cond)) {
+            return Pair.of(List.of(), null);
+        }
+
+        return doSearchAfter(adminRealms, cond, after, itemsPerPage, effectiveOrderBy(orderBy, kind), kind);
+    }
+
+    /**
+     * Implementations able to read all results with a single query shall override this method; results are read
+     * otherwise one batch at a time via {@link #doSearchAfter}, hence with no cost growing along with the number of
+     * batches already read.
+     *
+     * @param <T> any
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param batchSize maximum number of any objects per batch
+     * @param consumer invoked for each batch of matching any objects
+     */
+    protected <T extends Any<?>> void doStream(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind,
+            final int batchSize,
+            final Consumer<List<T>> consumer) {
+
+        SearchAfter after = null;
+        boolean more;
+        do {
+            Pair<List<T>, SearchAfter> batch = doSearchAfter(adminRealms, cond, after, batchSize, orderBy, kind);
+            if (!batch.getLeft().isEmpty()) {
+                consumer.accept(batch.getLeft());
+            }
+
+            after = batch.getRight();
+            more = after != null && batch.getLeft().size() == batchSize;
+        } while (more);
+    }
+
+    @Override
+    public <T extends Any<?>> void stream(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind,
+            final int batchSize,
+            final Consumer<List<T>> consumer) {
+
+        if (!isValid(adminRealms, cond)) {
+            return;
+        }
 
-        return doSearch(adminRealms, cond, page, itemsPerPage, effectiveOrderBy, kind);
+        doStream(adminRealms, cond, effectiveOrderBy(orderBy, kind), kind, batchSize, consumer);
     }
 }
@@ -18,21 +18,317 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
+import org.apache.openjpa.event.RemoteCommitEvent;
+import org.apache.openjpa.event.RemoteCommitEventManager;
+import org.apache.openjpa.event.RemoteCommitListener;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerFactorySPI;
+import org.apache.openjpa.util.OpenJPAId;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.DAO;
 import org.apache.syncope.core.persistence.api.entity.Entity;
+import org.apache.syncope.core.persistence.jpa.spring.DomainRoutingDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Configurable
 public abstract class AbstractDAO<E extends Entity> implements DAO<E> {
 
     protected static final Logger LOG = LoggerFactory.getLogger(DAO.class);
 
+    /**
+     * Tells whether the given remote commit event involves instances of the given entity class.
+     *
+     * @param event remote commit event
+     * @param reference entity class
+     * @return whether the given remote commit event involves instances of the given entity class
+     */
+    protected static boolean involves(final RemoteCommitEvent event, final Class<?> reference) {
+        Stream<?> typeNames;
+        Stream<?> oids;
+        if (event.getPayloadType() == RemoteCommitEvent.PAYLOAD_EXTENTS) {
+            typeNames = Stream.of(
+                    event.getPersistedTypeNames(), event.getUpdatedTypeNames(), event.getDeletedTypeNames()).
+                    filter(Objects::nonNull).flatMap(Collection::stream);
+            oids = Stream.empty();
+        } else {
+            typeNames = Stream.ofNullable(event.getPersistedTypeNames()).flatMap(Collection::stream);
+            oids = Stream.of(event.getUpdatedObjectIds(), event.getDeletedObjectIds()).
+                    filter(Objects::nonNull).flatMap(Collection::stream);
+        }
+
+        return typeNames.anyMatch(reference.getName()::equals)
+                || oids.anyMatch(oid -> oid instanceof OpenJPAId
+                && reference.isAssignableFrom(((OpenJPAId) oid).getType()));
+    }
+
+    /**
+     * Registers the given listener for the commits performed by other Core instances on the given domain, as
+     * notified by the configured OpenJPA remote commit provider.
+     *
+     * @param domain domain
+     * @param listener remote commit listener
+     * @return whether remote commit events are enabled for the given domain, hence the listener was registered
+     */
+    protected static boolean addRemoteCommitListener(final String domain, final RemoteCommitListener listener) {
+        try {
+            RemoteCommitEventManager rcem = EntityManagerFactoryUtils.findEntityManagerFactory(
+                    ApplicationContextProvider.getBeanFactory(), domain).
+                    unwrap(OpenJPAEntityManagerFactorySPI.class).getConfiguration().getRemoteCommitEventManager();
+            if (rcem.areRemoteEventsEnabled()) {
+                rcem.addListener(listener);
+                return true;
+            }
+        } catch (Exception e) {
+            LOG.error("Could not listen to remote commits for domain {}", domain, e);
+        }
+        return false;
+    }
+
+    /**
+     * Snapshot, per domain, of some data read from the database: the changes performed within a transaction are
+     * collected and applied to the snapshot only after successful commit, while the changes performed by other Core
+     * instances drop the snapshot, as notified by the configured OpenJPA remote commit provider.
+     *
+     * @param <S> snapshot type
+     * @param <C> type of the changes collected within a transaction
+     */
+    protected abstract static class DomainCache<S, C> {
+
+        private final String pendingChangesKey;
+
+        private final String description;
+
+        private final List<Class<?>> involved;
+
+        private final Map<String, S> snapshots = new ConcurrentHashMap<>();
+
+        /**
+         * Counts the changes applied, per domain: it is also used as version for the snapshots.
+         */
+        private final Map<String, AtomicLong> modCounts = new ConcurrentHashMap<>();
+
+        private final Set<String> listening = ConcurrentHashMap.newKeySet();
+
+        /**
+         * @param owner DAO class owning this cache
+         * @param description what is cached, for logging
+         * @param involved entity classes whose remote changes drop the snapshot
+         */
+        protected DomainCache(final Class<?> owner, final String description, final Class<?>... involved) {
+            this.pendingChangesKey = owner.getName() + ".pendingChanges.";
+            this.description = description;
+            this.involved = List.of(involved);
+        }
+
+        /**
+         * Reads the snapshot for the current domain from the database; connections are always routed to primary, not
+         * to publish data read from a lagging replica.
+         *
+         * @param version version of the snapshot
+         * @return snapshot
+         */
+        protected abstract S load(long version);
+
+        /**
+         * @return empty changes, to be collected within a transaction
+         */
+        protected abstract C newChanges();
+
+        /**
+         * Applies the committed changes to the given snapshot; by default, the snapshot is dropped.
+         *
+         * @param snapshot current snapshot
+         * @param version new version of the snapshot
+         * @param changes committed changes
+         * @return updated snapshot, or null to drop it
+         */
+        protected S apply(final S snapshot, final long version, final C changes) {
+            return null;
+        }
+
+        /**
+         * Invoked just before committing the transaction which collected the given changes.
+         *
+         * @param changes changes collected within the transaction
+         */
+        protected void beforeCommit(final C changes) {
+            // nothing to do by default
+        }
+
+        /**
+         * Invoked when data were changed by other Core instances, before dropping the snapshot.
+         *
+         * @param snapshot current snapshot, if any
+         */
+        protected void changedRemotely(final S snapshot) {
+            // nothing to do by default
+        }
+
+        private AtomicLong modCount(final String domain) {
+            return modCounts.computeIfAbsent(domain, k -> new AtomicLong());
+        }
+
+        public void invalidate(final String domain) {
+            AtomicLong modCount = modCount(domain);
+            snapshots.compute(domain, (k, snapshot) -> {
+                modCount.incrementAndGet();
+                return null;
+            });
+        }
+
+        private void changed(final String domain, final C changes) {
+            AtomicLong modCount = modCount(domain);
+            snapshots.compute(domain, (k, snapshot) -> {
+                long version = modCount.incrementAndGet();
+                return snapshot == null ? null : apply(snapshot, version, changes);
+            });
+        }
+
+        /**
+         * Returns the snapshot for the current domain, reading it from the database if not available.
+         *
+         * @return snapshot
+         */
+        public S get() {
+            String domain = AuthContextUtils.getDomain();
+
+            S snapshot = snapshots.get(domain);
+            if (snapshot != null) {
+                return snapshot;
+            }
+
+            if (listening.add(domain) && !addRemoteCommitListener(domain, new Invalidator(domain))) {
+                LOG.debug("Remote commit events not available for domain {}, {} will only be updated locally",
+                        domain, description);
+            }
+
+            AtomicLong modCount = modCount(domain);
+            long version = modCount.get();
+
+            S loaded = DomainRoutingDataSource.onPrimary(() -> load(version));
+
+            // only publish the loaded snapshot if no changes were applied in the meanwhile
+            snapshots.compute(domain, (k, current) -> current == null && modCount.get() == version
+                    ? loaded : current);
+
+            LOG.debug("{} for domain {} loaded, version {}", description, domain, version);
+            return loaded;
+        }
+
+        /**
+         * Returns the changes collected within the current transaction, if any: in such case the snapshot does not
+         * reflect them yet.
+         *
+         * @return changes collected within the current transaction, if any
+         */
+        @SuppressWarnings("unchecked")
+        public Optional<C> pending() {
+            PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(
+                    pendingChangesKey + AuthContextUtils.getDomain());
+            return Optional.ofNullable(pending).map(p -> p.changes);
+        }
+
+        /**
+         * Collects the given change within the current transaction, to be applied upon commit; without transaction
+         * synchronization, the snapshot is dropped straight away.
+         *
+         * @param change change to collect
+         */
+        @SuppressWarnings("unchecked")
+        public void track(final Consumer<C> change) {
+            String domain = AuthContextUtils.getDomain();
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                invalidate(domain);
+                return;
+            }
+
+            PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(
+                    pendingChangesKey + domain);
+            if (pending == null) {
+                pending = new PendingChanges(domain);
+                TransactionSynchronizationManager.bindResource(pendingChangesKey + domain, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            change.accept(pending.changes);
+        }
+
+        private class PendingChanges implements TransactionSynchronization {
+
+            private final String domain;
+
+            private final C changes = newChanges();
+
+            PendingChanges(final String domain) {
+                this.domain = domain;
+            }
+
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(pendingChangesKey + domain);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(pendingChangesKey + domain, this);
+            }
+
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                DomainCache.this.beforeCommit(changes);
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pendingChangesKey + domain);
+
+                if (status == STATUS_COMMITTED) {
+                    changed(domain, changes);
+                }
+            }
+        }
+
+        private class Invalidator implements RemoteCommitListener {
+
+            private final String domain;
+
+            Invalidator(final String domain) {
+                this.domain = domain;
+            }
+
+            @Override
+            public void afterCommit(final RemoteCommitEvent event) {
+                if (involved.stream().anyMatch(reference -> involves(event, reference))) {
+                    LOG.debug("Changed remotely, dropping {} for domain {}", description, domain);
+
+                    changedRemotely(snapshots.get(domain));
+                    invalidate(domain);
+                }
+            }
+
+            @Override
+            public void close() {
+                listening.remove(domain);
+                invalidate(domain);
+            }
+        }
+    }
+
     protected EntityManager entityManager() {
         EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(
                 EntityManagerFactoryUtils.findEntityManagerFactory(
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+/**
+ * Set-based refresh of the members of dynamic groups, roles and realms: expected members are computed by the DBMS
+ * from the query built via {@link JPAAnySearchDAO#buildKeysQuery}, and only the difference with existing rows is
+ * applied, without loading any entity.
+ */
+final class DynMembershipUtils {
+
+    /**
+     * Maximum number of keys bound to a single statement.
+     */
+    static final int BATCH_SIZE = 500;
+
+    @SuppressWarnings("unchecked")
+    private static List<String> keys(final Query query) {
+        return ((List<Object>) query.getResultList()).stream().map(key -> key instanceof Object[]
+                ? (String) ((Object[]) key)[0]
+                : ((String) key)).
+                collect(Collectors.toList());
+    }
+
+    private static String placeholders(final int from, final int size) {
+        return IntStream.range(from, from + size).mapToObj(i -> "?" + i).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Removes all members of the given owner.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic members table
+     * @param ownerColumn column referencing the owner (group, role or dynamic realm)
+     * @param ownerKey owner key
+     * @return keys of removed members
+     */
+    static List<String> removeAll(
+            final EntityManager entityManager,
+            final String table,
+            final String ownerColumn,
+            final String ownerKey) {
+
+        Query find = entityManager.createNativeQuery(
+                "SELECT any_id FROM " + table + " WHERE " + ownerColumn + "=?");
+        find.setParameter(1, ownerKey);
+        List<String> removed = keys(find);
+
+        Query delete = entityManager.createNativeQuery("DELETE FROM " + table + " WHERE " + ownerColumn + "=?");
+        delete.setParameter(1, ownerKey);
+        delete.executeUpdate();
+
+        return removed;
+    }
+
+    /**
+     * Removes the members of the given owner which are not returned by the given query.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic members table
+     * @param ownerColumn column referencing the owner (group, role or dynamic realm)
+     * @param ownerKey owner key
+     * @param membersQuery query returning the {@code any_id} column of expected members
+     * @param parameters parameters of {@code membersQuery}
+     * @return keys of removed members
+     */
+    static List<String> removeStale(
+            final EntityManager entityManager,
+            final String table,
+            final String ownerColumn,
+            final String ownerKey,
+            final String membersQuery,
+            final List<Object> parameters) {
+
+        List<Object> findParameters = new ArrayList<>(parameters);
+        Query find = entityManager.createNativeQuery(
+                "SELECT any_id FROM " + table
+                + " WHERE " + ownerColumn + "=?" + JPAAnySearchDAO.setParameter(findParameters, ownerKey)
+                + " AND any_id NOT IN (" + membersQuery + ")");
+        JPAAnySearchDAO.fillWithParameters(find, findParameters);
+        List<String> stale = keys(find);
+
+        for (int i = 0; i < stale.size(); i += BATCH_SIZE) {
+            List<String> batch = stale.subList(i, Math.min(i + BATCH_SIZE, stale.size()));
+
+            Query delete = entityManager.createNativeQuery(
+                    "DELETE FROM " + table + " WHERE " + ownerColumn + "=?1 AND any_id IN ("
+                    + placeholders(2, batch.size()) + ")");
+            delete.setParameter(1, ownerKey);
+            for (int j = 0; j < batch.size(); j++) {
+                delete.setParameter(j + 2, batch.get(j));
+            }
+            delete.executeUpdate();
+        }
+
+        return stale;
+    }
+
+    /**
+     * Adds as members of the given owner all entities returned by the given query, via a single
+     * {@code INSERT ... SELECT} statement.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic members table
+     * @param ownerColumn column referencing the owner (group, role or dynamic realm)
+     * @param ownerKey owner key
+     * @param extraColumns additional columns to fill, with values
+     * @param membersQuery query returning the {@code any_id} column of expected members
+     * @param parameters parameters of {@code membersQuery}
+     * @return keys of added members
+     */
+    static List<String> addMissing(
+            final EntityManager entityManager,
+            final String table,
+            final String ownerColumn,
+            final String ownerKey,
+            final Map<String, String> extraColumns,
+            final String membersQuery,
+            final List<Object> parameters) {
+
+        List<Object> insertParameters = new ArrayList<>(parameters);
+        int owner = JPAAnySearchDAO.setParameter(insertParameters, ownerKey);
+        String missing = " FROM (SELECT DISTINCT any_id FROM (" + membersQuery + ") q) m"
+                + " WHERE m.any_id NOT IN (SELECT any_id FROM " + table + " WHERE " + ownerColumn + "=?" + owner + ")";
+
+        Query find = entityManager.createNativeQuery("SELECT m.any_id" + missing);
+        JPAAnySearchDAO.fillWithParameters(find, insertParameters);
+        List<String> added = keys(find);
+
+        if (!added.isEmpty()) {
+            StringBuilder columns = new StringBuilder("any_id, ").append(ownerColumn);
+            StringBuilder values = new StringBuilder("m.any_id, ?").append(owner);
+            extraColumns.forEach((column, value) -> {
+                columns.append(", ").append(column);
+                values.append(", ?").append(JPAAnySearchDAO.setParameter(insertParameters, value));
+            });
+
+            Query insert = entityManager.createNativeQuery(
+                    "INSERT INTO " + table + " (" + columns + ") SELECT " + values + missing);
+            JPAAnySearchDAO.fillWithParameters(insert, insertParameters);
+            insert.executeUpdate();
+        }
+
+        return added;
+    }
+
+    /**
+     * Adds the given entities as members of the given owner, with one {@code INSERT ... SELECT} statement per
+     * {@link #BATCH_SIZE} entities.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic members table
+     * @param ownerColumn column referencing the owner (group, role or dynamic realm)
+     * @param ownerKey owner key
+     * @param extraColumns additional columns to fill, with values
+     * @param anyTable table of the given entities
+     * @param anyKeys keys of the entities to add
+     */
+    static void add(
+            final EntityManager entityManager,
+            final String table,
+            final String ownerColumn,
+            final String ownerKey,
+            final Map<String, String> extraColumns,
+            final String anyTable,
+            final Collection<String> anyKeys) {
+
+        List<String> keys = new ArrayList<>(anyKeys);
+        for (int i = 0; i < keys.size(); i += BATCH_SIZE) {
+            List<String> batch = keys.subList(i, Math.min(i + BATCH_SIZE, keys.size()));
+
+            List<Object> parameters = new ArrayList<>();
+            StringBuilder columns = new StringBuilder("any_id, ").append(ownerColumn);
+            StringBuilder values = new StringBuilder("id, ?").
+                    append(JPAAnySearchDAO.setParameter(parameters, ownerKey));
+            extraColumns.forEach((column, value) -> {
+                columns.append(", ").append(column);
+                values.append(", ?").append(JPAAnySearchDAO.setParameter(parameters, value));
+            });
+            int from = parameters.size() + 1;
+            parameters.addAll(batch);
+
+            Query insert = entityManager.createNativeQuery(
+                    "INSERT INTO " + table + " (" + columns + ") SELECT " + values
+                    + " FROM " + anyTable + " WHERE id IN (" + placeholders(from, batch.size()) + ")");
+            JPAAnySearchDAO.fillWithParameters(insert, parameters);
+            insert.executeUpdate();
+        }
+    }
+
+    /**
+     * Returns which of the given keys identify entities stored in the given table, with one query per
+     * {@link #BATCH_SIZE} keys.
+     *
+     * @param entityManager entity manager
+     * @param anyTable table of users, groups or any objects
+     * @param anyKeys keys to check
+     * @return keys of the entities found in the given table
+     */
+    static List<String> existing(
+            final EntityManager entityManager,
+            final String anyTable,
+            final Collection<String> anyKeys) {
+
+        List<String> keys = new ArrayList<>(anyKeys);
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += BATCH_SIZE) {
+            List<String> batch = keys.subList(i, Math.min(i + BATCH_SIZE, keys.size()));
+
+            Query find = entityManager.createNativeQuery(
+                    "SELECT id FROM " + anyTable + " WHERE id IN (" + placeholders(1, batch.size()) + ")");
+            for (int j = 0; j < batch.size(); j++) {
+                find.setParameter(j + 1, batch.get(j));
+            }
+            found.addAll(keys(find));
+        }
+        return found;
+    }
+
+    private DynMembershipUtils() {
+        // private constructor for static utility class
+    }
+}
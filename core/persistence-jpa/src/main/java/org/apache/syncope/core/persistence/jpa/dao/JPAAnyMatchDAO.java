@@ -23,15 +23,24 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import javax.persistence.Entity;
 import javax.validation.ValidationException;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
-import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
@@ -56,9 +65,9 @@ import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
 import org.apache.syncope.core.persistence.api.entity.GroupableRelatable;
 import org.apache.syncope.core.persistence.api.entity.PlainAttr;
-import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -69,9 +78,32 @@ import org.apache.syncope.core.persistence.api.entity.PlainSchema;
 import org.apache.syncope.core.persistence.jpa.entity.JPAPlainSchema;
 import org.springframework.beans.BeanUtils;
 
+/**
+ * Matches anys against search conditions in memory.
+ *
+ * Each condition is compiled once (per domain) into a tree of predicates, with schema, property and type lookups
+ * resolved ahead of time; facts requiring DB access - as group, resource, role or dynamic realm assignments - are
+ * then loaded at most once per evaluated any.
+ */
 @Component
 public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
 
+    /**
+     * Maximum number of compiled conditions kept in memory.
+     */
+    protected static final int COMPILED_MAX_SIZE = 1000;
+
+    /**
+     * Predicate compiled from a {@link SearchCond}.
+     */
+    @FunctionalInterface
+    protected interface AnyPredicate {
+
+        boolean test(Any<?> any, Facts facts);
+    }
+
+    protected static final AnyPredicate NEVER = (any, facts) -> false;
+
     @Autowired
     private UserDAO userDAO;
 
@@ -90,6 +122,77 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
     @Autowired
     private AnyUtilsFactory anyUtilsFactory;
 
+    private final Map<Pair<String, SearchCond>, AnyPredicate> compiled =
+            new LinkedHashMap<Pair<String, SearchCond>, AnyPredicate>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 4391470386582412575L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Pair<String, SearchCond>, AnyPredicate> eldest) {
+            return size() > COMPILED_MAX_SIZE;
+        }
+    };
+
+    /**
+     * Facts about an any which require DB access: each of them is loaded at most once.
+     */
+    protected class Facts {
+
+        private final Any<?> any;
+
+        private Set<String> groups;
+
+        private Set<String> resources;
+
+        private Set<String> roles;
+
+        private Set<String> dynRealms;
+
+        protected Facts(final Any<?> any) {
+            this.any = any;
+        }
+
+        public Set<String> groups() {
+            if (groups == null) {
+                groups = new HashSet<>();
+                if (any instanceof GroupableRelatable) {
+                    ((GroupableRelatable<?, ?, ?, ?, ?>) any).getMemberships().
+                            forEach(memb -> groups.add(memb.getRightEnd().getKey()));
+                    (any instanceof User
+                            ? userDAO.findDynGroups(any.getKey())
+                            : anyObjectDAO.findDynGroups(any.getKey())).
+                            forEach(group -> groups.add(group.getKey()));
+                }
+            }
+            return groups;
+        }
+
+        public Set<String> resources() {
+            if (resources == null) {
+                resources = anyUtilsFactory.getInstance(any).getAllResources(any).stream().
+                        map(resource -> resource.getKey()).collect(Collectors.toSet());
+            }
+            return resources;
+        }
+
+        public Set<String> roles() {
+            if (roles == null) {
+                roles = any instanceof User
+                        ? userDAO.findAllRoles((User) any).stream().
+                                map(role -> role.getKey()).collect(Collectors.toSet())
+                        : Set.of();
+            }
+            return roles;
+        }
+
+        public Set<String> dynRealms() {
+            if (dynRealms == null) {
+                dynRealms = new HashSet<>(anyUtilsFactory.getInstance(any).dao().findDynRealms(any.getKey()));
+            }
+            return dynRealms;
+        }
+    }
+
     /**
      * Verify if any matches the given search condition.
      *
@@ -101,156 +204,177 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
     @Transactional(readOnly = true)
     @Override
     public <T extends Any<?>> boolean matches(final T any, final SearchCond cond) {
-        boolean not = cond.getType() == SearchCond.Type.NOT_LEAF;
+        return predicate(cond).test(any, new Facts(any));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public <T extends Any<?>> Predicate<SearchCond> matcher(final T any) {
+        Facts facts = new Facts(any);
+        return cond -> predicate(cond).test(any, facts);
+    }
+
+    protected AnyPredicate predicate(final SearchCond cond) {
+        Pair<String, SearchCond> key = Pair.of(AuthContextUtils.getDomain(), cond);
+
+        AnyPredicate predicate;
+        synchronized (compiled) {
+            predicate = compiled.get(key);
+        }
+        if (predicate == null) {
+            // the given condition might be modified afterwards by the caller
+            SearchCond copy = SerializationUtils.clone(cond);
+            predicate = compile(copy);
+            synchronized (compiled) {
+                compiled.put(Pair.of(key.getLeft(), copy), predicate);
+            }
+        }
+        return predicate;
+    }
+
+    @Override
+    public void clearCompiled() {
+        synchronized (compiled) {
+            compiled.clear();
+        }
+    }
+
+    protected static AnyPredicate not(final AnyPredicate found, final boolean not) {
+        return not ? (any, facts) -> !found.test(any, facts) : found;
+    }
+
+    protected AnyPredicate compile(final SearchCond cond) {
         switch (cond.getType()) {
             case LEAF:
             case NOT_LEAF:
-                Boolean match = cond.getLeaf(AnyTypeCond.class).
-                        filter(leaf -> AnyTypeKind.ANY_OBJECT == any.getType().getKind()).
-                        map(leaf -> matches(any, leaf, not)).
-                        orElse(null);
-
-                if (match == null) {
-                    match = cond.getLeaf(RelationshipTypeCond.class).
-                            filter(leaf -> any instanceof GroupableRelatable).
-                            map(leaf -> matches((GroupableRelatable) any, leaf, not)).
-                            orElse(null);
-                }
+                return compileLeaf(cond, cond.getType() == SearchCond.Type.NOT_LEAF);
 
-                if (match == null) {
-                    match = cond.getLeaf(RelationshipCond.class).
-                            filter(leaf -> any instanceof GroupableRelatable).
-                            map(leaf -> matches((GroupableRelatable) any, leaf, not)).
-                            orElse(null);
-                }
+            case AND:
+                AnyPredicate andLeft = compile(cond.getLeft());
+                AnyPredicate andRight = compile(cond.getRight());
+                return (any, facts) -> andLeft.test(any, facts) && andRight.test(any, facts);
 
-                if (match == null) {
-                    match = cond.getLeaf(MembershipCond.class).
-                            filter(leaf -> any instanceof GroupableRelatable).
-                            map(leaf -> matches((GroupableRelatable) any, leaf, not)).
-                            orElse(null);
-                }
+            case OR:
+                AnyPredicate orLeft = compile(cond.getLeft());
+                AnyPredicate orRight = compile(cond.getRight());
+                return (any, facts) -> orLeft.test(any, facts) || orRight.test(any, facts);
 
-                if (match == null) {
-                    match = cond.getLeaf(AssignableCond.class).
-                            map(leaf -> matches(any, leaf, not)).
-                            orElse(null);
-                }
+            default:
+                return NEVER;
+        }
+    }
 
-                if (match == null) {
-                    match = cond.getLeaf(RoleCond.class).
-                            filter(leaf -> any instanceof User).
-                            map(leaf -> matches((User) any, leaf, not)).
-                            orElse(null);
-                }
+    protected AnyPredicate compileLeaf(final SearchCond cond, final boolean not) {
+        Optional<AnyTypeCond> anyTypeCond = cond.getLeaf(AnyTypeCond.class);
+        if (anyTypeCond.isPresent()) {
+            AnyPredicate found = not(compile(anyTypeCond.get()), not);
+            return (any, facts) -> any.getType().getKind() == AnyTypeKind.ANY_OBJECT && found.test(any, facts);
+        }
 
-                if (match == null) {
-                    match = cond.getLeaf(DynRealmCond.class).
-                            map(leaf -> matches(any, leaf, not)).
-                            orElse(null);
-                }
+        Optional<RelationshipTypeCond> relationshipTypeCond = cond.getLeaf(RelationshipTypeCond.class);
+        if (relationshipTypeCond.isPresent()) {
+            AnyPredicate found = not(compile(relationshipTypeCond.get()), not);
+            return (any, facts) -> any instanceof GroupableRelatable && found.test(any, facts);
+        }
 
-                if (match == null) {
-                    match = cond.getLeaf(MemberCond.class).
-                            filter(leaf -> any instanceof Group).
-                            map(leaf -> matches((Group) any, leaf, not)).
-                            orElse(null);
-                }
+        Optional<RelationshipCond> relationshipCond = cond.getLeaf(RelationshipCond.class);
+        if (relationshipCond.isPresent()) {
+            AnyPredicate found = not(compile(relationshipCond.get()), not);
+            return (any, facts) -> any instanceof GroupableRelatable && found.test(any, facts);
+        }
 
-                if (match == null) {
-                    match = cond.getLeaf(ResourceCond.class).
-                            map(leaf -> matches(any, leaf, not)).
-                            orElse(null);
-                }
+        Optional<MembershipCond> membershipCond = cond.getLeaf(MembershipCond.class);
+        if (membershipCond.isPresent()) {
+            AnyPredicate found = not(compile(membershipCond.get()), not);
+            return (any, facts) -> any instanceof GroupableRelatable && found.test(any, facts);
+        }
 
-                if (match == null) {
-                    Optional<AnyCond> anyCond = cond.getLeaf(AnyCond.class);
-                    if (anyCond.isPresent()) {
-                        match = matches(any, anyCond.get(), not);
-                    } else {
-                        match = cond.getLeaf(AttrCond.class).
-                                map(leaf -> matches(any, leaf, not)).
-                                orElse(null);
-                    }
-                }
+        Optional<AssignableCond> assignableCond = cond.getLeaf(AssignableCond.class);
+        if (assignableCond.isPresent()) {
+            return not(compile(assignableCond.get()), not);
+        }
 
-                if (match == null) {
-                    match = cond.getLeaf(AttrCond.class).
-                            map(leaf -> matches(any, leaf, not)).
-                            orElse(null);
-                }
+        Optional<RoleCond> roleCond = cond.getLeaf(RoleCond.class);
+        if (roleCond.isPresent()) {
+            AnyPredicate found = not(compile(roleCond.get()), not);
+            return (any, facts) -> any instanceof User && found.test(any, facts);
+        }
 
-                return BooleanUtils.toBoolean(match);
+        Optional<DynRealmCond> dynRealmCond = cond.getLeaf(DynRealmCond.class);
+        if (dynRealmCond.isPresent()) {
+            return not(compile(dynRealmCond.get()), not);
+        }
 
-            case AND:
-                return matches(any, cond.getLeft()) && matches(any, cond.getRight());
+        Optional<MemberCond> memberCond = cond.getLeaf(MemberCond.class);
+        if (memberCond.isPresent()) {
+            MemberCond leaf = memberCond.get();
+            return (any, facts) -> any instanceof Group && matches((Group) any, leaf, not);
+        }
 
-            case OR:
-                return matches(any, cond.getLeft()) || matches(any, cond.getRight());
+        Optional<ResourceCond> resourceCond = cond.getLeaf(ResourceCond.class);
+        if (resourceCond.isPresent()) {
+            return not(compile(resourceCond.get()), not);
+        }
 
-            default:
+        Optional<AnyCond> anyCond = cond.getLeaf(AnyCond.class);
+        if (anyCond.isPresent()) {
+            return compile(anyCond.get(), not);
         }
 
-        return false;
+        return cond.getLeaf(AttrCond.class).map(leaf -> compile(leaf, not)).orElse(NEVER);
     }
 
-    private static boolean matches(final Any<?> any, final AnyTypeCond cond, final boolean not) {
-        boolean equals = any.getType().getKey().equals(cond.getAnyTypeKey());
-        return not ? !equals : equals;
+    protected static AnyPredicate compile(final AnyTypeCond cond) {
+        String anyType = cond.getAnyTypeKey();
+        return (any, facts) -> any.getType().getKey().equals(anyType);
     }
 
-    private static boolean matches(
-        final GroupableRelatable<?, ?, ?, ?, ?> any, final RelationshipTypeCond cond, final boolean not) {
-
-        boolean found = any.getRelationships().stream().
-                anyMatch(rel -> rel.getType().getKey().equals(cond.getRelationshipTypeKey()));
-        return not ? !found : found;
+    protected static AnyPredicate compile(final RelationshipTypeCond cond) {
+        String relationshipType = cond.getRelationshipTypeKey();
+        return (any, facts) -> ((GroupableRelatable<?, ?, ?, ?, ?>) any).getRelationships().stream().
+                anyMatch(rel -> rel.getType().getKey().equals(relationshipType));
     }
 
-    private boolean matches(
-            final GroupableRelatable<?, ?, ?, ?, ?> any, final RelationshipCond cond, final boolean not) {
-
+    protected AnyPredicate compile(final RelationshipCond cond) {
         String anyObject = cond.getAnyObject();
-        if (!SyncopeConstants.UUID_PATTERN.matcher(cond.getAnyObject()).matches()) {
-            anyObject = anyObjectDAO.findKey(anyObject);
-        }
-
-        boolean found = !any.getRelationships(anyObject).isEmpty();
-        return not ? !found : found;
+        boolean isKey = SyncopeConstants.UUID_PATTERN.matcher(anyObject).matches();
+        return (any, facts) -> !((GroupableRelatable<?, ?, ?, ?, ?>) any).
+                getRelationships(isKey ? anyObject : anyObjectDAO.findKey(anyObject)).isEmpty();
     }
 
-    private boolean matches(
-            final GroupableRelatable<?, ?, ?, ?, ?> any, final MembershipCond cond, final boolean not) {
+    protected AnyPredicate compile(final MembershipCond cond) {
+        String group = cond.getGroup();
+        boolean isKey = SyncopeConstants.UUID_PATTERN.matcher(group).matches();
+        return (any, facts) -> facts.groups().contains(isKey ? group : groupDAO.findKey(group));
+    }
 
-        final String group = SyncopeConstants.UUID_PATTERN.matcher(cond.getGroup()).matches()
-                ? cond.getGroup()
-                : groupDAO.findKey(cond.getGroup());
+    protected static boolean isDescendantOrSelf(final String fullPath, final String ancestorFullPath) {
+        return fullPath.equals(ancestorFullPath)
+                || fullPath.startsWith(ancestorFullPath.endsWith("/") ? ancestorFullPath : ancestorFullPath + '/');
+    }
 
-        boolean found = any.getMembership(group).isPresent()
-                || (any instanceof User
-                        ? userDAO.findDynGroups(any.getKey())
-                        : anyObjectDAO.findDynGroups(any.getKey())).stream().
-                        anyMatch(item -> item.getKey().equals(group));
-        return not ? !found : found;
+    protected AnyPredicate compile(final AssignableCond cond) {
+        String realm = cond.getRealmFullPath();
+        boolean fromGroup = cond.isFromGroup();
+        return (any, facts) -> realmDAO.findByFullPath(realm) != null
+                && (fromGroup
+                        ? isDescendantOrSelf(any.getRealm().getFullPath(), realm)
+                        : isDescendantOrSelf(realm, any.getRealm().getFullPath()));
     }
 
-    private boolean matches(final Any<?> any, final AssignableCond cond, final boolean not) {
-        Realm realm = realmDAO.findByFullPath(cond.getRealmFullPath());
-        boolean found = Optional.ofNullable(realm)
-            .filter(realm1 -> (cond.isFromGroup() ? realmDAO.findDescendants(realm1) : realmDAO.findAncestors(realm1)).
-            stream().anyMatch(item -> item.equals(any.getRealm()))).isPresent();
-        return not ? !found : found;
+    protected static AnyPredicate compile(final RoleCond cond) {
+        String role = cond.getRole();
+        return (any, facts) -> facts.roles().contains(role);
     }
 
-    private boolean matches(final User user, final RoleCond cond, final boolean not) {
-        boolean found = userDAO.findAllRoles(user).stream().anyMatch(role -> role.getKey().equals(cond.getRole()));
-        return not ? !found : found;
+    protected static AnyPredicate compile(final DynRealmCond cond) {
+        String dynRealm = cond.getDynRealm();
+        return (any, facts) -> facts.dynRealms().contains(dynRealm);
     }
 
-    private boolean matches(final Any<?> any, final DynRealmCond cond, final boolean not) {
-        boolean found = anyUtilsFactory.getInstance(any).dao().findDynRealms(any.getKey()).stream().
-                anyMatch(dynRealm -> dynRealm.equals(cond.getDynRealm()));
-        return not ? !found : found;
+    protected static AnyPredicate compile(final ResourceCond cond) {
+        String resource = cond.getResourceKey();
+        return (any, facts) -> facts.resources().contains(resource);
     }
 
     private boolean matches(final Group group, final MemberCond cond, final boolean not) {
@@ -273,144 +397,157 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
         return not ? !found : found;
     }
 
-    private boolean matches(final Any<?> any, final ResourceCond cond, final boolean not) {
-        boolean found = anyUtilsFactory.getInstance(any).getAllResources(any).stream().
-                anyMatch(resource -> resource.getKey().equals(cond.getResourceKey()));
-        return not ? !found : found;
-    }
-
+    /**
+     * Compiles the comparison of attribute values with the given (validated) value.
+     *
+     * @param attrValue value from condition
+     * @param schema schema
+     * @param cond condition
+     * @return predicate to evaluate against each attribute value
+     */
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    private static boolean matches(
-            final List<? extends PlainAttrValue> anyAttrValues,
+    protected static Predicate<PlainAttrValue> compile(
             final PlainAttrValue attrValue,
             final PlainSchema schema,
             final AttrCond cond) {
 
-        return anyAttrValues.stream().anyMatch(item -> {
-            switch (cond.getType()) {
-                case EQ:
-                    return attrValue.getValue().equals(item.getValue());
-
-                case IEQ:
-                    if (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum) {
-                        return attrValue.getStringValue().equalsIgnoreCase(item.getStringValue());
-                    } else {
-                        LOG.error("IEQ is only compatible with string or enum schemas");
-                        return false;
-                    }
+        switch (cond.getType()) {
+            case EQ:
+                return item -> attrValue.getValue().equals(item.getValue());
 
-                case LIKE:
-                case ILIKE:
-                    if (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum) {
-                        StringBuilder output = new StringBuilder();
-                        for (char c : cond.getExpression().toLowerCase().toCharArray()) {
-                            if (c == '%') {
-                                output.append(".*");
-                            } else if (Character.isLetter(c)) {
-                                output.append('[').
-                                        append(c).
-                                        append(Character.toUpperCase(c)).
-                                        append(']');
-                            } else {
-                                output.append(c);
-                            }
+            case IEQ:
+                if (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum) {
+                    return item -> attrValue.getStringValue().equalsIgnoreCase(item.getStringValue());
+                }
+
+                LOG.error("IEQ is only compatible with string or enum schemas");
+                return item -> false;
+
+            case LIKE:
+            case ILIKE:
+                if (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum) {
+                    StringBuilder output = new StringBuilder();
+                    for (char c : cond.getExpression().toLowerCase().toCharArray()) {
+                        if (c == '%') {
+                            output.append(".*");
+                        } else if (Character.isLetter(c)) {
+                            output.append('[').
+                                    append(c).
+                                    append(Character.toUpperCase(c)).
+                                    append(']');
+                        } else {
+                            output.append(c);
                         }
-                        return (cond.getType() == AttrCond.Type.LIKE
-                                ? Pattern.compile(output.toString())
-                                : Pattern.compile(output.toString(), Pattern.CASE_INSENSITIVE)).
-                                matcher(item.getStringValue()).matches();
-                    } else {
-                        LOG.error("LIKE is only compatible with string or enum schemas");
-                        return false;
                     }
+                    Pattern pattern = cond.getType() == AttrCond.Type.LIKE
+                            ? Pattern.compile(output.toString())
+                            : Pattern.compile(output.toString(), Pattern.CASE_INSENSITIVE);
+                    return item -> pattern.matcher(item.getStringValue()).matches();
+                }
 
-                case GT:
-                    return item.<Comparable>getValue().compareTo(attrValue.getValue()) > 0;
+                LOG.error("LIKE is only compatible with string or enum schemas");
+                return item -> false;
 
-                case GE:
-                    return item.<Comparable>getValue().compareTo(attrValue.getValue()) >= 0;
+            case GT:
+                return item -> item.<Comparable>getValue().compareTo(attrValue.getValue()) > 0;
 
-                case LT:
-                    return item.<Comparable>getValue().compareTo(attrValue.getValue()) < 0;
+            case GE:
+                return item -> item.<Comparable>getValue().compareTo(attrValue.getValue()) >= 0;
 
-                case LE:
-                    return item.<Comparable>getValue().compareTo(attrValue.getValue()) <= 0;
+            case LT:
+                return item -> item.<Comparable>getValue().compareTo(attrValue.getValue()) < 0;
 
-                default:
-                    return false;
-            }
-        });
+            case LE:
+                return item -> item.<Comparable>getValue().compareTo(attrValue.getValue()) <= 0;
+
+            default:
+                return item -> false;
+        }
+    }
+
+    protected static boolean requiresValidation(final AttrCond cond) {
+        return cond.getType() != AttrCond.Type.LIKE
+                && cond.getType() != AttrCond.Type.ILIKE
+                && cond.getType() != AttrCond.Type.ISNULL
+                && cond.getType() != AttrCond.Type.ISNOTNULL;
     }
 
-    private boolean matches(final Any<?> any, final AttrCond cond, final boolean not) {
+    protected AnyPredicate compile(final AttrCond cond, final boolean not) {
         PlainSchema schema = plainSchemaDAO.find(cond.getSchema());
         if (schema == null) {
             LOG.warn("Ignoring invalid schema '{}'", cond.getSchema());
-            return false;
+            return NEVER;
         }
+        String schemaKey = schema.getKey();
 
-        @SuppressWarnings("unchecked")
-        Optional<PlainAttr<?>> attr = (Optional<PlainAttr<?>>) any.getPlainAttr(cond.getSchema());
-
-        boolean found;
         switch (cond.getType()) {
             case ISNULL:
-                found = attr.isEmpty();
-                break;
+                return not((any, facts) -> any.getPlainAttr(schemaKey).isEmpty(), not);
 
             case ISNOTNULL:
-                found = attr.isPresent();
-                break;
+                return not((any, facts) -> any.getPlainAttr(schemaKey).isPresent(), not);
 
             default:
-                PlainAttrValue attrValue = anyUtilsFactory.getInstance(any).newPlainAttrValue();
-                try {
-                    if (cond.getType() != AttrCond.Type.LIKE
-                            && cond.getType() != AttrCond.Type.ILIKE
-                            && cond.getType() != AttrCond.Type.ISNULL
-                            && cond.getType() != AttrCond.Type.ISNOTNULL) {
+        }
 
-                        ((JPAPlainSchema) schema).validator().validate(cond.getExpression(), attrValue);
-                    }
-                } catch (ValidationException e) {
-                    LOG.error("Could not validate expression '" + cond.getExpression() + '\'', e);
-                    return false;
+        // the value to compare with depends on the kind of any, hence is validated once per kind
+        Map<AnyTypeKind, Predicate<PlainAttrValue>> byKind = new EnumMap<>(AnyTypeKind.class);
+        for (AnyTypeKind kind : AnyTypeKind.values()) {
+            PlainAttrValue attrValue = anyUtilsFactory.getInstance(kind).newPlainAttrValue();
+            try {
+                if (requiresValidation(cond)) {
+                    ((JPAPlainSchema) schema).validator().validate(cond.getExpression(), attrValue);
                 }
+            } catch (ValidationException e) {
+                LOG.error("Could not validate expression '" + cond.getExpression() + '\'', e);
+                return NEVER;
+            }
 
-                found = attr.isPresent() && matches(attr.get().getValues(), attrValue, schema, cond);
+            byKind.put(kind, compile(attrValue, schema, cond));
         }
-        return not ? !found : found;
+
+        return (any, facts) -> {
+            @SuppressWarnings("unchecked")
+            Optional<PlainAttr<?>> attr = (Optional<PlainAttr<?>>) any.getPlainAttr(schemaKey);
+
+            boolean found = attr.isPresent()
+                    && attr.get().getValues().stream().anyMatch(byKind.get(any.getType().getKind()));
+            return not ? !found : found;
+        };
     }
 
-    private boolean matches(final Any<?> any, final AnyCond cond, final boolean not) {
+    protected AnyPredicate compile(final AnyCond cond, final boolean not) {
+        // property lookup depends on the actual class of the any, hence is resolved once per class
+        Map<Class<?>, AnyPredicate> byClass = new ConcurrentHashMap<>();
+        return (any, facts) -> byClass.computeIfAbsent(any.getClass(), clazz -> compile(cond, not, any)).
+                test(any, facts);
+    }
+
+    protected AnyPredicate compile(final AnyCond cond, final boolean not, final Any<?> sample) {
         // Keeps track of difference between entity's getKey() and JPA @Id fields
-        if ("key".equals(cond.getSchema())) {
-            cond.setSchema("id");
-        }
+        String field = "key".equals(cond.getSchema()) ? "id" : cond.getSchema();
 
         PropertyDescriptor pd;
-        Object anyAttrValue;
         try {
-            pd = BeanUtils.getPropertyDescriptor(any.getClass(), cond.getSchema());
-            if (pd == null) {
-                LOG.warn("Ignoring invalid schema '{}'", cond.getSchema());
-                return false;
-            }
-
-            anyAttrValue = pd.getReadMethod().invoke(any);
+            pd = BeanUtils.getPropertyDescriptor(sample.getClass(), field);
         } catch (Exception e) {
-            LOG.error("While accessing {}.{}", any, cond.getSchema(), e);
-            return false;
+            LOG.error("While accessing {}.{}", sample, field, e);
+            return NEVER;
+        }
+        if (pd == null || pd.getReadMethod() == null) {
+            LOG.warn("Ignoring invalid schema '{}'", field);
+            return NEVER;
         }
+        Method readMethod = pd.getReadMethod();
 
-        boolean found;
+        Predicate<Object> found;
         switch (cond.getType()) {
             case ISNULL:
-                found = anyAttrValue == null;
+                found = anyAttrValue -> anyAttrValue == null;
                 break;
 
             case ISNOTNULL:
-                found = anyAttrValue != null;
+                found = anyAttrValue -> anyAttrValue != null;
                 break;
 
             default:
@@ -448,45 +585,55 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
                     }
 
                     if (relMethod != null && String.class.isAssignableFrom(relMethod.getReturnType())) {
-                        cond.setSchema(cond.getSchema() + "_id");
                         schema.setType(AttrSchemaType.String);
                     }
                 }
 
-                AnyUtils anyUtils = anyUtilsFactory.getInstance(any);
+                AnyUtils anyUtils = anyUtilsFactory.getInstance(sample);
 
                 PlainAttrValue attrValue = anyUtils.newPlainAttrValue();
-                if (cond.getType() != AttrCond.Type.LIKE
-                        && cond.getType() != AttrCond.Type.ILIKE
-                        && cond.getType() != AttrCond.Type.ISNULL
-                        && cond.getType() != AttrCond.Type.ISNOTNULL) {
-
+                if (requiresValidation(cond)) {
                     try {
                         ((JPAPlainSchema) schema).validator().validate(cond.getExpression(), attrValue);
                     } catch (ValidationException e) {
                         LOG.error("Could not validate expression '" + cond.getExpression() + '\'', e);
-                        return false;
+                        return NEVER;
                     }
                 }
 
-                List<PlainAttrValue> anyAttrValues = new ArrayList<>();
-                anyAttrValues.add(anyUtils.newPlainAttrValue());
-                if (anyAttrValue instanceof String) {
-                    anyAttrValues.get(0).setStringValue((String) anyAttrValue);
-                } else if (anyAttrValue instanceof Long) {
-                    anyAttrValues.get(0).setLongValue((Long) anyAttrValue);
-                } else if (anyAttrValue instanceof Double) {
-                    anyAttrValues.get(0).setDoubleValue((Double) anyAttrValue);
-                } else if (anyAttrValue instanceof Boolean) {
-                    anyAttrValues.get(0).setBooleanValue((Boolean) anyAttrValue);
-                } else if (anyAttrValue instanceof Date) {
-                    anyAttrValues.get(0).setDateValue((Date) anyAttrValue);
-                } else if (anyAttrValue instanceof byte[]) {
-                    anyAttrValues.get(0).setBinaryValue((byte[]) anyAttrValue);
-                }
+                Predicate<PlainAttrValue> valueMatcher = compile(attrValue, schema, cond);
+                found = anyAttrValue -> {
+                    List<PlainAttrValue> anyAttrValues = new ArrayList<>();
+                    anyAttrValues.add(anyUtils.newPlainAttrValue());
+                    if (anyAttrValue instanceof String) {
+                        anyAttrValues.get(0).setStringValue((String) anyAttrValue);
+                    } else if (anyAttrValue instanceof Long) {
+                        anyAttrValues.get(0).setLongValue((Long) anyAttrValue);
+                    } else if (anyAttrValue instanceof Double) {
+                        anyAttrValues.get(0).setDoubleValue((Double) anyAttrValue);
+                    } else if (anyAttrValue instanceof Boolean) {
+                        anyAttrValues.get(0).setBooleanValue((Boolean) anyAttrValue);
+                    } else if (anyAttrValue instanceof Date) {
+                        anyAttrValues.get(0).setDateValue((Date) anyAttrValue);
+                    } else if (anyAttrValue instanceof byte[]) {
+                        anyAttrValues.get(0).setBinaryValue((byte[]) anyAttrValue);
+                    }
 
-                found = matches(anyAttrValues, attrValue, schema, cond);
+                    return anyAttrValues.stream().anyMatch(valueMatcher);
+                };
         }
-        return not ? !found : found;
+
+        return (any, facts) -> {
+            Object anyAttrValue;
+            try {
+                anyAttrValue = readMethod.invoke(any);
+            } catch (Exception e) {
+                LOG.error("While accessing {}.{}", any, field, e);
+                return false;
+            }
+
+            boolean result = found.test(anyAttrValue);
+            return not ? !result : result;
+        };
     }
 }
@@ -40,6 +40,7 @@ import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
@@ -201,24 +202,29 @@ public class JPAAnyObjectDAO extends AbstractAnyDAO<AnyObject> implements AnyObj
         return findAllKeys(JPAAnyObject.TABLE, page, itemsPerPage);
     }
 
-    protected Pair<AnyObject, Pair<Set<String>, Set<String>>> doSave(final AnyObject anyObject) {
+    protected Pair<AnyObject, Pair<Set<String>, Set<String>>> doSave(
+            final AnyObject anyObject, final SearchCondRefs changed) {
+
         AnyObject merged = super.save(anyObject);
         publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, merged, AuthContextUtils.getDomain()));
 
-        Pair<Set<String>, Set<String>> dynGroupMembs = groupDAO.refreshDynMemberships(merged);
+        Pair<Set<String>, Set<String>> dynGroupMembs = groupDAO.refreshDynMemberships(merged, changed);
         dynRealmDAO.refreshDynMemberships(merged);
+        derSchemaDAO.refreshIndexedValues(merged);
 
         return Pair.of(merged, dynGroupMembs);
     }
 
     @Override
     public AnyObject save(final AnyObject anyObject) {
-        return doSave(anyObject).getLeft();
+        return doSave(anyObject, SearchCondRefs.ALL).getLeft();
     }
 
     @Override
-    public Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(final AnyObject anyObject) {
-        return doSave(anyObject).getRight();
+    public Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(
+            final AnyObject anyObject, final SearchCondRefs changed) {
+
+        return doSave(anyObject, changed).getRight();
     }
 
     protected List<ARelationship> findARelationships(final AnyObject anyObject) {
@@ -243,6 +249,7 @@ public class JPAAnyObjectDAO extends AbstractAnyDAO<AnyObject> implements AnyObj
     public void delete(final AnyObject anyObject) {
         groupDAO.removeDynMemberships(anyObject);
         dynRealmDAO.removeDynMemberships(anyObject.getKey());
+        derSchemaDAO.removeIndexedValues(anyObject.getKey());
 
         findARelationships(anyObject).forEach(relationship -> {
             relationship.getLeftEnd().getRelationships().remove(relationship);
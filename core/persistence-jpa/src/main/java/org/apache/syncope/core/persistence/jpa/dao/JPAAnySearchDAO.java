@@ -18,12 +18,29 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
@@ -31,7 +48,15 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.jdbc.sql.OracleDictionary;
+import org.apache.openjpa.jdbc.sql.PostgresDictionary;
+import org.apache.openjpa.jdbc.sql.SQLServerDictionary;
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
 import org.apache.syncope.common.lib.SyncopeClientException;
+import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
@@ -48,11 +73,12 @@ import org.apache.syncope.core.persistence.api.dao.search.RelationshipCond;
 import org.apache.syncope.core.persistence.api.dao.search.RelationshipTypeCond;
 import org.apache.syncope.core.persistence.api.dao.search.ResourceCond;
 import org.apache.syncope.core.persistence.api.dao.search.RoleCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
+import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.api.entity.DynRealm;
-import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
 import org.apache.syncope.core.persistence.api.entity.Realm;
@@ -65,16 +91,53 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
 
     protected static final String EMPTY_QUERY = "SELECT any_id FROM user_search WHERE 1=2";
 
+    protected static final Pattern PARAMETER = Pattern.compile("\\?(\\d+)");
+
+    protected static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    protected static final int TEMPLATES_MAX_SIZE = 1000;
+
+    /**
+     * SQL text generated so far, keyed by signature; least recently used entries are evicted once the maximum size
+     * is reached.
+     */
+    private final Map<String, String> templates = new LinkedHashMap<>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 2516364796548410434L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > TEMPLATES_MAX_SIZE;
+        }
+    };
+
+    private final AtomicLong templateHits = new AtomicLong();
+
+    private final AtomicLong templateMisses = new AtomicLong();
+
+    /**
+     * Builds a predicate matching the given realm and all its descendants, via the (indexed) realm full path.
+     *
+     * @param fullPath realm full path
+     * @param parameters query parameters
+     * @return predicate over the realm table
+     */
+    protected static String buildDescendantRealmsPredicate(final String fullPath, final List<Object> parameters) {
+        return "fullPath=?" + setParameter(parameters, fullPath)
+                + " OR fullPath LIKE ?" + setParameter(parameters, StringUtils.appendIfMissing(fullPath, "/") + '%');
+    }
+
     protected String buildAdminRealmsFilter(
-            final Set<String> realmKeys,
+            final Set<String> realmPaths,
             final SearchSupport svs,
             final List<Object> parameters) {
 
-        List<String> realmKeyArgs = realmKeys.stream().
-                map(realmKey -> "?" + setParameter(parameters, realmKey)).
+        List<String> predicates = realmPaths.stream().
+                map(realmPath -> buildDescendantRealmsPredicate(realmPath, parameters)).
                 collect(Collectors.toList());
         return "u.any_id IN (SELECT any_id FROM " + svs.field().name
-                + " WHERE realm_id IN (" + StringUtils.join(realmKeyArgs, ", ") + "))";
+                + " WHERE realm_id IN (SELECT id FROM " + SearchSupport.realm().name
+                + " WHERE " + StringUtils.join(predicates, " OR ") + "))";
     }
 
     private Pair<String, Set<String>> getAdminRealmsFilter(
@@ -82,18 +145,16 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
             final SearchSupport svs,
             final List<Object> parameters) {
 
-        Set<String> realmKeys = new HashSet<>();
+        Set<String> realmPaths = new HashSet<>();
         Set<String> dynRealmKeys = new HashSet<>();
         RealmUtils.normalize(adminRealms).forEach(realmPath -> {
             if (realmPath.startsWith("/")) {
-                Realm realm = realmDAO.findByFullPath(realmPath);
-                if (realm == null) {
+                if (realmDAO.findByFullPath(realmPath) == null) {
                     SyncopeClientException noRealm = SyncopeClientException.build(ClientExceptionType.InvalidRealm);
                     noRealm.getElements().add("Invalid realm specified: " + realmPath);
                     throw noRealm;
                 } else {
-                    realmKeys.addAll(realmDAO.findDescendants(realm).stream().
-                            map(Entity::getKey).collect(Collectors.toSet()));
+                    realmPaths.add(realmPath);
                 }
             } else {
                 DynRealm dynRealm = dynRealmDAO.find(realmPath);
@@ -105,45 +166,304 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
             }
         });
         if (!dynRealmKeys.isEmpty()) {
-            realmKeys.addAll(realmDAO.findAll().stream().
-                    map(Entity::getKey).collect(Collectors.toSet()));
+            realmPaths.clear();
+            realmPaths.add(SyncopeConstants.ROOT_REALM);
         }
 
-        return Pair.of(buildAdminRealmsFilter(realmKeys, svs, parameters), dynRealmKeys);
+        return Pair.of(buildAdminRealmsFilter(realmPaths, svs, parameters), dynRealmKeys);
     }
 
     SearchSupport buildSearchSupport(final AnyTypeKind kind) {
         return new SearchViewSupport(kind);
     }
 
-    @Override
-    protected int doCount(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
-        List<Object> parameters = new ArrayList<>();
+    /**
+     * Returns the SQL text cached for the given signature; if not found, generates the queries for the leaves of the
+     * given shape and composes them, caching the result only if the parameters bound while generating match the
+     * values resolved for the shape - otherwise, the former replace the latter.
+     *
+     * @param signature query signature, built from the shape of the search condition and from whatever else
+     * contributes to the SQL text
+     * @param shape shape of the search condition
+     * @param svs search support
+     * @param parameters query parameters, with values resolved for the shape
+     * @param composer composes the SQL text out of the leaf queries, in order of appearance
+     * @return SQL text
+     */
+    protected String getTemplate(
+            final String signature,
+            final QueryShape shape,
+            final SearchSupport svs,
+            final List<Object> parameters,
+            final Function<List<String>, String> composer) {
+
+        String template;
+        synchronized (templates) {
+            template = templates.get(signature);
+        }
+        if (template != null) {
+            templateHits.incrementAndGet();
+            return template;
+        }
+
+        templateMisses.incrementAndGet();
+
+        List<Object> generated = new ArrayList<>(parameters.subList(0, shape.offset));
+        template = composer.apply(shape.leaves.stream().
+                map(leaf -> getLeafQuery(leaf.cond, generated, svs, new HashSet<>()).toString()).
+                collect(Collectors.toList()));
+
+        if (Arrays.deepEquals(generated.toArray(), parameters.toArray())) {
+            synchronized (templates) {
+                templates.put(signature, template);
+            }
+        } else {
+            LOG.warn("Values resolved for {} do not match the parameters bound, not caching", signature);
+            parameters.clear();
+            parameters.addAll(generated);
+        }
+
+        return template;
+    }
+
+    public int getTemplateCacheSize() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    public long getTemplateCacheHits() {
+        return templateHits.get();
+    }
+
+    public long getTemplateCacheMisses() {
+        return templateMisses.get();
+    }
+
+    private String buildCountQuery(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final List<Object> parameters) {
 
         SearchSupport svs = buildSearchSupport(kind);
 
         Pair<String, Set<String>> filter = getAdminRealmsFilter(adminRealms, svs, parameters);
 
-        // 1. get the query string from the search condition
-        Pair<StringBuilder, Set<String>> queryInfo =
-                getQuery(buildEffectiveCond(cond, filter.getRight()), parameters, svs);
+        // 1. get the shape of the search condition, binding parameter values
+        SearchCond effectiveCond = buildEffectiveCond(cond, filter.getRight());
+        QueryShape shape = new QueryShape(parameters.size());
+        getQueryShape(effectiveCond, parameters, svs, shape);
+
+        return getTemplate("COUNT " + kind + ' ' + filter.getLeft() + ' ' + shape.signature,
+                shape, svs, parameters, leaves -> {
+            // 2. get the query string from the search condition
+            StringBuilder queryString = getQuery(effectiveCond, leaves.iterator());
 
-        StringBuilder queryString = queryInfo.getLeft();
+            // 3. take into account administrative realms
+            queryString.insert(0, "SELECT u.any_id FROM (");
+            queryString.append(") u WHERE ").append(filter.getLeft());
+
+            return queryString.toString();
+        });
+    }
 
-        // 2. take into account administrative realms
-        queryString.insert(0, "SELECT u.any_id FROM (");
-        queryString.append(") u WHERE ").append(filter.getLeft());
+    @Override
+    protected int doCount(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
+        List<Object> parameters = new ArrayList<>();
 
-        // 3. prepare the COUNT query
-        queryString.insert(0, "SELECT COUNT(any_id) FROM (");
-        queryString.append(") count_any_id");
+        // prepare the COUNT query
+        String queryString = "SELECT COUNT(any_id) FROM ("
+                + buildCountQuery(adminRealms, cond, kind, parameters)
+                + ") count_any_id";
 
-        Query countQuery = entityManager().createNativeQuery(queryString.toString());
+        Query countQuery = entityManager().createNativeQuery(queryString);
         fillWithParameters(countQuery, parameters);
 
         return ((Number) countQuery.getSingleResult()).intValue();
     }
 
+    /**
+     * Builds a query returning the keys of all entities matching the given condition, for usage as sub-query in
+     * set-based statements.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any object
+     * @param parameters query parameters, populated by this method
+     * @return query returning the {@code any_id} column of all matching entities
+     */
+    public String buildKeysQuery(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final List<Object> parameters) {
+
+        if (!isValid(adminRealms, cond)) {
+            return EMPTY_QUERY;
+        }
+
+        return buildCountQuery(adminRealms, cond, kind, parameters);
+    }
+
+    /**
+     * Prepares a forward-only, read-only JDBC statement for the given native query, binding the given parameter
+     * values; as JDBC only supports anonymous parameters, these are bound in order of appearance.
+     *
+     * @param conn JDBC connection
+     * @param query native query, with numbered parameters
+     * @param parameters query parameters
+     * @return JDBC statement, ready for execution
+     * @throws SQLException if the statement cannot be prepared
+     */
+    protected static PreparedStatement prepareStatement(
+            final Connection conn,
+            final String query,
+            final List<Object> parameters) throws SQLException {
+
+        List<Object> jdbcParameters = new ArrayList<>();
+        Matcher matcher = PARAMETER.matcher(query);
+        while (matcher.find()) {
+            jdbcParameters.add(parameters.get(Integer.parseInt(matcher.group(1)) - 1));
+        }
+
+        PreparedStatement stmt = conn.prepareStatement(
+                matcher.replaceAll("?"), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        for (int i = 0; i < jdbcParameters.size(); i++) {
+            Object parameter = jdbcParameters.get(i);
+            if (parameter instanceof Date) {
+                stmt.setTimestamp(i + 1, new Timestamp(((Date) parameter).getTime()));
+            } else if (parameter instanceof Boolean) {
+                stmt.setInt(i + 1, ((Boolean) parameter) ? 1 : 0);
+            } else {
+                stmt.setObject(i + 1, parameter);
+            }
+        }
+        return stmt;
+    }
+
+    /**
+     * On PostgreSQL, the number of rows expected by the query planner is returned; other DBMSes report plan
+     * estimates in ways that cannot be read as a row count for the whole query, hence exact count is returned.
+     */
+    @Override
+    protected int doEstimate(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
+        OpenJPAEntityManager entityManager = OpenJPAPersistence.cast(entityManager());
+        DBDictionary dictionary = ((JDBCConfiguration) entityManager.getEntityManagerFactory().getConfiguration()).
+                getDBDictionaryInstance();
+        if (!(dictionary instanceof PostgresDictionary)) {
+            return doCount(adminRealms, cond, kind);
+        }
+
+        List<Object> parameters = new ArrayList<>();
+
+        String queryString = "EXPLAIN (FORMAT JSON) " + buildCountQuery(adminRealms, cond, kind, parameters);
+
+        Connection conn = (Connection) entityManager.getConnection();
+        try (PreparedStatement stmt = prepareStatement(conn, queryString, parameters)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Matcher planRows = PLAN_ROWS.matcher(rs.getString(1));
+                    if (planRows.find()) {
+                        return (int) Math.min(Integer.MAX_VALUE, Long.parseLong(planRows.group(1)));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("While estimating {} search result size, reverting to exact count", kind, e);
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                LOG.debug("While releasing connection", e);
+            }
+        }
+
+        return doCount(adminRealms, cond, kind);
+    }
+
+    /**
+     * Builds the search query, without any ordering clause.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any object
+     * @param svs search support
+     * @param obs ordering support
+     * @param parameters query parameters
+     * @return search query
+     */
+    protected String buildSearchQuery(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final SearchSupport svs,
+            final OrderBySupport obs,
+            final List<Object> parameters) {
+
+        return buildSearchQuery(adminRealms, cond, kind, svs, obs, buildSelect(obs).toString(), parameters);
+    }
+
+    /**
+     * Builds the search query with the given select clause, without any ordering clause.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param kind any object
+     * @param svs search support
+     * @param obs ordering support
+     * @param select select clause, up to {@code FROM}
+     * @param parameters query parameters
+     * @return search query
+     */
+    protected String buildSearchQuery(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final AnyTypeKind kind,
+            final SearchSupport svs,
+            final OrderBySupport obs,
+            final String select,
+            final List<Object> parameters) {
+
+        Pair<String, Set<String>> filter = getAdminRealmsFilter(adminRealms, svs, parameters);
+
+        // 1. get the shape of the search condition, binding parameter values
+        SearchCond effectiveCond = buildEffectiveCond(cond, filter.getRight());
+        QueryShape shape = new QueryShape(parameters.size());
+        getQueryShape(effectiveCond, parameters, svs, shape);
+
+        StringBuilder signature = new StringBuilder("SEARCH ").append(kind).
+                append(' ').append(svs.nonMandatorySchemas).
+                append(' ').append(filter.getLeft()).
+                append(' ').append(shape.signature).
+                append(' ').append(new TreeSet<>(shape.involvedPlainAttrs)).
+                append(' ').append(obs.nonMandatorySchemas);
+        obs.views.stream().map(view -> view.alias + ':' + view.name).sorted().
+                forEach(view -> signature.append(' ').append(view));
+        obs.items.forEach(item -> signature.append(' ').
+                append(item.select).append('|').append(item.where).append('|').append(item.orderBy));
+        signature.append(' ').append(select);
+
+        String queryString = getTemplate(signature.toString(), shape, svs, parameters, leaves -> {
+            // 2. get the query string from the search condition
+            StringBuilder query = getQuery(effectiveCond, leaves.iterator());
+
+            // 3. take into account realms and ordering
+            if (query.charAt(0) == '(') {
+                query.insert(0, select);
+                query.append(buildWhere(svs, shape.involvedPlainAttrs, obs));
+            } else {
+                query.insert(0, select + '(');
+                query.append(')').append(buildWhere(svs, shape.involvedPlainAttrs, obs));
+            }
+            return query.append(filter.getLeft()).toString();
+        });
+
+        LOG.debug("Query: {}, parameters: {}", queryString, parameters);
+
+        return queryString;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected <T extends Any<?>> List<T> doSearch(
@@ -159,33 +479,15 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
 
             SearchSupport svs = buildSearchSupport(kind);
 
-            Pair<String, Set<String>> filter = getAdminRealmsFilter(adminRealms, svs, parameters);
-
-            // 1. get the query string from the search condition
-            Pair<StringBuilder, Set<String>> queryInfo =
-                    getQuery(buildEffectiveCond(cond, filter.getRight()), parameters, svs);
-
-            StringBuilder queryString = queryInfo.getLeft();
-
-            LOG.debug("Query: {}, parameters: {}", queryString, parameters);
-
-            // 2. take into account realms and ordering
             OrderBySupport obs = parseOrderBy(kind, svs, orderBy);
-            if (queryString.charAt(0) == '(') {
-                queryString.insert(0, buildSelect(obs));
-                queryString.append(buildWhere(svs, queryInfo.getRight(), obs));
-            } else {
-                queryString.insert(0, buildSelect(obs).append('('));
-                queryString.append(')').append(buildWhere(svs, queryInfo.getRight(), obs));
-            }
-            queryString.
-                    append(filter.getLeft()).
-                    append(buildOrderBy(obs));
+
+            String queryString = buildSearchQuery(adminRealms, cond, kind, svs, obs, parameters)
+                    + buildOrderBy(obs);
 
             LOG.debug("Query with auth and order by statements: {}, parameters: {}", queryString, parameters);
 
             // 3. prepare the search query
-            Query query = entityManager().createNativeQuery(queryString.toString());
+            Query query = entityManager().createNativeQuery(queryString);
 
             // 4. page starts from 1, while setFirtResult() starts from 0
             query.setFirstResult(itemsPerPage * (page <= 0 ? 0 : page - 1));
@@ -208,12 +510,259 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         return List.of();
     }
 
+    @Override
+    protected <T extends Any<?>> Pair<List<T>, SearchAfter> doSearchAfter(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final SearchAfter after,
+            final int itemsPerPage,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
+        try {
+            List<Object> parameters = new ArrayList<>();
+
+            Pair<String, List<Pair<String, String>>> keyset =
+                    buildKeysetQuery(adminRealms, cond, after, itemsPerPage, orderBy, kind, parameters);
+            List<Pair<String, String>> columns = keyset.getRight();
+
+            Query query = entityManager().createNativeQuery(keyset.getLeft());
+
+            fillWithParameters(query, parameters);
+
+            @SuppressWarnings("unchecked")
+            List<Object> raw = query.getResultList();
+            if (raw.isEmpty()) {
+                return Pair.of(List.of(), null);
+            }
+
+            Object last = raw.get(raw.size() - 1);
+            SearchAfter next = last instanceof Object[]
+                    ? new SearchAfter(
+                            (String) ((Object[]) last)[0],
+                            Arrays.asList(ArrayUtils.subarray((Object[]) last, 1, columns.size() + 1)))
+                    : new SearchAfter((String) last, List.of());
+            List<String> keys = raw.stream().
+                    map(row -> row instanceof Object[] ? (String) ((Object[]) row)[0] : (String) row).
+                    collect(Collectors.toList());
+            return Pair.of(sortByKeys(buildResult(raw, kind), keys), next);
+        } catch (SyncopeClientException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.error("While searching for {}", kind, e);
+        }
+
+        return Pair.of(List.of(), null);
+    }
+
+    /**
+     * Matching keys are read via JDBC from a forward-only result set, fetching {@code batchSize} rows at a time; the
+     * persistence context is cleared once each batch is consumed, so that the entities loaded so far can be garbage
+     * collected. With MySQL and MariaDB, {@code useCursorFetch=true} is needed in the JDBC URL for rows to be
+     * actually fetched as needed.
+     */
+    @Override
+    protected <T extends Any<?>> void doStream(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind,
+            final int batchSize,
+            final Consumer<List<T>> consumer) {
+
+        List<Object> parameters = new ArrayList<>();
+        String queryString = buildKeysetQuery(adminRealms, cond, null, -1, orderBy, kind, parameters).getLeft();
+
+        OpenJPAEntityManager entityManager = OpenJPAPersistence.cast(entityManager());
+        Connection conn = (Connection) entityManager.getConnection();
+        try (PreparedStatement stmt = prepareStatement(conn, queryString, parameters)) {
+            stmt.setFetchSize(batchSize);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<String> keys = new ArrayList<>(batchSize);
+                boolean more = rs.next();
+                while (more) {
+                    keys.add(rs.getString(1));
+
+                    more = rs.next();
+                    if (keys.size() == batchSize || !more) {
+                        consumer.accept(sortByKeys(buildResult(new ArrayList<Object>(keys), kind), keys));
+                        keys.clear();
+                        entityManager.clear();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("While streaming " + kind + " search results", e);
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                LOG.debug("While releasing connection", e);
+            }
+        }
+    }
+
+    private static <T extends Any<?>> List<T> sortByKeys(final List<T> anys, final List<String> keys) {
+        Map<String, T> byKey = anys.stream().collect(Collectors.toMap(Any::getKey, Function.identity()));
+        return keys.stream().map(byKey::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * Builds the query for keyset pagination: the search query is sorted by the ordering values, with any key as
+     * tie-breaker, and only the rows following the given position are selected, up to the given number.
+     * When ordering by multivalue attributes, the search query becomes a derived table grouped by any key, as the
+     * same any object would be otherwise reported once per value: only the first value, according to the requested
+     * direction, is then considered.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param cond the search condition
+     * @param after position of the last item previously returned, null to start from the first
+     * @param itemsPerPage maximum number of rows to select, negative for no limit
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param parameters query parameters
+     * @return keyset query, whose columns are the any key and the ordering values, and ordering columns with
+     * direction
+     */
+    protected Pair<String, List<Pair<String, String>>> buildKeysetQuery(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final SearchAfter after,
+            final int itemsPerPage,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind,
+            final List<Object> parameters) {
+
+        SearchSupport svs = buildSearchSupport(kind);
+
+        OrderBySupport obs = parseOrderBy(kind, svs, orderBy);
+
+        if (after != null && after.getValues().size() != obs.items.size()) {
+            SyncopeClientException sce = SyncopeClientException.build(ClientExceptionType.InvalidSearchExpression);
+            sce.getElements().add("Search token does not match the requested ordering");
+            throw sce;
+        }
+
+        AnyUtils anyUtils = anyUtilsFactory.getInstance(kind);
+        boolean multivalue = orderBy.stream().
+                filter(clause -> anyUtils.getField(clause.getField()) == null).
+                map(clause -> schemaDAO.find(clause.getField())).
+                anyMatch(schema -> schema != null && schema.isMultivalue());
+
+        List<Pair<String, String>> columns = new ArrayList<>();
+        StringBuilder queryString = new StringBuilder();
+        StringBuilder keysetOrderBy = new StringBuilder(" ORDER BY ");
+        if (multivalue) {
+            StringBuilder select = new StringBuilder("SELECT * FROM (SELECT kv.any_id");
+            obs.items.forEach(item -> {
+                String expr = StringUtils.substringBeforeLast(item.orderBy, " ");
+                String column = expr.substring(expr.lastIndexOf('.') + 1);
+                String direction = StringUtils.substringAfterLast(item.orderBy, " ");
+                columns.add(Pair.of("ks." + column, direction));
+
+                select.append(',').append("DESC".equals(direction) ? "MAX" : "MIN").
+                        append("(kv.").append(column).append(") AS ").append(column);
+                // NULL values are sorted first, regardless of the DBMS default
+                keysetOrderBy.append("CASE WHEN ks.").append(column).append(" IS NULL THEN 0 ELSE 1 END,").
+                        append("ks.").append(column).append(' ').append(direction).append(',');
+            });
+            queryString.append(select).append(" FROM (").
+                    append(buildSearchQuery(adminRealms, cond, kind, svs, obs, parameters)).
+                    append(") kv GROUP BY kv.any_id) ks");
+            if (after != null) {
+                queryString.append(" WHERE ").append(buildSearchAfter(columns, "ks.any_id", after, 0, parameters));
+            }
+            keysetOrderBy.append("ks.any_id ASC");
+        } else {
+            // NULL values are sorted first, regardless of the DBMS default: as the search query selects distinct
+            // rows, whether each ordering value is NULL needs to be selected as well in order to sort by that
+            StringBuilder select = buildSelect(obs);
+            select.setLength(select.length() - " FROM ".length());
+            for (int i = 0; i < obs.items.size(); i++) {
+                OrderBySupport.Item item = obs.items.get(i);
+                String column = StringUtils.substringBeforeLast(item.select, " AS ");
+                String direction = StringUtils.substringAfterLast(item.orderBy, " ");
+                columns.add(Pair.of(column, direction));
+
+                select.append(",CASE WHEN ").append(column).append(" IS NULL THEN 0 ELSE 1 END AS has_value").
+                        append(i);
+                keysetOrderBy.append("has_value").append(i).append(',').append(item.orderBy).append(',');
+            }
+            select.append(" FROM ");
+            queryString.append(buildSearchQuery(adminRealms, cond, kind, svs, obs, select.toString(), parameters));
+            if (after != null) {
+                queryString.append(" AND ").append(buildSearchAfter(columns, "u.any_id", after, 0, parameters));
+            }
+            keysetOrderBy.append("u.any_id ASC");
+        }
+        queryString.append(keysetOrderBy);
+
+        if (itemsPerPage >= 0) {
+            queryString.append(buildLimit(itemsPerPage, parameters));
+        }
+
+        LOG.debug("Keyset query: {}, parameters: {}", queryString, parameters);
+
+        return Pair.of(queryString.toString(), columns);
+    }
+
+    /**
+     * Builds the predicate selecting the rows following the given position, according to the given columns and
+     * directions, and then to any key.
+     *
+     * @param columns ordering columns, with direction
+     * @param key any key column
+     * @param after position of the last item previously returned
+     * @param index current column
+     * @param parameters query parameters
+     * @return keyset predicate
+     */
+    protected static String buildSearchAfter(
+            final List<Pair<String, String>> columns,
+            final String key,
+            final SearchAfter after,
+            final int index,
+            final List<Object> parameters) {
+
+        if (index == columns.size()) {
+            return key + ">?" + setParameter(parameters, after.getKey());
+        }
+
+        String column = columns.get(index).getLeft();
+        Object value = after.getValues().get(index);
+        if (value == null) {
+            return "((" + column + " IS NULL AND " + buildSearchAfter(columns, key, after, index + 1, parameters)
+                    + ") OR " + column + " IS NOT NULL)";
+        }
+
+        String op = "DESC".equals(columns.get(index).getRight()) ? "<" : ">";
+        return "(" + column + op + '?' + setParameter(parameters, value)
+                + " OR (" + column + "=?" + setParameter(parameters, value)
+                + " AND " + buildSearchAfter(columns, key, after, index + 1, parameters) + "))";
+    }
+
+    /**
+     * Builds the clause limiting the number of rows selected, for the configured DBMS.
+     *
+     * @param limit maximum number of rows to select
+     * @param parameters query parameters
+     * @return row limiting clause
+     */
+    protected String buildLimit(final int limit, final List<Object> parameters) {
+        DBDictionary dictionary = ((JDBCConfiguration) OpenJPAPersistence.cast(entityManager()).
+                getEntityManagerFactory().getConfiguration()).getDBDictionaryInstance();
+        return dictionary instanceof OracleDictionary || dictionary instanceof SQLServerDictionary
+                ? " OFFSET 0 ROWS FETCH NEXT ?" + setParameter(parameters, limit) + " ROWS ONLY"
+                : " LIMIT ?" + setParameter(parameters, limit);
+    }
+
     protected static int setParameter(final List<Object> parameters, final Object parameter) {
         parameters.add(parameter);
         return parameters.size();
     }
 
-    private static void fillWithParameters(final Query query, final List<Object> parameters) {
+    protected static void fillWithParameters(final Query query, final List<Object> parameters) {
         for (int i = 0; i < parameters.size(); i++) {
             if (parameters.get(i) instanceof Date) {
                 query.setParameter(i + 1, (Date) parameters.get(i), TemporalType.TIMESTAMP);
@@ -450,108 +999,377 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         // do nothing by default, leave it open for subclasses
     }
 
-    private Pair<StringBuilder, Set<String>> getQuery(
-            final SearchCond cond, final List<Object> parameters, final SearchSupport svs) {
+    /**
+     * Resolves all the leaves of the given condition, in order of appearance, binding their values as parameters; the
+     * leaf signatures together with the condition structure make up the shape of the condition, which identifies the
+     * SQL text eventually composed - hence generated only when not already cached.
+     *
+     * @param cond search condition
+     * @param parameters query parameters
+     * @param svs search support
+     * @param shape shape, populated by this method
+     */
+    protected void getQueryShape(
+            final SearchCond cond,
+            final List<Object> parameters,
+            final SearchSupport svs,
+            final QueryShape shape) {
+
+        switch (cond.getType()) {
+            case LEAF:
+            case NOT_LEAF:
+                QueryShape.Leaf leaf = getLeafShape(cond, parameters, svs, shape.involvedPlainAttrs);
+                parameters.addAll(leaf.values);
+                shape.leaves.add(leaf);
+                shape.signature.append('[').append(leaf.signature).append(']');
+                break;
+
+            case AND:
+            case OR:
+                shape.signature.append(cond.getType().name()).append('(');
+                getQueryShape(cond.getLeft(), parameters, svs, shape);
+                shape.signature.append(',');
+                getQueryShape(cond.getRight(), parameters, svs, shape);
+                shape.signature.append(')');
+                break;
+
+            default:
+        }
+    }
+
+    /**
+     * Resolves the given leaf condition, without generating its query: the signature tells the leaf type, whether it
+     * is negated and, for attribute conditions, schema and operator, while values are the ones bound by the matching
+     * {@code getQuery} method, in the same order.
+     * Leaves of types not known here, as the ones handled by {@link #getQueryForCustomConds}, are instead resolved by
+     * generating their query, which becomes their signature.
+     *
+     * @param cond leaf search condition
+     * @param parameters query parameters bound so far, not modified by this method
+     * @param svs search support
+     * @param involvedPlainAttrs plain schemas involved in the search, populated by this method
+     * @return resolved leaf
+     */
+    protected QueryShape.Leaf getLeafShape(
+            final SearchCond cond,
+            final List<Object> parameters,
+            final SearchSupport svs,
+            final Set<String> involvedPlainAttrs) {
 
         boolean not = cond.getType() == SearchCond.Type.NOT_LEAF;
+        String prefix = not ? "NOT " : "";
 
-        StringBuilder query = new StringBuilder();
-        Set<String> involvedPlainAttrs = new HashSet<>();
+        try {
+            Optional<AnyTypeCond> anyTypeCond = cond.getLeaf(AnyTypeCond.class).
+                    filter(leaf -> AnyTypeKind.ANY_OBJECT == svs.anyTypeKind);
+            if (anyTypeCond.isPresent()) {
+                return new QueryShape.Leaf(cond, prefix + "AnyType",
+                        Collections.singletonList(anyTypeCond.get().getAnyTypeKey()));
+            }
+
+            Optional<RelationshipTypeCond> relationshipTypeCond = cond.getLeaf(RelationshipTypeCond.class).
+                    filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind);
+            if (relationshipTypeCond.isPresent()) {
+                String key = relationshipTypeCond.get().getRelationshipTypeKey();
+                return new QueryShape.Leaf(cond, prefix + "RelationshipType", Arrays.asList(key, key));
+            }
+
+            Optional<RelationshipCond> relationshipCond = cond.getLeaf(RelationshipCond.class).
+                    filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind);
+            if (relationshipCond.isPresent()) {
+                return new QueryShape.Leaf(cond, prefix + "Relationship",
+                        Collections.singletonList(check(relationshipCond.get())));
+            }
+
+            Optional<MembershipCond> membershipCond = cond.getLeaf(MembershipCond.class).
+                    filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind);
+            if (membershipCond.isPresent()) {
+                String groupKey = check(membershipCond.get());
+                return new QueryShape.Leaf(cond, prefix + "Membership", Arrays.asList(groupKey, groupKey));
+            }
+
+            Optional<MemberCond> memberCond = cond.getLeaf(MemberCond.class).
+                    filter(leaf -> AnyTypeKind.GROUP == svs.anyTypeKind);
+            if (memberCond.isPresent()) {
+                String memberKey = check(memberCond.get());
+                return new QueryShape.Leaf(cond, prefix + "Member", Arrays.asList(memberKey, memberKey));
+            }
+
+            Optional<AssignableCond> assignableCond = cond.getLeaf(AssignableCond.class);
+            if (assignableCond.isPresent()) {
+                Realm realm = check(assignableCond.get());
+                List<Object> values = new ArrayList<>();
+                if (assignableCond.get().isFromGroup()) {
+                    buildDescendantRealmsPredicate(realm.getFullPath(), values);
+                    return new QueryShape.Leaf(cond, "Assignable fromGroup", values);
+                }
+
+                for (Realm current = realm; current.getParent() != null; current = current.getParent()) {
+                    values.add(current.getKey());
+                }
+                values.add(realmDAO.getRoot().getKey());
+                return new QueryShape.Leaf(cond, "Assignable " + values.size(), values);
+            }
+
+            Optional<RoleCond> roleCond = cond.getLeaf(RoleCond.class).
+                    filter(leaf -> AnyTypeKind.USER == svs.anyTypeKind);
+            if (roleCond.isPresent()) {
+                String role = roleCond.get().getRole();
+                return new QueryShape.Leaf(cond, prefix + "Role", Arrays.asList(role, role));
+            }
+
+            Optional<PrivilegeCond> privilegeCond = cond.getLeaf(PrivilegeCond.class).
+                    filter(leaf -> AnyTypeKind.USER == svs.anyTypeKind);
+            if (privilegeCond.isPresent()) {
+                String privilege = privilegeCond.get().getPrivilege();
+                return new QueryShape.Leaf(cond, prefix + "Privilege", Arrays.asList(privilege, privilege));
+            }
+
+            Optional<DynRealmCond> dynRealmCond = cond.getLeaf(DynRealmCond.class);
+            if (dynRealmCond.isPresent()) {
+                return new QueryShape.Leaf(cond, prefix + "DynRealm",
+                        Collections.singletonList(dynRealmCond.get().getDynRealm()));
+            }
+
+            Optional<ResourceCond> resourceCond = cond.getLeaf(ResourceCond.class);
+            if (resourceCond.isPresent()) {
+                String key = resourceCond.get().getResourceKey();
+                return new QueryShape.Leaf(cond, prefix + "Resource",
+                        svs.anyTypeKind == AnyTypeKind.USER || svs.anyTypeKind == AnyTypeKind.ANY_OBJECT
+                        ? Arrays.asList(key, key)
+                        : Collections.singletonList(key));
+            }
+
+            Optional<AnyCond> anyCond = cond.getLeaf(AnyCond.class);
+            if (anyCond.isPresent()) {
+                Triple<PlainSchema, PlainAttrValue, AnyCond> checked = check(anyCond.get(), svs.anyTypeKind);
+                return new QueryShape.Leaf(cond,
+                        prefix + "Any " + checked.getRight().getSchema() + ' ' + checked.getLeft().getType()
+                        + ' ' + checked.getRight().getType(),
+                        getAttrValues(checked.getRight(), checked.getLeft(), checked.getMiddle()));
+            }
+
+            Optional<AttrCond> attrCond = cond.getLeaf(AttrCond.class);
+            if (attrCond.isPresent()) {
+                DerSchema derSchema = schemaDAO.find(attrCond.get().getSchema()) == null
+                        ? derSchemaDAO.find(attrCond.get().getSchema())
+                        : null;
+                if (derSchema != null && derSchema.isIndexed()) {
+                    return getLeafShape(derSchema, attrCond.get(), cond, svs);
+                }
+
+                Pair<PlainSchema, PlainAttrValue> checked = check(attrCond.get(), svs.anyTypeKind);
+                involvedPlainAttrs.add(checked.getLeft().getKey());
+                return new QueryShape.Leaf(cond,
+                        prefix + "Attr " + checked.getLeft().getKey() + ' ' + checked.getLeft().getType()
+                        + (checked.getLeft().isUniqueConstraint() ? " unique" : "")
+                        + (checked.getLeft().isMultivalue() ? " multivalue" : "")
+                        + ' ' + attrCond.get().getType(),
+                        getValues(attrCond.get(), not, checked, svs));
+            }
+        } catch (IllegalArgumentException e) {
+            return new QueryShape.Leaf(cond, "EMPTY", List.of());
+        }
+
+        List<Object> generated = new ArrayList<>(parameters);
+        String query = getLeafQuery(cond, generated, svs, involvedPlainAttrs).toString();
+        return new QueryShape.Leaf(cond, "SQL " + query, generated.subList(parameters.size(), generated.size()));
+    }
+
+    private QueryShape.Leaf getLeafShape(
+            final DerSchema schema,
+            final AttrCond attrCond,
+            final SearchCond cond,
+            final SearchSupport svs) {
+
+        String prefix = (cond.getType() == SearchCond.Type.NOT_LEAF ? "NOT " : "") + "DerAttr " + attrCond.getType();
+
+        if ((AttrCond.Type.EQ == attrCond.getType() || AttrCond.Type.IEQ == attrCond.getType())
+                && attrCond.getExpression().length() > JPADerSchemaDAO.INDEXED_VALUE_MAX_LENGTH) {
+
+            List<Object> keys = new ArrayList<>(anyUtilsFactory.getInstance(svs.anyTypeKind).dao().
+                    findByDerAttrValue(schema, attrCond.getExpression(), AttrCond.Type.IEQ == attrCond.getType()).
+                    stream().map(Any::getKey).collect(Collectors.toList()));
+            return new QueryShape.Leaf(cond, prefix + " IN " + keys.size(), keys);
+        }
+
+        List<Object> values = new ArrayList<>();
+        values.add(schema.getKey());
+        if (AttrCond.Type.ISNULL != attrCond.getType() && AttrCond.Type.ISNOTNULL != attrCond.getType()) {
+            values.add(AttrCond.Type.ILIKE == attrCond.getType() || AttrCond.Type.IEQ == attrCond.getType()
+                    ? attrCond.getExpression().toLowerCase()
+                    : attrCond.getExpression());
+        }
+        return new QueryShape.Leaf(cond, prefix, values);
+    }
+
+    /**
+     * Returns the values bound as parameters by {@link #getQuery(AttrCond, boolean, List, SearchSupport)}, in the same
+     * order.
+     *
+     * @param cond attribute condition
+     * @param not whether the condition is negated
+     * @param checked schema and value, as checked for the given condition
+     * @param svs search support
+     * @return values bound as parameters
+     */
+    protected List<Object> getValues(
+            final AttrCond cond,
+            final boolean not,
+            final Pair<PlainSchema, PlainAttrValue> checked,
+            final SearchSupport svs) {
+
+        return cond.getType() == AttrCond.Type.ISNULL || cond.getType() == AttrCond.Type.ISNOTNULL
+                ? List.of()
+                : getAttrValues(cond, checked.getLeft(), checked.getRight());
+    }
+
+    /**
+     * Returns the values bound as parameters by
+     * {@link #fillAttrQuery(StringBuilder, PlainAttrValue, PlainSchema, AttrCond, boolean, List, SearchSupport)}, in
+     * the same order.
+     */
+    private static List<Object> getAttrValues(
+            final AttrCond cond,
+            final PlainSchema schema,
+            final PlainAttrValue attrValue) {
 
         switch (cond.getType()) {
-            case LEAF:
-            case NOT_LEAF:
-                cond.getLeaf(AnyTypeCond.class).
-                        filter(leaf -> AnyTypeKind.ANY_OBJECT == svs.anyTypeKind).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+            case ILIKE:
+            case LIKE:
+                return schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum
+                        ? Collections.singletonList(cond.getExpression())
+                        : List.of();
+
+            case IEQ:
+            case EQ:
+            case GE:
+            case GT:
+            case LE:
+            case LT:
+                return Collections.singletonList(attrValue.getValue());
 
-                cond.getLeaf(RelationshipTypeCond.class).
-                        filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+            case ISNULL:
+            case ISNOTNULL:
+            default:
+                return List.of();
+        }
+    }
 
-                cond.getLeaf(RelationshipCond.class).
-                        filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+    private StringBuilder getLeafQuery(
+            final SearchCond cond,
+            final List<Object> parameters,
+            final SearchSupport svs,
+            final Set<String> involvedPlainAttrs) {
 
-                cond.getLeaf(MembershipCond.class).
-                        filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+        boolean not = cond.getType() == SearchCond.Type.NOT_LEAF;
 
-                cond.getLeaf(MemberCond.class).
-                        filter(leaf -> AnyTypeKind.GROUP == svs.anyTypeKind).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+        StringBuilder query = new StringBuilder();
+
+        cond.getLeaf(AnyTypeCond.class).
+                filter(leaf -> AnyTypeKind.ANY_OBJECT == svs.anyTypeKind).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+
+        cond.getLeaf(RelationshipTypeCond.class).
+                filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+
+        cond.getLeaf(RelationshipCond.class).
+                filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+
+        cond.getLeaf(MembershipCond.class).
+                filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
 
-                cond.getLeaf(AssignableCond.class).
-                        ifPresent(leaf -> query.append(getQuery(leaf, parameters, svs)));
+        cond.getLeaf(MemberCond.class).
+                filter(leaf -> AnyTypeKind.GROUP == svs.anyTypeKind).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
 
-                cond.getLeaf(RoleCond.class).
-                        filter(leaf -> AnyTypeKind.USER == svs.anyTypeKind).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+        cond.getLeaf(AssignableCond.class).
+                ifPresent(leaf -> query.append(getQuery(leaf, parameters, svs)));
 
-                cond.getLeaf(PrivilegeCond.class).
-                        filter(leaf -> AnyTypeKind.USER == svs.anyTypeKind).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+        cond.getLeaf(RoleCond.class).
+                filter(leaf -> AnyTypeKind.USER == svs.anyTypeKind).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
 
-                cond.getLeaf(DynRealmCond.class).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+        cond.getLeaf(PrivilegeCond.class).
+                filter(leaf -> AnyTypeKind.USER == svs.anyTypeKind).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
 
-                cond.getLeaf(ResourceCond.class).
-                        ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+        cond.getLeaf(DynRealmCond.class).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
 
-                Optional<AnyCond> anyCond = cond.getLeaf(AnyCond.class);
-                if (anyCond.isPresent()) {
-                    query.append(getQuery(anyCond.get(), not, parameters, svs));
+        cond.getLeaf(ResourceCond.class).
+                ifPresent(leaf -> query.append(getQuery(leaf, not, parameters, svs)));
+
+        Optional<AnyCond> anyCond = cond.getLeaf(AnyCond.class);
+        if (anyCond.isPresent()) {
+            query.append(getQuery(anyCond.get(), not, parameters, svs));
+        } else {
+            cond.getLeaf(AttrCond.class).ifPresent(leaf -> {
+                DerSchema derSchema = schemaDAO.find(leaf.getSchema()) == null
+                        ? derSchemaDAO.find(leaf.getSchema())
+                        : null;
+                if (derSchema != null && derSchema.isIndexed()) {
+                    query.append(getQuery(derSchema, leaf, not, parameters, svs));
                 } else {
-                    cond.getLeaf(AttrCond.class).ifPresent(leaf -> {
-                        query.append(getQuery(leaf, not, parameters, svs));
-                        try {
-                            involvedPlainAttrs.add(check(leaf, svs.anyTypeKind).getLeft().getKey());
-                        } catch (IllegalArgumentException e) {
-                            // ignore
-                        }
-                    });
+                    query.append(getQuery(leaf, not, parameters, svs));
+                    try {
+                        involvedPlainAttrs.add(check(leaf, svs.anyTypeKind).getLeft().getKey());
+                    } catch (IllegalArgumentException e) {
+                        // ignore
+                    }
                 }
+            });
+        }
 
-                // allow for additional search conditions
-                getQueryForCustomConds(cond, parameters, svs, not, query);
-                break;
+        // allow for additional search conditions
+        getQueryForCustomConds(cond, parameters, svs, not, query);
 
-            case AND:
-                Pair<StringBuilder, Set<String>> leftAndInfo = getQuery(cond.getLeft(), parameters, svs);
-                involvedPlainAttrs.addAll(leftAndInfo.getRight());
+        return query;
+    }
 
-                Pair<StringBuilder, Set<String>> rigthAndInfo = getQuery(cond.getRight(), parameters, svs);
-                involvedPlainAttrs.addAll(rigthAndInfo.getRight());
+    /**
+     * Composes the query for the given condition out of the queries previously generated for its leaves.
+     *
+     * @param cond search condition
+     * @param leaves leaf queries, in order of appearance
+     * @return query for the given condition
+     */
+    private static StringBuilder getQuery(final SearchCond cond, final Iterator<String> leaves) {
+        StringBuilder query = new StringBuilder();
+
+        switch (cond.getType()) {
+            case LEAF:
+            case NOT_LEAF:
+                query.append(leaves.next());
+                break;
 
-                String andSubQuery = leftAndInfo.getKey().toString();
+            case AND:
+                String andSubQuery = getQuery(cond.getLeft(), leaves).toString();
                 // Add extra parentheses
                 andSubQuery = andSubQuery.replaceFirst("WHERE ", "WHERE (");
                 query.append(andSubQuery).
                         append(" AND any_id IN ( ").
-                        append(rigthAndInfo.getKey()).
+                        append(getQuery(cond.getRight(), leaves)).
                         append("))");
                 break;
 
             case OR:
-                Pair<StringBuilder, Set<String>> leftOrInfo = getQuery(cond.getLeft(), parameters, svs);
-                involvedPlainAttrs.addAll(leftOrInfo.getRight());
-
-                Pair<StringBuilder, Set<String>> rigthOrInfo = getQuery(cond.getRight(), parameters, svs);
-                involvedPlainAttrs.addAll(rigthOrInfo.getRight());
-
-                String orSubQuery = leftOrInfo.getKey().toString();
+                String orSubQuery = getQuery(cond.getLeft(), leaves).toString();
                 // Add extra parentheses
                 orSubQuery = orSubQuery.replaceFirst("WHERE ", "WHERE (");
                 query.append(orSubQuery).
                         append(" OR any_id IN ( ").
-                        append(rigthOrInfo.getKey()).
+                        append(getQuery(cond.getRight(), leaves)).
                         append("))");
                 break;
 
             default:
         }
 
-        return Pair.of(query, involvedPlainAttrs);
+        return query;
     }
 
     protected static String getQuery(
@@ -809,9 +1627,8 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         StringBuilder query = new StringBuilder("SELECT DISTINCT any_id FROM ").
                 append(svs.field().name).append(" WHERE (");
         if (cond.isFromGroup()) {
-            realmDAO.findDescendants(realm).forEach(current -> query.append("realm_id=?")
-                    .append(setParameter(parameters, current.getKey())).append(" OR "));
-            query.setLength(query.length() - 4);
+            query.append("realm_id IN (SELECT id FROM ").append(SearchSupport.realm().name).append(" WHERE ").
+                    append(buildDescendantRealmsPredicate(realm.getFullPath(), parameters)).append(')');
         } else {
             for (Realm current = realm; current.getParent() != null; current = current.getParent()) {
                 query.append("realm_id=?").append(setParameter(parameters, current.getKey())).append(" OR ");
@@ -1047,6 +1864,91 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         return query.toString();
     }
 
+    /**
+     * Matches the values stored for the given indexed derived schema; values too long to be indexed are only recorded
+     * by presence, hence exact matches for expressions of such length are found by evaluating the schema expression.
+     *
+     * @param schema indexed derived schema
+     * @param cond attribute condition, referring to the derived schema
+     * @param not whether the condition is negated
+     * @param parameters query parameters
+     * @param svs search support
+     * @return query for the given condition
+     */
+    protected String getQuery(
+            final DerSchema schema,
+            final AttrCond cond,
+            final boolean not,
+            final List<Object> parameters,
+            final SearchSupport svs) {
+
+        if ((AttrCond.Type.EQ == cond.getType() || AttrCond.Type.IEQ == cond.getType())
+                && cond.getExpression().length() > JPADerSchemaDAO.INDEXED_VALUE_MAX_LENGTH) {
+
+            List<String> keys = anyUtilsFactory.getInstance(svs.anyTypeKind).dao().
+                    findByDerAttrValue(schema, cond.getExpression(), AttrCond.Type.IEQ == cond.getType()).stream().
+                    map(Any::getKey).collect(Collectors.toList());
+            if (keys.isEmpty()) {
+                return not ? "SELECT any_id FROM " + svs.field().name : EMPTY_QUERY;
+            }
+
+            return "SELECT any_id FROM " + svs.field().name
+                    + " WHERE any_id " + (not ? "NOT IN" : "IN") + " ("
+                    + keys.stream().map(key -> "?" + setParameter(parameters, key)).collect(Collectors.joining(","))
+                    + ')';
+        }
+
+        StringBuilder indexed = new StringBuilder("SELECT any_id FROM ").append(JPADerSchemaDAO.INDEX_TABLE).
+                append(" WHERE schema_id=?").append(setParameter(parameters, schema.getKey()));
+
+        boolean negate = not;
+        switch (cond.getType()) {
+            case ISNULL:
+                negate = !not;
+                break;
+
+            case ISNOTNULL:
+                break;
+
+            default:
+                boolean ignoreCase = AttrCond.Type.ILIKE == cond.getType() || AttrCond.Type.IEQ == cond.getType();
+
+                indexed.append(" AND ").append(ignoreCase ? "lowerValue" : "stringValue");
+                switch (cond.getType()) {
+                    case LIKE:
+                    case ILIKE:
+                        indexed.append(" LIKE ");
+                        break;
+
+                    case GT:
+                        indexed.append('>');
+                        break;
+
+                    case GE:
+                        indexed.append(">=");
+                        break;
+
+                    case LT:
+                        indexed.append('<');
+                        break;
+
+                    case LE:
+                        indexed.append("<=");
+                        break;
+
+                    case EQ:
+                    case IEQ:
+                    default:
+                        indexed.append('=');
+                }
+                indexed.append('?').append(setParameter(
+                        parameters, ignoreCase ? cond.getExpression().toLowerCase() : cond.getExpression()));
+        }
+
+        return "SELECT any_id FROM " + svs.field().name
+                + " WHERE any_id " + (negate ? "NOT IN" : "IN") + " (" + indexed + ')';
+    }
+
     protected String getQuery(
             final AnyCond cond,
             final boolean not,
@@ -20,6 +20,7 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.sql.Clob;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -36,63 +37,64 @@ import org.springframework.transaction.annotation.Transactional;
 
 public class JPAAuditDAO extends AbstractDAO<AbstractEntity> implements AuditDAO {
 
-    protected static class MessageCriteriaBuilder {
+    protected static class AuditCriteriaBuilder {
 
         protected final StringBuilder query = new StringBuilder();
 
-        protected MessageCriteriaBuilder entityKey(final String entityKey) {
-            query.append(' ').append(MESSAGE_COLUMN).append(" LIKE '%\"key\":\"").append(entityKey).append("\"%'");
+        protected final List<Object> parameters = new ArrayList<>();
+
+        protected AuditCriteriaBuilder equal(final String column, final Object value) {
+            parameters.add(value);
+            query.append(query.length() == 0 ? "" : " AND ").
+                    append(column).append("=?").append(parameters.size());
             return this;
         }
 
-        public MessageCriteriaBuilder type(final AuditElements.EventCategoryType type) {
-            if (type != null) {
-                query.append(" AND " + MESSAGE_COLUMN + " LIKE '%\"type\":\"").append(type.name()).append("\"%'");
-            }
-            return this;
+        protected AuditCriteriaBuilder entityKey(final String entityKey) {
+            return equal(ENTITY_KEY_COLUMN, entityKey);
         }
 
-        public MessageCriteriaBuilder category(final String category) {
-            if (StringUtils.isNotBlank(category)) {
-                query.append(" AND " + MESSAGE_COLUMN + " LIKE '%\"category\":\"").append(category).append("\"%'");
-            }
-            return this;
+        public AuditCriteriaBuilder type(final AuditElements.EventCategoryType type) {
+            return type == null ? this : equal(EVENT_TYPE_COLUMN, type.name());
         }
 
-        public MessageCriteriaBuilder subcategory(final String subcategory) {
-            if (StringUtils.isNotBlank(subcategory)) {
-                query.append(" AND " + MESSAGE_COLUMN + " LIKE '%\"subcategory\":\"").
-                        append(subcategory).append("\"%'");
-            }
-            return this;
+        public AuditCriteriaBuilder category(final String category) {
+            return StringUtils.isBlank(category) ? this : equal(EVENT_CATEGORY_COLUMN, category);
         }
 
-        public MessageCriteriaBuilder events(final List<String> events) {
+        public AuditCriteriaBuilder subcategory(final String subcategory) {
+            return StringUtils.isBlank(subcategory) ? this : equal(EVENT_SUBCATEGORY_COLUMN, subcategory);
+        }
+
+        public AuditCriteriaBuilder events(final List<String> events) {
             if (!events.isEmpty()) {
-                query.append(" AND ( ").
-                        append(events.stream().
-                                map(event -> MESSAGE_COLUMN + " LIKE '%\"event\":\"" + event + "\"%'").
-                                collect(Collectors.joining(" OR "))).
-                        append(" )");
+                query.append(" AND ").append(EVENT_NAME_COLUMN).append(" IN (").
+                        append(events.stream().map(event -> {
+                            parameters.add(event);
+                            return "?" + parameters.size();
+                        }).collect(Collectors.joining(","))).
+                        append(')');
             }
             return this;
         }
 
-        public MessageCriteriaBuilder result(final AuditElements.Result result) {
-            if (result != null) {
-                query.append(" AND ").
-                        append(MESSAGE_COLUMN).append(" LIKE '%\"result\":\"").append(result.name()).append("\"%' ");
-            }
-            return this;
+        public AuditCriteriaBuilder result(final AuditElements.Result result) {
+            return result == null ? this : equal(EVENT_RESULT_COLUMN, result.name());
         }
 
         public String build() {
             return query.toString();
         }
+
+        public void setParameters(final Query query) {
+            for (int i = 0; i < parameters.size(); i++) {
+                query.setParameter(i + 1, parameters.get(i));
+            }
+        }
     }
 
-    protected MessageCriteriaBuilder messageCriteriaBuilder(final String entityKey) {
-        return new MessageCriteriaBuilder().entityKey(entityKey);
+    protected AuditCriteriaBuilder criteriaBuilder(final String entityKey) {
+        return new AuditCriteriaBuilder().entityKey(entityKey);
     }
 
     protected String select() {
@@ -112,15 +114,15 @@ public class JPAAuditDAO extends AbstractDAO<AbstractEntity> implements AuditDAO
             final AuditElements.Result result,
             final List<OrderByClause> orderByClauses) {
 
+        AuditCriteriaBuilder criteria = criteriaBuilder(entityKey).
+                type(type).
+                category(category).
+                subcategory(subcategory).
+                result(result).
+                events(events);
         String queryString = "SELECT " + select()
                 + " FROM " + TABLE
-                + " WHERE " + messageCriteriaBuilder(entityKey).
-                        type(type).
-                        category(category).
-                        subcategory(subcategory).
-                        result(result).
-                        events(events).
-                        build();
+                + " WHERE " + criteria.build();
         if (!orderByClauses.isEmpty()) {
             queryString += " ORDER BY " + orderByClauses.stream().
                     map(orderBy -> orderBy.getField() + ' ' + orderBy.getDirection().name()).
@@ -128,6 +130,7 @@ public class JPAAuditDAO extends AbstractDAO<AbstractEntity> implements AuditDAO
         }
 
         Query query = entityManager().createNativeQuery(queryString);
+        criteria.setParameters(query);
         query.setFirstResult(itemsPerPage * (page <= 0 ? 0 : page - 1));
         if (itemsPerPage >= 0) {
             query.setMaxResults(itemsPerPage);
@@ -152,11 +155,13 @@ public class JPAAuditDAO extends AbstractDAO<AbstractEntity> implements AuditDAO
         }).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     @Override
     public int count(final String key) {
-        String queryString = "SELECT COUNT(0) FROM " + TABLE
-                + " WHERE " + messageCriteriaBuilder(key).build();
-        Query countQuery = entityManager().createNativeQuery(queryString);
+        AuditCriteriaBuilder criteria = criteriaBuilder(key);
+        Query countQuery = entityManager().createNativeQuery(
+                "SELECT COUNT(0) FROM " + TABLE + " WHERE " + criteria.build());
+        criteria.setParameters(countQuery);
 
         return ((Number) countQuery.getSingleResult()).intValue();
     }
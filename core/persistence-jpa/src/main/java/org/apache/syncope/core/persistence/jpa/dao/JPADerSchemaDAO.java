@@ -19,13 +19,30 @@
 package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.jpa.entity.JPADerSchema;
+import org.apache.syncope.core.provisioning.api.jexl.JexlUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
@@ -33,10 +50,111 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class JPADerSchemaDAO extends AbstractDAO<DerSchema> implements DerSchemaDAO {
 
+    public static final String INDEX_TABLE = "DerAttrIndex";
+
+    /**
+     * Derived values longer than this do not fit into {@link #INDEX_TABLE}: they are recorded with null value, hence
+     * they can only be matched by presence or, when looking for an exact value, by evaluating the schema expression.
+     */
+    public static final int INDEXED_VALUE_MAX_LENGTH = 255;
+
+    /**
+     * Keys of the indexed derived schemas, per domain.
+     */
+    private final DomainCache<Set<String>, Map<String, Boolean>> indexedSchemas = new DomainCache<>(
+            JPADerSchemaDAO.class, "Indexed derived schemas", JPADerSchema.class) {
+
+        @Override
+        protected Set<String> load(final long version) {
+            TypedQuery<String> query = entityManager().createQuery(
+                    "SELECT e.id FROM " + JPADerSchema.class.getSimpleName() + " e WHERE e.indexed=true",
+                    String.class);
+            return Set.copyOf(query.getResultList());
+        }
+
+        @Override
+        protected Map<String, Boolean> newChanges() {
+            return new HashMap<>();
+        }
+
+        @Override
+        protected Set<String> apply(
+                final Set<String> snapshot, final long version, final Map<String, Boolean> changes) {
+
+            Set<String> updated = new HashSet<>(snapshot);
+            changes.forEach((key, indexed) -> {
+                if (indexed) {
+                    updated.add(key);
+                } else {
+                    updated.remove(key);
+                }
+            });
+            return Set.copyOf(updated);
+        }
+    };
+
     @Autowired
     @Lazy
     private ExternalResourceDAO resourceDAO;
 
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
+    protected static Set<String> getAnyTypeClasses(final Any<?> any) {
+        Set<String> classes = new HashSet<>();
+        any.getType().getClasses().forEach(anyTypeClass -> classes.add(anyTypeClass.getKey()));
+        any.getAuxClasses().forEach(anyTypeClass -> classes.add(anyTypeClass.getKey()));
+        return classes;
+    }
+
+    protected static JexlContext getJexlContext(final Any<?> any) {
+        JexlContext jexlContext = new MapContext();
+        JexlUtils.addPlainAttrsToContext(any.getPlainAttrs(), jexlContext);
+        JexlUtils.addFieldsToContext(any, jexlContext);
+        return jexlContext;
+    }
+
+    protected void index(final Any<?> any, final JexlContext jexlContext, final DerSchema schema) {
+        String value = JexlUtils.evaluate(schema.getExpression(), jexlContext);
+        if (StringUtils.isBlank(value)) {
+            return;
+        }
+
+        Query insert = entityManager().createNativeQuery(
+                "INSERT INTO " + INDEX_TABLE + "(any_id, schema_id, stringValue, lowerValue) VALUES(?, ?, ?, ?)");
+        insert.setParameter(1, any.getKey());
+        insert.setParameter(2, schema.getKey());
+        if (value.length() > INDEXED_VALUE_MAX_LENGTH) {
+            LOG.debug("Value of {} for {} {} is too long to be indexed, only recording its presence",
+                    schema.getKey(), any.getType(), any.getKey());
+
+            insert.setParameter(3, null);
+            insert.setParameter(4, null);
+        } else {
+            insert.setParameter(3, value);
+            insert.setParameter(4, value.toLowerCase());
+        }
+        insert.executeUpdate();
+    }
+
+    /**
+     * Tells whether any derived schema is indexed, taking into account the changes made within the current
+     * transaction; when not, {@link #INDEX_TABLE} is empty.
+     *
+     * @return whether any derived schema is indexed
+     */
+    protected boolean anyIndexed() {
+        Set<String> indexed = new HashSet<>(indexedSchemas.get());
+        indexedSchemas.pending().ifPresent(changes -> changes.forEach((key, enabled) -> {
+            if (enabled) {
+                indexed.add(key);
+            } else {
+                indexed.remove(key);
+            }
+        }));
+        return !indexed.isEmpty();
+    }
+
     @Override
     public DerSchema find(final String key) {
         return entityManager().find(JPADerSchema.class, key);
@@ -75,7 +193,9 @@ public class JPADerSchemaDAO extends AbstractDAO<DerSchema> implements DerSchema
 
     @Override
     public DerSchema save(final DerSchema derSchema) {
-        return entityManager().merge(derSchema);
+        DerSchema merged = entityManager().merge(derSchema);
+        indexedSchemas.track(changes -> changes.put(merged.getKey(), merged.isIndexed()));
+        return merged;
     }
 
     @Override
@@ -93,6 +213,90 @@ public class JPADerSchemaDAO extends AbstractDAO<DerSchema> implements DerSchema
             schema.getAnyTypeClass().getDerSchemas().remove(schema);
         }
 
+        removeIndexedValues(schema);
+
+        indexedSchemas.track(changes -> changes.put(key, false));
         entityManager().remove(schema);
     }
+
+    @Override
+    public void refreshIndexedValues(final Any<?> any) {
+        if (!anyIndexed()) {
+            return;
+        }
+
+        removeIndexedValues(any.getKey());
+
+        List<DerSchema> indexed = Stream.concat(
+                any.getType().getClasses().stream(), any.getAuxClasses().stream()).
+                flatMap(anyTypeClass -> anyTypeClass.getDerSchemas().stream()).
+                filter(DerSchema::isIndexed).
+                distinct().
+                collect(Collectors.toList());
+        if (!indexed.isEmpty()) {
+            JexlContext jexlContext = getJexlContext(any);
+            indexed.forEach(schema -> index(any, jexlContext, schema));
+        }
+    }
+
+    @Override
+    public void removeIndexedValues(final String anyKey) {
+        if (!anyIndexed()) {
+            return;
+        }
+
+        Query delete = entityManager().createNativeQuery("DELETE FROM " + INDEX_TABLE + " WHERE any_id=?");
+        delete.setParameter(1, anyKey);
+        delete.executeUpdate();
+    }
+
+    protected void removeIndexedValues(final DerSchema schema) {
+        Query delete = entityManager().createNativeQuery("DELETE FROM " + INDEX_TABLE + " WHERE schema_id=?");
+        delete.setParameter(1, schema.getKey());
+        delete.executeUpdate();
+    }
+
+    @Override
+    public void reindex(final DerSchema schema) {
+        removeIndexedValues(schema);
+
+        if (!schema.isIndexed() || schema.getAnyTypeClass() == null) {
+            return;
+        }
+
+        OpenJPAEntityManager entityManager = OpenJPAPersistence.cast(entityManager());
+        for (AnyTypeKind kind : AnyTypeKind.values()) {
+            AnyDAO<Any<?>> anyDAO = anyUtilsFactory.getInstance(kind).dao();
+
+            int pages = (anyDAO.count() / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
+            for (int page = 1; page <= pages; page++) {
+                List<Any<?>> chunk = anyDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE);
+                chunk.stream().
+                        filter(any -> getAnyTypeClasses(any).contains(schema.getAnyTypeClass().getKey())).
+                        forEach(any -> index(any, getJexlContext(any), schema));
+
+                // release the state loaded for each chunk, not to hold the whole population in memory until commit;
+                // instances with pending changes are left untouched
+                entityManager.evictAll(chunk);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<String> findByIndexedValue(
+            final DerSchema schema, final String value, final boolean ignoreCaseMatch) {
+
+        Query query = entityManager().createNativeQuery(
+                "SELECT any_id FROM " + INDEX_TABLE + " WHERE schema_id=? AND "
+                + (ignoreCaseMatch ? "lowerValue" : "stringValue") + "=?");
+        query.setParameter(1, schema.getKey());
+        query.setParameter(2, ignoreCaseMatch ? value.toLowerCase() : value);
+
+        return ((List<Object>) query.getResultList()).stream().
+                map(resultKey -> resultKey instanceof Object[]
+                ? (String) ((Object[]) resultKey)[0]
+                : ((String) resultKey)).
+                collect(Collectors.toList());
+    }
 }
@@ -19,26 +19,34 @@
 package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.DynRealmDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.DynRealm;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.persistence.jpa.entity.JPADynRealm;
-import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.apache.syncope.core.persistence.api.dao.AnyMatchDAO;
-import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
-import org.apache.syncope.core.persistence.api.dao.GroupDAO;
-import org.apache.syncope.core.persistence.api.dao.UserDAO;
-import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
+import org.apache.syncope.core.persistence.api.search.SearchCondCache;
 
 @Repository
 public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO {
@@ -48,15 +56,6 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
     @Autowired
     private ApplicationEventPublisher publisher;
 
-    @Autowired
-    private UserDAO userDAO;
-
-    @Autowired
-    private GroupDAO groupDAO;
-
-    @Autowired
-    private AnyObjectDAO anyObjectDAO;
-
     @Autowired
     private AnySearchDAO searchDAO;
 
@@ -64,7 +63,7 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
     private AnyMatchDAO anyMatchDAO;
 
     @Autowired
-    private SearchCondVisitor searchCondVisitor;
+    private SearchCondCache searchCondCache;
 
     @Override
     public DynRealm find(final String key) {
@@ -80,41 +79,43 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
 
     @Override
     public DynRealm save(final DynRealm dynRealm) {
+        searchCondCache.invalidate(dynRealm.getKey());
         return entityManager().merge(dynRealm);
     }
 
-    @SuppressWarnings("unchecked")
-    private List<String> clearDynMembers(final DynRealm dynRealm) {
-        Query find = entityManager().createNativeQuery(
-                "SELECT any_id FROM " + DYNMEMB_TABLE + " WHERE dynRealm_id=?");
-        find.setParameter(1, dynRealm.getKey());
-
-        List<String> cleared = new ArrayList<>();
-        find.getResultList().stream().map(key -> key instanceof Object[]
-                ? (String) ((Object[]) key)[0]
-                : ((String) key)).
-                forEach(key -> cleared.add((String) key));
+    private static String anyTable(final AnyTypeKind kind) {
+        switch (kind) {
+            case USER:
+                return JPAUser.TABLE;
 
-        Query delete = entityManager().createNativeQuery("DELETE FROM " + DYNMEMB_TABLE + " WHERE dynRealm_id=?");
-        delete.setParameter(1, dynRealm.getKey());
-        delete.executeUpdate();
+            case GROUP:
+                return JPAGroup.TABLE;
 
-        return cleared;
+            case ANY_OBJECT:
+            default:
+                return JPAAnyObject.TABLE;
+        }
     }
 
-    private void notifyDynMembershipRemoval(final List<String> anyKeys) {
-        anyKeys.forEach(key -> {
-            Any<?> any = userDAO.find(key);
-            if (any == null) {
-                any = groupDAO.find(key);
+    /**
+     * Publishes one event for each kind of the given entities, whose dynamic membership was changed.
+     *
+     * @param added keys of added members, by kind
+     * @param removed keys of removed members, whose kind is not known
+     */
+    private void notifyDynMembershipChanges(final Map<AnyTypeKind, Set<String>> added, final Set<String> removed) {
+        for (AnyTypeKind kind : AnyTypeKind.values()) {
+            Set<String> changed = new HashSet<>(added.getOrDefault(kind, Set.of()));
+            if (!removed.isEmpty()) {
+                List<String> found = DynMembershipUtils.existing(entityManager(), anyTable(kind), removed);
+                changed.addAll(found);
+                removed.removeAll(found);
             }
-            if (any == null) {
-                any = anyObjectDAO.find(key);
-            }
-            if (any != null) {
-                publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, any, AuthContextUtils.getDomain()));
+
+            if (!changed.isEmpty()) {
+                publisher.publishEvent(new AnyBulkUpdatedEvent(this, kind, changed, AuthContextUtils.getDomain()));
             }
-        });
+        }
     }
 
     @Override
@@ -122,22 +123,65 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
         DynRealm merged = save(dynRealm);
 
         // refresh dynamic memberships
-        List<String> cleared = clearDynMembers(merged);
-
-        merged.getDynMemberships().stream().map(memb -> searchDAO.search(
-                SearchCondConverter.convert(searchCondVisitor, memb.getFIQLCond()), memb.getAnyType().getKind())).
-                forEach(matching -> matching.forEach(any -> {
-
-            Query insert = entityManager().createNativeQuery("INSERT INTO " + DYNMEMB_TABLE + " VALUES(?, ?)");
-            insert.setParameter(1, any.getKey());
-            insert.setParameter(2, merged.getKey());
-            insert.executeUpdate();
-
-            publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, any, AuthContextUtils.getDomain()));
-            cleared.remove(any.getKey());
-        }));
+        Map<AnyTypeKind, Set<String>> added = new EnumMap<>(AnyTypeKind.class);
+        Set<String> removed = new HashSet<>();
+        if (merged.getDynMemberships().isEmpty()) {
+            removed.addAll(DynMembershipUtils.removeAll(
+                    entityManager(), DYNMEMB_TABLE, "dynRealm_id", merged.getKey()));
+        } else if (searchDAO instanceof JPAAnySearchDAO) {
+            JPAAnySearchDAO jpaSearchDAO = (JPAAnySearchDAO) searchDAO;
+
+            List<Object> parameters = new ArrayList<>();
+            String members = merged.getDynMemberships().stream().map(memb -> jpaSearchDAO.buildKeysQuery(
+                    SyncopeConstants.FULL_ADMIN_REALMS,
+                    searchCondCache.get(merged.getKey(), memb.getFIQLCond()),
+                    memb.getAnyType().getKind(),
+                    parameters)).
+                    collect(Collectors.joining(" UNION "));
+            removed.addAll(DynMembershipUtils.removeStale(
+                    entityManager(), DYNMEMB_TABLE, "dynRealm_id", merged.getKey(), members, parameters));
+
+            merged.getDynMemberships().forEach(memb -> {
+                List<Object> membParameters = new ArrayList<>();
+                String membMembers = jpaSearchDAO.buildKeysQuery(
+                        SyncopeConstants.FULL_ADMIN_REALMS,
+                        searchCondCache.get(merged.getKey(), memb.getFIQLCond()),
+                        memb.getAnyType().getKind(),
+                        membParameters);
+
+                added.computeIfAbsent(memb.getAnyType().getKind(), kind -> new HashSet<>()).
+                        addAll(DynMembershipUtils.addMissing(
+                                entityManager(),
+                                DYNMEMB_TABLE,
+                                "dynRealm_id",
+                                merged.getKey(),
+                                Map.of(),
+                                membMembers,
+                                membParameters));
+            });
+        } else {
+            removed.addAll(DynMembershipUtils.removeAll(
+                    entityManager(), DYNMEMB_TABLE, "dynRealm_id", merged.getKey()));
+
+            merged.getDynMemberships().forEach(memb -> {
+                AnyTypeKind kind = memb.getAnyType().getKind();
+                Set<String> matching = searchDAO.search(
+                        searchCondCache.get(merged.getKey(), memb.getFIQLCond()), kind).stream().
+                        map(Any::getKey).collect(Collectors.toSet());
+                matching.removeAll(added.getOrDefault(kind, Set.of()));
+                DynMembershipUtils.add(
+                        entityManager(), DYNMEMB_TABLE, "dynRealm_id", merged.getKey(), Map.of(), anyTable(kind),
+                        matching);
+
+                matching.forEach(any -> {
+                    if (!removed.remove(any)) {
+                        added.computeIfAbsent(kind, k -> new HashSet<>()).add(any);
+                    }
+                });
+            });
+        }
 
-        notifyDynMembershipRemoval(cleared);
+        notifyDynMembershipChanges(added, removed);
 
         return merged;
     }
@@ -149,7 +193,12 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
             return;
         }
 
-        notifyDynMembershipRemoval(clearDynMembers(dynRealm));
+        searchCondCache.invalidate(dynRealm.getKey());
+
+        notifyDynMembershipChanges(
+                Map.of(),
+                new HashSet<>(DynMembershipUtils.removeAll(
+                        entityManager(), DYNMEMB_TABLE, "dynRealm_id", dynRealm.getKey())));
 
         entityManager().remove(dynRealm);
     }
@@ -157,9 +206,9 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
     @Transactional
     @Override
     public void refreshDynMemberships(final Any<?> any) {
+        Predicate<SearchCond> matcher = anyMatchDAO.matcher(any);
         findAll().forEach(dynRealm -> dynRealm.getDynMembership(any.getType()).ifPresent(memb -> {
-            boolean matches = anyMatchDAO.matches(
-                    any, SearchCondConverter.convert(searchCondVisitor, memb.getFIQLCond()));
+            boolean matches = matcher.test(searchCondCache.get(dynRealm.getKey(), memb.getFIQLCond()));
 
             Query find = entityManager().createNativeQuery(
                     "SELECT dynRealm_id FROM " + DYNMEMB_TABLE + " WHERE any_id=?");
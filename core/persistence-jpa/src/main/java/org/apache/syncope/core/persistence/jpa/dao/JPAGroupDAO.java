@@ -20,13 +20,17 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
@@ -41,10 +45,14 @@ import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainAttrDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
+import org.apache.syncope.core.persistence.api.entity.DynGroupMembership;
 import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.anyobject.ADynGroupMembership;
@@ -55,14 +63,16 @@ import org.apache.syncope.core.persistence.api.entity.group.TypeExtension;
 import org.apache.syncope.core.persistence.api.entity.user.UDynGroupMembership;
 import org.apache.syncope.core.persistence.api.entity.user.UMembership;
 import org.apache.syncope.core.persistence.api.entity.user.User;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
-import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
+import org.apache.syncope.core.persistence.api.search.SearchCondCache;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAADynGroupMembership;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAMembership;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
 import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
 import org.apache.syncope.core.persistence.jpa.entity.group.JPATypeExtension;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUDynGroupMembership;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUMembership;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
 import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
@@ -77,6 +87,13 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
 
     public static final String ADYNMEMB_TABLE = "ADynGroupMembers";
 
+    /**
+     * Maximum number of groups affected by a single statement when updating dynamic members.
+     */
+    protected static final int DYNMEMB_BATCH_SIZE = 500;
+
+    protected static final Set<String> SYSINFO_FIELDS = Set.of("lastChangeDate", "lastModifier");
+
     @Autowired
     private AnyMatchDAO anyMatchDAO;
 
@@ -93,7 +110,12 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     private AnySearchDAO searchDAO;
 
     @Autowired
-    private SearchCondVisitor searchCondVisitor;
+    private SearchCondCache searchCondCache;
+
+    /**
+     * Dynamic membership key to FIQL condition and references from it.
+     */
+    protected final Map<String, Pair<String, SearchCondRefs>> dynMembershipRefs = new ConcurrentHashMap<>();
 
     @Override
     protected AnyUtils init() {
@@ -236,81 +258,274 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         return findAllKeys(JPAGroup.TABLE, page, itemsPerPage);
     }
 
-    private SearchCond buildDynMembershipCond(final String baseCondFIQL, final Realm groupRealm) {
+    private SearchCond buildDynMembershipCond(final String baseCondFIQL, final Group group) {
         AssignableCond cond = new AssignableCond();
-        cond.setRealmFullPath(groupRealm.getFullPath());
+        cond.setRealmFullPath(group.getRealm().getFullPath());
         cond.setFromGroup(true);
 
         return SearchCond.getAnd(
                 SearchCond.getLeaf(cond),
-                SearchCondConverter.convert(searchCondVisitor, baseCondFIQL));
+                searchCondCache.get(group.getKey(), baseCondFIQL));
+    }
+
+    /**
+     * Returns what is referenced by the condition of the given dynamic membership, so that it is evaluated again
+     * only when any of that is changed.
+     *
+     * @param memb dynamic membership
+     * @return what is referenced by the condition of the given dynamic membership
+     */
+    protected SearchCondRefs getDynMembershipRefs(final DynGroupMembership<?> memb) {
+        Pair<String, SearchCondRefs> refs = dynMembershipRefs.get(memb.getKey());
+        if (refs == null || !refs.getLeft().equals(memb.getFIQLCond())) {
+            SearchCondRefs condRefs = SearchCondRefs.of(
+                    buildDynMembershipCond(memb.getFIQLCond(), memb.getGroup()));
+            // system information is updated by every save
+            if (condRefs.getFields().stream().anyMatch(SYSINFO_FIELDS::contains)) {
+                condRefs = SearchCondRefs.ALL;
+            }
+
+            refs = Pair.of(memb.getFIQLCond(), condRefs);
+            dynMembershipRefs.put(memb.getKey(), refs);
+        }
+        return refs.getRight();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> findDynGroupKeys(final String table, final String anyKey) {
+        Query query = entityManager().createNativeQuery("SELECT group_id FROM " + table + " WHERE any_id=?");
+        query.setParameter(1, anyKey);
+
+        Set<String> result = new HashSet<>();
+        query.getResultList().stream().map(key -> key instanceof Object[]
+                ? (String) ((Object[]) key)[0]
+                : ((String) key)).
+                forEach(group -> result.add((String) group));
+        return result;
+    }
+
+    /**
+     * Applies the difference between the given sets of groups as (at most) one DELETE and one INSERT statement per
+     * {@link #DYNMEMB_BATCH_SIZE} changed groups, then notifies about each changed group.
+     *
+     * @param table dynamic members table
+     * @param columns columns of the dynamic members table, the last being group_id
+     * @param values values for all columns but the last one
+     * @param before groups dynamically assigned before refresh
+     * @param after groups dynamically assigned after refresh
+     */
+    private void updateDynMembers(
+            final String table,
+            final String columns,
+            final List<String> values,
+            final Set<String> before,
+            final Set<String> after) {
+
+        List<String> toDelete = before.stream().filter(group -> !after.contains(group)).collect(Collectors.toList());
+        for (int i = 0; i < toDelete.size(); i += DYNMEMB_BATCH_SIZE) {
+            List<String> groups = toDelete.subList(i, Math.min(i + DYNMEMB_BATCH_SIZE, toDelete.size()));
+
+            Query delete = entityManager().createNativeQuery(
+                    "DELETE FROM " + table + " WHERE any_id=?1 AND group_id IN ("
+                    + IntStream.range(0, groups.size()).mapToObj(j -> "?" + (j + 2)).collect(Collectors.joining(","))
+                    + ")");
+            delete.setParameter(1, values.get(values.size() - 1));
+            for (int j = 0; j < groups.size(); j++) {
+                delete.setParameter(j + 2, groups.get(j));
+            }
+            delete.executeUpdate();
+        }
+
+        List<String> toInsert = after.stream().filter(group -> !before.contains(group)).collect(Collectors.toList());
+        for (int i = 0; i < toInsert.size(); i += DYNMEMB_BATCH_SIZE) {
+            List<String> groups = toInsert.subList(i, Math.min(i + DYNMEMB_BATCH_SIZE, toInsert.size()));
+
+            Query insert = entityManager().createNativeQuery(
+                    "INSERT INTO " + table + " (" + columns + ") SELECT "
+                    + IntStream.rangeClosed(1, values.size()).mapToObj(j -> "?" + j).collect(Collectors.joining(","))
+                    + ", id FROM " + JPAGroup.TABLE + " WHERE id IN ("
+                    + IntStream.range(0, groups.size()).
+                            mapToObj(j -> "?" + (j + values.size() + 1)).collect(Collectors.joining(","))
+                    + ")");
+            for (int j = 0; j < values.size(); j++) {
+                insert.setParameter(j + 1, values.get(j));
+            }
+            for (int j = 0; j < groups.size(); j++) {
+                insert.setParameter(j + values.size() + 1, groups.get(j));
+            }
+            insert.executeUpdate();
+        }
+
+        Stream.concat(toDelete.stream(), toInsert.stream()).map(this::find).filter(Objects::nonNull).
+                forEach(group -> publisher.publishEvent(
+                new AnyCreatedUpdatedEvent<>(this, group, AuthContextUtils.getDomain())));
+    }
+
+    /**
+     * Refreshes dynamic members via set-based statements, built from the search SQL.
+     *
+     * @param jpaSearchDAO SQL search engine
+     * @param group group
+     * @return keys of users and any objects whose dynamic membership to the given group was changed
+     */
+    private Pair<Set<String>, Set<String>> refreshDynMembers(final JPAAnySearchDAO jpaSearchDAO, final Group group) {
+        Set<String> adminRealms = Set.of(group.getRealm().getFullPath());
+
+        Set<String> users = new HashSet<>();
+        if (group.getUDynMembership() == null) {
+            users.addAll(DynMembershipUtils.removeAll(entityManager(), UDYNMEMB_TABLE, "group_id", group.getKey()));
+        } else {
+            List<Object> parameters = new ArrayList<>();
+            String members = jpaSearchDAO.buildKeysQuery(
+                    adminRealms,
+                    buildDynMembershipCond(group.getUDynMembership().getFIQLCond(), group),
+                    AnyTypeKind.USER,
+                    parameters);
+
+            users.addAll(DynMembershipUtils.removeStale(
+                    entityManager(), UDYNMEMB_TABLE, "group_id", group.getKey(), members, parameters));
+            users.addAll(DynMembershipUtils.addMissing(
+                    entityManager(), UDYNMEMB_TABLE, "group_id", group.getKey(), Map.of(), members, parameters));
+        }
+
+        Set<String> anyObjects = new HashSet<>();
+        if (group.getADynMemberships().isEmpty()) {
+            anyObjects.addAll(DynMembershipUtils.removeAll(
+                    entityManager(), ADYNMEMB_TABLE, "group_id", group.getKey()));
+        } else {
+            List<Object> parameters = new ArrayList<>();
+            String members = group.getADynMemberships().stream().map(memb -> jpaSearchDAO.buildKeysQuery(
+                    adminRealms,
+                    buildDynMembershipCond(memb.getFIQLCond(), group),
+                    AnyTypeKind.ANY_OBJECT,
+                    parameters)).
+                    collect(Collectors.joining(" UNION "));
+            anyObjects.addAll(DynMembershipUtils.removeStale(
+                    entityManager(), ADYNMEMB_TABLE, "group_id", group.getKey(), members, parameters));
+
+            group.getADynMemberships().forEach(memb -> {
+                List<Object> membParameters = new ArrayList<>();
+                String membMembers = jpaSearchDAO.buildKeysQuery(
+                        adminRealms,
+                        buildDynMembershipCond(memb.getFIQLCond(), group),
+                        AnyTypeKind.ANY_OBJECT,
+                        membParameters);
+
+                anyObjects.addAll(DynMembershipUtils.addMissing(
+                        entityManager(),
+                        ADYNMEMB_TABLE,
+                        "group_id",
+                        group.getKey(),
+                        Map.of("anyType_id", memb.getAnyType().getKey()),
+                        membMembers,
+                        membParameters));
+            });
+        }
+
+        return Pair.of(users, anyObjects);
+    }
+
+    private <A extends Any<?>> Set<String> searchDynMembers(
+            final Group group, final String fiql, final AnyTypeKind kind) {
+
+        SearchCond cond = buildDynMembershipCond(fiql, group);
+
+        Set<String> members = new HashSet<>();
+        SearchAfter after = null;
+        List<A> matching;
+        do {
+            Pair<List<A>, SearchAfter> page = searchDAO.searchAfter(
+                    Set.of(group.getRealm().getFullPath()),
+                    cond,
+                    after,
+                    AnyDAO.DEFAULT_PAGE_SIZE,
+                    List.of(),
+                    kind);
+            matching = page.getLeft();
+            after = page.getRight();
+
+            matching.forEach(any -> members.add(any.getKey()));
+        } while (matching.size() == AnyDAO.DEFAULT_PAGE_SIZE);
+
+        return members;
+    }
+
+    /**
+     * Refreshes dynamic members by paging through search results, for search engines not based on SQL.
+     *
+     * @param group group
+     * @return keys of users and any objects whose dynamic membership to the given group was changed
+     */
+    private Pair<Set<String>, Set<String>> searchAndRefreshDynMembers(final Group group) {
+        Set<String> users = new HashSet<>(
+                DynMembershipUtils.removeAll(entityManager(), UDYNMEMB_TABLE, "group_id", group.getKey()));
+        if (group.getUDynMembership() != null) {
+            Set<String> members = searchDynMembers(group, group.getUDynMembership().getFIQLCond(), AnyTypeKind.USER);
+            DynMembershipUtils.add(
+                    entityManager(), UDYNMEMB_TABLE, "group_id", group.getKey(), Map.of(), JPAUser.TABLE, members);
+
+            members.forEach(member -> {
+                if (!users.remove(member)) {
+                    users.add(member);
+                }
+            });
+        }
+
+        Set<String> anyObjects = new HashSet<>(
+                DynMembershipUtils.removeAll(entityManager(), ADYNMEMB_TABLE, "group_id", group.getKey()));
+        group.getADynMemberships().forEach(memb -> {
+            Set<String> members = searchDynMembers(group, memb.getFIQLCond(), AnyTypeKind.ANY_OBJECT);
+            DynMembershipUtils.add(
+                    entityManager(),
+                    ADYNMEMB_TABLE,
+                    "group_id",
+                    group.getKey(),
+                    Map.of("anyType_id", memb.getAnyType().getKey()),
+                    JPAAnyObject.TABLE,
+                    members);
+
+            members.forEach(member -> {
+                if (!anyObjects.remove(member)) {
+                    anyObjects.add(member);
+                }
+            });
+        });
+
+        return Pair.of(users, anyObjects);
     }
 
     @Override
     public Group saveAndRefreshDynMemberships(final Group group) {
+        searchCondCache.invalidate(group.getKey());
+
         Group merged = save(group);
         publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, merged, AuthContextUtils.getDomain()));
 
         // refresh dynamic memberships
-        clearUDynMembers(merged);
-        if (merged.getUDynMembership() != null) {
-            SearchCond cond = buildDynMembershipCond(merged.getUDynMembership().getFIQLCond(), merged.getRealm());
-            int count = searchDAO.count(
-                    Collections.<String>singleton(merged.getRealm().getFullPath()), cond, AnyTypeKind.USER);
-            for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                List<User> matching = searchDAO.search(
-                        Collections.<String>singleton(merged.getRealm().getFullPath()),
-                        cond,
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        List.of(),
-                        AnyTypeKind.USER);
-
-                matching.forEach(user -> {
-                    Query insert = entityManager().createNativeQuery("INSERT INTO " + UDYNMEMB_TABLE + " VALUES(?, ?)");
-                    insert.setParameter(1, user.getKey());
-                    insert.setParameter(2, merged.getKey());
-                    insert.executeUpdate();
-
-                    publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, user, AuthContextUtils.getDomain()));
-                });
-            }
+        Pair<Set<String>, Set<String>> changed = searchDAO instanceof JPAAnySearchDAO
+                ? refreshDynMembers((JPAAnySearchDAO) searchDAO, merged)
+                : searchAndRefreshDynMembers(merged);
+        if (!changed.getLeft().isEmpty()) {
+            publisher.publishEvent(new AnyBulkUpdatedEvent(
+                    this, AnyTypeKind.USER, changed.getLeft(), AuthContextUtils.getDomain()));
+        }
+        if (!changed.getRight().isEmpty()) {
+            publisher.publishEvent(new AnyBulkUpdatedEvent(
+                    this, AnyTypeKind.ANY_OBJECT, changed.getRight(), AuthContextUtils.getDomain()));
         }
-        clearADynMembers(merged);
-        merged.getADynMemberships().forEach(memb -> {
-            SearchCond cond = buildDynMembershipCond(memb.getFIQLCond(), merged.getRealm());
-            int count = searchDAO.count(
-                    Collections.<String>singleton(merged.getRealm().getFullPath()), cond, AnyTypeKind.ANY_OBJECT);
-            for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                List<AnyObject> matching = searchDAO.search(
-                        Collections.<String>singleton(merged.getRealm().getFullPath()),
-                        cond,
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        List.of(),
-                        AnyTypeKind.ANY_OBJECT);
-
-                matching.forEach(anyObject -> {
-                    Query insert = entityManager().createNativeQuery(
-                            "INSERT INTO " + ADYNMEMB_TABLE + " VALUES(?, ?, ?)");
-                    insert.setParameter(1, anyObject.getType().getKey());
-                    insert.setParameter(2, anyObject.getKey());
-                    insert.setParameter(3, merged.getKey());
-                    insert.executeUpdate();
-
-                    publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, anyObject, AuthContextUtils.getDomain()));
-                });
-            }
-        });
 
         dynRealmDAO.refreshDynMemberships(merged);
+        derSchemaDAO.refreshIndexedValues(merged);
 
         return merged;
     }
 
     @Override
     public void delete(final Group group) {
+        searchCondCache.invalidate(group.getKey());
+
         dynRealmDAO.removeDynMemberships(group.getKey());
+        derSchemaDAO.removeIndexedValues(group.getKey());
 
         findAMemberships(group).forEach(membership -> {
             AnyObject leftEnd = membership.getLeftEnd();
@@ -346,6 +561,11 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         clearUDynMembers(group);
         clearADynMembers(group);
 
+        if (group.getUDynMembership() != null) {
+            dynMembershipRefs.remove(group.getUDynMembership().getKey());
+        }
+        group.getADynMemberships().forEach(memb -> dynMembershipRefs.remove(memb.getKey()));
+
         entityManager().remove(group);
         publisher.publishEvent(new AnyDeletedEvent(
                 this, AnyTypeKind.GROUP, group.getKey(), group.getName(), AuthContextUtils.getDomain()));
@@ -439,47 +659,18 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
 
     @Transactional
     @Override
-    public Pair<Set<String>, Set<String>> refreshDynMemberships(final AnyObject anyObject) {
-        Query query = entityManager().createNativeQuery(
-                "SELECT group_id FROM " + JPAGroupDAO.ADYNMEMB_TABLE + " WHERE any_id=?");
-        query.setParameter(1, anyObject.getKey());
-
-        Set<String> before = new HashSet<>();
-        Set<String> after = new HashSet<>();
-        findWithADynMemberships(anyObject.getType()).forEach(memb -> {
-            boolean matches = anyMatchDAO.matches(
-                    anyObject,
-                    buildDynMembershipCond(memb.getFIQLCond(), memb.getGroup().getRealm()));
-            if (matches) {
-                after.add(memb.getGroup().getKey());
-            }
-
-            Query find = entityManager().createNativeQuery(
-                    "SELECT any_id FROM " + ADYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-            find.setParameter(1, memb.getGroup().getKey());
-            find.setParameter(2, anyObject.getKey());
-            boolean existing = !find.getResultList().isEmpty();
-            if (existing) {
-                before.add(memb.getGroup().getKey());
-            }
-
-            if (matches && !existing) {
-                Query insert = entityManager().createNativeQuery(
-                        "INSERT INTO " + ADYNMEMB_TABLE + " VALUES(?, ?, ?)");
-                insert.setParameter(1, anyObject.getType().getKey());
-                insert.setParameter(2, anyObject.getKey());
-                insert.setParameter(3, memb.getGroup().getKey());
-                insert.executeUpdate();
-            } else if (!matches && existing) {
-                Query delete = entityManager().createNativeQuery(
-                        "DELETE FROM " + ADYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-                delete.setParameter(1, memb.getGroup().getKey());
-                delete.setParameter(2, anyObject.getKey());
-                delete.executeUpdate();
-            }
-
-            publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, memb.getGroup(), AuthContextUtils.getDomain()));
-        });
+    public Pair<Set<String>, Set<String>> refreshDynMemberships(
+            final AnyObject anyObject, final SearchCondRefs changed) {
+
+        Set<String> before = findDynGroupKeys(ADYNMEMB_TABLE, anyObject.getKey());
+        Set<String> after = refreshDynMembers(
+                anyObject,
+                findWithADynMemberships(anyObject.getType()),
+                changed,
+                ADYNMEMB_TABLE,
+                "anyType_id, any_id, group_id",
+                List.of(anyObject.getType().getKey(), anyObject.getKey()),
+                before);
 
         return Pair.of(before, after);
     }
@@ -538,46 +729,16 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
 
     @Transactional
     @Override
-    public Pair<Set<String>, Set<String>> refreshDynMemberships(final User user) {
-        Query query = entityManager().createNativeQuery(
-                "SELECT group_id FROM " + JPAGroupDAO.UDYNMEMB_TABLE + " WHERE any_id=?");
-        query.setParameter(1, user.getKey());
-
-        Set<String> before = new HashSet<>();
-        Set<String> after = new HashSet<>();
-        findWithUDynMemberships().forEach(memb -> {
-            boolean matches = anyMatchDAO.matches(
-                    user,
-                    buildDynMembershipCond(memb.getFIQLCond(), memb.getGroup().getRealm()));
-            if (matches) {
-                after.add(memb.getGroup().getKey());
-            }
-
-            Query find = entityManager().createNativeQuery(
-                    "SELECT any_id FROM " + UDYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-            find.setParameter(1, memb.getGroup().getKey());
-            find.setParameter(2, user.getKey());
-            boolean existing = !find.getResultList().isEmpty();
-            if (existing) {
-                before.add(memb.getGroup().getKey());
-            }
-
-            if (matches && !existing) {
-                Query insert = entityManager().createNativeQuery(
-                        "INSERT INTO " + UDYNMEMB_TABLE + " VALUES(?, ?)");
-                insert.setParameter(1, user.getKey());
-                insert.setParameter(2, memb.getGroup().getKey());
-                insert.executeUpdate();
-            } else if (!matches && existing) {
-                Query delete = entityManager().createNativeQuery(
-                        "DELETE FROM " + UDYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-                delete.setParameter(1, memb.getGroup().getKey());
-                delete.setParameter(2, user.getKey());
-                delete.executeUpdate();
-            }
-
-            publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, memb.getGroup(), AuthContextUtils.getDomain()));
-        });
+    public Pair<Set<String>, Set<String>> refreshDynMemberships(final User user, final SearchCondRefs changed) {
+        Set<String> before = findDynGroupKeys(UDYNMEMB_TABLE, user.getKey());
+        Set<String> after = refreshDynMembers(
+                user,
+                findWithUDynMemberships(),
+                changed,
+                UDYNMEMB_TABLE,
+                "any_id, group_id",
+                List.of(user.getKey()),
+                before);
 
         return Pair.of(before, after);
     }
@@ -600,6 +761,57 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         return before;
     }
 
+    /**
+     * Evaluates the dynamic membership conditions affected by the given changes and stores the outcome.
+     * As conditions can refer to other dynamic groups, the conditions on memberships are evaluated again as long as
+     * dynamic memberships keep changing, up to once per dynamic membership.
+     *
+     * @param any user or any object
+     * @param membs dynamic memberships to consider
+     * @param changed what was changed
+     * @param table dynamic membership table
+     * @param columns dynamic membership table columns
+     * @param values values for the dynamic membership table columns, but group
+     * @param before current dynamic memberships
+     * @return dynamic memberships after evaluation
+     */
+    private Set<String> refreshDynMembers(
+            final Any<?> any,
+            final List<? extends DynGroupMembership<?>> membs,
+            final SearchCondRefs changed,
+            final String table,
+            final String columns,
+            final List<String> values,
+            final Set<String> before) {
+
+        Set<String> current = before;
+        SearchCondRefs toEvaluate = changed;
+        for (int round = 0; round <= membs.size(); round++) {
+            SearchCondRefs refs = toEvaluate;
+            Set<String> after = new HashSet<>(current);
+            // memberships might have changed in the previous round
+            Predicate<SearchCond> matcher = anyMatchDAO.matcher(any);
+            membs.stream().
+                    filter(memb -> getDynMembershipRefs(memb).intersects(refs)).
+                    forEach(memb -> {
+                        if (matcher.test(buildDynMembershipCond(memb.getFIQLCond(), memb.getGroup()))) {
+                            after.add(memb.getGroup().getKey());
+                        } else {
+                            after.remove(memb.getGroup().getKey());
+                        }
+                    });
+            if (after.equals(current)) {
+                break;
+            }
+
+            updateDynMembers(table, columns, values, current, after);
+            current = after;
+            toEvaluate = new SearchCondRefs().memberships();
+        }
+
+        return current;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Collection<String> findAllResourceKeys(final String key) {
@@ -18,7 +18,12 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import javax.persistence.TypedQuery;
 import org.apache.syncope.common.lib.types.LoggerLevel;
 import org.apache.syncope.common.lib.types.LoggerType;
@@ -30,6 +35,51 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
 
+    /**
+     * Keys of the audit loggers set to DEBUG, per domain.
+     */
+    private final DomainCache<Set<String>, Map<String, Boolean>> auditEnabled = new DomainCache<>(
+            JPALoggerDAO.class, "Enabled audit events", JPALogger.class) {
+
+        @Override
+        protected Set<String> load(final long version) {
+            TypedQuery<String> query = entityManager().createQuery(
+                    "SELECT e.key FROM " + JPALogger.class.getSimpleName() + " e "
+                    + "WHERE e.type=:type AND e.level=:level", String.class);
+            query.setParameter("type", LoggerType.AUDIT);
+            query.setParameter("level", LoggerLevel.DEBUG);
+            return Set.copyOf(query.getResultList());
+        }
+
+        @Override
+        protected Map<String, Boolean> newChanges() {
+            return new HashMap<>();
+        }
+
+        @Override
+        protected Set<String> apply(
+                final Set<String> snapshot, final long version, final Map<String, Boolean> changes) {
+
+            Set<String> updated = new HashSet<>(snapshot);
+            changes.forEach((key, enabled) -> {
+                if (enabled) {
+                    updated.add(key);
+                } else {
+                    updated.remove(key);
+                }
+            });
+            return Set.copyOf(updated);
+        }
+    };
+
+    private void track(final Logger logger, final boolean enabled) {
+        if (LoggerType.AUDIT != logger.getType()) {
+            return;
+        }
+
+        auditEnabled.track(changes -> changes.put(logger.getKey(), enabled));
+    }
+
     @Override
     public Logger find(final String key) {
         return entityManager().find(JPALogger.class, key);
@@ -43,17 +93,30 @@ public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
         return query.getResultList();
     }
 
+    @Override
+    public boolean isAuditEnabled(final String key) {
+        Optional<Map<String, Boolean>> pending = auditEnabled.pending();
+        if (pending.isPresent() && pending.get().containsKey(key)) {
+            return pending.get().get(key);
+        }
+
+        return auditEnabled.get().contains(key);
+    }
+
     @Override
     public Logger save(final Logger logger) {
         // Audit loggers must be either OFF or DEBUG, no more options
         if (LoggerType.AUDIT == logger.getType() && LoggerLevel.OFF != logger.getLevel()) {
             logger.setLevel(LoggerLevel.DEBUG);
         }
-        return entityManager().merge(logger);
+        Logger merged = entityManager().merge(logger);
+        track(merged, merged.getLevel() == LoggerLevel.DEBUG);
+        return merged;
     }
 
     @Override
     public void delete(final Logger logger) {
+        track(logger, false);
         entityManager().remove(logger);
     }
 
@@ -18,7 +18,12 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.persistence.TypedQuery;
 import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.core.persistence.api.dao.NotificationDAO;
@@ -27,6 +32,8 @@ import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.entity.MailTemplate;
 import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.persistence.api.search.SearchCondCache;
+import org.apache.syncope.core.persistence.jpa.entity.JPAAnyAbout;
 import org.apache.syncope.core.persistence.jpa.entity.JPANotification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -38,6 +45,65 @@ public class JPANotificationDAO extends AbstractDAO<Notification> implements Not
     @Autowired
     private TaskDAO taskDAO;
 
+    @Autowired
+    private SearchCondCache searchCondCache;
+
+    /**
+     * Keys of the active notifications listening to each event, per domain.
+     */
+    private final DomainCache<Map<String, List<String>>, Set<String>> byEvent = new DomainCache<>(
+            JPANotificationDAO.class, "Notifications by event", JPANotification.class, JPAAnyAbout.class) {
+
+        @Override
+        protected Map<String, List<String>> load(final long version) {
+            return buildByEvent();
+        }
+
+        @Override
+        protected Set<String> newChanges() {
+            return new HashSet<>();
+        }
+
+        @Override
+        protected void changedRemotely(final Map<String, List<String>> registry) {
+            // search conditions parsed for the notifications changed remotely are not known: drop them all
+            if (registry != null) {
+                registry.values().stream().flatMap(List::stream).forEach(searchCondCache::invalidate);
+            }
+        }
+    };
+
+    private Map<String, List<String>> buildByEvent() {
+        Map<String, List<String>> registry = new HashMap<>();
+
+        TypedQuery<Notification> query = entityManager().createQuery(
+                "SELECT e FROM " + JPANotification.class.getSimpleName() + " e WHERE e.active=true",
+                Notification.class);
+        query.getResultList().forEach(notification -> {
+            notification.getEvents().forEach(event -> registry.computeIfAbsent(
+                    event, k -> new ArrayList<>()).add(notification.getKey()));
+
+            // parse about and recipient conditions in advance, so that they are ready when events are raised
+            try {
+                notification.getAbouts().forEach(about -> searchCondCache.get(notification.getKey(), about.get()));
+                if (notification.getRecipientsFIQL() != null) {
+                    searchCondCache.get(notification.getKey(), notification.getRecipientsFIQL());
+                }
+            } catch (Exception e) {
+                LOG.warn("Could not parse search conditions for notification {}", notification.getKey(), e);
+            }
+        });
+
+        Map<String, List<String>> immutable = new HashMap<>(registry.size());
+        registry.forEach((event, keys) -> immutable.put(event, List.copyOf(keys)));
+        return Map.copyOf(immutable);
+    }
+
+    private void track(final String key) {
+        searchCondCache.invalidate(key);
+        byEvent.track(changed -> changed.add(key));
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Notification find(final String key) {
@@ -72,9 +138,22 @@ public class JPANotificationDAO extends AbstractDAO<Notification> implements Not
         return query.getResultList();
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<String> findActiveByEvent(final String event) {
+        // notifications were changed within the current transaction: these changes are not in the registry yet
+        if (byEvent.pending().isPresent()) {
+            return buildByEvent().getOrDefault(event, List.of());
+        }
+
+        return byEvent.get().getOrDefault(event, List.of());
+    }
+
     @Override
     public Notification save(final Notification notification) {
-        return entityManager().merge(notification);
+        Notification merged = entityManager().merge(notification);
+        track(merged.getKey());
+        return merged;
     }
 
     @Override
@@ -88,6 +167,7 @@ public class JPANotificationDAO extends AbstractDAO<Notification> implements Not
                 TaskType.NOTIFICATION, null, notification, null, null, -1, -1, List.of()).
                 stream().map(Entity::getKey).forEach(this::delete);
 
+        track(notification.getKey());
         entityManager().remove(notification);
     }
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Date;
+import java.util.List;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.apache.syncope.core.persistence.api.dao.OutboxEventDAO;
+import org.apache.syncope.core.persistence.api.entity.OutboxEvent;
+import org.apache.syncope.core.persistence.jpa.entity.JPAOutboxEvent;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(rollbackFor = Throwable.class)
+@Repository
+public class JPAOutboxEventDAO extends AbstractDAO<OutboxEvent> implements OutboxEventDAO {
+
+    @Transactional(readOnly = true)
+    @Override
+    public OutboxEvent find(final String key) {
+        return entityManager().find(JPAOutboxEvent.class, key);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<String> findStale(final Date before, final int maxAttempts, final int max) {
+        TypedQuery<String> query = entityManager().createQuery(
+                "SELECT e.id FROM " + JPAOutboxEvent.class.getSimpleName() + " e "
+                + "WHERE e.creationDate < :before AND e.attempts < :maxAttempts ORDER BY e.creationDate",
+                String.class);
+        query.setParameter("before", before);
+        query.setParameter("maxAttempts", maxAttempts);
+        query.setMaxResults(max);
+        return query.getResultList();
+    }
+
+    @Override
+    public boolean claim(final String key, final Date before) {
+        Query query = entityManager().createQuery(
+                "UPDATE " + JPAOutboxEvent.class.getSimpleName() + " e "
+                + "SET e.creationDate = :now, e.attempts = e.attempts + 1 "
+                + "WHERE e.id = :key AND e.creationDate < :before");
+        query.setParameter("now", new Date());
+        query.setParameter("key", key);
+        query.setParameter("before", before);
+        return query.executeUpdate() == 1;
+    }
+
+    @Override
+    public OutboxEvent save(final OutboxEvent event) {
+        return entityManager().merge(event);
+    }
+
+    @Override
+    public void delete(final String key) {
+        OutboxEvent event = find(key);
+        if (event == null) {
+            return;
+        }
+
+        entityManager().remove(event);
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnyMatchDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainAttrDAO;
 import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
@@ -52,6 +53,10 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
     @Lazy
     private ExternalResourceDAO resourceDAO;
 
+    @Autowired
+    @Lazy
+    private AnyMatchDAO anyMatchDAO;
+
     @Override
     public PlainSchema find(final String key) {
         return entityManager().find(JPAPlainSchema.class, key);
@@ -122,6 +127,7 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
 
     @Override
     public PlainSchema save(final PlainSchema schema) {
+        anyMatchDAO.clearCompiled();
         return entityManager().merge(schema);
     }
 
@@ -149,6 +155,7 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
             schema.getAnyTypeClass().getPlainSchemas().remove(schema);
         }
 
+        anyMatchDAO.clearCompiled();
         entityManager().remove(schema);
     }
 
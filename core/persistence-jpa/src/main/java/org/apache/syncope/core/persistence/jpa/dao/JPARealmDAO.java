@@ -20,8 +20,12 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
 import org.apache.commons.lang3.StringUtils;
@@ -29,6 +33,7 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.core.persistence.api.dao.MalformedPathException;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.RoleDAO;
+import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.entity.policy.AccountPolicy;
 import org.apache.syncope.core.persistence.api.entity.Realm;
@@ -37,6 +42,7 @@ import org.apache.syncope.core.persistence.api.entity.policy.Policy;
 import org.apache.syncope.core.persistence.api.entity.policy.ProvisioningPolicy;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
@@ -49,6 +55,56 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
     @Lazy
     private RoleDAO roleDAO;
 
+    /**
+     * Realm hierarchy snapshots, per domain.
+     */
+    private final DomainCache<RealmTree, RealmChanges> trees = new DomainCache<>(
+            JPARealmDAO.class, "Realm tree", JPARealm.class) {
+
+        @Override
+        protected RealmTree load(final long version) {
+            TypedQuery<Object[]> query = entityManager().createQuery(
+                    "SELECT e.id, e.name, p.id FROM " + JPARealm.class.getSimpleName() + " e LEFT JOIN e.parent p",
+                    Object[].class);
+            return RealmTree.build(version, query.getResultList().stream().
+                    map(row -> new RealmTree.Node((String) row[0], (String) row[1], (String) row[2])).
+                    collect(Collectors.toList()));
+        }
+
+        @Override
+        protected RealmChanges newChanges() {
+            return new RealmChanges();
+        }
+
+        @Override
+        protected void beforeCommit(final RealmChanges changes) {
+            changes.saved.stream().filter(realm -> !changes.deleted.contains(realm.getKey())).
+                    forEach(realm -> changes.nodes.add(new RealmTree.Node(
+                    realm.getKey(),
+                    realm.getName(),
+                    realm.getParent() == null ? null : realm.getParent().getKey())));
+        }
+
+        @Override
+        protected RealmTree apply(final RealmTree tree, final long version, final RealmChanges changes) {
+            return tree.apply(version, changes.nodes, changes.deleted);
+        }
+    };
+
+    /**
+     * Returns the realm hierarchy snapshot for the current domain, unless realms were changed within the current
+     * transaction: in such case the snapshot cannot be trusted, and callers need to query the database.
+     *
+     * @return realm hierarchy snapshot, if available
+     */
+    protected Optional<RealmTree> tree() {
+        return trees.pending().isPresent() ? Optional.empty() : Optional.of(trees.get());
+    }
+
+    private List<Realm> toRealms(final List<String> keys) {
+        return keys.stream().map(this::find).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     @Override
     public Realm getRoot() {
         TypedQuery<Realm> query = entityManager().createQuery(
@@ -81,6 +137,22 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
             throw new MalformedPathException(fullPath);
         }
 
+        Optional<RealmTree> tree = tree();
+        if (tree.isPresent()) {
+            Optional<String> key = tree.get().getKey(fullPath);
+            if (key.isEmpty()) {
+                return null;
+            }
+
+            Realm realm = find(key.get());
+            if (realm != null) {
+                return realm;
+            }
+
+            // the snapshot is stale: drop it and look up the database
+            trees.invalidate(AuthContextUtils.getDomain());
+        }
+
         Realm root = getRoot();
         if (root == null) {
             return null;
@@ -173,6 +245,11 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
 
     @Override
     public List<Realm> findAncestors(final Realm realm) {
+        Optional<RealmTree> tree = tree();
+        if (tree.isPresent() && tree.get().contains(realm.getKey())) {
+            return toRealms(tree.get().getAncestors(realm.getKey()));
+        }
+
         List<Realm> result = new ArrayList<>();
         result.add(realm);
         findAncestors(result, realm);
@@ -198,11 +275,47 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
 
     @Override
     public List<Realm> findDescendants(final Realm realm) {
+        Optional<RealmTree> tree = tree();
+        if (tree.isPresent() && tree.get().contains(realm.getKey())) {
+            return toRealms(tree.get().getDescendants(realm.getKey()));
+        }
+
         List<Realm> result = new ArrayList<>();
         findDescendants(result, realm);
         return result;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<String> findDescendantKeys(final String fullPath) {
+        Optional<RealmTree> tree = tree();
+        if (tree.isPresent()) {
+            return tree.get().getKey(fullPath).map(tree.get()::getDescendants).orElse(List.of());
+        }
+
+        Realm realm = findByFullPath(fullPath);
+        return realm == null
+                ? List.of()
+                : findDescendants(realm).stream().map(Entity::getKey).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<String> findDescendantFullPaths(final String fullPath) {
+        Optional<RealmTree> tree = tree();
+        if (tree.isPresent()) {
+            return tree.get().getKey(fullPath).map(key -> tree.get().getDescendants(key).stream().
+                    map(descendant -> tree.get().getFullPath(descendant).orElseThrow()).
+                    collect(Collectors.toList())).
+                    orElse(List.of());
+        }
+
+        Realm realm = findByFullPath(fullPath);
+        return realm == null
+                ? List.of()
+                : findDescendants(realm).stream().map(Realm::getFullPath).collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<Realm> findAll() {
@@ -211,12 +324,28 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
 
     @Override
     public Realm save(final Realm realm) {
-        return entityManager().merge(realm);
+        Realm merged = entityManager().merge(realm);
+
+        // full path changed: align the stored full path of all descendants
+        ((JPARealm) merged).refreshFullPath().ifPresent(previous -> {
+            List<Realm> descendants = new ArrayList<>();
+            findDescendants(descendants, merged);
+            descendants.forEach(descendant -> ((JPARealm) descendant).refreshFullPath());
+        });
+
+        trees.track(changes -> changes.saved.add(merged));
+
+        return merged;
     }
 
     @Override
     public void delete(final Realm realm) {
-        findDescendants(realm).stream().map(toBeDeleted -> {
+        List<Realm> toBeDeletedRealms = findDescendants(realm);
+
+        trees.track(changes -> toBeDeletedRealms.forEach(
+                toBeDeleted -> changes.deleted.add(toBeDeleted.getKey())));
+
+        toBeDeletedRealms.stream().map(toBeDeleted -> {
             roleDAO.findByRealm(toBeDeleted).forEach(role -> role.getRealms().remove(toBeDeleted));
             return toBeDeleted;
         }).map(toBeDeleted -> {
@@ -234,4 +363,17 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
 
         delete(realm);
     }
+
+    /**
+     * Realm changes performed within the current transaction: they are applied to the shared realm hierarchy
+     * snapshot only after successful commit.
+     */
+    private static class RealmChanges {
+
+        private final List<Realm> saved = new ArrayList<>();
+
+        private final Set<String> deleted = new HashSet<>();
+
+        private final List<RealmTree.Node> nodes = new ArrayList<>();
+    }
 }
@@ -19,21 +19,28 @@
 package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnyMatchDAO;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.persistence.api.dao.RoleDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Privilege;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.Role;
 import org.apache.syncope.core.persistence.api.entity.user.User;
-import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
+import org.apache.syncope.core.persistence.api.search.SearchCondCache;
 import org.apache.syncope.core.persistence.jpa.entity.JPARole;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,7 +63,7 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
     private AnySearchDAO searchDAO;
 
     @Autowired
-    private SearchCondVisitor searchCondVisitor;
+    private SearchCondCache searchCondCache;
 
     @Override
     public int count() {
@@ -96,6 +103,7 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
 
     @Override
     public Role save(final Role role) {
+        searchCondCache.invalidate(role.getKey());
         return entityManager().merge(role);
     }
 
@@ -104,22 +112,42 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
         Role merged = save(role);
 
         // refresh dynamic memberships
-        clearDynMembers(merged);
-        if (merged.getDynMembership() != null) {
-            List<User> matching = searchDAO.search(
-                    SearchCondConverter.convert(searchCondVisitor, merged.getDynMembership().getFIQLCond()),
-                    AnyTypeKind.USER);
-
-            matching.forEach((user) -> {
-                Query insert = entityManager().createNativeQuery("INSERT INTO " + DYNMEMB_TABLE + " VALUES(?, ?)");
-                insert.setParameter(1, user.getKey());
-                insert.setParameter(2, merged.getKey());
-                insert.executeUpdate();
-
-                publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, user, AuthContextUtils.getDomain()));
+        Set<String> changed = new HashSet<>();
+        if (merged.getDynMembership() == null) {
+            changed.addAll(DynMembershipUtils.removeAll(entityManager(), DYNMEMB_TABLE, "role_id", merged.getKey()));
+        } else if (searchDAO instanceof JPAAnySearchDAO) {
+            List<Object> parameters = new ArrayList<>();
+            String members = ((JPAAnySearchDAO) searchDAO).buildKeysQuery(
+                    SyncopeConstants.FULL_ADMIN_REALMS,
+                    searchCondCache.get(merged.getKey(), merged.getDynMembership().getFIQLCond()),
+                    AnyTypeKind.USER,
+                    parameters);
+
+            changed.addAll(DynMembershipUtils.removeStale(
+                    entityManager(), DYNMEMB_TABLE, "role_id", merged.getKey(), members, parameters));
+            changed.addAll(DynMembershipUtils.addMissing(
+                    entityManager(), DYNMEMB_TABLE, "role_id", merged.getKey(), Map.of(), members, parameters));
+        } else {
+            changed.addAll(DynMembershipUtils.removeAll(entityManager(), DYNMEMB_TABLE, "role_id", merged.getKey()));
+
+            List<String> matching = searchDAO.<User>search(
+                    searchCondCache.get(merged.getKey(), merged.getDynMembership().getFIQLCond()),
+                    AnyTypeKind.USER).stream().map(User::getKey).collect(Collectors.toList());
+            DynMembershipUtils.add(
+                    entityManager(), DYNMEMB_TABLE, "role_id", merged.getKey(), Map.of(), JPAUser.TABLE, matching);
+
+            matching.forEach(user -> {
+                if (!changed.remove(user)) {
+                    changed.add(user);
+                }
             });
         }
 
+        if (!changed.isEmpty()) {
+            publisher.publishEvent(new AnyBulkUpdatedEvent(
+                    this, AnyTypeKind.USER, changed, AuthContextUtils.getDomain()));
+        }
+
         return merged;
     }
 
@@ -135,6 +163,7 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
         });
 
         clearDynMembers(role);
+        searchCondCache.invalidate(role.getKey());
 
         entityManager().remove(role);
     }
@@ -181,9 +210,10 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
                 "SELECT role_id FROM " + DYNMEMB_TABLE + " WHERE any_id=?");
         query.setParameter(1, user.getKey());
 
+        Predicate<SearchCond> matcher = anyMatchDAO.matcher(user);
         findAll().stream().filter(role -> role.getDynMembership() != null).forEach(role -> {
-            boolean matches = anyMatchDAO.matches(
-                    user, SearchCondConverter.convert(searchCondVisitor, role.getDynMembership().getFIQLCond()));
+            boolean matches = matcher.test(
+                    searchCondCache.get(role.getKey(), role.getDynMembership().getFIQLCond()));
 
             Query find = entityManager().createNativeQuery(
                     "SELECT any_id FROM " + DYNMEMB_TABLE + " WHERE role_id=?");
@@ -20,7 +20,9 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -36,10 +38,12 @@ import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.entity.Notification;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
 import org.apache.syncope.core.persistence.api.entity.task.PullTask;
 import org.apache.syncope.core.persistence.api.entity.task.PushTask;
 import org.apache.syncope.core.persistence.api.entity.task.SchedTask;
 import org.apache.syncope.core.persistence.api.entity.task.Task;
+import org.apache.syncope.core.persistence.api.search.SearchCondCache;
 import org.apache.syncope.core.persistence.jpa.entity.task.JPANotificationTask;
 import org.apache.syncope.core.persistence.jpa.entity.task.JPAPropagationTask;
 import org.apache.syncope.core.persistence.jpa.entity.task.JPAPushTask;
@@ -58,6 +62,9 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
     @Autowired
     private RemediationDAO remediationDAO;
 
+    @Autowired
+    private SearchCondCache searchCondCache;
+
     @Override
     public Class<? extends Task> getEntityReference(final TaskType type) {
         Class<? extends Task> result = null;
@@ -205,6 +212,20 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
         return findAll(type, null, null, null, null, -1, -1, List.of());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<PropagationTask> findByLatestExec(final String status, final String messagePrefix, final int max) {
+        TypedQuery<PropagationTask> query = entityManager().createQuery(
+                "SELECT t FROM " + JPAPropagationTask.class.getSimpleName() + " t JOIN t.executions e "
+                + "WHERE e.status = :status AND e.message LIKE :messagePrefix "
+                + "AND NOT EXISTS (SELECT e2 FROM " + JPATaskExec.class.getSimpleName() + " e2 "
+                + "WHERE e2.task = t AND e2.start > e.start)", PropagationTask.class);
+        query.setParameter("status", status);
+        query.setParameter("messagePrefix", messagePrefix + '%');
+        query.setMaxResults(max);
+        return query.getResultList().stream().distinct().collect(Collectors.toList());
+    }
+
     private static StringBuilder buildFindAllQuery(
         final TaskType type,
         final ExternalResource resource,
@@ -436,6 +457,9 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
     @Transactional(rollbackFor = { Throwable.class })
     @Override
     public <T extends Task> T save(final T task) {
+        if (task instanceof PushTask) {
+            searchCondCache.invalidate(task.getKey());
+        }
         return entityManager().merge(task);
     }
 
@@ -453,6 +477,8 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
     public void delete(final Task task) {
         if (task instanceof PullTask) {
             remediationDAO.findByPullTask((PullTask) task).forEach(remediation -> remediation.setPullTask(null));
+        } else if (task instanceof PushTask) {
+            searchCondCache.invalidate(task.getKey());
         }
 
         entityManager().remove(task);
@@ -464,6 +490,45 @@ public class JPATaskDAO extends AbstractDAO<Task> implements TaskDAO {
                 stream().map(Entity::getKey).forEach(this::delete);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public int purgePropagations(final ExternalResource resource, final Date endedBefore, final int max) {
+        StringBuilder queryString = new StringBuilder("SELECT t.id FROM ").append(AbstractTask.TABLE).append(" t ").
+                append("WHERE t.DTYPE=?1").
+                append(" AND EXISTS (SELECT e.id FROM ").append(JPATaskExec.TABLE).append(" e ").
+                append("WHERE e.task_id=t.id)").
+                append(" AND NOT EXISTS (SELECT e.id FROM ").append(JPATaskExec.TABLE).append(" e ").
+                append("WHERE e.task_id=t.id AND (e.endDate IS NULL OR e.endDate >= ?2))");
+        if (resource != null) {
+            queryString.append(" AND t.resource_id=?3");
+        }
+
+        Query query = entityManager().createNativeQuery(queryString.toString());
+        query.setParameter(1, getEntityTableName(TaskType.PROPAGATION));
+        query.setParameter(2, endedBefore);
+        if (resource != null) {
+            query.setParameter(3, resource.getKey());
+        }
+        query.setMaxResults(max);
+
+        List<String> keys = ((List<Object>) query.getResultList()).stream().
+                map(key -> key instanceof Object[] ? (String) ((Object[]) key)[0] : (String) key).
+                collect(Collectors.toList());
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        Query deleteExecs = entityManager().createQuery(
+                "DELETE FROM " + JPATaskExec.class.getSimpleName() + " e WHERE e.task.id IN :keys");
+        deleteExecs.setParameter("keys", keys);
+        deleteExecs.executeUpdate();
+
+        Query deleteTasks = entityManager().createQuery(
+                "DELETE FROM " + JPAPropagationTask.class.getSimpleName() + " t WHERE t.id IN :keys");
+        deleteTasks.setParameter("keys", keys);
+        return deleteTasks.executeUpdate();
+    }
+
     private <T extends Task> List<T> buildResult(final List<Object> raw) {
         List<T> result = new ArrayList<>();
 
@@ -20,13 +20,18 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.DiscriminatorValue;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import org.apache.syncope.common.lib.types.TaskType;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskExecDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.task.Task;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.persistence.jpa.entity.task.AbstractTask;
 import org.apache.syncope.core.persistence.jpa.entity.task.JPATaskExec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -195,4 +200,41 @@ public class JPATaskExecDAO extends AbstractDAO<TaskExec> implements TaskExecDAO
 
         entityManager().remove(execution);
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int purge(final TaskType type, final ExternalResource resource, final Date endedBefore, final int max) {
+        if (resource != null
+                && type != TaskType.PROPAGATION && type != TaskType.PUSH && type != TaskType.PULL) {
+
+            throw new IllegalArgumentException(type + " is not related to " + ExternalResource.class.getSimpleName());
+        }
+
+        StringBuilder queryString = new StringBuilder("SELECT e.id FROM ").
+                append(JPATaskExec.TABLE).append(" e, ").append(AbstractTask.TABLE).append(" t ").
+                append("WHERE e.task_id=t.id AND t.DTYPE=?1 AND e.endDate < ?2");
+        if (resource != null) {
+            queryString.append(" AND t.resource_id=?3");
+        }
+
+        Query query = entityManager().createNativeQuery(queryString.toString());
+        query.setParameter(1, taskDAO.getEntityReference(type).getAnnotation(DiscriminatorValue.class).value());
+        query.setParameter(2, endedBefore);
+        if (resource != null) {
+            query.setParameter(3, resource.getKey());
+        }
+        query.setMaxResults(max);
+
+        List<String> keys = ((List<Object>) query.getResultList()).stream().
+                map(key -> key instanceof Object[] ? (String) ((Object[]) key)[0] : (String) key).
+                collect(Collectors.toList());
+        if (keys.isEmpty()) {
+            return 0;
+        }
+
+        Query delete = entityManager().createQuery(
+                "DELETE FROM " + JPATaskExec.class.getSimpleName() + " e WHERE e.id IN :keys");
+        delete.setParameter("keys", keys);
+        return delete.executeUpdate();
+    }
 }
@@ -48,6 +48,7 @@ import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.RoleDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.AccessToken;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.Entity;
@@ -396,7 +397,7 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
         return Pair.of(suspend, propagateSuspension);
     }
 
-    protected Pair<User, Pair<Set<String>, Set<String>>> doSave(final User user) {
+    protected Pair<User, Pair<Set<String>, Set<String>>> doSave(final User user, final SearchCondRefs changed) {
         // 1. save clear password value before save
         String clearPwd = user.getClearPassword();
 
@@ -417,20 +418,21 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
         publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, merged, AuthContextUtils.getDomain()));
 
         roleDAO.refreshDynMemberships(merged);
-        Pair<Set<String>, Set<String>> dynGroupMembs = groupDAO.refreshDynMemberships(merged);
+        Pair<Set<String>, Set<String>> dynGroupMembs = groupDAO.refreshDynMemberships(merged, changed);
         dynRealmDAO.refreshDynMemberships(merged);
+        derSchemaDAO.refreshIndexedValues(merged);
 
         return Pair.of(merged, dynGroupMembs);
     }
 
     @Override
     public User save(final User user) {
-        return doSave(user).getLeft();
+        return doSave(user, SearchCondRefs.ALL).getLeft();
     }
 
     @Override
-    public Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(final User user) {
-        return doSave(user).getRight();
+    public Pair<Set<String>, Set<String>> saveAndGetDynGroupMembs(final User user, final SearchCondRefs changed) {
+        return doSave(user, changed).getRight();
     }
 
     @Override
@@ -438,6 +440,7 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
         roleDAO.removeDynMemberships(user.getKey());
         groupDAO.removeDynMemberships(user);
         dynRealmDAO.removeDynMemberships(user.getKey());
+        derSchemaDAO.removeIndexedValues(user.getKey());
 
         AccessToken accessToken = accessTokenDAO.findByOwner(user.getUsername());
         if (accessToken != null) {
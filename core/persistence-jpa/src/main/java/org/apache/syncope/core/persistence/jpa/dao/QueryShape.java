@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+
+/**
+ * Leaves of a search condition, resolved in order of appearance, together with the signature of the condition shape.
+ */
+public class QueryShape {
+
+    /**
+     * Leaf of a search condition, resolved into the signature of the SQL text to generate for it - telling whatever
+     * such text depends on - and into the values to bind as parameters of such text.
+     */
+    public static class Leaf {
+
+        protected final SearchCond cond;
+
+        protected final String signature;
+
+        protected final List<Object> values;
+
+        protected Leaf(final SearchCond cond, final String signature, final List<Object> values) {
+            this.cond = cond;
+            this.signature = signature;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Number of parameters bound before the values of the leaves.
+     */
+    protected final int offset;
+
+    protected final StringBuilder signature = new StringBuilder();
+
+    protected final List<Leaf> leaves = new ArrayList<>();
+
+    protected final Set<String> involvedPlainAttrs = new HashSet<>();
+
+    protected QueryShape(final int offset) {
+        this.offset = offset;
+    }
+}
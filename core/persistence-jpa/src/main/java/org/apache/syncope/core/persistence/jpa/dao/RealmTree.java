@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.common.lib.SyncopeConstants;
+
+/**
+ * Immutable, versioned snapshot of the realm hierarchy of a given domain, allowing to resolve full paths, ancestors
+ * and descendants without querying the database.
+ */
+public final class RealmTree {
+
+    public static class Node {
+
+        private final String key;
+
+        private final String name;
+
+        private final String parentKey;
+
+        public Node(final String key, final String name, final String parentKey) {
+            this.key = key;
+            this.name = name;
+            this.parentKey = parentKey;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getParentKey() {
+            return parentKey;
+        }
+    }
+
+    public static RealmTree build(final long version, final Collection<Node> nodes) {
+        Map<String, Node> byKey = new LinkedHashMap<>(nodes.size());
+        nodes.forEach(node -> byKey.put(node.getKey(), node));
+        return new RealmTree(version, byKey);
+    }
+
+    private final long version;
+
+    private final Map<String, Node> nodes;
+
+    private String rootKey;
+
+    private final Map<String, String> paths;
+
+    private final Map<String, String> keys;
+
+    private final Map<String, List<String>> children;
+
+    private final Map<String, List<String>> descendants;
+
+    private final Map<String, List<String>> ancestors;
+
+    private RealmTree(final long version, final Map<String, Node> nodes) {
+        this.version = version;
+        this.nodes = nodes;
+
+        children = new HashMap<>();
+        nodes.values().forEach(node -> {
+            if (node.getParentKey() == null) {
+                rootKey = node.getKey();
+            } else {
+                children.computeIfAbsent(node.getParentKey(), k -> new ArrayList<>()).add(node.getKey());
+            }
+        });
+
+        paths = new HashMap<>(nodes.size());
+        keys = new HashMap<>(nodes.size());
+        descendants = new HashMap<>(nodes.size());
+        ancestors = new HashMap<>(nodes.size());
+        if (rootKey != null) {
+            visit(rootKey, SyncopeConstants.ROOT_REALM, List.of());
+        }
+    }
+
+    private List<String> visit(final String key, final String path, final List<String> parentAncestors) {
+        paths.put(key, path);
+        keys.put(path, key);
+
+        List<String> nodeAncestors = new ArrayList<>(parentAncestors.size() + 1);
+        nodeAncestors.add(key);
+        nodeAncestors.addAll(parentAncestors);
+        ancestors.put(key, Collections.unmodifiableList(nodeAncestors));
+
+        List<String> nodeDescendants = new ArrayList<>();
+        nodeDescendants.add(key);
+        children.getOrDefault(key, List.of()).forEach(child -> nodeDescendants.addAll(visit(
+                child,
+                StringUtils.appendIfMissing(path, "/") + nodes.get(child).getName(),
+                nodeAncestors)));
+        descendants.put(key, Collections.unmodifiableList(nodeDescendants));
+
+        return nodeDescendants;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getRootKey() {
+        return rootKey;
+    }
+
+    public boolean contains(final String key) {
+        return paths.containsKey(key);
+    }
+
+    public Optional<String> getKey(final String fullPath) {
+        return Optional.ofNullable(keys.get(fullPath));
+    }
+
+    public Optional<String> getFullPath(final String key) {
+        return Optional.ofNullable(paths.get(key));
+    }
+
+    public List<String> getChildren(final String key) {
+        return Collections.unmodifiableList(children.getOrDefault(key, List.of()));
+    }
+
+    /**
+     * @param key realm key
+     * @return keys of the given realm and of all its descendants, in depth-first order
+     */
+    public List<String> getDescendants(final String key) {
+        return descendants.getOrDefault(key, List.of());
+    }
+
+    /**
+     * @param key realm key
+     * @return keys of the given realm and of all its ancestors, up to the root realm
+     */
+    public List<String> getAncestors(final String key) {
+        return ancestors.getOrDefault(key, List.of());
+    }
+
+    /**
+     * Returns a new snapshot, with the given version, reflecting the given changes.
+     *
+     * @param version version of the new snapshot
+     * @param saved realms created or updated
+     * @param deleted keys of realms removed
+     * @return new snapshot
+     */
+    public RealmTree apply(final long version, final Collection<Node> saved, final Collection<String> deleted) {
+        Map<String, Node> changed = new LinkedHashMap<>(nodes);
+        saved.forEach(node -> changed.put(node.getKey(), node));
+        deleted.forEach(changed::remove);
+        return new RealmTree(version, changed);
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.syncope.core.persistence.jpa.dao;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
 import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
@@ -150,6 +151,10 @@ public class SearchSupport {
         return new SearchView("svdrealm", JPADynRealmDAO.DYNMEMB_TABLE);
     }
 
+    public static SearchView realm() {
+        return new SearchView("svrealm", JPARealm.TABLE);
+    }
+
     public SearchView resource() {
         return new SearchView("svr", field().name + "_resource");
     }
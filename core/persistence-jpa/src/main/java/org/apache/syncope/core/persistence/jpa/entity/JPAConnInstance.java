@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
@@ -52,6 +53,7 @@ import org.apache.syncope.core.persistence.jpa.entity.resource.JPAExternalResour
 @Entity
 @Table(name = JPAConnInstance.TABLE)
 @ConnInstanceCheck
+@Cacheable
 public class JPAConnInstance extends AbstractGeneratedKeyEntity implements ConnInstance {
 
     private static final long serialVersionUID = -2294708794497208872L;
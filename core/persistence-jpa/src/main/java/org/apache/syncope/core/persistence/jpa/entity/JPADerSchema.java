@@ -43,6 +43,8 @@ public class JPADerSchema extends AbstractSchema implements DerSchema {
     @NotNull
     private String expression;
 
+    private Boolean indexed = false;
+
     @Override
     public AnyTypeClass getAnyTypeClass() {
         return anyTypeClass;
@@ -64,6 +66,16 @@ public class JPADerSchema extends AbstractSchema implements DerSchema {
         this.expression = expression;
     }
 
+    @Override
+    public boolean isIndexed() {
+        return indexed != null && indexed;
+    }
+
+    @Override
+    public void setIndexed(final boolean indexed) {
+        this.indexed = indexed;
+    }
+
     @Override
     public AttrSchemaType getType() {
         return AttrSchemaType.String;
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity;
+
+import java.util.Date;
+import java.util.Optional;
+import javax.persistence.Entity;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import org.apache.syncope.core.persistence.api.entity.OutboxEvent;
+
+@Entity
+@Table(name = JPAOutboxEvent.TABLE)
+public class JPAOutboxEvent extends AbstractGeneratedKeyEntity implements OutboxEvent {
+
+    private static final long serialVersionUID = -2871045939226718563L;
+
+    public static final String TABLE = "SyncopeOutboxEvent";
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date creationDate;
+
+    @Lob
+    private byte[] payload;
+
+    private int attempts;
+
+    @Override
+    public Date getCreationDate() {
+        return Optional.ofNullable(creationDate).map(date -> new Date(date.getTime())).orElse(null);
+    }
+
+    @Override
+    public void setCreationDate(final Date creationDate) {
+        if (creationDate == null) {
+            this.creationDate = null;
+        } else {
+            this.creationDate = new Date(creationDate.getTime());
+        }
+    }
+
+    @Override
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    @Override
+    public void setPayload(final byte[] payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public void setAttempts(final int attempts) {
+        this.attempts = attempts;
+    }
+}
@@ -66,6 +66,11 @@ public class JPARealm extends AbstractGeneratedKeyEntity implements Realm {
     @ManyToOne
     private JPARealm parent;
 
+    /**
+     * Stored copy of {@link #getFullPath()}, allowing search queries to match realm descendants by path prefix.
+     */
+    private String fullPath;
+
     @ManyToOne(fetch = FetchType.EAGER)
     private JPAPasswordPolicy passwordPolicy;
 
@@ -111,6 +116,22 @@ public class JPARealm extends AbstractGeneratedKeyEntity implements Realm {
                 : StringUtils.appendIfMissing(getParent().getFullPath(), "/") + getName();
     }
 
+    /**
+     * Aligns the stored full path with the one computed from the realm hierarchy.
+     *
+     * @return the previously stored full path, if any and different from the computed one
+     */
+    public Optional<String> refreshFullPath() {
+        String computed = getFullPath();
+        if (computed.equals(fullPath)) {
+            return Optional.empty();
+        }
+
+        String previous = fullPath;
+        fullPath = computed;
+        return Optional.ofNullable(previous);
+    }
+
     @Override
     public AccountPolicy getAccountPolicy() {
         return accountPolicy == null && getParent() != null ? getParent().getAccountPolicy() : accountPolicy;
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.jpa.entity.policy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
@@ -29,6 +30,7 @@ import org.apache.syncope.core.persistence.jpa.validation.entity.PolicyCheck;
 @Entity
 @Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
 @PolicyCheck
+@Cacheable
 public abstract class AbstractPolicy extends AbstractGeneratedKeyEntity implements Policy {
 
     private static final long serialVersionUID = -5844833125843247458L;
@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
@@ -41,6 +42,7 @@ import javax.persistence.OneToOne;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.ConnConfProperty;
 import org.apache.syncope.common.lib.types.ConnectorCapability;
@@ -73,6 +75,7 @@ import org.identityconnectors.framework.common.objects.ObjectClass;
 @Entity
 @Table(name = JPAExternalResource.TABLE)
 @ExternalResourceCheck
+@Cacheable
 public class JPAExternalResource extends AbstractProvidedKeyEntity implements ExternalResource {
 
     private static final long serialVersionUID = -6937712883512073278L;
@@ -108,6 +111,11 @@ public class JPAExternalResource extends AbstractProvidedKeyEntity implements Ex
     @NotNull
     private Boolean randomPwdIfNotProvided = false;
 
+    /**
+     * Trust own provisioning state instead of reading remote objects before / after propagation.
+     */
+    private Boolean trustedPropagation = false;
+
     @Enumerated(EnumType.STRING)
     @NotNull
     private TraceLevel createTraceLevel = TraceLevel.FAILURES;
@@ -244,6 +252,16 @@ public class JPAExternalResource extends AbstractProvidedKeyEntity implements Ex
         this.randomPwdIfNotProvided = randomPwdIfNotProvided;
     }
 
+    @Override
+    public boolean isTrustedPropagation() {
+        return BooleanUtils.isTrue(trustedPropagation);
+    }
+
+    @Override
+    public void setTrustedPropagation(final boolean trustedPropagation) {
+        this.trustedPropagation = trustedPropagation;
+    }
+
     @Override
     public TraceLevel getCreateTraceLevel() {
         return createTraceLevel;
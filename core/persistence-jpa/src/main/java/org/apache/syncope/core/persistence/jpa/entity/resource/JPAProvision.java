@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Optional;
 
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -52,6 +53,7 @@ import org.identityconnectors.framework.common.objects.SyncToken;
 @Entity
 @Table(name = JPAProvision.TABLE, uniqueConstraints =
         @UniqueConstraint(columnNames = { "resource_id", "anyType_id" }))
+@Cacheable
 public class JPAProvision extends AbstractGeneratedKeyEntity implements Provision {
 
     private static final long serialVersionUID = -1807889487945989443L;
@@ -18,15 +18,20 @@
  */
 package org.apache.syncope.core.persistence.jpa.entity.task;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import javax.persistence.Basic;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
+import javax.persistence.Transient;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ResourceOperation;
@@ -34,6 +39,7 @@ import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
 import org.apache.syncope.core.persistence.jpa.validation.entity.PropagationTaskCheck;
 import org.apache.syncope.core.persistence.jpa.entity.resource.JPAExternalResource;
+import org.apache.syncope.core.provisioning.api.serialization.AttributeCodec;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
 import org.identityconnectors.framework.common.objects.Attribute;
 
@@ -64,11 +70,25 @@ public class JPAPropagationTask extends AbstractTask implements PropagationTask
     private String oldConnObjectKey;
 
     /**
-     * Attributes to be propagated.
+     * Attributes to be propagated, as JSON: only found on tasks stored before {@link #encodedAttributes} was
+     * introduced and not yet migrated.
      */
     @Lob
     private String attributes;
 
+    /**
+     * Attributes to be propagated, as encoded by {@link AttributeCodec}; only decoded when needed.
+     */
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    private byte[] encodedAttributes;
+
+    /**
+     * Attributes as decoded at first access, not to decode again at every access.
+     */
+    @Transient
+    private Set<Attribute> decodedAttributes;
+
     private String objectClassName;
 
     @Enumerated(EnumType.STRING)
@@ -106,22 +126,34 @@ public class JPAPropagationTask extends AbstractTask implements PropagationTask
 
     @Override
     public String getSerializedAttributes() {
-        return this.attributes;
+        if (encodedAttributes == null) {
+            return this.attributes;
+        }
+
+        return POJOHelper.serialize(getAttributes());
     }
 
     @Override
     public Set<Attribute> getAttributes() {
-        Set<Attribute> result = new HashSet<>();
-        if (StringUtils.isNotBlank(this.attributes)) {
-            result.addAll(List.of(POJOHelper.deserialize(this.attributes, Attribute[].class)));
+        if (decodedAttributes == null) {
+            Set<Attribute> result = new HashSet<>();
+            if (encodedAttributes != null) {
+                Optional.ofNullable(AttributeCodec.decode(encodedAttributes)).
+                        ifPresent(a -> result.addAll(List.of(a)));
+            } else if (StringUtils.isNotBlank(this.attributes)) {
+                result.addAll(List.of(POJOHelper.deserialize(this.attributes, Attribute[].class)));
+            }
+            decodedAttributes = Collections.unmodifiableSet(result);
         }
 
-        return result;
+        return decodedAttributes;
     }
 
     @Override
     public void setAttributes(final Set<Attribute> attributes) {
-        this.attributes = POJOHelper.serialize(attributes);
+        this.encodedAttributes = attributes == null ? null : AttributeCodec.encode(attributes);
+        this.attributes = null;
+        this.decodedAttributes = null;
     }
 
     @Override
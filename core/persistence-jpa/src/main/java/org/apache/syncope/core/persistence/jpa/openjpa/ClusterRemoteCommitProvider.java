@@ -0,0 +1,704 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.openjpa;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.openjpa.conf.OpenJPAConfiguration;
+import org.apache.openjpa.datacache.DataCacheManager;
+import org.apache.openjpa.event.AbstractRemoteCommitProvider;
+import org.apache.openjpa.event.RemoteCommitEvent;
+import org.apache.openjpa.lib.conf.Configuration;
+import org.apache.openjpa.util.IntId;
+import org.apache.openjpa.util.LongId;
+import org.apache.openjpa.util.OpenJPAId;
+import org.apache.openjpa.util.StringId;
+import org.apache.syncope.common.keymaster.client.api.ServiceOps;
+import org.apache.syncope.common.keymaster.client.api.model.NetworkService;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * OpenJPA remote commit provider broadcasting commit events to the other Core instances over plain TCP, so that their
+ * data and query caches get invalidated accordingly.
+ *
+ * Events are sent to the addresses statically configured via {@code Addresses} and, unless {@code Discovery} is
+ * disabled, to the Core instances registered on Keymaster, all expected to listen on the same {@code Port}.
+ * Each event is tagged with the persistence unit name, so that only the caches of the same domain are affected.
+ *
+ * Events carry only type names and object ids, never serialized Java objects, and each frame is authenticated via
+ * HMAC with the {@code Secret} shared by all Core instances; frames failing verification are discarded.
+ * Each peer gets its own connection and bounded queue: when a peer is unreachable or too slow, its pending events are
+ * dropped and replaced by a single request to clear all caches, sent as soon as the peer is reachable again.
+ *
+ * Sample configuration, in {@code persistence.properties}:
+ * <pre>
+ * openjpa.RemoteCommitProvider=org.apache.syncope.core.persistence.jpa.openjpa.ClusterRemoteCommitProvider(\
+ * Port=5637,BindAddress=10.0.0.1,Secret=changeme)
+ * </pre>
+ * The configured port is expected to be reachable only from the other Core instances.
+ */
+public class ClusterRemoteCommitProvider extends AbstractRemoteCommitProvider {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(ClusterRemoteCommitProvider.class);
+
+    public static final int DEFAULT_PORT = 5637;
+
+    protected static final int CONNECT_TIMEOUT = 5000;
+
+    /**
+     * Connections not delivering any data for this long are closed by the receiving side.
+     */
+    protected static final int READ_TIMEOUT = 60000;
+
+    /**
+     * Idle connections are closed by the sending side after this long, before the receiving side gives up on them.
+     */
+    protected static final long IDLE_TIMEOUT = 30000L;
+
+    protected static final long RETRY_INTERVAL = 5000L;
+
+    protected static final long DISCOVERY_INTERVAL = 30000L;
+
+    protected static final int QUEUE_CAPACITY = 1000;
+
+    protected static final int MAX_CONNECTIONS = 32;
+
+    protected static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    protected static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    protected static final int MAC_LENGTH = 32;
+
+    protected static final byte VERSION = 1;
+
+    protected static final byte EVENT = 0;
+
+    protected static final byte RESET = 1;
+
+    protected static final byte STRING_ID = 0;
+
+    protected static final byte LONG_ID = 1;
+
+    protected static final byte INT_ID = 2;
+
+    protected static final Map<InetSocketAddress, PortListener> LISTENERS = new ConcurrentHashMap<>();
+
+    protected final String id = UUID.randomUUID().toString();
+
+    protected final Set<InetSocketAddress> addresses = new HashSet<>();
+
+    protected final Map<InetSocketAddress, Peer> peers = new ConcurrentHashMap<>();
+
+    protected OpenJPAConfiguration conf;
+
+    protected String addressesConf;
+
+    protected String domain;
+
+    protected int port = DEFAULT_PORT;
+
+    protected String bindAddress;
+
+    protected String secret;
+
+    protected boolean discovery = true;
+
+    protected volatile Set<InetSocketAddress> discovered = Set.of();
+
+    protected InetSocketAddress endpoint;
+
+    protected ScheduledExecutorService discoverer;
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(final int port) {
+        this.port = port;
+    }
+
+    public String getBindAddress() {
+        return bindAddress;
+    }
+
+    /**
+     * @param bindAddress local address to listen on; all interfaces when not specified
+     */
+    public void setBindAddress(final String bindAddress) {
+        this.bindAddress = bindAddress;
+    }
+
+    /**
+     * @param secret shared secret used to authenticate events, required
+     */
+    public void setSecret(final String secret) {
+        this.secret = secret;
+    }
+
+    /**
+     * @param addresses semicolon-separated list of {@code host[:port]} entries; {@code Port} is used when not specified
+     */
+    public void setAddresses(final String addresses) {
+        this.addressesConf = addresses;
+    }
+
+    public boolean isDiscovery() {
+        return discovery;
+    }
+
+    public void setDiscovery(final boolean discovery) {
+        this.discovery = discovery;
+    }
+
+    @Override
+    public void setConfiguration(final Configuration conf) {
+        super.setConfiguration(conf);
+        this.conf = (OpenJPAConfiguration) conf;
+        this.domain = conf.getId();
+    }
+
+    @Override
+    public void endConfiguration() {
+        super.endConfiguration();
+
+        if (StringUtils.isBlank(secret)) {
+            throw new IllegalStateException("No Secret configured for " + getClass().getSimpleName());
+        }
+
+        for (String address : StringUtils.split(StringUtils.defaultString(addressesConf), ';')) {
+            String host = StringUtils.substringBefore(address.trim(), ":");
+            String addressPort = StringUtils.substringAfter(address.trim(), ":");
+            addresses.add(new InetSocketAddress(
+                    host, StringUtils.isBlank(addressPort) ? port : Integer.parseInt(addressPort)));
+        }
+
+        if (discovery) {
+            discoverer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ClusterRemoteCommitProvider-" + domain + "-discovery");
+                thread.setDaemon(true);
+                return thread;
+            });
+            discoverer.scheduleWithFixedDelay(this::discover, 0, DISCOVERY_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+
+        endpoint = StringUtils.isBlank(bindAddress)
+                ? new InetSocketAddress(port)
+                : new InetSocketAddress(bindAddress, port);
+        LISTENERS.computeIfAbsent(endpoint, PortListener::new).add(this);
+    }
+
+    protected void discover() {
+        ApplicationContext ctx = ApplicationContextProvider.getApplicationContext();
+        if (ctx == null) {
+            return;
+        }
+
+        try {
+            Set<InetSocketAddress> found = new HashSet<>();
+            ctx.getBean(ServiceOps.class).list(NetworkService.Type.CORE).forEach(service -> found.add(
+                    new InetSocketAddress(URI.create(service.getAddress()).getHost(), port)));
+            discovered = found;
+
+            Set<InetSocketAddress> current = getPeers();
+            peers.entrySet().removeIf(entry -> {
+                if (current.contains(entry.getKey())) {
+                    return false;
+                }
+                entry.getValue().close();
+                return true;
+            });
+        } catch (Exception e) {
+            LOG.warn("While discovering Core instances, keeping {}", discovered, e);
+        }
+    }
+
+    protected Set<InetSocketAddress> getPeers() {
+        Set<InetSocketAddress> result = new HashSet<>(addresses);
+        if (discovery) {
+            result.addAll(discovered);
+        }
+        return result;
+    }
+
+    protected byte[] mac(final byte[] body) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        mac.update(domain.getBytes(StandardCharsets.UTF_8));
+        return mac.doFinal(body);
+    }
+
+    protected byte[] frame(final byte[] body) throws IOException, GeneralSecurityException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeUTF(domain);
+            out.writeInt(body.length);
+            out.write(body);
+            out.write(mac(body));
+        }
+        return baos.toByteArray();
+    }
+
+    protected static boolean isSupported(final Collection<?> oids) {
+        return oids.stream().allMatch(oid -> oid instanceof StringId || oid instanceof LongId || oid instanceof IntId);
+    }
+
+    protected static void writeNames(final DataOutputStream out, final Collection<?> names) throws IOException {
+        out.writeInt(names.size());
+        for (Object name : names) {
+            out.writeUTF(name.toString());
+        }
+    }
+
+    protected static void writeIds(final DataOutputStream out, final Collection<?> oids) throws IOException {
+        out.writeInt(oids.size());
+        for (Object oid : oids) {
+            OpenJPAId openJPAId = (OpenJPAId) oid;
+            out.writeUTF(openJPAId.getType().getName());
+            out.writeBoolean(openJPAId.hasSubclasses());
+            if (oid instanceof StringId) {
+                out.writeByte(STRING_ID);
+                out.writeUTF(((StringId) oid).getId());
+            } else if (oid instanceof LongId) {
+                out.writeByte(LONG_ID);
+                out.writeLong(((LongId) oid).getId());
+            } else {
+                out.writeByte(INT_ID);
+                out.writeInt(((IntId) oid).getId());
+            }
+        }
+    }
+
+    /**
+     * Encodes the given event; object ids not in the supported types make the event be replaced by a request to clear
+     * all caches.
+     *
+     * @param event commit event
+     * @return encoded event
+     * @throws IOException if anything goes wrong
+     */
+    protected byte[] encode(final RemoteCommitEvent event) throws IOException {
+        boolean extents = event.getPayloadType() == RemoteCommitEvent.PAYLOAD_EXTENTS;
+        boolean withAdds = event.getPayloadType() == RemoteCommitEvent.PAYLOAD_OIDS_WITH_ADDS;
+        boolean supported = extents || (isSupported(event.getUpdatedObjectIds())
+                && isSupported(event.getDeletedObjectIds())
+                && (!withAdds || isSupported(event.getPersistedObjectIds())));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeByte(VERSION);
+            out.writeUTF(id);
+            if (supported) {
+                out.writeByte(EVENT);
+                out.writeInt(event.getPayloadType());
+                writeNames(out, event.getPersistedTypeNames());
+                if (withAdds) {
+                    writeIds(out, event.getPersistedObjectIds());
+                }
+                if (extents) {
+                    writeNames(out, event.getUpdatedTypeNames());
+                    writeNames(out, event.getDeletedTypeNames());
+                } else {
+                    writeIds(out, event.getUpdatedObjectIds());
+                    writeIds(out, event.getDeletedObjectIds());
+                }
+            } else {
+                LOG.debug("Unsupported object ids found in {}, requesting to clear all caches", event);
+                out.writeByte(RESET);
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    protected byte[] resetFrame() throws IOException, GeneralSecurityException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeByte(VERSION);
+            out.writeUTF(id);
+            out.writeByte(RESET);
+        }
+        return frame(baos.toByteArray());
+    }
+
+    @Override
+    public void broadcast(final RemoteCommitEvent event) {
+        byte[] frame;
+        try {
+            frame = frame(encode(event));
+        } catch (IOException | GeneralSecurityException e) {
+            LOG.error("Could not encode commit event", e);
+            return;
+        }
+
+        getPeers().forEach(peer -> peers.computeIfAbsent(peer, Peer::new).offer(frame));
+    }
+
+    protected static Collection<String> readNames(final DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Set<String> names = new HashSet<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+
+    protected Collection<Object> readIds(final DataInputStream in) throws IOException, ClassNotFoundException {
+        ClassLoader loader = conf.getClassResolverInstance().getClassLoader(getClass(), null);
+
+        int size = in.readInt();
+        Set<Object> oids = new HashSet<>(size);
+        for (int i = 0; i < size; i++) {
+            Class<?> type = Class.forName(in.readUTF(), false, loader);
+            boolean subs = in.readBoolean();
+            byte kind = in.readByte();
+            switch (kind) {
+                case STRING_ID:
+                    oids.add(new StringId(type, in.readUTF(), subs));
+                    break;
+
+                case LONG_ID:
+                    oids.add(new LongId(type, in.readLong(), subs));
+                    break;
+
+                case INT_ID:
+                    oids.add(new IntId(type, in.readInt(), subs));
+                    break;
+
+                default:
+                    throw new IOException("Unsupported object id kind: " + kind);
+            }
+        }
+        return oids;
+    }
+
+    protected RemoteCommitEvent decode(final DataInputStream in) throws IOException, ClassNotFoundException {
+        int payload = in.readInt();
+        Collection<String> addClassNames = readNames(in);
+        Collection<Object> addIds = payload == RemoteCommitEvent.PAYLOAD_OIDS_WITH_ADDS ? readIds(in) : null;
+        return payload == RemoteCommitEvent.PAYLOAD_EXTENTS
+                ? new RemoteCommitEvent(payload, addIds, addClassNames, readNames(in), readNames(in))
+                : new RemoteCommitEvent(payload, addIds, addClassNames, readIds(in), readIds(in));
+    }
+
+    protected void receive(final byte[] body, final byte[] mac) throws Exception {
+        if (!MessageDigest.isEqual(mac, mac(body))) {
+            throw new GeneralSecurityException("Invalid signature for commit event in domain " + domain);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported commit event version: " + version);
+        }
+        if (id.equals(in.readUTF())) {
+            return;
+        }
+
+        if (in.readByte() == RESET) {
+            reset();
+        } else {
+            fireEvent(decode(in));
+        }
+    }
+
+    /**
+     * Clears all data and query caches, as requested by a peer which could not deliver some events.
+     */
+    protected void reset() {
+        DataCacheManager manager = conf.getDataCacheManagerInstance();
+        if (manager != null) {
+            if (manager.getSystemDataCache() != null) {
+                manager.getSystemDataCache().clear();
+            }
+            if (manager.getSystemQueryCache() != null) {
+                manager.getSystemQueryCache().clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        PortListener listener = LISTENERS.get(endpoint);
+        if (listener != null) {
+            listener.remove(this);
+        }
+        if (discoverer != null) {
+            discoverer.shutdownNow();
+        }
+        peers.values().forEach(Peer::close);
+        peers.clear();
+    }
+
+    /**
+     * Delivers events to a given peer, over a persistent connection.
+     */
+    protected class Peer implements Runnable {
+
+        protected final InetSocketAddress address;
+
+        protected final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        protected final Thread thread;
+
+        protected volatile boolean running = true;
+
+        /**
+         * Whether some events were dropped, hence the peer needs to clear all of its caches.
+         */
+        protected volatile boolean reset;
+
+        protected volatile long downUntil;
+
+        protected Socket socket;
+
+        protected DataOutputStream out;
+
+        protected Peer(final InetSocketAddress address) {
+            this.address = address;
+
+            thread = new Thread(this, "ClusterRemoteCommitProvider-" + domain + '-' + address);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        protected void offer(final byte[] frame) {
+            if (System.currentTimeMillis() < downUntil || !queue.offer(frame)) {
+                drop();
+            }
+        }
+
+        protected void drop() {
+            reset = true;
+            queue.clear();
+        }
+
+        protected void connect() throws IOException {
+            socket = new Socket();
+            socket.connect(address, CONNECT_TIMEOUT);
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        protected void disconnect() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    LOG.debug("While closing connection to {}", address, e);
+                }
+                socket = null;
+                out = null;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                byte[] frame;
+                try {
+                    frame = queue.poll(reset ? RETRY_INTERVAL : IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                if (frame == null && !reset) {
+                    disconnect();
+                } else if (System.currentTimeMillis() >= downUntil) {
+                    try {
+                        if (socket == null) {
+                            connect();
+                        }
+                        if (reset) {
+                            reset = false;
+                            out.write(resetFrame());
+                        }
+                        if (frame != null) {
+                            out.write(frame);
+                        }
+                        out.flush();
+                    } catch (Exception e) {
+                        LOG.warn("Could not send commit events to {}, dropping them for the next {} ms",
+                                address, RETRY_INTERVAL, e);
+
+                        disconnect();
+                        downUntil = System.currentTimeMillis() + RETRY_INTERVAL;
+                        drop();
+                    }
+                } else if (frame != null) {
+                    drop();
+                }
+            }
+
+            disconnect();
+        }
+
+        protected void close() {
+            running = false;
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Accepts the events sent to a given address and port, for all local providers listening there; each connection
+     * is read by its own worker thread.
+     */
+    protected static class PortListener implements Runnable {
+
+        protected final InetSocketAddress endpoint;
+
+        protected final ServerSocket serverSocket;
+
+        protected final ThreadPoolExecutor workers;
+
+        protected final Set<ClusterRemoteCommitProvider> providers = new CopyOnWriteArraySet<>();
+
+        protected PortListener(final InetSocketAddress endpoint) {
+            this.endpoint = endpoint;
+            try {
+                this.serverSocket = new ServerSocket();
+                this.serverSocket.bind(endpoint);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not listen for commit events on " + endpoint, e);
+            }
+
+            AtomicInteger threadNumber = new AtomicInteger();
+            workers = new ThreadPoolExecutor(
+                    0, MAX_CONNECTIONS, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable,
+                                "ClusterRemoteCommitProvider-" + endpoint.getPort() + '-'
+                                + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+            Thread thread = new Thread(this, "ClusterRemoteCommitProvider-" + endpoint.getPort());
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        protected void add(final ClusterRemoteCommitProvider provider) {
+            providers.add(provider);
+        }
+
+        protected void remove(final ClusterRemoteCommitProvider provider) {
+            providers.remove(provider);
+            if (providers.isEmpty()) {
+                LISTENERS.remove(endpoint);
+                try {
+                    serverSocket.close();
+                } catch (IOException e) {
+                    LOG.debug("While closing listener on {}", endpoint, e);
+                }
+                workers.shutdownNow();
+            }
+        }
+
+        protected void read(final Socket socket) {
+            try (socket; DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                socket.setSoTimeout(READ_TIMEOUT);
+
+                while (!serverSocket.isClosed()) {
+                    String domain;
+                    try {
+                        domain = in.readUTF();
+                    } catch (EOFException e) {
+                        break;
+                    }
+
+                    int length = in.readInt();
+                    if (length < 0 || length > MAX_FRAME_LENGTH) {
+                        throw new IOException("Invalid commit event length: " + length);
+                    }
+                    byte[] body = new byte[length];
+                    in.readFully(body);
+                    byte[] mac = new byte[MAC_LENGTH];
+                    in.readFully(mac);
+
+                    for (ClusterRemoteCommitProvider provider : providers) {
+                        if (provider.domain.equals(domain)) {
+                            provider.receive(body, mac);
+                        }
+                    }
+                }
+            } catch (SocketTimeoutException e) {
+                LOG.debug("No commit events received from {} for {} ms, closing", socket.getRemoteSocketAddress(),
+                        READ_TIMEOUT);
+            } catch (Exception e) {
+                if (!serverSocket.isClosed()) {
+                    LOG.error("While receiving commit events from {}, closing", socket.getRemoteSocketAddress(), e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    try {
+                        workers.execute(() -> read(socket));
+                    } catch (RejectedExecutionException e) {
+                        LOG.warn("Too many connections on {}, refusing {}", endpoint, socket.getRemoteSocketAddress());
+                        socket.close();
+                    }
+                } catch (IOException e) {
+                    if (!serverSocket.isClosed()) {
+                        LOG.error("While accepting connections on {}", endpoint, e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.syncope.core.persistence.jpa.spring;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.SharedCacheMode;
 import javax.persistence.ValidationMode;
 import javax.sql.DataSource;
 import org.springframework.orm.jpa.persistenceunit.PersistenceUnitPostProcessor;
@@ -38,6 +39,8 @@ public class CommonEntityManagerFactoryConf implements DomainHolder {
 
     private ValidationMode validationMode;
 
+    private SharedCacheMode sharedCacheMode;
+
     private PersistenceUnitPostProcessor[] postProcessors;
 
     private final Map<String, Object> jpaPropertyMap = new HashMap<>();
@@ -63,6 +66,14 @@ public class CommonEntityManagerFactoryConf implements DomainHolder {
         this.validationMode = validationMode;
     }
 
+    public SharedCacheMode getSharedCacheMode() {
+        return sharedCacheMode;
+    }
+
+    public void setSharedCacheMode(final SharedCacheMode sharedCacheMode) {
+        this.sharedCacheMode = sharedCacheMode;
+    }
+
     public PersistenceUnitPostProcessor[] getPersistenceUnitPostProcessors() {
         return postProcessors;
     }
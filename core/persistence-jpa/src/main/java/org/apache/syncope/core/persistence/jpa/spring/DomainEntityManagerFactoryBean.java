@@ -37,6 +37,10 @@ public class DomainEntityManagerFactoryBean extends LocalContainerEntityManagerF
 
         super.setValidationMode(commonEMFConf.getValidationMode());
 
+        if (commonEMFConf.getSharedCacheMode() != null) {
+            super.setSharedCacheMode(commonEMFConf.getSharedCacheMode());
+        }
+
         if (commonEMFConf.getPersistenceUnitPostProcessors() != null) {
             super.setPersistenceUnitPostProcessors(commonEMFConf.getPersistenceUnitPostProcessors());
         }
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.spring;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Domain {@link DataSource} sending read-only transactions to a replica database, all other connections to primary.
+ *
+ * Reads stay on primary when the current thread wrote to the same domain less than {@code maxLag} milliseconds ago,
+ * or when the replication lag reported by the optional {@code lagQuery} - executed on the replica and expected to
+ * return milliseconds - exceeds {@code maxLag}, or while running {@link #onPrimary(Supplier)}.
+ */
+public class DomainRoutingDataSource extends AbstractRoutingDataSource {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(DomainRoutingDataSource.class);
+
+    public static final long DEFAULT_MAX_LAG = 5000L;
+
+    protected static final long LAG_CHECK_INTERVAL = 5000L;
+
+    protected enum Target {
+        PRIMARY,
+        REPLICA
+
+    }
+
+    /**
+     * Set while the current thread is required to read from primary database.
+     */
+    protected static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    /**
+     * Runs the given action with all the connections obtained by the current thread routed to primary database, as
+     * for data which must never be stale.
+     *
+     * @param <T> result type
+     * @param action action to run
+     * @return action result
+     */
+    public static <T> T onPrimary(final Supplier<T> action) {
+        boolean outermost = PRIMARY_REQUIRED.get() == null;
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (outermost) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+
+    protected final String domain;
+
+    protected final DataSource replica;
+
+    protected final long maxLag;
+
+    protected final String lagQuery;
+
+    protected volatile boolean replicaInSync = true;
+
+    protected volatile long lastLagCheck;
+
+    public DomainRoutingDataSource(
+            final String domain,
+            final DataSource primary,
+            final DataSource replica,
+            final long maxLag,
+            final String lagQuery) {
+
+        this.domain = domain;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    protected boolean isReplicaInSync() {
+        if (StringUtils.isBlank(lagQuery) || System.currentTimeMillis() - lastLagCheck < LAG_CHECK_INTERVAL) {
+            return replicaInSync;
+        }
+
+        synchronized (this) {
+            if (System.currentTimeMillis() - lastLagCheck >= LAG_CHECK_INTERVAL) {
+                try (Connection conn = replica.getConnection();
+                        Statement stmt = conn.createStatement();
+                        ResultSet rs = stmt.executeQuery(lagQuery)) {
+
+                    long lag = rs.next() ? rs.getLong(1) : 0L;
+                    replicaInSync = lag <= maxLag;
+                    if (!replicaInSync) {
+                        LOG.warn("Replica for domain {} is {} ms behind, routing reads to primary", domain, lag);
+                    }
+                } catch (SQLException e) {
+                    LOG.error("While checking replication lag for domain {}, routing reads to primary", domain, e);
+                    replicaInSync = false;
+                }
+                lastLagCheck = System.currentTimeMillis();
+            }
+        }
+        return replicaInSync;
+    }
+
+    /**
+     * Tells whether read-only transactions started now by the current thread are routed to replica database.
+     *
+     * @return whether read-only transactions started now by the current thread are routed to replica database
+     */
+    public boolean readsFromReplica() {
+        return PRIMARY_REQUIRED.get() == null
+                && !DomainTransactionInterceptor.wroteWithin(domain, maxLag)
+                && isReplicaInSync();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && readsFromReplica()
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+}
@@ -18,18 +18,26 @@
  */
 package org.apache.syncope.core.persistence.jpa.spring;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
 import org.springframework.transaction.interceptor.TransactionAttributeSource;
 import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Extends the standard {@link TransactionInterceptor} by dynamically setting the appropriate
  * {@link TransactionAttributeSource} qualifier according to the authentication domain of the caller - retrieved via
  * {@link AuthContextUtils#getDomain()}.
+ * Read-write transactions are also tracked per thread and domain, for {@link DomainRoutingDataSource} to keep
+ * subsequent reads on primary database - even when performed by later transactional invocations - until the
+ * replication lag it tolerates has expired.
  *
  * @see DomainTransactionAnnotationParser
  */
@@ -39,6 +47,45 @@ public class DomainTransactionInterceptor extends TransactionInterceptor {
 
     private static final Logger LOG = LoggerFactory.getLogger(DomainTransactionInterceptor.class);
 
+    /**
+     * Time of the last read-write transaction completed by the current thread, for each domain; entries are pruned
+     * by {@link #wroteWithin(String, long)} once expired.
+     */
+    private static final ThreadLocal<Map<String, Long>> LAST_WRITES = new ThreadLocal<>();
+
+    /**
+     * Tells whether the current thread completed a read-write transaction on the given domain within the given
+     * interval, so that subsequent reads can be kept on primary database.
+     *
+     * @param domain domain
+     * @param millis interval, in milliseconds
+     * @return whether the current thread wrote to the given domain within the given interval
+     */
+    public static boolean wroteWithin(final String domain, final long millis) {
+        Map<String, Long> lastWrites = LAST_WRITES.get();
+        Long lastWrite = lastWrites == null ? null : lastWrites.get(domain);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite < millis) {
+            return true;
+        }
+
+        lastWrites.remove(domain);
+        if (lastWrites.isEmpty()) {
+            LAST_WRITES.remove();
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the read-write transactions tracked for the current thread, as when it is about to serve an unrelated
+     * caller.
+     */
+    public static void clearWrites() {
+        LAST_WRITES.remove();
+    }
+
     @Override
     public TransactionAttributeSource getTransactionAttributeSource() {
         return new AnnotationTransactionAttributeSource(new DomainTransactionAnnotationParser());
@@ -46,11 +93,31 @@ public class DomainTransactionInterceptor extends TransactionInterceptor {
 
     @Override
     public Object invoke(final MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+
+        AtomicBoolean wrote = new AtomicBoolean(false);
         try {
-            return super.invoke(invocation);
+            return invokeWithinTransaction(invocation.getMethod(), targetClass, () -> {
+                try {
+                    return invocation.proceed();
+                } finally {
+                    wrote.set(TransactionSynchronizationManager.isActualTransactionActive()
+                            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                }
+            });
         } catch (Throwable e) {
             LOG.debug("Error during {} invocation", invocation.getMethod(), e);
             throw e;
+        } finally {
+            // replication lag is measured from commit, hence the write time is taken once the transaction completed
+            if (wrote.get()) {
+                Map<String, Long> lastWrites = LAST_WRITES.get();
+                if (lastWrites == null) {
+                    lastWrites = new HashMap<>();
+                    LAST_WRITES.set(lastWrites);
+                }
+                lastWrites.put(AuthContextUtils.getDomain(), System.currentTimeMillis());
+            }
         }
     }
 }
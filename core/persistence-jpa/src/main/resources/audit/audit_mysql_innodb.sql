@@ -20,5 +20,25 @@ CREATE TABLE IF NOT EXISTS SYNCOPEAUDIT (
   LOGGER_LEVEL VARCHAR(255) NOT NULL,
   LOGGER VARCHAR(255) NOT NULL,
   MESSAGE LONGTEXT NOT NULL,
-  THROWABLE TEXT
+  THROWABLE TEXT,
+  WHO VARCHAR(255),
+  ENTITY_KEY VARCHAR(255),
+  EVENT_TYPE VARCHAR(255),
+  EVENT_CATEGORY VARCHAR(255),
+  EVENT_SUBCATEGORY VARCHAR(255),
+  EVENT_NAME VARCHAR(255),
+  EVENT_RESULT VARCHAR(255)
 ) ENGINE=InnoDB;
+
+-- upgrade from tables without structured columns, existing rows are backfilled by AuditMigrationLoader
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN WHO VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN ENTITY_KEY VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN EVENT_TYPE VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN EVENT_CATEGORY VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN EVENT_SUBCATEGORY VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN EVENT_NAME VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN EVENT_RESULT VARCHAR(255);
+
+CREATE INDEX SYNCOPEAUDIT_entity_idx ON SYNCOPEAUDIT(ENTITY_KEY, EVENT_DATE);
+CREATE INDEX SYNCOPEAUDIT_event_idx ON SYNCOPEAUDIT(EVENT_TYPE, EVENT_CATEGORY, EVENT_SUBCATEGORY, EVENT_NAME, EVENT_RESULT);
+CREATE INDEX SYNCOPEAUDIT_date_idx ON SYNCOPEAUDIT(EVENT_DATE);
@@ -18,13 +18,16 @@
  */
 package org.apache.syncope.core.persistence.jpa.inner;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.function.Predicate;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
 import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
 import org.apache.syncope.core.persistence.api.dao.search.RelationshipCond;
@@ -128,4 +131,63 @@ public class AnyMatchTest extends AbstractTest {
         attrCond.setType(AttrCond.Type.ISNOTNULL);
         assertTrue(anyMatcher.matches(group, SearchCond.getLeaf(attrCond)));
     }
+
+    @Test
+    public void compiledCondReusedAcrossAnys() {
+        User rossini = userDAO.findByUsername("rossini");
+        User verdi = userDAO.findByUsername("verdi");
+
+        AnyCond usernameCond = new AnyCond(AttrCond.Type.LIKE);
+        usernameCond.setSchema("username");
+        usernameCond.setExpression("ros%");
+
+        MembershipCond groupCond = new MembershipCond();
+        groupCond.setGroup("root");
+
+        AssignableCond assignableCond = new AssignableCond();
+        assignableCond.setRealmFullPath("/even/two");
+        assignableCond.setFromGroup(true);
+
+        SearchCond cond = SearchCond.getOr(
+                SearchCond.getAnd(SearchCond.getLeaf(usernameCond), SearchCond.getLeaf(groupCond)),
+                SearchCond.getLeaf(assignableCond));
+        assertTrue(anyMatcher.matches(rossini, cond));
+        assertFalse(anyMatcher.matches(verdi, cond));
+
+        SearchCond notCond = SearchCond.getNotLeaf(usernameCond);
+        assertFalse(anyMatcher.matches(rossini, notCond));
+        assertTrue(anyMatcher.matches(verdi, notCond));
+
+        // changes to the condition after evaluation are considered
+        usernameCond.setExpression("ver%");
+        assertFalse(anyMatcher.matches(rossini, SearchCond.getLeaf(usernameCond)));
+        assertTrue(anyMatcher.matches(verdi, SearchCond.getLeaf(usernameCond)));
+
+        anyMatcher.clearCompiled();
+        usernameCond.setExpression("ros%");
+        assertTrue(anyMatcher.matches(rossini, cond));
+    }
+
+    @Test
+    public void matcherForSeveralConds() {
+        User user = userDAO.find("1417acbe-cbf6-4277-9372-e75e04f97000");
+        Predicate<SearchCond> matcher = anyMatcher.matcher(user);
+
+        MembershipCond groupCond = new MembershipCond();
+        groupCond.setGroup("secretary");
+        assertFalse(matcher.test(SearchCond.getLeaf(groupCond)));
+
+        groupCond.setGroup("root");
+        assertTrue(matcher.test(SearchCond.getLeaf(groupCond)));
+
+        RoleCond roleCond = new RoleCond();
+        roleCond.setRole("Other");
+        assertTrue(matcher.test(SearchCond.getLeaf(roleCond)));
+        assertFalse(matcher.test(SearchCond.getNotLeaf(roleCond)));
+
+        ResourceCond resourceCond = new ResourceCond();
+        resourceCond.setResourceKey("ws-target-resource-2");
+        assertEquals(anyMatcher.matches(user, SearchCond.getLeaf(resourceCond)),
+                matcher.test(SearchCond.getLeaf(resourceCond)));
+    }
 }
@@ -24,9 +24,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
@@ -39,6 +41,7 @@ import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.ResourceCond;
 import org.apache.syncope.core.persistence.api.dao.search.RoleCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
 import org.apache.syncope.core.persistence.api.dao.search.AnyTypeCond;
@@ -53,6 +56,7 @@ import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.dao.JPAAnySearchDAO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
@@ -216,6 +220,120 @@ public class AnySearchTest extends AbstractTest {
         assertTrue(users.isEmpty());
     }
 
+    @Test
+    public void searchAfter() {
+        AnyCond idCond = new AnyCond(AttrCond.Type.ISNOTNULL);
+        idCond.setSchema("id");
+        SearchCond cond = SearchCond.getLeaf(idCond);
+
+        OrderByClause loginDate = new OrderByClause();
+        loginDate.setField("loginDate");
+        loginDate.setDirection(OrderByClause.Direction.DESC);
+        OrderByClause fullname = new OrderByClause();
+        fullname.setField("fullname");
+
+        List<String> keys = new ArrayList<>();
+        SearchAfter after = null;
+        List<User> page;
+        do {
+            Pair<List<User>, SearchAfter> result = searchDAO.searchAfter(
+                    SyncopeConstants.FULL_ADMIN_REALMS, cond, after, 2, List.of(loginDate, fullname),
+                    AnyTypeKind.USER);
+            page = result.getLeft();
+            assertTrue(page.size() <= 2);
+            page.forEach(user -> keys.add(user.getKey()));
+
+            // exchanged with clients as opaque token
+            after = result.getRight() == null ? null : SearchAfter.decode(result.getRight().encode());
+            assertEquals(result.getRight(), after);
+        } while (page.size() == 2);
+
+        // multivalue loginDate: each user is reported only once
+        Set<String> all = searchDAO.search(cond, List.of(loginDate, fullname), AnyTypeKind.USER).stream().
+                map(Entity::getKey).collect(Collectors.toSet());
+        assertFalse(all.isEmpty());
+        assertEquals(all.size(), keys.size());
+        assertEquals(all, Set.copyOf(keys));
+    }
+
+    @Test
+    public void searchAfterPages() {
+        AnyCond idCond = new AnyCond(AttrCond.Type.ISNOTNULL);
+        idCond.setSchema("id");
+        SearchCond cond = SearchCond.getLeaf(idCond);
+
+        // ctype is not mandatory: users without value come first
+        OrderByClause ctype = new OrderByClause();
+        ctype.setField("ctype");
+        OrderByClause username = new OrderByClause();
+        username.setField("username");
+        username.setDirection(OrderByClause.Direction.DESC);
+
+        List<String> keys = new ArrayList<>();
+        int pages = 0;
+        SearchAfter after = null;
+        List<User> page;
+        do {
+            Pair<List<User>, SearchAfter> result = searchDAO.searchAfter(
+                    SyncopeConstants.FULL_ADMIN_REALMS, cond, after, 2, List.of(ctype, username), AnyTypeKind.USER);
+            page = result.getLeft();
+            assertTrue(page.size() <= 2);
+            page.forEach(user -> keys.add(user.getKey()));
+            pages++;
+
+            after = result.getRight();
+        } while (page.size() == 2);
+        assertTrue(pages > 2);
+
+        List<String> expected = searchDAO.<User>search(cond, List.of(ctype, username), AnyTypeKind.USER).stream().
+                sorted(Comparator.<User, String>comparing(
+                        user -> user.getPlainAttr("ctype").map(attr -> attr.getValuesAsStrings().get(0)).orElse(null),
+                        Comparator.nullsFirst(Comparator.naturalOrder())).
+                        thenComparing(User::getUsername, Comparator.reverseOrder())).
+                map(Entity::getKey).
+                collect(Collectors.toList());
+        // all users are returned, in order, none skipped or repeated
+        assertEquals(expected, keys);
+    }
+
+    @Test
+    public void stream() {
+        AnyCond idCond = new AnyCond(AttrCond.Type.ISNOTNULL);
+        idCond.setSchema("id");
+        SearchCond cond = SearchCond.getLeaf(idCond);
+
+        OrderByClause username = new OrderByClause();
+        username.setField("username");
+        username.setDirection(OrderByClause.Direction.DESC);
+
+        List<String> usernames = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        searchDAO.<User>stream(SyncopeConstants.FULL_ADMIN_REALMS, cond, List.of(username), AnyTypeKind.USER, 2,
+                batch -> {
+                    batchSizes.add(batch.size());
+                    batch.forEach(user -> usernames.add(user.getUsername()));
+                });
+
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 2));
+        assertEquals(searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER), usernames.size());
+
+        List<String> sorted = new ArrayList<>(usernames);
+        sorted.sort(Comparator.reverseOrder());
+        assertEquals(sorted, usernames);
+    }
+
+    @Test
+    public void estimate() {
+        MembershipCond groupCond = new MembershipCond();
+        groupCond.setGroup("root");
+        SearchCond cond = SearchCond.getLeaf(groupCond);
+
+        // no statistics available on H2: exact count
+        assertEquals(
+                searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER),
+                searchDAO.estimate(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER));
+    }
+
     @Test
     public void searchByGroup() {
         MembershipCond groupCond = new MembershipCond();
@@ -361,6 +479,87 @@ public class AnySearchTest extends AbstractTest {
         assertEquals(2, matchingUsers.size());
     }
 
+    @Test
+    public void searchReusesTemplates() {
+        JPAAnySearchDAO jpaSearchDAO = (JPAAnySearchDAO) searchDAO;
+
+        AnyCond usernameLeafCond = new AnyCond(AnyCond.Type.EQ);
+        usernameLeafCond.setSchema("username");
+        usernameLeafCond.setExpression("rossini");
+
+        AttrCond fullnameLeafCond = new AttrCond(AttrCond.Type.LIKE);
+        fullnameLeafCond.setSchema("fullname");
+        fullnameLeafCond.setExpression("Giuseppe V%");
+
+        SearchCond searchCondition = SearchCond.getOr(
+                SearchCond.getLeaf(usernameLeafCond),
+                SearchCond.getLeaf(fullnameLeafCond));
+
+        assertEquals(2, searchDAO.search(searchCondition, AnyTypeKind.USER).size());
+        long misses = jpaSearchDAO.getTemplateCacheMisses();
+        long hits = jpaSearchDAO.getTemplateCacheHits();
+
+        // same shape, different values: the SQL text is reused, with values bound as parameters
+        usernameLeafCond.setExpression("bellini");
+        fullnameLeafCond.setExpression("Giuseppe%");
+
+        List<User> matchingUsers = searchDAO.search(searchCondition, AnyTypeKind.USER);
+        assertEquals(2, matchingUsers.size());
+        assertTrue(matchingUsers.stream().anyMatch(user -> "bellini".equals(user.getUsername())));
+        assertTrue(matchingUsers.stream().anyMatch(user -> "verdi".equals(user.getUsername())));
+        assertEquals(misses, jpaSearchDAO.getTemplateCacheMisses());
+        assertEquals(hits + 1, jpaSearchDAO.getTemplateCacheHits());
+
+        // different shape: another SQL text is generated
+        fullnameLeafCond.setType(AttrCond.Type.ILIKE);
+
+        assertEquals(2, searchDAO.search(searchCondition, AnyTypeKind.USER).size());
+        assertEquals(misses + 1, jpaSearchDAO.getTemplateCacheMisses());
+    }
+
+    @Test
+    public void searchBindsResolvedValues() {
+        JPAAnySearchDAO jpaSearchDAO = (JPAAnySearchDAO) searchDAO;
+
+        MembershipCond groupCond = new MembershipCond();
+        groupCond.setGroup("root");
+
+        RoleCond roleCond = new RoleCond();
+        roleCond.setRole("Other");
+
+        ResourceCond resourceCond = new ResourceCond();
+        resourceCond.setResourceKey("ws-target-resource-2");
+
+        AssignableCond assignableCond = new AssignableCond();
+        assignableCond.setRealmFullPath("/even/two");
+
+        AttrCond loginDateCond = new AttrCond(AttrCond.Type.GE);
+        loginDateCond.setSchema("loginDate");
+        loginDateCond.setExpression("2009-05-26");
+
+        AnyCond usernameCond = new AnyCond(AnyCond.Type.ILIKE);
+        usernameCond.setSchema("username");
+        usernameCond.setExpression("%I%");
+
+        SearchCond searchCondition = SearchCond.getOr(new ArrayList<>(List.of(
+                SearchCond.getNotLeaf(groupCond),
+                SearchCond.getLeaf(roleCond),
+                SearchCond.getLeaf(resourceCond),
+                SearchCond.getLeaf(assignableCond),
+                SearchCond.getLeaf(loginDateCond),
+                SearchCond.getNotLeaf(usernameCond))));
+
+        int count = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, searchCondition, AnyTypeKind.USER);
+        long misses = jpaSearchDAO.getTemplateCacheMisses();
+        long hits = jpaSearchDAO.getTemplateCacheHits();
+
+        // values resolved without generating the SQL text match the parameters bound when generating it, which is
+        // hence cached and reused
+        assertEquals(count, searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, searchCondition, AnyTypeKind.USER));
+        assertEquals(misses, jpaSearchDAO.getTemplateCacheMisses());
+        assertEquals(hits + 1, jpaSearchDAO.getTemplateCacheHits());
+    }
+
     @Test
     public void searchByUsernameAndFullnameIgnoreCase() {
         AnyCond usernameLeafCond = new AnyCond(AnyCond.Type.IEQ);
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.common.lib.types.AuditLoggerName;
+import org.apache.syncope.core.persistence.api.DomainHolder;
+import org.apache.syncope.core.persistence.api.dao.AuditDAO;
+import org.apache.syncope.core.persistence.api.entity.AuditEntry;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.AuditMigrationLoader;
+import org.apache.syncope.core.provisioning.api.AuditEntryImpl;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.context.transaction.BeforeTransaction;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Transactional("Master")
+public class AuditTest extends AbstractTest {
+
+    private static final String USER_KEY = "1417acbe-cbf6-4277-9372-e75e04f97000";
+
+    private static final String GROUP_KEY = "37d15e4c-cdc1-460b-a591-8505c8133806";
+
+    @Autowired
+    private AuditDAO auditDAO;
+
+    @Autowired
+    private AuditMigrationLoader auditMigrationLoader;
+
+    @Autowired
+    private DomainHolder domainHolder;
+
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterTransaction
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM " + AuditDAO.TABLE);
+    }
+
+    private void insertLegacy(final Date date, final String category, final String event, final Object output) {
+        UserTO before = new UserTO();
+        before.setKey(USER_KEY);
+
+        AuditEntry entry = AuditEntryImpl.builder().
+                who("admin").
+                logger(new AuditLoggerName(
+                        AuditElements.EventCategoryType.LOGIC, category, null, event, AuditElements.Result.SUCCESS)).
+                before(category.equals("UserLogic") ? before : null).
+                output(output).
+                date(date).
+                build();
+
+        jdbcTemplate.update("INSERT INTO " + AuditDAO.TABLE + " (EVENT_DATE, LOGGER_LEVEL, LOGGER, MESSAGE) "
+                + "VALUES (?, 'DEBUG', 'syncope.audit.[Master]', ?)",
+                new Timestamp(date.getTime()), POJOHelper.serialize(entry));
+    }
+
+    @BeforeTransaction
+    public void migrate() {
+        dataSource = domainHolder.getDomains().get(AuthContextUtils.getDomain());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Date date = new Date();
+
+        ProvisioningResult<UserTO> result = new ProvisioningResult<>();
+        UserTO userTO = new UserTO();
+        userTO.setKey(USER_KEY);
+        result.setEntity(userTO);
+        insertLegacy(date, "UserLogic", "update", result);
+        insertLegacy(date, "GroupLogic", "create", Map.of("key", GROUP_KEY));
+        insertLegacy(new Date(date.getTime() + 1000), "UserLogic", "delete", "deleted");
+        jdbcTemplate.update("INSERT INTO " + AuditDAO.TABLE + " (EVENT_DATE, LOGGER_LEVEL, LOGGER, MESSAGE) "
+                + "VALUES (?, 'DEBUG', 'syncope.audit.[Master]', 'not JSON')", new Timestamp(date.getTime()));
+
+        auditMigrationLoader.migrateAll(AuthContextUtils.getDomain(), dataSource,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    @Test
+    public void find() {
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + AuditDAO.TABLE, Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + AuditDAO.TABLE
+                + " WHERE " + AuditDAO.EVENT_TYPE_COLUMN + " IS NULL", Integer.class));
+        assertEquals("admin", jdbcTemplate.queryForObject("SELECT " + AuditDAO.WHO_COLUMN + " FROM " + AuditDAO.TABLE
+                + " WHERE " + AuditDAO.ENTITY_KEY_COLUMN + "=?", String.class, GROUP_KEY));
+
+        assertEquals(2, auditDAO.count(USER_KEY));
+        assertEquals(1, auditDAO.count(GROUP_KEY));
+
+        List<AuditEntry> entries = auditDAO.findByEntityKey(
+                USER_KEY, 1, 10, AuditElements.EventCategoryType.LOGIC, "UserLogic", null,
+                List.of("update", "delete"), AuditElements.Result.SUCCESS, List.of());
+        assertEquals(2, entries.size());
+
+        entries = auditDAO.findByEntityKey(
+                USER_KEY, 1, 10, null, null, null, List.of("delete"), null, List.of());
+        assertEquals(1, entries.size());
+        assertEquals("delete", entries.get(0).getLogger().getEvent());
+
+        assertEquals(0, auditDAO.findByEntityKey(
+                GROUP_KEY, 1, 10, null, "UserLogic", null, List.of(), null, List.of()).size());
+
+        // unparseable entries are marked, not to be processed again
+        assertNull(jdbcTemplate.queryForObject("SELECT " + AuditDAO.ENTITY_KEY_COLUMN + " FROM " + AuditDAO.TABLE
+                + " WHERE " + AuditDAO.EVENT_TYPE_COLUMN + "='UNKNOWN'", String.class));
+    }
+}
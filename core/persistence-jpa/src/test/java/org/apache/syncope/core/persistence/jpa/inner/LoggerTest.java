@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.common.lib.types.AuditLoggerName;
+import org.apache.syncope.common.lib.types.LoggerLevel;
+import org.apache.syncope.common.lib.types.LoggerType;
+import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
+import org.apache.syncope.core.persistence.api.entity.Logger;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Transactional("Master")
+public class LoggerTest extends AbstractTest {
+
+    private static final String ENABLED =
+            "syncope.audit.[LOGIC]:[ConnectorLogic]:[]:[create]:[SUCCESS]";
+
+    @Autowired
+    private LoggerDAO loggerDAO;
+
+    @Autowired
+    @Qualifier("MasterTransactionManager")
+    private PlatformTransactionManager txManager;
+
+    private Logger newAuditLogger(final String key) {
+        Logger logger = entityFactory.newEntity(Logger.class);
+        logger.setKey(key);
+        logger.setType(LoggerType.AUDIT);
+        logger.setLevel(LoggerLevel.DEBUG);
+        return logger;
+    }
+
+    @Test
+    public void isAuditEnabled() {
+        assertTrue(loggerDAO.isAuditEnabled(ENABLED));
+        assertFalse(loggerDAO.isAuditEnabled(
+                "syncope.audit.[LOGIC]:[ConnectorLogic]:[]:[create]:[FAILURE]"));
+        assertFalse(loggerDAO.isAuditEnabled("org.apache.syncope.core.persistence"));
+    }
+
+    @Test
+    public void changesWithinTransaction() {
+        String key = new AuditLoggerName(
+                AuditElements.EventCategoryType.LOGIC, "UserLogic", null, "search", AuditElements.Result.SUCCESS).
+                toLoggerName();
+        assertFalse(loggerDAO.isAuditEnabled(key));
+
+        Logger logger = loggerDAO.save(newAuditLogger(key));
+        assertTrue(loggerDAO.isAuditEnabled(key));
+
+        loggerDAO.delete(logger);
+        assertFalse(loggerDAO.isAuditEnabled(key));
+
+        assertTrue(loggerDAO.isAuditEnabled(ENABLED));
+    }
+
+    @Test
+    public void snapshotUpdatedOnCommit() {
+        String key = new AuditLoggerName(
+                AuditElements.EventCategoryType.LOGIC, "GroupLogic", null, "search", AuditElements.Result.SUCCESS).
+                toLoggerName();
+        assertFalse(loggerDAO.isAuditEnabled(key));
+
+        TransactionTemplate requiresNew = new TransactionTemplate(txManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        requiresNew.executeWithoutResult(status -> loggerDAO.save(newAuditLogger(key)));
+        assertTrue(loggerDAO.isAuditEnabled(key));
+
+        // rolled back changes are not applied
+        requiresNew.executeWithoutResult(status -> {
+            loggerDAO.delete(key);
+            status.setRollbackOnly();
+        });
+        assertTrue(loggerDAO.isAuditEnabled(key));
+
+        requiresNew.executeWithoutResult(status -> loggerDAO.delete(key));
+        assertFalse(loggerDAO.isAuditEnabled(key));
+    }
+}
@@ -18,9 +18,11 @@
  */
 package org.apache.syncope.core.persistence.jpa.inner;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
@@ -63,6 +65,27 @@ public class NotificationTest extends AbstractTest {
         assertFalse(notifications.isEmpty());
     }
 
+    @Test
+    public void findActiveByEvent() {
+        assertEquals(
+                List.of("e00945b5-1184-4d43-8e45-4318a8dcdfd4"),
+                notificationDAO.findActiveByEvent("[CUSTOM]:[]:[]:[requestPasswordReset]:[SUCCESS]"));
+        assertTrue(notificationDAO.findActiveByEvent("[CUSTOM]:[]:[]:[requestPasswordReset]:[FAILURE]").isEmpty());
+
+        // changes within the current transaction are visible
+        Notification notification = notificationDAO.find("e00945b5-1184-4d43-8e45-4318a8dcdfd4");
+        notification.setActive(false);
+        notificationDAO.save(notification);
+        assertTrue(notificationDAO.findActiveByEvent("[CUSTOM]:[]:[]:[requestPasswordReset]:[SUCCESS]").isEmpty());
+
+        notification = notificationDAO.find("bef0c250-e8a7-4848-bb63-2564fc409ce2");
+        notification.getEvents().add("[CUSTOM]:[]:[]:[requestPasswordReset]:[SUCCESS]");
+        notificationDAO.save(notification);
+        assertEquals(
+                List.of("bef0c250-e8a7-4848-bb63-2564fc409ce2"),
+                notificationDAO.findActiveByEvent("[CUSTOM]:[]:[]:[requestPasswordReset]:[SUCCESS]"));
+    }
+
     @Test
     public void save() {
         Notification notification = entityFactory.newEntity(Notification.class);
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import org.apache.syncope.core.persistence.api.dao.OutboxEventDAO;
+import org.apache.syncope.core.persistence.api.entity.OutboxEvent;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class OutboxEventTest extends AbstractTest {
+
+    @Autowired
+    private OutboxEventDAO outboxEventDAO;
+
+    private OutboxEvent save(final long creationDate) {
+        OutboxEvent event = entityFactory.newEntity(OutboxEvent.class);
+        event.setCreationDate(new Date(creationDate));
+        event.setPayload(new byte[] { 1, 2, 3 });
+        return outboxEventDAO.save(event);
+    }
+
+    @Test
+    public void crud() {
+        OutboxEvent event = save(System.currentTimeMillis());
+        assertNotNull(event.getKey());
+
+        event = outboxEventDAO.find(event.getKey());
+        assertNotNull(event);
+        assertEquals(3, event.getPayload().length);
+
+        outboxEventDAO.delete(event.getKey());
+        assertNull(outboxEventDAO.find(event.getKey()));
+    }
+
+    @Test
+    public void staleAndClaim() {
+        long now = System.currentTimeMillis();
+        OutboxEvent older = save(now - 20000);
+        OutboxEvent old = save(now - 10000);
+        OutboxEvent recent = save(now);
+        Date before = new Date(now - 5000);
+
+        List<String> stale = outboxEventDAO.findStale(before, 5, 10);
+        assertEquals(List.of(older.getKey(), old.getKey()), stale);
+        assertEquals(List.of(older.getKey()), outboxEventDAO.findStale(before, 5, 1));
+
+        assertTrue(outboxEventDAO.claim(old.getKey(), before));
+        // already claimed, or not stale
+        assertFalse(outboxEventDAO.claim(old.getKey(), before));
+        assertFalse(outboxEventDAO.claim(recent.getKey(), before));
+
+        entityManager().clear();
+        assertEquals(List.of(older.getKey()), outboxEventDAO.findStale(before, 5, 10));
+        assertEquals(1, outboxEventDAO.find(old.getKey()).getAttempts());
+    }
+
+    @Test
+    public void parkAfterMaxAttempts() {
+        long now = System.currentTimeMillis();
+        OutboxEvent event = save(now - 20000);
+        Date before = new Date(now - 5000);
+
+        assertTrue(outboxEventDAO.claim(event.getKey(), before));
+        entityManager().clear();
+        assertEquals(1, outboxEventDAO.find(event.getKey()).getAttempts());
+
+        // stale again, but parked once the maximum number of attempts is reached
+        Date later = new Date(System.currentTimeMillis() + 10000);
+        assertEquals(List.of(event.getKey()), outboxEventDAO.findStale(later, 2, 10));
+        assertEquals(List.of(), outboxEventDAO.findStale(later, 1, 10));
+    }
+}
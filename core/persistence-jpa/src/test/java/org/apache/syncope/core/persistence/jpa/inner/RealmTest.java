@@ -93,6 +93,28 @@ public class RealmTest extends AbstractTest {
         assertTrue(children.isEmpty());
     }
 
+    @Test
+    public void findDescendants() {
+        Realm even = realmDAO.findByFullPath("/even");
+        Realm two = realmDAO.findByFullPath("/even/two");
+
+        assertEquals(List.of(even, two), realmDAO.findDescendants(even));
+        assertEquals(List.of(even.getKey(), two.getKey()), realmDAO.findDescendantKeys("/even"));
+        assertEquals(List.of("/even", "/even/two"), realmDAO.findDescendantFullPaths("/even"));
+        assertEquals(List.of(two, even, realmDAO.getRoot()), realmDAO.findAncestors(two));
+        assertTrue(realmDAO.findDescendantKeys("/none").isEmpty());
+
+        // changes within the current transaction are visible
+        Realm three = entityFactory.newEntity(Realm.class);
+        three.setName("three");
+        three.setParent(two);
+        three = realmDAO.save(three);
+
+        assertEquals(three, realmDAO.findByFullPath("/even/two/three"));
+        assertEquals(List.of("/even", "/even/two", "/even/two/three"), realmDAO.findDescendantFullPaths("/even"));
+        assertEquals(List.of(three, two, even, realmDAO.getRoot()), realmDAO.findAncestors(three));
+    }
+
     @Test
     public void findAll() {
         List<Realm> list = realmDAO.findAll();
@@ -124,6 +146,25 @@ public class RealmTest extends AbstractTest {
         assertEquals("986d1236-3ac5-4a19-810c-5ab21d79cba1", actual.getPasswordPolicy().getKey());
     }
 
+    @Test
+    public void storedFullPath() {
+        Realm realm = entityFactory.newEntity(Realm.class);
+        realm.setName("last");
+        realm.setParent(realmDAO.findByFullPath("/even/two"));
+        realm = realmDAO.save(realm);
+
+        Realm two = realmDAO.findByFullPath("/even/two");
+        two.setName("three");
+        realmDAO.save(two);
+
+        entityManager().flush();
+
+        assertEquals("/even/three", entityManager().createNativeQuery(
+                "SELECT fullPath FROM Realm WHERE id=?1").setParameter(1, two.getKey()).getSingleResult());
+        assertEquals("/even/three/last", entityManager().createNativeQuery(
+                "SELECT fullPath FROM Realm WHERE id=?1").setParameter(1, realm.getKey()).getSingleResult());
+    }
+
     @Test
     public void saveInvalidName() {
         Realm realm = entityFactory.newEntity(Realm.class);
@@ -126,6 +126,8 @@ public class ResourceTest extends AbstractTest {
         ExternalResource resource = entityFactory.newEntity(ExternalResource.class);
         resource.setKey("ws-target-resource-basic-save");
         resource.setPropagationPriority(2);
+        assertFalse(resource.isTrustedPropagation());
+        resource.setTrustedPropagation(true);
 
         Provision provision = entityFactory.newEntity(Provision.class);
         provision.setAnyType(anyTypeDAO.findUser());
@@ -154,6 +156,7 @@ public class ResourceTest extends AbstractTest {
         assertNotNull(actual.getProvision(anyTypeDAO.findUser()).get().getMapping());
         assertFalse(actual.getProvision(anyTypeDAO.findUser()).get().getMapping().getItems().isEmpty());
         assertEquals(Integer.valueOf(2), actual.getPropagationPriority());
+        assertTrue(actual.isTrustedPropagation());
     }
 
     @Test
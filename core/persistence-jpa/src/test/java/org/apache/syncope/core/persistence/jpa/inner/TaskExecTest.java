@@ -20,13 +20,17 @@ package org.apache.syncope.core.persistence.jpa.inner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import org.apache.syncope.common.lib.types.ExecStatus;
+import org.apache.syncope.common.lib.types.TaskType;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskExecDAO;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
@@ -43,6 +47,9 @@ public class TaskExecTest extends AbstractTest {
     @Autowired
     private TaskDAO taskDAO;
 
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
     @Test
     public void findAll() {
         PropagationTask task = taskDAO.find("1e697572-b896-484c-ae7f-0c8f63fcbc6c");
@@ -90,4 +97,28 @@ public class TaskExecTest extends AbstractTest {
 
         assertEquals(faultyMessage.replace('\0', '\n'), exec.getMessage());
     }
+
+    @Test
+    public void purge() {
+        ExternalResource resource = resourceDAO.find("ws-target-resource-2");
+        assertNotNull(resource);
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2015, 11, 17, 0, 0, 0);
+        assertEquals(0, taskExecDAO.purge(TaskType.PROPAGATION, resource, calendar.getTime(), 10));
+        assertEquals(1, taskExecDAO.count("1e697572-b896-484c-ae7f-0c8f63fcbc6c"));
+
+        calendar.set(2016, 0, 1, 0, 0, 0);
+        assertEquals(0, taskExecDAO.purge(TaskType.PUSH, resource, calendar.getTime(), 10));
+        assertEquals(1, taskExecDAO.purge(TaskType.PROPAGATION, resource, calendar.getTime(), 10));
+        assertEquals(0, taskExecDAO.count("1e697572-b896-484c-ae7f-0c8f63fcbc6c"));
+
+        // executions of propagation tasks for other resources are left untouched
+        assertEquals(1, taskExecDAO.count("d6c2d6d3-6329-44c1-9187-f1469ead1cfa"));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> taskExecDAO.purge(TaskType.SCHEDULED, resource, new Date(), 10));
+    }
 }
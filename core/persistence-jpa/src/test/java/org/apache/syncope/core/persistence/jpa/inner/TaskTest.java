@@ -24,25 +24,43 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Calendar;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.ExecStatus;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.common.lib.types.TaskType;
+import org.apache.syncope.core.persistence.api.DomainHolder;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskExecDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
 import org.apache.syncope.core.persistence.api.entity.task.Task;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.PropagationTaskMigrationLoader;
+import org.apache.syncope.core.persistence.jpa.entity.task.AbstractTask;
+import org.apache.syncope.core.provisioning.api.serialization.AttributeCodec;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Transactional("Master")
 public class TaskTest extends AbstractTest {
@@ -50,12 +68,21 @@ public class TaskTest extends AbstractTest {
     @Autowired
     private TaskDAO taskDAO;
 
+    @Autowired
+    private TaskExecDAO taskExecDAO;
+
     @Autowired
     private ExternalResourceDAO resourceDAO;
 
     @Autowired
     private UserDAO userDAO;
 
+    @Autowired
+    private PropagationTaskMigrationLoader propagationTaskMigrationLoader;
+
+    @Autowired
+    private DomainHolder domainHolder;
+
     @Test
     public void findWithoutExecs() {
         List<PropagationTask> tasks = taskDAO.findToExec(TaskType.PROPAGATION);
@@ -125,6 +152,89 @@ public class TaskTest extends AbstractTest {
 
         PropagationTask actual = taskDAO.find(task.getKey());
         assertEquals(task, actual);
+        assertEquals(
+                Set.of("testAttribute", "__PASSWORD__"),
+                actual.getAttributes().stream().map(Attribute::getName).collect(Collectors.toSet()));
+        assertTrue(actual.getAttributes().contains(
+                AttributeBuilder.build("testAttribute", "testValue1", "testValue2")));
+        assertTrue(actual.getSerializedAttributes().contains("testValue2"));
+    }
+
+    private void addExec(final PropagationTask task, final ExecStatus status, final String message) {
+        TaskExec exec = entityFactory.newEntity(TaskExec.class);
+        exec.setStart(new Date());
+        exec.setEnd(exec.getStart());
+        exec.setStatus(status.name());
+        exec.setMessage(message);
+        exec.setExecutor("admin");
+
+        exec.setTask(task);
+        task.add(exec);
+        taskDAO.save(task);
+    }
+
+    @Test
+    public void findByLatestExec() throws InterruptedException {
+        String prefix = "Too many propagations pending on connector ";
+        assertTrue(taskDAO.findByLatestExec(ExecStatus.NOT_ATTEMPTED.name(), prefix, 10).isEmpty());
+
+        PropagationTask task = taskDAO.find("1e697572-b896-484c-ae7f-0c8f63fcbc6c");
+        addExec(task, ExecStatus.NOT_ATTEMPTED, prefix + "ws-target-resource-2, not attempted");
+        entityManager().flush();
+
+        List<PropagationTask> found = taskDAO.findByLatestExec(ExecStatus.NOT_ATTEMPTED.name(), prefix, 10);
+        assertEquals(List.of(task), found);
+
+        Thread.sleep(10);
+        addExec(task, ExecStatus.SUCCESS, null);
+        entityManager().flush();
+
+        assertTrue(taskDAO.findByLatestExec(ExecStatus.NOT_ATTEMPTED.name(), prefix, 10).isEmpty());
+    }
+
+    @Test
+    public void purgePropagations() {
+        ExternalResource resource = resourceDAO.find("ws-target-resource-2");
+        int before = taskDAO.count(TaskType.PROPAGATION, resource, null, null, null);
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2016, 0, 1, 0, 0, 0);
+        assertEquals(1, taskDAO.purgePropagations(resource, calendar.getTime(), 10));
+
+        // tasks without executions are still pending, hence retained
+        assertEquals(before - 1, taskDAO.count(TaskType.PROPAGATION, resource, null, null, null));
+        assertEquals(0, taskExecDAO.count("1e697572-b896-484c-ae7f-0c8f63fcbc6c"));
+        assertEquals(1, taskExecDAO.count("d6c2d6d3-6329-44c1-9187-f1469ead1cfa"));
+    }
+
+    @Test
+    public void migrateAttributes() {
+        String key = "316285cc-ae52-4ea2-a33b-7355e189ac3f";
+        PropagationTask task = taskDAO.find(key);
+        Set<Attribute> attributes = task.getAttributes();
+        assertEquals(3, attributes.size());
+
+        // store attributes as JSON again, within the test transaction which is rolled back at the end
+        DataSource dataSource = domainHolder.getDomains().get(AuthContextUtils.getDomain());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("UPDATE " + AbstractTask.TABLE + " SET attributes=?, encodedAttributes=NULL WHERE id=?",
+                POJOHelper.serialize(attributes), key);
+
+        propagationTaskMigrationLoader.migrateAll(AuthContextUtils.getDomain(), dataSource, new TransactionTemplate(
+                ApplicationContextProvider.getApplicationContext().getBean(
+                        AuthContextUtils.getDomain() + "TransactionManager", PlatformTransactionManager.class)));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + AbstractTask.TABLE
+                + " WHERE DTYPE='PropagationTask' AND attributes IS NOT NULL", Integer.class));
+
+        Set<Attribute> migrated = Stream.of(AttributeCodec.decode(jdbcTemplate.queryForObject(
+                "SELECT encodedAttributes FROM " + AbstractTask.TABLE + " WHERE id=?", byte[].class, key))).
+                collect(Collectors.toSet());
+        assertEquals(
+                attributes.stream().map(Attribute::getName).collect(Collectors.toSet()),
+                migrated.stream().map(Attribute::getName).collect(Collectors.toSet()));
+        assertTrue(migrated.contains(AttributeBuilder.build("type", "type")));
     }
 
     @Test
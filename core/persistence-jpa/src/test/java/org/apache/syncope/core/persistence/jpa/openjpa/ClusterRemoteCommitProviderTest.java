@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.openjpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.apache.openjpa.conf.OpenJPAConfigurationImpl;
+import org.apache.openjpa.event.RemoteCommitEvent;
+import org.apache.openjpa.util.StringId;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
+import org.junit.jupiter.api.Test;
+
+public class ClusterRemoteCommitProviderTest {
+
+    private static class CapturingProvider extends ClusterRemoteCommitProvider {
+
+        private final BlockingQueue<RemoteCommitEvent> received = new LinkedBlockingQueue<>();
+
+        private final Semaphore resets = new Semaphore(0);
+
+        CapturingProvider(final String domain, final int port, final int peerPort) {
+            this(domain, port, peerPort, "secret");
+        }
+
+        CapturingProvider(final String domain, final int port, final int peerPort, final String secret) {
+            OpenJPAConfigurationImpl conf = new OpenJPAConfigurationImpl();
+            conf.setId(domain);
+            setConfiguration(conf);
+            setPort(port);
+            setBindAddress("localhost");
+            setSecret(secret);
+            setAddresses("localhost:" + peerPort);
+            setDiscovery(false);
+            endConfiguration();
+        }
+
+        @Override
+        protected void fireEvent(final RemoteCommitEvent event) {
+            received.add(event);
+        }
+
+        @Override
+        protected void reset() {
+            resets.release();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test
+    public void broadcast() throws Exception {
+        int port1 = freePort();
+        int port2 = freePort();
+
+        CapturingProvider node1 = new CapturingProvider("Master", port1, port2);
+        CapturingProvider node2 = new CapturingProvider("Master", port2, port1);
+        CapturingProvider otherDomain = new CapturingProvider("Two", port2, port1);
+        try {
+            node1.broadcast(new RemoteCommitEvent(
+                    RemoteCommitEvent.PAYLOAD_OIDS,
+                    null,
+                    null,
+                    List.of(new StringId(JPAUser.class, "74cd8ece-715a-44a4-a736-e17b46c4e7e6")),
+                    null));
+
+            RemoteCommitEvent event = node2.received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event);
+            assertEquals(RemoteCommitEvent.PAYLOAD_OIDS, event.getPayloadType());
+            assertEquals(1, event.getUpdatedObjectIds().size());
+            assertEquals(
+                    new StringId(JPAUser.class, "74cd8ece-715a-44a4-a736-e17b46c4e7e6"),
+                    event.getUpdatedObjectIds().iterator().next());
+
+            // events are neither delivered back to the sender nor to other domains
+            node2.broadcast(new RemoteCommitEvent(RemoteCommitEvent.PAYLOAD_OIDS, null, null, null, null));
+            assertNotNull(node1.received.poll(10, TimeUnit.SECONDS));
+            assertNull(node2.received.poll(1, TimeUnit.SECONDS));
+            assertNull(otherDomain.received.poll(1, TimeUnit.SECONDS));
+        } finally {
+            node1.close();
+            node2.close();
+            otherDomain.close();
+        }
+    }
+
+    @Test
+    public void invalidSecret() throws Exception {
+        int port1 = freePort();
+        int port2 = freePort();
+
+        CapturingProvider node1 = new CapturingProvider("Master", port1, port2, "secret");
+        CapturingProvider node2 = new CapturingProvider("Master", port2, port1, "another secret");
+        try {
+            node1.broadcast(new RemoteCommitEvent(RemoteCommitEvent.PAYLOAD_OIDS, null, null, null, null));
+            assertNull(node2.received.poll(2, TimeUnit.SECONDS));
+        } finally {
+            node1.close();
+            node2.close();
+        }
+    }
+
+    @Test
+    public void resetAfterUnreachable() throws Exception {
+        int port1 = freePort();
+        int port2 = freePort();
+
+        CapturingProvider node1 = new CapturingProvider("Master", port1, port2);
+        CapturingProvider node2 = null;
+        try {
+            // node2 is not listening yet: the event is dropped...
+            node1.broadcast(new RemoteCommitEvent(
+                    RemoteCommitEvent.PAYLOAD_OIDS,
+                    null,
+                    null,
+                    List.of(new StringId(JPAUser.class, "74cd8ece-715a-44a4-a736-e17b46c4e7e6")),
+                    null));
+            long deadline = System.currentTimeMillis() + 10000;
+            while (node1.peers.values().stream().noneMatch(peer -> peer.reset)
+                    && System.currentTimeMillis() < deadline) {
+
+                Thread.sleep(50);
+            }
+            assertTrue(node1.peers.values().stream().allMatch(peer -> peer.reset));
+
+            // ...and replaced by a request to clear all caches, once node2 is reachable
+            node2 = new CapturingProvider("Master", port2, port1);
+            assertTrue(node2.resets.tryAcquire(20, TimeUnit.SECONDS));
+            assertNull(node2.received.poll(1, TimeUnit.SECONDS));
+        } finally {
+            node1.close();
+            if (node2 != null) {
+                node2.close();
+            }
+        }
+    }
+}
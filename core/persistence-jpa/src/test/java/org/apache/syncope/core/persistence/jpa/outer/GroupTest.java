@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.persistence.Query;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.attrvalue.validation.InvalidEntityException;
@@ -42,6 +43,7 @@ import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.anyobject.ADynGroupMembership;
 import org.apache.syncope.core.persistence.api.entity.anyobject.APlainAttr;
 import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
@@ -267,6 +269,113 @@ public class GroupTest extends AbstractTest {
         assertTrue(dynGroupMemberships.isEmpty());
     }
 
+    @Test
+    public void udynMembershipOnlyEvaluatedWhenReferencesChanged() {
+        // 0. create user and group with dynamic membership matching such user
+        User user = entityFactory.newEntity(User.class);
+        user.setUsername("username");
+        user.setRealm(realmDAO.findByFullPath("/even/two"));
+        user.add(anyTypeClassDAO.find("other"));
+
+        UPlainAttr attr = entityFactory.newEntity(UPlainAttr.class);
+        attr.setOwner(user);
+        attr.setSchema(plainSchemaDAO.find("cool"));
+        attr.add("true", anyUtilsFactory.getInstance(AnyTypeKind.USER));
+        user.add(attr);
+
+        user = userDAO.save(user);
+
+        Group group = entityFactory.newEntity(Group.class);
+        group.setRealm(realmDAO.getRoot());
+        group.setName("new");
+
+        UDynGroupMembership dynMembership = entityFactory.newEntity(UDynGroupMembership.class);
+        dynMembership.setFIQLCond("cool==true");
+        dynMembership.setGroup(group);
+
+        group.setUDynMembership(dynMembership);
+
+        Group actual = groupDAO.saveAndRefreshDynMemberships(group);
+        entityManager().flush();
+
+        assertTrue(findDynGroups(user).contains(actual));
+
+        // 1. remove the referenced attribute, but report something else as changed: condition is not evaluated
+        user.remove(user.getPlainAttr("cool").get());
+        Pair<Set<String>, Set<String>> dynGroupMembs = userDAO.saveAndGetDynGroupMembs(
+                user, new SearchCondRefs().plainSchema("fullname"));
+        entityManager().flush();
+
+        assertTrue(dynGroupMembs.getLeft().contains(actual.getKey()));
+        assertEquals(dynGroupMembs.getLeft(), dynGroupMembs.getRight());
+        assertTrue(findDynGroups(user).contains(actual));
+
+        // 2. report the referenced attribute as changed: condition is evaluated, membership is removed
+        dynGroupMembs = userDAO.saveAndGetDynGroupMembs(user, new SearchCondRefs().plainSchema("cool"));
+        entityManager().flush();
+
+        assertTrue(dynGroupMembs.getLeft().contains(actual.getKey()));
+        assertFalse(dynGroupMembs.getRight().contains(actual.getKey()));
+        assertFalse(findDynGroups(user).contains(actual));
+        assertFalse(groupDAO.findUDynMembers(actual).contains(user.getKey()));
+    }
+
+    @Test
+    public void udynMembershipChained() {
+        // 0. create user, group with dynamic membership matching such user and group with dynamic membership
+        // matching members of the former
+        User user = entityFactory.newEntity(User.class);
+        user.setUsername("username");
+        user.setRealm(realmDAO.findByFullPath("/even/two"));
+        user.add(anyTypeClassDAO.find("other"));
+
+        UPlainAttr attr = entityFactory.newEntity(UPlainAttr.class);
+        attr.setOwner(user);
+        attr.setSchema(plainSchemaDAO.find("cool"));
+        attr.add("true", anyUtilsFactory.getInstance(AnyTypeKind.USER));
+        user.add(attr);
+
+        user = userDAO.save(user);
+
+        Group cool = entityFactory.newEntity(Group.class);
+        cool.setRealm(realmDAO.getRoot());
+        cool.setName("cool");
+
+        UDynGroupMembership dynMembership = entityFactory.newEntity(UDynGroupMembership.class);
+        dynMembership.setFIQLCond("cool==true");
+        dynMembership.setGroup(cool);
+        cool.setUDynMembership(dynMembership);
+
+        cool = groupDAO.saveAndRefreshDynMemberships(cool);
+        entityManager().flush();
+
+        Group chained = entityFactory.newEntity(Group.class);
+        chained.setRealm(realmDAO.getRoot());
+        chained.setName("chained");
+
+        dynMembership = entityFactory.newEntity(UDynGroupMembership.class);
+        dynMembership.setFIQLCond("$groups==cool");
+        dynMembership.setGroup(chained);
+        chained.setUDynMembership(dynMembership);
+
+        chained = groupDAO.saveAndRefreshDynMemberships(chained);
+        entityManager().flush();
+
+        assertTrue(findDynGroups(user).contains(cool));
+        assertTrue(findDynGroups(user).contains(chained));
+
+        // 1. remove the referenced attribute: both conditions are evaluated, as the first membership is lost
+        user.remove(user.getPlainAttr("cool").get());
+        Pair<Set<String>, Set<String>> dynGroupMembs = userDAO.saveAndGetDynGroupMembs(
+                user, new SearchCondRefs().plainSchema("cool"));
+        entityManager().flush();
+
+        assertFalse(dynGroupMembs.getRight().contains(cool.getKey()));
+        assertFalse(dynGroupMembs.getRight().contains(chained.getKey()));
+        assertFalse(findDynGroups(user).contains(cool));
+        assertFalse(findDynGroups(user).contains(chained));
+    }
+
     /**
      * Static copy of {@link org.apache.syncope.core.persistence.jpa.dao.JPAAnyObjectDAO} method with same signature:
      * required for avoiding creating of a new transaction - good for general use case but bad for the way how
@@ -292,6 +401,47 @@ public class GroupTest extends AbstractTest {
         return result;
     }
 
+    @Test
+    public void udynMembershipRefreshedAsDifference() {
+        String rossini = userDAO.findByUsername("rossini").getKey();
+        String verdi = userDAO.findByUsername("verdi").getKey();
+        String bellini = userDAO.findByUsername("bellini").getKey();
+
+        // 0. create group with dynamic membership matching rossini and verdi
+        Group group = entityFactory.newEntity(Group.class);
+        group.setRealm(realmDAO.getRoot());
+        group.setName("new");
+
+        UDynGroupMembership dynMembership = entityFactory.newEntity(UDynGroupMembership.class);
+        dynMembership.setFIQLCond("username==rossini,username==verdi");
+        dynMembership.setGroup(group);
+
+        group.setUDynMembership(dynMembership);
+
+        Group actual = groupDAO.saveAndRefreshDynMemberships(group);
+        entityManager().flush();
+
+        assertEquals(Set.of(rossini, verdi), new HashSet<>(groupDAO.findUDynMembers(actual)));
+
+        // 1. change condition: verdi is kept, rossini is removed, bellini is added
+        actual.getUDynMembership().setFIQLCond("username==verdi,username==bellini");
+        actual = groupDAO.saveAndRefreshDynMemberships(actual);
+        entityManager().flush();
+
+        assertEquals(Set.of(verdi, bellini), new HashSet<>(groupDAO.findUDynMembers(actual)));
+        assertEquals(2, groupDAO.countUDynMembers(actual));
+
+        // 2. remove dynamic membership: all members are removed
+        actual.setUDynMembership(null);
+        actual = groupDAO.saveAndRefreshDynMemberships(actual);
+        entityManager().flush();
+
+        Query query = entityManager().createNativeQuery(
+                "SELECT COUNT(any_id) FROM " + JPAGroupDAO.UDYNMEMB_TABLE + " WHERE group_id=?");
+        query.setParameter(1, actual.getKey());
+        assertEquals(0, ((Number) query.getSingleResult()).intValue());
+    }
+
     @Test
     public void adynMembership() {
         // 0. create any object matching the condition below
@@ -29,10 +29,12 @@ import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.CipherAlgorithm;
 import org.apache.syncope.core.persistence.api.attrvalue.validation.InvalidEntityException;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.ApplicationDAO;
 import org.apache.syncope.core.persistence.api.dao.DerSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
@@ -40,6 +42,8 @@ import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RelationshipTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
@@ -80,6 +84,9 @@ public class UserTest extends AbstractTest {
     @Autowired
     private DerSchemaDAO derSchemaDAO;
 
+    @Autowired
+    private AnySearchDAO searchDAO;
+
     @Autowired
     private ExternalResourceDAO resourceDAO;
 
@@ -356,6 +363,77 @@ public class UserTest extends AbstractTest {
         assertEquals(1, list.size());
     }
 
+    @Test
+    public void findByIndexedDerAttrValue() {
+        DerSchema cn = derSchemaDAO.find("cn");
+        cn.setIndexed(true);
+        cn = derSchemaDAO.save(cn);
+        derSchemaDAO.reindex(cn);
+        entityManager().flush();
+
+        List<User> list = userDAO.findByDerAttrValue(cn, "Rossini, Gioacchino", false);
+        assertEquals(1, list.size());
+        assertEquals("rossini", list.get(0).getUsername());
+
+        assertTrue(userDAO.findByDerAttrValue(cn, "ROSSINI, GIOACCHINO", false).isEmpty());
+        assertEquals(1, userDAO.findByDerAttrValue(cn, "ROSSINI, GIOACCHINO", true).size());
+
+        AttrCond cond = new AttrCond(AttrCond.Type.IEQ);
+        cond.setSchema("cn");
+        cond.setExpression("rossini, gioacchino");
+        List<User> found = searchDAO.search(SearchCond.getLeaf(cond), AnyTypeKind.USER);
+        assertEquals(1, found.size());
+        assertEquals("rossini", found.get(0).getUsername());
+
+        // stored value follows plain attribute changes
+        User rossini = list.get(0);
+        rossini.getPlainAttr("surname").get().getValues().get(0).setStringValue("Verdi");
+        userDAO.save(rossini);
+        entityManager().flush();
+
+        assertTrue(userDAO.findByDerAttrValue(cn, "Rossini, Gioacchino", false).isEmpty());
+        assertEquals(1, userDAO.findByDerAttrValue(cn, "Verdi, Gioacchino", false).size());
+
+        // stored values are removed together with the owner
+        userDAO.delete(rossini);
+        entityManager().flush();
+
+        assertTrue(userDAO.findByDerAttrValue(cn, "Verdi, Gioacchino", false).isEmpty());
+    }
+
+    @Test
+    public void findByIndexedLongDerAttrValue() {
+        DerSchema cn = derSchemaDAO.find("cn");
+        cn.setIndexed(true);
+        cn = derSchemaDAO.save(cn);
+
+        User rossini = userDAO.findByUsername("rossini");
+        rossini.getPlainAttr("surname").get().getValues().get(0).setStringValue(StringUtils.repeat('R', 200));
+        rossini.getPlainAttr("firstname").get().getValues().get(0).setStringValue(StringUtils.repeat('G', 100));
+        userDAO.save(rossini);
+        derSchemaDAO.reindex(cn);
+        entityManager().flush();
+
+        // too long to be indexed, still found by exact value...
+        AttrCond cond = new AttrCond(AttrCond.Type.EQ);
+        cond.setSchema("cn");
+        cond.setExpression(StringUtils.repeat('R', 200) + ", " + StringUtils.repeat('G', 100));
+        List<User> found = searchDAO.search(SearchCond.getLeaf(cond), AnyTypeKind.USER);
+        assertEquals(1, found.size());
+        assertEquals("rossini", found.get(0).getUsername());
+
+        cond.setType(AttrCond.Type.IEQ);
+        cond.setExpression(cond.getExpression().toLowerCase());
+        found = searchDAO.search(SearchCond.getLeaf(cond), AnyTypeKind.USER);
+        assertEquals(1, found.size());
+
+        // ...and not reported as missing
+        cond = new AttrCond(AttrCond.Type.ISNULL);
+        cond.setSchema("cn");
+        found = searchDAO.search(SearchCond.getLeaf(cond), AnyTypeKind.USER);
+        assertTrue(found.stream().noneMatch(user -> "rossini".equals(user.getUsername())));
+    }
+
     @Test
     public void issueSYNCOPE1016() {
         User user = userDAO.findByUsername("rossini");
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.spring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class DomainRoutingDataSourceTest {
+
+    private static DomainRoutingDataSource dataSource(final long maxLag, final String lagQuery) {
+        return new DomainRoutingDataSource(
+                "Master",
+                new DriverManagerDataSource("jdbc:h2:mem:primary"),
+                new DriverManagerDataSource("jdbc:h2:mem:replica"),
+                maxLag,
+                lagQuery);
+    }
+
+    private static DomainRoutingDataSource dataSource(final String lagQuery) {
+        return dataSource(DomainRoutingDataSource.DEFAULT_MAX_LAG, lagQuery);
+    }
+
+    private static void transaction(final boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @FunctionalInterface
+    private interface Body {
+
+        Object run() throws Throwable;
+    }
+
+    private static MethodInvocation invocation(final Body body) {
+        return new MethodInvocation() {
+
+            @Override
+            public Method getMethod() {
+                try {
+                    return Object.class.getMethod("toString");
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return new Object[0];
+            }
+
+            @Override
+            public Object proceed() throws Throwable {
+                return body.run();
+            }
+
+            @Override
+            public Object getThis() {
+                return null;
+            }
+
+            @Override
+            public AccessibleObject getStaticPart() {
+                return getMethod();
+            }
+        };
+    }
+
+    @AfterEach
+    public void clear() {
+        TransactionSynchronizationManager.clear();
+        DomainTransactionInterceptor.clearWrites();
+    }
+
+    @Test
+    public void route() {
+        DomainRoutingDataSource dataSource = dataSource(null);
+
+        assertEquals(DomainRoutingDataSource.Target.PRIMARY, dataSource.determineCurrentLookupKey());
+
+        transaction(false);
+        assertEquals(DomainRoutingDataSource.Target.PRIMARY, dataSource.determineCurrentLookupKey());
+
+        transaction(true);
+        assertEquals(DomainRoutingDataSource.Target.REPLICA, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void onPrimary() {
+        DomainRoutingDataSource dataSource = dataSource(null);
+
+        transaction(true);
+        assertTrue(dataSource.readsFromReplica());
+        assertEquals(DomainRoutingDataSource.Target.PRIMARY, DomainRoutingDataSource.onPrimary(() -> {
+            assertFalse(dataSource.readsFromReplica());
+            return DomainRoutingDataSource.onPrimary(dataSource::determineCurrentLookupKey);
+        }));
+        assertEquals(DomainRoutingDataSource.Target.REPLICA, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void lagging() {
+        transaction(true);
+
+        assertEquals(DomainRoutingDataSource.Target.REPLICA, dataSource("SELECT 100").determineCurrentLookupKey());
+        assertEquals(DomainRoutingDataSource.Target.PRIMARY, dataSource("SELECT 60000").determineCurrentLookupKey());
+        assertEquals(DomainRoutingDataSource.Target.PRIMARY, dataSource("SELECT 1 FROM Missing").
+                determineCurrentLookupKey());
+    }
+
+    @Test
+    public void stickyWithinInvocation() throws Throwable {
+        DomainRoutingDataSource dataSource = dataSource(null);
+        DomainTransactionInterceptor interceptor = new DomainTransactionInterceptor();
+
+        interceptor.invoke(invocation(() -> {
+            interceptor.invoke(invocation(() -> {
+                transaction(false);
+                return null;
+            }));
+
+            // reads following a write within the same outermost invocation stay on primary
+            transaction(true);
+            assertEquals(DomainRoutingDataSource.Target.PRIMARY, dataSource.determineCurrentLookupKey());
+            return null;
+        }));
+    }
+
+    @Test
+    public void stickyAcrossInvocations() throws Throwable {
+        DomainRoutingDataSource dataSource = dataSource(200L, null);
+        DomainTransactionInterceptor interceptor = new DomainTransactionInterceptor();
+
+        interceptor.invoke(invocation(() -> {
+            transaction(false);
+            return null;
+        }));
+        TransactionSynchronizationManager.clear();
+
+        // a read performed by a separate invocation right after the write stays on primary...
+        interceptor.invoke(invocation(() -> {
+            transaction(true);
+            assertEquals(DomainRoutingDataSource.Target.PRIMARY, dataSource.determineCurrentLookupKey());
+            return null;
+        }));
+        TransactionSynchronizationManager.clear();
+
+        // ...until the maximum lag has expired
+        Thread.sleep(250L);
+        interceptor.invoke(invocation(() -> {
+            transaction(true);
+            assertEquals(DomainRoutingDataSource.Target.REPLICA, dataSource.determineCurrentLookupKey());
+            return null;
+        }));
+    }
+}
@@ -19,12 +19,18 @@
 package org.apache.syncope.core.provisioning.api;
 
 import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.SerializationUtils;
+import org.apache.syncope.common.lib.request.AnyUR;
 import org.apache.syncope.common.lib.request.UserCR;
 import org.apache.syncope.common.lib.request.UserUR;
+import org.apache.syncope.common.lib.to.EntityTO;
+import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.to.UserTO;
 import org.apache.syncope.common.lib.types.AuditLoggerName;
 import org.apache.syncope.core.persistence.api.entity.AuditEntry;
@@ -100,6 +106,39 @@ public class AuditEntryImpl implements AuditEntry {
         return masked;
     }
 
+    private static String entityKey(final Object object) {
+        if (object instanceof EntityTO) {
+            return ((EntityTO) object).getKey();
+        }
+        if (object instanceof ProvisioningResult) {
+            return entityKey(((ProvisioningResult<?>) object).getEntity());
+        }
+        if (object instanceof AnyUR) {
+            return ((AnyUR) object).getKey();
+        }
+        if (object instanceof Map) {
+            Object key = ((Map<?, ?>) object).get("key");
+            return key instanceof String ? (String) key : entityKey(((Map<?, ?>) object).get("entity"));
+        }
+        return null;
+    }
+
+    /**
+     * Finds the key of the entity the given audit entry is about, by looking at output, before and input in this
+     * order; works both with the original objects and with their deserialized counterparts.
+     *
+     * @param auditEntry audit entry
+     * @return the key of the audited entity, or {@code null} if not found
+     */
+    public static String entityKey(final AuditEntry auditEntry) {
+        return Stream.concat(
+                Stream.of(auditEntry.getOutput(), auditEntry.getBefore()),
+                auditEntry.getInput() == null ? Stream.empty() : Stream.of(auditEntry.getInput())).
+                map(AuditEntryImpl::entityKey).
+                filter(Objects::nonNull).
+                findFirst().orElse(null);
+    }
+
     @Override
     public String getWho() {
         return who;
@@ -25,8 +25,6 @@ public class AfterHandlingEvent implements Serializable {
 
     private static final long serialVersionUID = 5950986229089263378L;
 
-    public static final String JOBMAP_KEY = "AfterHandlingEvent";
-
     private final String who;
 
     private final AuditElements.EventCategoryType type;
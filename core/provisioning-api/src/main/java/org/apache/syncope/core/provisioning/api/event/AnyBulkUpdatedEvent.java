@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.api.event;
+
+import java.util.Collection;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Coalesces updates of several entities of the same kind, as happening when dynamic members are refreshed.
+ */
+public class AnyBulkUpdatedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -3219385711436530137L;
+
+    private final AnyTypeKind anyTypeKind;
+
+    private final Collection<String> anyKeys;
+
+    private final String domain;
+
+    public AnyBulkUpdatedEvent(
+            final Object source,
+            final AnyTypeKind anyTypeKind,
+            final Collection<String> anyKeys,
+            final String domain) {
+
+        super(source);
+        this.anyTypeKind = anyTypeKind;
+        this.anyKeys = anyKeys;
+        this.domain = domain;
+    }
+
+    public AnyTypeKind getAnyTypeKind() {
+        return anyTypeKind;
+    }
+
+    public Collection<String> getAnyKeys() {
+        return anyKeys;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+}
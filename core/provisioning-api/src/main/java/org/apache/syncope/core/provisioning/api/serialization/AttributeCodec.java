@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.api.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary encoding of ConnId attributes, for storage: one byte for the format version, followed by the
+ * attributes serialized as Smile and deflated.
+ */
+public final class AttributeCodec {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AttributeCodec.class);
+
+    /**
+     * Current format version, written as first byte of each encoded value.
+     */
+    public static final byte VERSION = 1;
+
+    private static final ObjectMapper MAPPER = POJOHelper.configure(new ObjectMapper(new SmileFactory()));
+
+    public static byte[] encode(final Collection<? extends Attribute> attributes) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(VERSION);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream out = new DeflaterOutputStream(baos, deflater)) {
+            MAPPER.writeValue(out, attributes.toArray(Attribute[]::new));
+        } catch (Exception e) {
+            LOG.error("During encoding", e);
+            return null;
+        } finally {
+            deflater.end();
+        }
+
+        return baos.toByteArray();
+    }
+
+    public static Attribute[] decode(final byte[] encoded) {
+        if (encoded == null || encoded.length == 0 || encoded[0] != VERSION) {
+            LOG.error("Unsupported encoding version: {}",
+                    encoded == null || encoded.length == 0 ? null : encoded[0]);
+            return null;
+        }
+
+        Attribute[] result = null;
+
+        try (InputStream in = new InflaterInputStream(
+                new ByteArrayInputStream(encoded, 1, encoded.length - 1))) {
+
+            result = MAPPER.readValue(in, Attribute[].class);
+        } catch (Exception e) {
+            LOG.error("During decoding", e);
+        }
+
+        return result;
+    }
+
+    private AttributeCodec() {
+    }
+}
@@ -36,9 +36,15 @@ public final class POJOHelper {
 
     private static final Logger LOG = LoggerFactory.getLogger(POJOHelper.class);
 
-    private static final ObjectMapper MAPPER;
-
-    static {
+    private static final ObjectMapper MAPPER = configure(new ObjectMapper());
+
+    /**
+     * Registers (de)serializers for ConnId objects with the given mapper.
+     *
+     * @param mapper object mapper
+     * @return the same object mapper
+     */
+    static ObjectMapper configure(final ObjectMapper mapper) {
         SimpleModule pojoModule = new SimpleModule("POJOModule", new Version(1, 0, 0, null, null, null));
         pojoModule.addSerializer(GuardedString.class, new GuardedStringSerializer());
         pojoModule.addSerializer(Attribute.class, new AttributeSerializer());
@@ -47,9 +53,9 @@ public final class POJOHelper {
         pojoModule.addDeserializer(Attribute.class, new AttributeDeserializer());
         pojoModule.addDeserializer(SyncToken.class, new SyncTokenDeserializer());
 
-        MAPPER = new ObjectMapper();
-        MAPPER.registerModule(pojoModule);
-        MAPPER.registerModule(new AfterburnerModule());
+        mapper.registerModule(pojoModule);
+        mapper.registerModule(new AfterburnerModule());
+        return mapper;
     }
 
     public static String serialize(final Object object) {
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.api.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.identityconnectors.common.security.GuardedString;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class AttributeCodecTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AttributeCodecTest.class);
+
+    private static Set<Attribute> attributes() {
+        Set<Attribute> attributes = new HashSet<>();
+        attributes.add(new Uid("a7b0ad6b-f8d5-4d4c-8a3a-8d3b2f1c9e44"));
+        attributes.add(new Name("uid=rossini,ou=people,o=isp"));
+        attributes.add(AttributeBuilder.buildPassword(new GuardedString("password123".toCharArray())));
+        attributes.add(AttributeBuilder.build("cn", "Gioacchino Rossini"));
+        attributes.add(AttributeBuilder.build("mail", "rossini@apache.org", "gioacchino@apache.org"));
+        attributes.add(AttributeBuilder.build("loginCount", 42));
+        attributes.add(AttributeBuilder.build("lastLogin", 1602000000000L));
+        attributes.add(AttributeBuilder.build("score", 0.75));
+        attributes.add(AttributeBuilder.build("enabled", true));
+        attributes.add(AttributeBuilder.build("empty"));
+        return attributes;
+    }
+
+    private static Map<String, Attribute> byName(final Attribute[] attributes) {
+        return Stream.of(attributes).collect(Collectors.toMap(Attribute::getName, Function.identity()));
+    }
+
+    @Test
+    public void roundtrip() {
+        Set<Attribute> attributes = attributes();
+        attributes.add(AttributeBuilder.build("photo", (Object) new byte[] { 1, 2, 3 }));
+
+        byte[] encoded = AttributeCodec.encode(attributes);
+        assertEquals(AttributeCodec.VERSION, encoded[0]);
+
+        // same outcome as with JSON
+        Map<String, Attribute> json = byName(
+                POJOHelper.deserialize(POJOHelper.serialize(attributes), Attribute[].class));
+        Map<String, Attribute> decoded = byName(AttributeCodec.decode(encoded));
+        assertEquals(attributes.size(), decoded.size());
+        json.values().stream().
+                filter(attr -> !"photo".equals(attr.getName()) && !"__PASSWORD__".equals(attr.getName())).
+                forEach(attr -> assertEquals(attr, decoded.get(attr.getName())));
+        assertEquals(AttributeBuilder.build("cn", "Gioacchino Rossini"), decoded.get("cn"));
+        assertTrue(decoded.get(Uid.NAME) instanceof Uid);
+        assertTrue(decoded.get(Name.NAME) instanceof Name);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, (byte[]) decoded.get("photo").getValue().get(0));
+
+        GuardedString password = (GuardedString) decoded.get("__PASSWORD__").getValue().get(0);
+        StringBuilder clear = new StringBuilder();
+        password.access(chars -> clear.append(chars));
+        assertEquals("password123", clear.toString());
+    }
+
+    @Test
+    public void smallerThanJSON() {
+        Set<Attribute> attributes = attributes();
+        IntStream.range(0, 50).forEach(i -> attributes.add(AttributeBuilder.build("memberOf" + i,
+                "cn=group" + i + ",ou=groups,o=isp", "cn=role" + i + ",ou=roles,o=isp")));
+
+        int json = POJOHelper.serialize(attributes).getBytes(StandardCharsets.UTF_8).length;
+        int binary = AttributeCodec.encode(attributes).length;
+        assertTrue(binary * 3 < json, "binary " + binary + " vs JSON " + json);
+    }
+
+    @Test
+    public void unsupportedVersion() {
+        byte[] encoded = AttributeCodec.encode(attributes());
+        encoded[0] = (byte) (AttributeCodec.VERSION + 1);
+        assertNull(AttributeCodec.decode(encoded));
+        assertNull(AttributeCodec.decode(new byte[0]));
+    }
+
+    /**
+     * Compares size and throughput of JSON and binary encoding. Run with {@code -Dbenchmark=true}.
+     */
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Test
+    public void benchmark() {
+        int rounds = Integer.getInteger("benchmark.rounds", 20000);
+        Set<Attribute> attributes = attributes();
+        IntStream.range(0, 20).forEach(i -> attributes.add(AttributeBuilder.build("memberOf" + i,
+                "cn=group" + i + ",ou=groups,o=isp")));
+
+        // warm up
+        for (int i = 0; i < rounds; i++) {
+            POJOHelper.deserialize(POJOHelper.serialize(attributes), Attribute[].class);
+            AttributeCodec.decode(AttributeCodec.encode(attributes));
+        }
+
+        String json = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            json = POJOHelper.serialize(attributes);
+        }
+        long jsonEncode = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            POJOHelper.deserialize(json, Attribute[].class);
+        }
+        long jsonDecode = System.nanoTime() - start;
+
+        byte[] binary = null;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            binary = AttributeCodec.encode(attributes);
+        }
+        long binaryEncode = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            AttributeCodec.decode(binary);
+        }
+        long binaryDecode = System.nanoTime() - start;
+
+        LOG.info("JSON: {} bytes, encode {} ops/s, decode {} ops/s",
+                json.getBytes(StandardCharsets.UTF_8).length,
+                rounds * TimeUnit.SECONDS.toNanos(1) / jsonEncode, rounds * TimeUnit.SECONDS.toNanos(1) / jsonDecode);
+        LOG.info("Binary: {} bytes, encode {} ops/s, decode {} ops/s",
+                binary.length,
+                rounds * TimeUnit.SECONDS.toNanos(1) / binaryEncode,
+                rounds * TimeUnit.SECONDS.toNanos(1) / binaryDecode);
+    }
+}
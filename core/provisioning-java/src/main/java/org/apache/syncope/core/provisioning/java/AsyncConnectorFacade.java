@@ -20,6 +20,7 @@ package org.apache.syncope.core.provisioning.java;
 
 import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.common.objects.Attribute;
@@ -34,6 +35,7 @@ import org.identityconnectors.framework.common.objects.filter.FilterBuilder;
 import org.identityconnectors.framework.spi.SearchResultsHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Component;
@@ -41,12 +43,20 @@ import org.springframework.stereotype.Component;
 /**
  * Intercept calls to ConnectorFacade's methods and check if the corresponding connector instance has been configured to
  * allow every single operation: if not, simply do nothing.
+ * When running on virtual threads, calls are bounded per connector by {@link ConnectorSemaphores}.
  */
 @Component
 public class AsyncConnectorFacade {
 
     private static final Logger LOG = LoggerFactory.getLogger(AsyncConnectorFacade.class);
 
+    @Autowired(required = false)
+    private ConnectorSemaphores semaphores;
+
+    private <T> T call(final ConnectorFacade connector, final Supplier<T> call) {
+        return semaphores == null ? call.get() : semaphores.call(connector, call);
+    }
+
     @Async
     public Future<Uid> authenticate(
             final ConnectorFacade connector,
@@ -54,7 +64,8 @@ public class AsyncConnectorFacade {
             final GuardedString password,
             final OperationOptions options) {
 
-        return new AsyncResult<>(connector.authenticate(ObjectClass.ACCOUNT, username, password, options));
+        return new AsyncResult<>(call(
+                connector, () -> connector.authenticate(ObjectClass.ACCOUNT, username, password, options)));
     }
 
     @Async
@@ -64,7 +75,7 @@ public class AsyncConnectorFacade {
             final Set<Attribute> attrs,
             final OperationOptions options) {
 
-        return new AsyncResult<>(connector.create(objectClass, attrs, options));
+        return new AsyncResult<>(call(connector, () -> connector.create(objectClass, attrs, options)));
     }
 
     @Async
@@ -75,7 +86,7 @@ public class AsyncConnectorFacade {
             final Set<Attribute> attrs,
             final OperationOptions options) {
 
-        return new AsyncResult<>(connector.update(objectClass, uid, attrs, options));
+        return new AsyncResult<>(call(connector, () -> connector.update(objectClass, uid, attrs, options)));
     }
 
     @Async
@@ -85,15 +96,17 @@ public class AsyncConnectorFacade {
             final Uid uid,
             final OperationOptions options) {
 
-        connector.delete(objectClass, uid, options);
-        return new AsyncResult<>(uid);
+        return new AsyncResult<>(call(connector, () -> {
+            connector.delete(objectClass, uid, options);
+            return uid;
+        }));
     }
 
     @Async
     public Future<SyncToken> getLatestSyncToken(
             final ConnectorFacade connector, final ObjectClass objectClass) {
 
-        return new AsyncResult<>(connector.getLatestSyncToken(objectClass));
+        return new AsyncResult<>(call(connector, () -> connector.getLatestSyncToken(objectClass)));
     }
 
     @Async
@@ -105,7 +118,7 @@ public class AsyncConnectorFacade {
             final OperationOptions options) {
 
         ConnectorObject[] objects = new ConnectorObject[1];
-        connector.search(
+        call(connector, () -> connector.search(
                 objectClass,
                 ignoreCaseMatch ? FilterBuilder.equalsIgnoreCase(connObjectKey) : FilterBuilder.equalTo(connObjectKey),
                 new SearchResultsHandler() {
@@ -121,7 +134,7 @@ public class AsyncConnectorFacade {
                 // do nothing
             }
         },
-                options);
+                options));
 
         return new AsyncResult<>(objects[0]);
     }
@@ -131,7 +144,7 @@ public class AsyncConnectorFacade {
         Set<ObjectClassInfo> result = Set.of();
 
         try {
-            result = connector.schema().getObjectClassInfo();
+            result = call(connector, () -> connector.schema().getObjectClassInfo());
         } catch (Exception e) {
             // catch exception in order to manage unpredictable behaviors
             LOG.debug("While reading schema on connector {}", connector, e);
@@ -142,13 +155,17 @@ public class AsyncConnectorFacade {
 
     @Async
     public Future<String> validate(final ConnectorFacade connector) {
-        connector.validate();
-        return new AsyncResult<>("OK");
+        return new AsyncResult<>(call(connector, () -> {
+            connector.validate();
+            return "OK";
+        }));
     }
 
     @Async
     public Future<String> test(final ConnectorFacade connector) {
-        connector.test();
-        return new AsyncResult<>("OK");
+        return new AsyncResult<>(call(connector, () -> {
+            connector.test();
+            return "OK";
+        }));
     }
 }
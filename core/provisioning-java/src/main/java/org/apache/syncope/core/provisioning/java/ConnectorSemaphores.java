@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.apache.syncope.core.provisioning.api.TimeoutException;
+import org.identityconnectors.framework.api.ConnectorFacade;
+
+/**
+ * Bounds the concurrent calls performed via {@link AsyncConnectorFacade} towards each connector, when these run on
+ * virtual threads - hence with no pool limiting them: callers exceeding the limit wait for a permit on their own
+ * virtual thread.
+ */
+public class ConnectorSemaphores {
+
+    protected final int permits;
+
+    /**
+     * Semaphores by connector, dropped along with connectors no longer in use.
+     */
+    protected final Map<ConnectorFacade, Semaphore> semaphores = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public ConnectorSemaphores(final int permits) {
+        this.permits = Math.max(1, permits);
+    }
+
+    /**
+     * Performs the given call as soon as the given connector has a permit available.
+     *
+     * @param <T> result type
+     * @param connector connector to call
+     * @param call call to perform
+     * @return call result
+     */
+    public <T> T call(final ConnectorFacade connector, final Supplier<T> call) {
+        Semaphore semaphore = semaphores.computeIfAbsent(connector, k -> new Semaphore(permits));
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for connector " + connector);
+        }
+
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+}
@@ -18,31 +18,72 @@
  */
 package org.apache.syncope.core.provisioning.java;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.core.persistence.api.entity.AuditEntry;
 import org.apache.syncope.core.provisioning.api.AuditEntryImpl;
 import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.common.lib.types.AuditElements;
 import org.apache.syncope.common.lib.types.AuditElements.Result;
 import org.apache.syncope.common.lib.types.AuditLoggerName;
-import org.apache.syncope.common.lib.types.LoggerLevel;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.persistence.api.dao.AuditDAO;
 import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
 import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
+import org.apache.syncope.core.provisioning.java.audit.AsyncAuditWriter;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Transactional(readOnly = true)
 public class DefaultAuditManager implements AuditManager {
 
+    private static final List<String> MDC_KEYS = List.of(
+            AuditDAO.WHO_COLUMN,
+            AuditDAO.ENTITY_KEY_COLUMN,
+            AuditDAO.EVENT_TYPE_COLUMN,
+            AuditDAO.EVENT_CATEGORY_COLUMN,
+            AuditDAO.EVENT_SUBCATEGORY_COLUMN,
+            AuditDAO.EVENT_NAME_COLUMN,
+            AuditDAO.EVENT_RESULT_COLUMN);
+
     @Autowired
     private LoggerDAO loggerDAO;
 
+    /**
+     * When available, entries are written to the audit table in background rather than via the domain audit logger.
+     */
+    @Autowired(required = false)
+    private AsyncAuditWriter asyncAuditWriter;
+
+    /**
+     * Exposes the structured fields of the given audit entry via MDC, for audit appenders to store them separately
+     * from the serialized entry.
+     *
+     * @param auditEntry audit entry
+     */
+    protected static void putMDC(final AuditEntry auditEntry) {
+        AuditLoggerName logger = auditEntry.getLogger();
+        Map.of(
+                AuditDAO.WHO_COLUMN, StringUtils.defaultString(auditEntry.getWho()),
+                AuditDAO.ENTITY_KEY_COLUMN, StringUtils.defaultString(AuditEntryImpl.entityKey(auditEntry)),
+                AuditDAO.EVENT_TYPE_COLUMN, logger.getType().name(),
+                AuditDAO.EVENT_CATEGORY_COLUMN, StringUtils.defaultString(logger.getCategory()),
+                AuditDAO.EVENT_SUBCATEGORY_COLUMN, StringUtils.defaultString(logger.getSubcategory()),
+                AuditDAO.EVENT_NAME_COLUMN, StringUtils.defaultString(logger.getEvent()),
+                AuditDAO.EVENT_RESULT_COLUMN,
+                Optional.ofNullable(logger.getResult()).map(Result::name).orElse(StringUtils.EMPTY)).
+                forEach(MDC::put);
+    }
+
     @Override
     public boolean auditRequested(
             final String who,
@@ -51,28 +92,10 @@ public class DefaultAuditManager implements AuditManager {
             final String subcategory,
             final String event) {
 
-        AuditEntry auditEntry = AuditEntryImpl.builder().
-                who(who).
-                logger(new AuditLoggerName(type, category, subcategory, event, Result.SUCCESS)).
-                date(new Date()).
-                build();
-        org.apache.syncope.core.persistence.api.entity.Logger syncopeLogger =
-                loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        boolean auditRequested = syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG;
-
-        if (auditRequested) {
-            return true;
-        }
-
-        auditEntry = AuditEntryImpl.builder()
-                .who(who)
-                .logger(new AuditLoggerName(type, category, subcategory, event, Result.FAILURE))
-                .date(new Date())
-                .build();
-        syncopeLogger = loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        auditRequested = syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG;
-
-        return auditRequested;
+        return loggerDAO.isAuditEnabled(
+                new AuditLoggerName(type, category, subcategory, event, Result.SUCCESS).toLoggerName())
+                || loggerDAO.isAuditEnabled(
+                        new AuditLoggerName(type, category, subcategory, event, Result.FAILURE).toLoggerName());
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -117,21 +140,33 @@ public class DefaultAuditManager implements AuditManager {
                 date(new Date()).
                 build();
 
-        org.apache.syncope.core.persistence.api.entity.Logger syncopeLogger =
-                loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        if (syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG) {
-            Logger logger = LoggerFactory.getLogger(
-                    AuditLoggerName.getAuditLoggerName(AuthContextUtils.getDomain()));
+        String loggerName = auditEntry.getLogger().toLoggerName();
+        if (loggerDAO.isAuditEnabled(loggerName)) {
+            String domain = AuthContextUtils.getDomain();
+            Logger logger = LoggerFactory.getLogger(AuditLoggerName.getAuditLoggerName(domain));
             Logger eventLogger = LoggerFactory.getLogger(
-                    AuditLoggerName.getAuditEventLoggerName(AuthContextUtils.getDomain(), syncopeLogger.getKey()));
+                    AuditLoggerName.getAuditEventLoggerName(domain, loggerName));
             String serializedAuditEntry = POJOHelper.serialize(auditEntry);
 
-            if (throwable == null) {
-                logger.debug(serializedAuditEntry);
-                eventLogger.debug(serializedAuditEntry);
-            } else {
-                logger.debug(serializedAuditEntry, throwable);
-                eventLogger.debug(serializedAuditEntry, throwable);
+            putMDC(auditEntry);
+            try {
+                if (asyncAuditWriter == null) {
+                    if (throwable == null) {
+                        logger.debug(serializedAuditEntry);
+                    } else {
+                        logger.debug(serializedAuditEntry, throwable);
+                    }
+                } else {
+                    asyncAuditWriter.write(domain, auditEntry, serializedAuditEntry, throwable);
+                }
+
+                if (throwable == null) {
+                    eventLogger.debug(serializedAuditEntry);
+                } else {
+                    eventLogger.debug(serializedAuditEntry, throwable);
+                }
+            } finally {
+                MDC_KEYS.forEach(MDC::remove);
             }
         }
     }
@@ -20,11 +20,13 @@ package org.apache.syncope.core.provisioning.java;
 
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import javax.annotation.Resource;
 import javax.sql.DataSource;
+import org.apache.syncope.core.persistence.api.DomainHolder;
 import org.apache.syncope.core.provisioning.api.AnyObjectProvisioningManager;
 import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.core.provisioning.api.ConnIdBundleManager;
@@ -32,17 +34,25 @@ import org.apache.syncope.core.provisioning.api.GroupProvisioningManager;
 import org.apache.syncope.core.provisioning.api.IntAttrNameParser;
 import org.apache.syncope.core.provisioning.api.UserProvisioningManager;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
+import org.apache.syncope.core.provisioning.api.event.AfterHandlingDispatcher;
 import org.apache.syncope.core.provisioning.api.job.JobManager;
 import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationManager;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskExecutor;
+import org.apache.syncope.core.provisioning.java.audit.AsyncAuditWriter;
+import org.apache.syncope.core.provisioning.java.event.AfterHandlingDispatcherImpl;
 import org.apache.syncope.core.provisioning.java.job.AutowiringSpringBeanJobFactory;
 import org.apache.syncope.core.provisioning.java.job.JobManagerImpl;
 import org.apache.syncope.core.provisioning.java.job.SchedulerDBInit;
 import org.apache.syncope.core.provisioning.java.job.SchedulerShutdown;
+import org.apache.syncope.core.provisioning.java.job.notification.PooledMailSender;
+import org.apache.syncope.core.provisioning.java.propagation.ConnectorBulkheads;
 import org.apache.syncope.core.provisioning.java.propagation.PropagationManagerImpl;
+import org.apache.syncope.core.spring.VirtualThreadTaskExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.context.annotation.Bean;
@@ -57,6 +67,7 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
@@ -87,6 +98,12 @@ public class ProvisioningContext implements EnvironmentAware, SchedulingConfigur
     @Autowired
     private ApplicationContext ctx;
 
+    /**
+     * Condition holding when virtual threads are enabled and actually supported by the running JVM.
+     */
+    private static final String VIRTUAL_THREADS = "${virtualThreads.enabled:false} and "
+            + "T(org.apache.syncope.core.spring.VirtualThreadTaskExecutor).isSupported()";
+
     private Environment env;
 
     @Override
@@ -94,45 +111,77 @@ public class ProvisioningContext implements EnvironmentAware, SchedulingConfigur
         this.env = env;
     }
 
+    /**
+     * Virtual thread executor, if enabled via {@code virtualThreads.enabled} and supported by the running JVM.
+     *
+     * @param threadNamePrefix prefix for names of created threads
+     * @return virtual thread executor, or empty if platform threads are to be used
+     */
+    private Optional<Executor> virtualThreads(final String threadNamePrefix) {
+        return env.getProperty("virtualThreads.enabled", Boolean.class, false)
+                ? VirtualThreadTaskExecutor.of(threadNamePrefix).map(Executor.class::cast)
+                : Optional.empty();
+    }
+
     /**
      * Used by {@link AsyncConnectorFacade}.
      * Annotated as {@code @Primary} because it will be used by {@code @Async} in {@link AsyncConnectorFacade}.
+     * With virtual threads, concurrency is limited per connector by {@link ConnectorSemaphores}.
      *
      * @return executor
      */
     @Bean
     @Primary
     public Executor asyncConnectorFacadeExecutor() {
-        ThreadPoolTaskScheduler batchExecutor = new ThreadPoolTaskScheduler();
-        batchExecutor.setPoolSize(env.getProperty("asyncConnectorFacadeExecutor.poolSize", Integer.class));
-        batchExecutor.setThreadNamePrefix("AsyncConnectorFacade-");
-        batchExecutor.initialize();
-        return batchExecutor;
+        return virtualThreads("AsyncConnectorFacade-").orElseGet(() -> {
+            ThreadPoolTaskScheduler batchExecutor = new ThreadPoolTaskScheduler();
+            batchExecutor.setPoolSize(env.getProperty("asyncConnectorFacadeExecutor.poolSize", Integer.class));
+            batchExecutor.setThreadNamePrefix("AsyncConnectorFacade-");
+            batchExecutor.initialize();
+            return batchExecutor;
+        });
     }
 
     @Override
     public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
-        taskRegistrar.setScheduler(asyncConnectorFacadeExecutor());
+        Executor scheduler = asyncConnectorFacadeExecutor();
+        if (scheduler instanceof TaskScheduler) {
+            taskRegistrar.setScheduler(scheduler);
+        }
     }
 
     /**
      * Used by {@link org.apache.syncope.core.provisioning.java.propagation.PriorityPropagationTaskExecutor}.
+     * With virtual threads, concurrency is limited per connector by {@link ConnectorBulkheads}.
      *
      * @return executor
      */
     @Bean
     public Executor propagationTaskExecutorAsyncExecutor() {
-        ThreadPoolTaskExecutor propagationTaskExecutorAsyncExecutor = new ThreadPoolTaskExecutor();
-        propagationTaskExecutorAsyncExecutor.setCorePoolSize(
-                env.getProperty("propagationTaskExecutorAsyncExecutor.corePoolSize", Integer.class));
-        propagationTaskExecutorAsyncExecutor.setMaxPoolSize(
-                env.getProperty("propagationTaskExecutorAsyncExecutor.maxPoolSize", Integer.class));
-        propagationTaskExecutorAsyncExecutor.setQueueCapacity(
-                env.getProperty("propagationTaskExecutorAsyncExecutor.queueCapacity", Integer.class));
-        propagationTaskExecutorAsyncExecutor.setThreadNamePrefix("PropagationTaskExecutor-");
-        propagationTaskExecutorAsyncExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
-        propagationTaskExecutorAsyncExecutor.initialize();
-        return propagationTaskExecutorAsyncExecutor;
+        return virtualThreads("PropagationTaskExecutor-").orElseGet(() -> {
+            ThreadPoolTaskExecutor propagationTaskExecutorAsyncExecutor = new ThreadPoolTaskExecutor();
+            propagationTaskExecutorAsyncExecutor.setCorePoolSize(
+                    env.getProperty("propagationTaskExecutorAsyncExecutor.corePoolSize", Integer.class));
+            propagationTaskExecutorAsyncExecutor.setMaxPoolSize(
+                    env.getProperty("propagationTaskExecutorAsyncExecutor.maxPoolSize", Integer.class));
+            propagationTaskExecutorAsyncExecutor.setQueueCapacity(
+                    env.getProperty("propagationTaskExecutorAsyncExecutor.queueCapacity", Integer.class));
+            propagationTaskExecutorAsyncExecutor.setThreadNamePrefix("PropagationTaskExecutor-");
+            propagationTaskExecutorAsyncExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+            propagationTaskExecutorAsyncExecutor.initialize();
+            return propagationTaskExecutorAsyncExecutor;
+        });
+    }
+
+    @ConditionalOnMissingBean
+    @Bean
+    public AfterHandlingDispatcher afterHandlingDispatcher() {
+        return new AfterHandlingDispatcherImpl(
+                env.getProperty("afterHandlingDispatcher.poolSize", Integer.class, 5),
+                env.getProperty("afterHandlingDispatcher.queueCapacity", Integer.class, 10000),
+                env.getProperty("afterHandlingDispatcher.outboxEnabled", Boolean.class, false),
+                env.getProperty("afterHandlingDispatcher.outboxReplayAfter", Long.class, 300000L),
+                env.getProperty("afterHandlingDispatcher.outboxMaxAttempts", Integer.class, 5));
     }
 
     @Bean
@@ -204,6 +253,36 @@ public class ProvisioningContext implements EnvironmentAware, SchedulingConfigur
         return mailSender;
     }
 
+    @ConditionalOnMissingBean
+    @Bean
+    public PooledMailSender pooledMailSender(final JavaMailSender mailSender) {
+        return new PooledMailSender(
+                mailSender,
+                env.getProperty("smtpMaxConnections", Integer.class, 4),
+                env.getProperty("smtpMaxMessagesPerConnection", Integer.class, 100),
+                env.getProperty("smtpMaxRate", Double.class, 0D),
+                env.getProperty("smtpMaxRetries", Integer.class, 3),
+                env.getProperty("smtpRetryBackoff", Long.class, 1000L));
+    }
+
+    /**
+     * Used by {@link org.apache.syncope.core.provisioning.java.job.notification.DefaultNotificationJobDelegate}
+     * to send out notification tasks in parallel, up to {@code notificationJob.parallelism} at the same time.
+     *
+     * @return executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor notificationJobExecutor() {
+        int parallelism = Math.max(1, env.getProperty("notificationJob.parallelism", Integer.class, 1));
+
+        ThreadPoolTaskExecutor notificationJobExecutor = new ThreadPoolTaskExecutor();
+        notificationJobExecutor.setCorePoolSize(parallelism);
+        notificationJobExecutor.setMaxPoolSize(parallelism);
+        notificationJobExecutor.setThreadNamePrefix("NotificationJob-");
+        notificationJobExecutor.initialize();
+        return notificationJobExecutor;
+    }
+
     @ConditionalOnMissingBean
     @Bean
     public PropagationManager propagationManager() {
@@ -223,6 +302,28 @@ public class ProvisioningContext implements EnvironmentAware, SchedulingConfigur
         return new IntAttrNameParser();
     }
 
+    /**
+     * Used by {@link AsyncConnectorFacade} when running on virtual threads, allowing each connector as many concurrent
+     * calls as the platform pool had threads.
+     *
+     * @return per-connector semaphores
+     */
+    @ConditionalOnExpression(VIRTUAL_THREADS)
+    @Bean
+    public ConnectorSemaphores connectorSemaphores() {
+        return new ConnectorSemaphores(env.getProperty("asyncConnectorFacadeExecutor.poolSize", Integer.class, 10));
+    }
+
+    @ConditionalOnExpression("${propagationTaskExecutor.bulkheads.enabled:false} or (" + VIRTUAL_THREADS + ")")
+    @Bean
+    public ConnectorBulkheads connectorBulkheads() {
+        return new ConnectorBulkheads(
+                env.getProperty("propagationTaskExecutor.bulkheads.initialLimit", Integer.class, 5),
+                env.getProperty("propagationTaskExecutor.bulkheads.minLimit", Integer.class, 1),
+                env.getProperty("propagationTaskExecutor.bulkheads.maxLimit", Integer.class, 25),
+                env.getProperty("propagationTaskExecutor.bulkheads.queueCapacity", Integer.class, 100));
+    }
+
     @Bean
     public PropagationTaskExecutor propagationTaskExecutor()
             throws ClassNotFoundException, InstantiationException, IllegalAccessException, NoSuchMethodException,
@@ -285,4 +386,24 @@ public class ProvisioningContext implements EnvironmentAware, SchedulingConfigur
         return (AuditManager) Class.forName(env.getProperty("auditManager")).
                 getConstructor().newInstance();
     }
+
+    /**
+     * Used by {@link DefaultAuditManager} to write audit entries in background, when enabled.
+     *
+     * @param domainHolder domain holder
+     * @return async audit writer
+     */
+    @ConditionalOnProperty(name = "audit.async.enabled", havingValue = "true")
+    @Bean
+    public AsyncAuditWriter asyncAuditWriter(final DomainHolder domainHolder) {
+        AsyncAuditWriter asyncAuditWriter = new AsyncAuditWriter(
+                domainHolder,
+                env.getProperty("audit.async.bufferSize", Integer.class, 8192),
+                env.getProperty("audit.async.flushSize", Integer.class, 500),
+                env.getProperty("audit.async.flushLatency", Long.class, 1000L),
+                env.getProperty("audit.async.overflowPolicy",
+                        AsyncAuditWriter.OverflowPolicy.class, AsyncAuditWriter.OverflowPolicy.BLOCK));
+        asyncAuditWriter.start();
+        return asyncAuditWriter;
+    }
 }
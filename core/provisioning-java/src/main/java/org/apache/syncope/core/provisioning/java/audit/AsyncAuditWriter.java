@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.audit;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.common.lib.types.AuditLoggerName;
+import org.apache.syncope.core.persistence.api.DomainHolder;
+import org.apache.syncope.core.persistence.api.dao.AuditDAO;
+import org.apache.syncope.core.persistence.api.entity.AuditEntry;
+import org.apache.syncope.core.provisioning.api.AuditEntryImpl;
+import org.apache.syncope.core.provisioning.java.utils.RingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes audit entries to the audit table of each domain from a background thread, so that callers only pay for
+ * enqueuing entries in a bounded {@link RingBuffer}.
+ *
+ * Entries are flushed as JDBC batch inserts, one transaction per domain, as soon as {@code flushSize} entries are
+ * available or the oldest pending entry has been waiting for {@code flushLatency} milliseconds; when there is nothing
+ * to flush, the background thread is parked until an entry is enqueued.
+ */
+public class AsyncAuditWriter {
+
+    /**
+     * What to do when an entry is written while the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discard the entry, keeping track of it in {@link AsyncAuditWriter#getDropped()}.
+         */
+        DROP,
+        /**
+         * Wait until the background thread makes room for the entry.
+         */
+        BLOCK
+
+    }
+
+    protected static final Logger LOG = LoggerFactory.getLogger(AsyncAuditWriter.class);
+
+    protected static final String INSERT = "INSERT INTO " + AuditDAO.TABLE + '('
+            + String.join(",",
+                    AuditDAO.EVENT_DATE_COLUMN,
+                    "LOGGER_LEVEL",
+                    "LOGGER",
+                    AuditDAO.MESSAGE_COLUMN,
+                    "THROWABLE",
+                    AuditDAO.WHO_COLUMN,
+                    AuditDAO.ENTITY_KEY_COLUMN,
+                    AuditDAO.EVENT_TYPE_COLUMN,
+                    AuditDAO.EVENT_CATEGORY_COLUMN,
+                    AuditDAO.EVENT_SUBCATEGORY_COLUMN,
+                    AuditDAO.EVENT_NAME_COLUMN,
+                    AuditDAO.EVENT_RESULT_COLUMN)
+            + ") VALUES (?,?,?,?,?,?,?,?,?,?,?,?)";
+
+    /**
+     * How long callers wait before trying again to enqueue an entry, when the buffer is full.
+     */
+    protected static final long FULL_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    protected static final long SHUTDOWN_TIMEOUT = 30000L;
+
+    protected static class Record {
+
+        protected final String domain;
+
+        protected final Object[] values;
+
+        protected Record(final String domain, final Object[] values) {
+            this.domain = domain;
+            this.values = values;
+        }
+    }
+
+    protected final DomainHolder domainHolder;
+
+    protected final RingBuffer<Record> buffer;
+
+    protected final int flushSize;
+
+    protected final long flushLatencyNanos;
+
+    protected final OverflowPolicy overflowPolicy;
+
+    protected final Map<String, TransactionTemplate> txTemplates = new ConcurrentHashMap<>();
+
+    protected final Thread flusher;
+
+    protected volatile boolean running = true;
+
+    /**
+     * Whether the background thread is about to park, hence needs to be unparked when an entry is enqueued.
+     */
+    protected volatile boolean idle;
+
+    protected final AtomicLong written = new AtomicLong();
+
+    protected final AtomicLong dropped = new AtomicLong();
+
+    protected final AtomicLong failed = new AtomicLong();
+
+    protected final AtomicLong flushes = new AtomicLong();
+
+    protected final AtomicLong totalFlushNanos = new AtomicLong();
+
+    protected volatile long lastFlushNanos;
+
+    public AsyncAuditWriter(
+            final DomainHolder domainHolder,
+            final int bufferSize,
+            final int flushSize,
+            final long flushLatency,
+            final OverflowPolicy overflowPolicy) {
+
+        if (flushSize <= 0 || flushLatency <= 0) {
+            throw new IllegalArgumentException("Flush size and latency must be positive");
+        }
+
+        this.domainHolder = domainHolder;
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.flushSize = flushSize;
+        this.flushLatencyNanos = TimeUnit.MILLISECONDS.toNanos(flushLatency);
+        this.overflowPolicy = overflowPolicy;
+
+        this.flusher = new Thread(this::run, "AsyncAuditWriter");
+        this.flusher.setDaemon(true);
+    }
+
+    public void start() {
+        flusher.start();
+    }
+
+    protected static Object[] values(
+            final String domain,
+            final AuditEntry auditEntry,
+            final String serializedAuditEntry,
+            final Throwable throwable) {
+
+        // missing values are written as empty strings, as done via MDC by DefaultAuditManager
+        AuditLoggerName logger = auditEntry.getLogger();
+        return new Object[] {
+            new Timestamp(auditEntry.getDate().getTime()),
+            "DEBUG",
+            AuditLoggerName.getAuditLoggerName(domain),
+            serializedAuditEntry,
+            throwable == null ? null : ExceptionUtils.getStackTrace(throwable),
+            StringUtils.defaultString(auditEntry.getWho()),
+            StringUtils.defaultString(AuditEntryImpl.entityKey(auditEntry)),
+            logger.getType().name(),
+            StringUtils.defaultString(logger.getCategory()),
+            StringUtils.defaultString(logger.getSubcategory()),
+            StringUtils.defaultString(logger.getEvent()),
+            Optional.ofNullable(logger.getResult()).map(AuditElements.Result::name).orElse(StringUtils.EMPTY)
+        };
+    }
+
+    /**
+     * Enqueues the given audit entry for writing; once {@link #drain()} was invoked, entries are written
+     * synchronously.
+     *
+     * @param domain domain
+     * @param auditEntry audit entry
+     * @param serializedAuditEntry audit entry, as serialized for the {@code MESSAGE} column
+     * @param throwable optional throwable
+     */
+    public void write(
+            final String domain,
+            final AuditEntry auditEntry,
+            final String serializedAuditEntry,
+            final Throwable throwable) {
+
+        Record record = new Record(domain, values(domain, auditEntry, serializedAuditEntry, throwable));
+
+        boolean enqueued = running && buffer.offer(record);
+        while (!enqueued && running && overflowPolicy == OverflowPolicy.BLOCK) {
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+            enqueued = buffer.offer(record);
+        }
+
+        if (enqueued) {
+            if (idle) {
+                LockSupport.unpark(flusher);
+            }
+        } else {
+            if (running) {
+                dropped.incrementAndGet();
+                LOG.debug("Audit buffer full, dropping entry {}", serializedAuditEntry);
+            } else {
+                flush(List.of(record));
+            }
+        }
+    }
+
+    protected void run() {
+        List<Record> batch = new ArrayList<>(flushSize);
+        long deadline = 0;
+        while (running || !buffer.isEmpty()) {
+            Record record = buffer.poll();
+            if (record != null) {
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + flushLatencyNanos;
+                }
+                batch.add(record);
+            }
+
+            if (batch.size() >= flushSize
+                    || (record == null && !batch.isEmpty() && (!running || System.nanoTime() - deadline >= 0))) {
+
+                flush(batch);
+                batch.clear();
+            } else if (record == null) {
+                // entries enqueued after this check find idle set, and unpark this thread
+                idle = true;
+                if (running && buffer.isEmpty()) {
+                    if (batch.isEmpty()) {
+                        LockSupport.park(this);
+                    } else {
+                        LockSupport.parkNanos(this, deadline - System.nanoTime());
+                    }
+                }
+                idle = false;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    protected TransactionTemplate txTemplate(final String domain, final DataSource dataSource) {
+        return txTemplates.computeIfAbsent(
+                domain, k -> new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    protected void flush(final List<Record> records) {
+        long start = System.nanoTime();
+
+        Map<String, List<Object[]>> byDomain = new LinkedHashMap<>();
+        records.forEach(record -> byDomain.computeIfAbsent(record.domain, k -> new ArrayList<>()).add(record.values));
+
+        byDomain.forEach((domain, rows) -> {
+            try {
+                DataSource dataSource = domainHolder.getDomains().get(domain);
+                if (dataSource == null) {
+                    throw new IllegalArgumentException("Unknown domain: " + domain);
+                }
+
+                txTemplate(domain, dataSource).executeWithoutResult(
+                        status -> new JdbcTemplate(dataSource).batchUpdate(INSERT, rows));
+                written.addAndGet(rows.size());
+            } catch (Exception e) {
+                failed.addAndGet(rows.size());
+                LOG.error("While writing {} audit entries for domain {}", rows.size(), domain, e);
+            }
+        });
+
+        lastFlushNanos = System.nanoTime() - start;
+        totalFlushNanos.addAndGet(lastFlushNanos);
+        flushes.incrementAndGet();
+        LOG.debug("Flushed {} audit entries in {} ms", records.size(), getLastFlushTime());
+    }
+
+    /**
+     * Stops accepting entries in the buffer and waits for the pending ones to be written.
+     */
+    public void drain() {
+        if (!running) {
+            return;
+        }
+
+        LOG.info("Draining {} pending audit entries", buffer.size());
+        running = false;
+        LockSupport.unpark(flusher);
+        if (flusher.isAlive()) {
+            try {
+                flusher.join(SHUTDOWN_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // entries enqueued while stopping, or left over if the background thread did not complete in time
+        List<Record> remaining = new ArrayList<>();
+        for (Record record = buffer.poll(); record != null; record = buffer.poll()) {
+            remaining.add(record);
+        }
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    /**
+     * @return duration of the last flush, in milliseconds
+     */
+    public long getLastFlushTime() {
+        return TimeUnit.NANOSECONDS.toMillis(lastFlushNanos);
+    }
+
+    /**
+     * @return total time spent flushing, in milliseconds
+     */
+    public long getTotalFlushTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalFlushNanos.get());
+    }
+}
@@ -47,6 +47,7 @@ import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.RelationshipTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
@@ -153,6 +154,29 @@ abstract class AbstractAnyDataBinder {
         }
     }
 
+    /**
+     * Collects what the given update request changes, so that only the dynamic membership conditions referencing
+     * any of that are evaluated again.
+     *
+     * @param anyUR update request
+     * @return what the given update request changes
+     */
+    protected static SearchCondRefs getChanged(final AnyUR anyUR) {
+        SearchCondRefs changed = new SearchCondRefs();
+
+        if (anyUR.getRealm() != null && StringUtils.isNotBlank(anyUR.getRealm().getValue())) {
+            changed.field("realm");
+        }
+        if (!anyUR.getResources().isEmpty()) {
+            changed.resources();
+        }
+        anyUR.getPlainAttrs().stream().
+                filter(patch -> patch.getAttr() != null).
+                forEach(patch -> changed.plainSchema(patch.getAttr().getSchema()));
+
+        return changed;
+    }
+
     protected PlainSchema getPlainSchema(final String schemaName) {
         PlainSchema schema = null;
         if (StringUtils.isNotBlank(schemaName)) {
@@ -42,6 +42,7 @@ import org.apache.syncope.common.lib.types.PatchOperation;
 import org.apache.syncope.core.provisioning.api.PropagationByResource;
 import org.apache.syncope.common.lib.types.ResourceOperation;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
@@ -434,7 +435,17 @@ public class AnyObjectDataBinderImpl extends AbstractAnyDataBinder implements An
                     propByRes.add(ResourceOperation.UPDATE, entry.getKey());
                 });
 
-        Pair<Set<String>, Set<String>> dynGroupMembs = anyObjectDAO.saveAndGetDynGroupMembs(anyObject);
+        SearchCondRefs changed = getChanged(anyObjectUR);
+        if (anyObjectUR.getName() != null && StringUtils.isNotBlank(anyObjectUR.getName().getValue())) {
+            changed.field("name");
+        }
+        if (!anyObjectUR.getRelationships().isEmpty()) {
+            changed.relationships();
+        }
+        if (!anyObjectUR.getMemberships().isEmpty()) {
+            changed.memberships().resources();
+        }
+        Pair<Set<String>, Set<String>> dynGroupMembs = anyObjectDAO.saveAndGetDynGroupMembs(anyObject, changed);
 
         // finally check if any resource assignment is to be processed due to dynamic group membership change
         dynGroupMembs.getLeft().stream().
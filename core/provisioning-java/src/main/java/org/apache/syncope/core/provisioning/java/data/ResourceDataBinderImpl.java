@@ -135,6 +135,8 @@ public class ResourceDataBinderImpl implements ResourceDataBinder {
 
         resource.setRandomPwdIfNotProvided(resourceTO.isRandomPwdIfNotProvided());
 
+        resource.setTrustedPropagation(resourceTO.isTrustedPropagation());
+
         // 1. add or update all (valid) provisions from TO
         resourceTO.getProvisions().forEach(provisionTO -> {
             AnyType anyType = anyTypeDAO.find(provisionTO.getAnyType());
@@ -658,6 +660,8 @@ public class ResourceDataBinderImpl implements ResourceDataBinder {
 
         resourceTO.setRandomPwdIfNotProvided(resource.isRandomPwdIfNotProvided());
 
+        resourceTO.setTrustedPropagation(resource.isTrustedPropagation());
+
         resourceTO.setCreateTraceLevel(resource.getCreateTraceLevel());
         resourceTO.setUpdateTraceLevel(resource.getUpdateTraceLevel());
         resourceTO.setDeleteTraceLevel(resource.getDeleteTraceLevel());
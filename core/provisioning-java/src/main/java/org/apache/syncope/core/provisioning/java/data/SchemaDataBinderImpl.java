@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.provisioning.java.data;
 
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.syncope.core.provisioning.api.data.SchemaDataBinder;
 import org.apache.commons.lang3.StringUtils;
@@ -254,8 +256,14 @@ public class SchemaDataBinderImpl implements SchemaDataBinder {
             throw scce;
         }
 
+        boolean reindex = schema.isIndexed() != schemaTO.isIndexed()
+                || !schemaTO.getExpression().equals(schema.getExpression())
+                || (schemaTO.isIndexed() && !Objects.equals(schemaTO.getAnyTypeClass(),
+                        Optional.ofNullable(schema.getAnyTypeClass()).map(AnyTypeClass::getKey).orElse(null)));
+
         schema.setKey(schemaTO.getKey());
         schema.setExpression(schemaTO.getExpression());
+        schema.setIndexed(schemaTO.isIndexed());
 
         labels(schemaTO, schema);
 
@@ -278,6 +286,10 @@ public class SchemaDataBinderImpl implements SchemaDataBinder {
             merged.setAnyTypeClass(null);
         }
 
+        if (reindex) {
+            derSchemaDAO.reindex(merged);
+        }
+
         return merged;
     }
 
@@ -301,6 +313,7 @@ public class SchemaDataBinderImpl implements SchemaDataBinder {
         DerSchemaTO schemaTO = new DerSchemaTO();
         schemaTO.setKey(schema.getKey());
         schemaTO.setExpression(schema.getExpression());
+        schemaTO.setIndexed(schema.isIndexed());
 
         labels(schema, schemaTO);
 
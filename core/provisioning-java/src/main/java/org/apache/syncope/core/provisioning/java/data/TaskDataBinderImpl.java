@@ -389,7 +389,9 @@ public class TaskDataBinderImpl implements TaskDataBinder {
                 propagationTaskTO.setOperation(propagationTask.getOperation());
                 propagationTaskTO.setConnObjectKey(propagationTask.getConnObjectKey());
                 propagationTaskTO.setOldConnObjectKey(propagationTask.getOldConnObjectKey());
-                propagationTaskTO.setAttributes(propagationTask.getSerializedAttributes());
+                if (details) {
+                    propagationTaskTO.setAttributes(propagationTask.getSerializedAttributes());
+                }
                 propagationTaskTO.setResource(propagationTask.getResource().getKey());
                 propagationTaskTO.setObjectClassName(propagationTask.getObjectClassName());
                 propagationTaskTO.setAnyTypeKind(propagationTask.getAnyTypeKind());
@@ -59,6 +59,7 @@ import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.ApplicationDAO;
 import org.apache.syncope.core.persistence.api.dao.RoleDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCondRefs;
 import org.apache.syncope.core.persistence.api.entity.AccessToken;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.Entity;
@@ -647,7 +648,32 @@ public class UserDataBinderImpl extends AbstractAnyDataBinder implements UserDat
                     propByRes.add(ResourceOperation.UPDATE, entry.getKey());
                 });
 
-        Pair<Set<String>, Set<String>> dynGroupMembs = userDAO.saveAndGetDynGroupMembs(user);
+        SearchCondRefs changed = getChanged(userUR);
+        if (userUR.getPassword() != null && StringUtils.isNotBlank(userUR.getPassword().getValue())) {
+            changed.field("password").field("cipherAlgorithm").field("mustChangePassword").field("changePwdDate");
+        }
+        if (userUR.getUsername() != null && StringUtils.isNotBlank(userUR.getUsername().getValue())) {
+            changed.field("username");
+        }
+        if (userUR.getSecurityQuestion() != null) {
+            changed.field("securityQuestion").field("securityAnswer");
+        }
+        if (userUR.getMustChangePassword() != null) {
+            changed.field("mustChangePassword");
+        }
+        if (!userUR.getRoles().isEmpty()) {
+            changed.roles();
+        }
+        if (!userUR.getRelationships().isEmpty()) {
+            changed.relationships();
+        }
+        if (!userUR.getMemberships().isEmpty()) {
+            changed.memberships().resources();
+        }
+        if (!userUR.getLinkedAccounts().isEmpty()) {
+            changed.resources();
+        }
+        Pair<Set<String>, Set<String>> dynGroupMembs = userDAO.saveAndGetDynGroupMembs(user, changed);
 
         // finally check if any resource assignment is to be processed due to dynamic group membership change
         dynGroupMembs.getLeft().stream().
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.event;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.syncope.core.persistence.api.DomainHolder;
+import org.apache.syncope.core.persistence.api.dao.OutboxEventDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.OutboxEvent;
+import org.apache.syncope.core.provisioning.api.AuditManager;
+import org.apache.syncope.core.provisioning.api.event.AfterHandlingDispatcher;
+import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
+import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Handles notification / audit events via a bounded queue served by a pool of worker threads, where notification
+ * tasks and audit entries are created in new transactions.
+ *
+ * When the outbox is enabled, each event is also stored in a new read-write transaction, and removed once handled;
+ * events left over by Core instances stopped before handling them are periodically claimed and handled again, hence
+ * delivery is at least once. Events claimed {@code outboxMaxAttempts} times are parked: they are left in the outbox,
+ * for inspection, but not handled anymore.
+ */
+public class AfterHandlingDispatcherImpl implements AfterHandlingDispatcher {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(AfterHandlingDispatcher.class);
+
+    protected static final int REPLAY_CHUNK_SIZE = 100;
+
+    protected static final long SHUTDOWN_TIMEOUT = 30L;
+
+    @Autowired
+    protected NotificationManager notificationManager;
+
+    @Autowired
+    protected AuditManager auditManager;
+
+    @Autowired
+    protected OutboxEventDAO outboxEventDAO;
+
+    @Autowired
+    protected EntityFactory entityFactory;
+
+    @Autowired
+    protected DomainHolder domainHolder;
+
+    protected final boolean outboxEnabled;
+
+    protected final long outboxReplayAfter;
+
+    protected final int outboxMaxAttempts;
+
+    protected final ThreadPoolExecutor executor;
+
+    public AfterHandlingDispatcherImpl(
+            final int poolSize,
+            final int queueCapacity,
+            final boolean outboxEnabled,
+            final long outboxReplayAfter,
+            final int outboxMaxAttempts) {
+
+        this.outboxEnabled = outboxEnabled;
+        this.outboxReplayAfter = outboxReplayAfter;
+        this.outboxMaxAttempts = outboxMaxAttempts;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "AfterHandlingDispatcher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    // when the queue is full, callers wait for room to be available
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Dispatcher was shut down");
+                    }
+                    try {
+                        pool.getQueue().put(runnable);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for queue", e);
+                    }
+                });
+    }
+
+    protected void handle(final String domain, final AfterHandlingEvent event, final String outboxKey) {
+        try {
+            AuthContextUtils.callAsAdmin(domain, () -> {
+                notificationManager.createTasks(event);
+                auditManager.audit(event);
+                if (outboxKey != null) {
+                    outboxEventDAO.delete(outboxKey);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            LOG.error("While handling notification / audit events for domain {}", domain, e);
+        }
+    }
+
+    protected void submit(final String domain, final AfterHandlingEvent event, final String outboxKey) {
+        try {
+            executor.execute(() -> handle(domain, event, outboxKey));
+        } catch (RejectedExecutionException e) {
+            LOG.error("Could not dispatch notification / audit event {} {} {} {} {} for domain {}",
+                    event.getType(), event.getCategory(), event.getSubcategory(), event.getEvent(),
+                    event.getCondition(), domain, e);
+        }
+    }
+
+    /**
+     * Stores the given event in a new read-write transaction, as the current one might be read-only.
+     *
+     * @param domain domain
+     * @param event event to store
+     * @return stored event key, or null if the event could not be serialized
+     */
+    protected String store(final String domain, final AfterHandlingEvent event) {
+        try {
+            byte[] payload = SerializationUtils.serialize(event);
+
+            TransactionTemplate txTemplate = new TransactionTemplate(ApplicationContextProvider.getApplicationContext().
+                    getBean(domain + "TransactionManager", PlatformTransactionManager.class));
+            txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            txTemplate.setReadOnly(false);
+            return txTemplate.execute(status -> {
+                OutboxEvent outboxEvent = entityFactory.newEntity(OutboxEvent.class);
+                outboxEvent.setCreationDate(new Date());
+                outboxEvent.setPayload(payload);
+                return outboxEventDAO.save(outboxEvent).getKey();
+            });
+        } catch (SerializationException e) {
+            LOG.warn("Could not serialize event {} {} {} {}, it will not be stored",
+                    event.getType(), event.getCategory(), event.getSubcategory(), event.getEvent(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public void dispatch(final AfterHandlingEvent event) {
+        String domain = AuthContextUtils.getDomain();
+        if (!outboxEnabled) {
+            submit(domain, event, null);
+            return;
+        }
+
+        String outboxKey = store(domain, event);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(domain, event, outboxKey);
+            return;
+        }
+
+        // hand the event over only once the current transaction is completed, either way
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(final int status) {
+                submit(domain, event, outboxKey);
+            }
+        });
+    }
+
+    /**
+     * Handles the stored events left over by Core instances which stopped before handling them.
+     */
+    @Scheduled(
+            initialDelayString = "${afterHandlingDispatcher.outboxReplayInterval:60000}",
+            fixedDelayString = "${afterHandlingDispatcher.outboxReplayInterval:60000}")
+    public void replay() {
+        if (!outboxEnabled || executor.isShutdown()) {
+            return;
+        }
+
+        Date before = new Date(System.currentTimeMillis() - outboxReplayAfter);
+        domainHolder.getDomains().keySet().forEach(domain -> {
+            try {
+                AuthContextUtils.callAsAdmin(domain, () -> {
+                    outboxEventDAO.findStale(before, outboxMaxAttempts, REPLAY_CHUNK_SIZE).stream().
+                            filter(key -> outboxEventDAO.claim(key, before)).
+                            map(outboxEventDAO::find).
+                            filter(Objects::nonNull).
+                            forEach(outboxEvent -> {
+                                if (outboxEvent.getAttempts() >= outboxMaxAttempts) {
+                                    LOG.warn("Handling stale event {} for domain {} for the last time: "
+                                            + "it will be parked if not handled",
+                                            outboxEvent.getKey(), domain);
+                                } else {
+                                    LOG.info("Handling stale event {} for domain {}", outboxEvent.getKey(), domain);
+                                }
+                                submit(domain,
+                                        SerializationUtils.deserialize(outboxEvent.getPayload()),
+                                        outboxEvent.getKey());
+                            });
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                LOG.error("While handling stale events for domain {}", domain, e);
+            }
+        });
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting events and waits for the pending ones to be handled.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                LOG.warn("{} notification / audit events were not handled before shutdown",
+                        executor.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
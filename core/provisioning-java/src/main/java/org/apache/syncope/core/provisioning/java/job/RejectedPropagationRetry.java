@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.syncope.common.lib.types.ExecStatus;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskExecutor;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.provisioning.java.propagation.PriorityPropagationTaskExecutor;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Executes again the propagation tasks which were rejected because their connector had no room left, as reported by
+ * {@link PriorityPropagationTaskExecutor}; tasks are executed one at a time, in chunks of {@link #CHUNK_SIZE}.
+ */
+public class RejectedPropagationRetry extends AbstractSchedTaskJobDelegate {
+
+    protected static final int CHUNK_SIZE = 100;
+
+    @Autowired
+    private PropagationTaskExecutor taskExecutor;
+
+    private static PropagationTaskInfo taskInfo(final PropagationTask task) {
+        PropagationTaskInfo taskInfo = new PropagationTaskInfo(task.getResource());
+        taskInfo.setKey(task.getKey());
+        taskInfo.setOperation(task.getOperation());
+        taskInfo.setConnObjectKey(task.getConnObjectKey());
+        taskInfo.setOldConnObjectKey(task.getOldConnObjectKey());
+        taskInfo.setAttributes(task.getSerializedAttributes());
+        taskInfo.setObjectClassName(task.getObjectClassName());
+        taskInfo.setAnyTypeKind(task.getAnyTypeKind());
+        taskInfo.setAnyType(task.getAnyType());
+        taskInfo.setEntityKey(task.getEntityKey());
+        return taskInfo;
+    }
+
+    @Override
+    protected String doExecute(final boolean dryRun) throws JobExecutionException {
+        Set<String> processed = new HashSet<>();
+        int succeeded = 0;
+        int failed = 0;
+
+        List<PropagationTask> tasks;
+        do {
+            tasks = taskDAO.findByLatestExec(
+                    ExecStatus.NOT_ATTEMPTED.name(), PriorityPropagationTaskExecutor.REJECTED_MESSAGE, CHUNK_SIZE);
+            tasks.removeIf(task -> !processed.add(task.getKey()));
+
+            for (PropagationTask task : tasks) {
+                if (interrupt) {
+                    break;
+                }
+
+                status.set("Retrying propagation task " + task.getKey() + " on " + task.getResource().getKey());
+                if (dryRun) {
+                    continue;
+                }
+
+                TaskExec execution = taskExecutor.execute(taskInfo(task), AuthContextUtils.getUsername());
+
+                // make sure that the rejection is superseded, even when trace level does not require to store
+                if (execution.getTask() == null) {
+                    execution.setTask(task);
+                    task.add(execution);
+                    taskDAO.save(task);
+                }
+
+                if (ExecStatus.SUCCESS.name().equals(execution.getStatus())) {
+                    succeeded++;
+                } else {
+                    failed++;
+                }
+            }
+        } while (!tasks.isEmpty() && !interrupt && !dryRun);
+        interrupted = interrupt;
+
+        LOG.debug("Retried {} rejected propagation tasks: {} succeeded, {} did not",
+                processed.size(), succeeded, failed);
+        return "Retried " + processed.size() + " rejected propagation tasks: "
+                + succeeded + " succeeded, " + failed + " did not";
+    }
+}
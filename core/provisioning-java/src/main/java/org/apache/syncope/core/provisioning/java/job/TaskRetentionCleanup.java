@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.apache.syncope.common.keymaster.client.api.ConfParamOps;
+import org.apache.syncope.common.lib.types.TaskType;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Removes task executions - and propagation tasks whose executions are all gone - older than the retention period
+ * configured for their task type, via the {@code tasks.retention.days.<TYPE>} configuration parameters; the period
+ * can be set per resource via {@code tasks.retention.days.<TYPE>.<RESOURCE>}.
+ *
+ * Deletions are performed in chunks of {@code tasks.retention.chunkSize} rows, each in its own transaction, so that
+ * locks are held for short time only.
+ */
+public class TaskRetentionCleanup extends AbstractSchedTaskJobDelegate {
+
+    public static final String RETENTION_DAYS = "tasks.retention.days.";
+
+    public static final String CHUNK_SIZE = "tasks.retention.chunkSize";
+
+    @Autowired
+    private ConfParamOps confParamOps;
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    private TransactionTemplate txTemplate;
+
+    private int chunkSize;
+
+    private static Optional<Date> cutoff(final Map<String, Object> conf, final String key) {
+        return Optional.ofNullable(conf.get(key)).map(value -> value instanceof Number
+                ? ((Number) value).longValue()
+                : Long.parseLong(value.toString().trim())).
+                map(days -> new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days)));
+    }
+
+    private int purge(final IntSupplier chunk) {
+        int total = 0;
+        int purged;
+        do {
+            purged = txTemplate.execute(txStatus -> chunk.getAsInt());
+            total += purged;
+        } while (purged >= chunkSize && !interrupt);
+
+        return total;
+    }
+
+    @Override
+    protected String doExecute(final boolean dryRun) throws JobExecutionException {
+        String domain = AuthContextUtils.getDomain();
+        Map<String, Object> conf = confParamOps.list(domain);
+
+        txTemplate = new TransactionTemplate(ApplicationContextProvider.getApplicationContext().
+                getBean(domain + "TransactionManager", PlatformTransactionManager.class));
+        txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        chunkSize = Optional.ofNullable(conf.get(CHUNK_SIZE)).
+                map(value -> Integer.valueOf(value.toString().trim())).orElse(1000);
+
+        int tasks = 0;
+        int execs = 0;
+        for (TaskType type : TaskType.values()) {
+            if (interrupt) {
+                break;
+            }
+
+            if (type == TaskType.PROPAGATION || type == TaskType.PUSH || type == TaskType.PULL) {
+                for (ExternalResource resource : resourceDAO.findAll()) {
+                    Optional<Date> cutoff = cutoff(conf, RETENTION_DAYS + type.name() + '.' + resource.getKey()).
+                            or(() -> cutoff(conf, RETENTION_DAYS + type.name()));
+                    if (cutoff.isEmpty() || interrupt) {
+                        continue;
+                    }
+
+                    status.set("Purging " + type + " tasks for " + resource.getKey() + " before " + cutoff.get());
+                    if (!dryRun) {
+                        if (type == TaskType.PROPAGATION) {
+                            tasks += purge(() -> taskDAO.purgePropagations(resource, cutoff.get(), chunkSize));
+                        }
+                        execs += purge(() -> taskExecDAO.purge(type, resource, cutoff.get(), chunkSize));
+                    }
+                }
+            } else {
+                Optional<Date> cutoff = cutoff(conf, RETENTION_DAYS + type.name());
+                if (cutoff.isPresent()) {
+                    status.set("Purging " + type + " task executions before " + cutoff.get());
+                    if (!dryRun) {
+                        execs += purge(() -> taskExecDAO.purge(type, null, cutoff.get(), chunkSize));
+                    }
+                }
+            }
+        }
+        interrupted = interrupt;
+
+        LOG.debug("Successfully deleted {} propagation tasks and {} task executions", tasks, execs);
+        return "Deleted " + tasks + " propagation tasks and " + execs + " task executions";
+    }
+}
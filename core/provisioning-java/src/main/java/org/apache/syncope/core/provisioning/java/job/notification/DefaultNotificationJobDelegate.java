@@ -23,7 +23,11 @@ import java.util.Date;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import javax.annotation.Resource;
 import javax.mail.Session;
 import javax.mail.internet.MimeMessage;
 import org.apache.commons.lang3.BooleanUtils;
@@ -41,6 +45,7 @@ import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.core.provisioning.api.notification.NotificationJobDelegate;
 import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
+import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.spring.security.Encryptor;
 import org.quartz.JobExecutionException;
@@ -51,8 +56,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
 public class DefaultNotificationJobDelegate implements InitializingBean, NotificationJobDelegate {
@@ -65,6 +74,9 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private PooledMailSender pooledMailSender;
+
     @Autowired
     private EntityFactory entityFactory;
 
@@ -74,11 +86,17 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
     @Autowired
     private NotificationManager notificationManager;
 
+    /**
+     * Sends out notification tasks at the same time, up to its pool size.
+     */
+    @Resource(name = "notificationJobExecutor")
+    private ThreadPoolTaskExecutor notificationJobExecutor;
+
     private final AtomicReference<String> status = new AtomicReference<>();
 
-    private boolean interrupt;
+    private volatile boolean interrupt;
 
-    private boolean interrupted;
+    private volatile boolean interrupted;
 
     @Override
     public void afterPropertiesSet() throws Exception {
@@ -165,14 +183,14 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
 
             for (String to : task.getRecipients()) {
                 try {
-                    MimeMessage message = mailSender.createMimeMessage();
+                    MimeMessage message = pooledMailSender.createMimeMessage();
                     MimeMessageHelper helper = new MimeMessageHelper(message, true);
                     helper.setTo(to);
                     helper.setFrom(task.getSender());
                     helper.setSubject(task.getSubject());
                     helper.setText(task.getTextBody(), task.getHtmlBody());
 
-                    mailSender.send(message);
+                    pooledMailSender.send(message);
 
                     execution.setStatus(NotificationJob.Status.SENT.name());
 
@@ -210,6 +228,9 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
                             task,
                             "Successfully sent notification to " + to);
                 } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
                     LOG.error("Could not send e-mail", e);
 
                     execution.setStatus(NotificationJob.Status.NOT_SENT.name());
@@ -255,10 +276,14 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
 
         status.set("Sending out " + tasks.size() + " notifications");
 
-        for (int i = 0; i < tasks.size() && !interrupt; i++) {
-            LOG.debug("Found notification task {} to be executed: starting...", tasks.get(i));
-            executeSingle(tasks.get(i), executor);
-            LOG.debug("Notification task {} executed", tasks.get(i));
+        if (notificationJobExecutor.getMaxPoolSize() > 1 && tasks.size() > 1) {
+            executeParallel(tasks.stream().map(NotificationTask::getKey).collect(Collectors.toList()), executor);
+        } else {
+            for (int i = 0; i < tasks.size() && !interrupt; i++) {
+                LOG.debug("Found notification task {} to be executed: starting...", tasks.get(i));
+                executeSingle(tasks.get(i), executor);
+                LOG.debug("Notification task {} executed", tasks.get(i));
+            }
         }
         if (interrupt) {
             LOG.debug("Notification job interrupted");
@@ -266,6 +291,54 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
         }
     }
 
+    /**
+     * Sends out the given notification tasks via a pool of threads, each task in its own transaction.
+     *
+     * @param taskKeys keys of the notification tasks to execute
+     * @param executor executor
+     */
+    private void executeParallel(final List<String> taskKeys, final String executor) {
+        String domain = AuthContextUtils.getDomain();
+
+        TransactionTemplate txTemplate = new TransactionTemplate(ApplicationContextProvider.getApplicationContext().
+                getBean(domain + "TransactionManager", PlatformTransactionManager.class));
+        txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        List<Future<?>> futures = taskKeys.stream().map(key -> notificationJobExecutor.submit(() -> {
+            if (interrupt) {
+                return;
+            }
+
+            try {
+                AuthContextUtils.callAsAdmin(domain, () -> txTemplate.execute(txStatus -> {
+                    NotificationTask task = taskDAO.find(key);
+                    if (task == null) {
+                        return null;
+                    }
+
+                    LOG.debug("Found notification task {} to be executed: starting...", task);
+                    executeSingle(task, executor);
+                    LOG.debug("Notification task {} executed", task);
+                    return null;
+                }));
+            } catch (Exception e) {
+                LOG.error("While executing notification task {}", key, e);
+            }
+        })).collect(Collectors.toList());
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupt = true;
+            futures.forEach(future -> future.cancel(true));
+        } catch (ExecutionException e) {
+            LOG.error("While executing notification tasks", e);
+        }
+    }
+
     private static boolean hasToBeRegistered(final TaskExec execution) {
         NotificationTask task = (NotificationTask) execution.getTask();
 
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job.notification;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.MimeMessage;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Sends e-mail messages through a pool of SMTP connections, each reused for several messages.
+ *
+ * Sending is paced to the configured maximum rate towards the SMTP host, and retried with exponential backoff upon
+ * transient failures, e.g. connection issues or {@code 4xx} replies; permanent failures, as invalid addresses, are
+ * reported immediately.
+ *
+ * When the given {@link JavaMailSender} is not a {@link JavaMailSenderImpl}, messages are sent via
+ * {@link JavaMailSender#send(javax.mail.internet.MimeMessage)}, still paced and retried.
+ */
+public class PooledMailSender {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(PooledMailSender.class);
+
+    /**
+     * Idle connections are not reused after this number of milliseconds, as most SMTP servers drop them anyway.
+     */
+    protected static final long MAX_IDLE = 30000L;
+
+    protected static final class PooledTransport {
+
+        private final Transport transport;
+
+        private int sent;
+
+        private long lastUsed;
+
+        private PooledTransport(final Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    protected final JavaMailSender mailSender;
+
+    protected final int maxMessagesPerConnection;
+
+    protected final int maxRetries;
+
+    protected final long retryBackoff;
+
+    /**
+     * Minimum interval between two messages, in nanoseconds; 0 means no pacing.
+     */
+    protected final long interval;
+
+    protected final AtomicLong nextSlot = new AtomicLong();
+
+    protected final Semaphore permits;
+
+    protected final BlockingQueue<PooledTransport> idle = new LinkedBlockingQueue<>();
+
+    protected final AtomicLong connections = new AtomicLong();
+
+    protected final AtomicLong sent = new AtomicLong();
+
+    protected final AtomicLong retries = new AtomicLong();
+
+    public PooledMailSender(
+            final JavaMailSender mailSender,
+            final int maxConnections,
+            final int maxMessagesPerConnection,
+            final double maxRate,
+            final int maxRetries,
+            final long retryBackoff) {
+
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(Math.max(1, maxConnections), true);
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.interval = maxRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxRate) : 0L;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoff = retryBackoff;
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Waits until the next message can be sent without exceeding the maximum rate.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected void pace() throws InterruptedException {
+        if (interval <= 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long slot = nextSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + interval);
+        long wait = slot - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Opens a new SMTP connection, by the same means as {@link JavaMailSenderImpl}.
+     *
+     * @param sender mail sender providing session and connection parameters
+     * @return connected transport
+     * @throws MessagingException if the connection could not be established
+     */
+    protected Transport connect(final JavaMailSenderImpl sender) throws MessagingException {
+        Transport transport = sender.getSession().getTransport(
+                StringUtils.defaultIfBlank(sender.getProtocol(), JavaMailSenderImpl.DEFAULT_PROTOCOL));
+
+        String username = sender.getUsername();
+        String password = sender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        transport.connect(sender.getHost(), sender.getPort(), username, password);
+
+        connections.incrementAndGet();
+        return transport;
+    }
+
+    protected static void close(final PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            LOG.debug("While closing SMTP connection", e);
+        }
+    }
+
+    protected PooledTransport borrow(final JavaMailSenderImpl sender) throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            if (System.currentTimeMillis() - pooled.lastUsed < MAX_IDLE && pooled.transport.isConnected()) {
+                return pooled;
+            }
+            close(pooled);
+        }
+
+        return new PooledTransport(connect(sender));
+    }
+
+    protected void release(final PooledTransport pooled, final boolean reusable) {
+        if (reusable && pooled.sent < maxMessagesPerConnection) {
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offer(pooled);
+        } else {
+            close(pooled);
+        }
+    }
+
+    protected void sendPooled(final JavaMailSenderImpl sender, final MimeMessage message) throws MessagingException {
+        // same preparation as performed by JavaMailSenderImpl
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+
+        PooledTransport pooled = borrow(sender);
+        boolean reusable = false;
+        try {
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+            pooled.sent++;
+            reusable = true;
+        } finally {
+            release(pooled, reusable);
+        }
+    }
+
+    /**
+     * Tells whether the given failure might not occur again when retrying.
+     *
+     * @param e failure
+     * @return whether the given failure is transient
+     */
+    protected boolean isTransient(final Exception e) {
+        if (e instanceof AddressException || e instanceof MailAuthenticationException) {
+            return false;
+        }
+        if (e instanceof SendFailedException) {
+            SendFailedException sfe = (SendFailedException) e;
+            return sfe.getInvalidAddresses() == null || sfe.getInvalidAddresses().length == 0;
+        }
+        if (e instanceof MailSendException) {
+            return ((MailSendException) e).getFailedMessages().values().stream().
+                    allMatch(failure -> failure instanceof Exception && isTransient((Exception) failure));
+        }
+        // connection failures and temporary rejections, but also permanent rejections which are not told apart
+        return e instanceof MessagingException || ExceptionUtils.indexOfType(e, IOException.class) != -1;
+    }
+
+    /**
+     * Sends the given message, waiting for a connection to be available.
+     *
+     * @param message message to send
+     * @throws MessagingException if the message could not be sent via a pooled connection
+     * @throws MailException if the message could not be sent via the given {@link JavaMailSender}
+     * @throws InterruptedException if interrupted while waiting for a connection or for retrying
+     */
+    public void send(final MimeMessage message) throws MessagingException, InterruptedException {
+        for (int attempt = 0;; attempt++) {
+            long backoff;
+
+            permits.acquire();
+            try {
+                pace();
+
+                if (mailSender instanceof JavaMailSenderImpl) {
+                    sendPooled((JavaMailSenderImpl) mailSender, message);
+                } else {
+                    mailSender.send(message);
+                }
+                sent.incrementAndGet();
+                return;
+            } catch (MessagingException | MailException e) {
+                if (attempt >= maxRetries || !isTransient(e)) {
+                    throw e;
+                }
+
+                backoff = retryBackoff << attempt;
+                LOG.warn("Could not send e-mail, retrying in {} ms [{}/{}]: {}",
+                        backoff, attempt + 1, maxRetries, e.getMessage());
+                retries.incrementAndGet();
+            } finally {
+                permits.release();
+            }
+
+            Thread.sleep(backoff);
+        }
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public long getConnections() {
+        return connections.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Closes the idle connections.
+     */
+    public void close() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            close(pooled);
+        }
+    }
+}
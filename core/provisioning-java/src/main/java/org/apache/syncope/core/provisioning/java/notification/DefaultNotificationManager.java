@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import org.apache.commons.jexl3.MapContext;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -49,6 +50,7 @@ import org.apache.syncope.core.persistence.api.dao.NotificationDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
@@ -62,8 +64,7 @@ import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.persistence.api.entity.user.UMembership;
 import org.apache.syncope.core.persistence.api.entity.user.UPlainAttr;
 import org.apache.syncope.core.persistence.api.entity.user.User;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
-import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
+import org.apache.syncope.core.persistence.api.search.SearchCondCache;
 import org.apache.syncope.core.provisioning.api.DerAttrHandler;
 import org.apache.syncope.core.provisioning.api.IntAttrName;
 import org.apache.syncope.core.provisioning.api.VirAttrHandler;
@@ -156,7 +157,7 @@ public class DefaultNotificationManager implements NotificationManager {
     private IntAttrNameParser intAttrNameParser;
 
     @Autowired
-    private SearchCondVisitor searchCondVisitor;
+    private SearchCondCache searchCondCache;
 
     @Transactional(readOnly = true)
     @Override
@@ -185,7 +186,7 @@ public class DefaultNotificationManager implements NotificationManager {
 
         if (notification.getRecipientsFIQL() != null) {
             recipients.addAll(searchDAO.<User>search(
-                    SearchCondConverter.convert(searchCondVisitor, notification.getRecipientsFIQL()),
+                    searchCondCache.get(notification.getKey(), notification.getRecipientsFIQL()),
                     List.of(), AnyTypeKind.USER));
         }
 
@@ -261,12 +262,10 @@ public class DefaultNotificationManager implements NotificationManager {
             final String subcategory,
             final String event) {
 
-        final String successEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, Result.SUCCESS);
-        final String failureEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, Result.FAILURE);
-        return notificationDAO.findAll().stream().
-                anyMatch(notification -> notification.isActive()
-                && (notification.getEvents().contains(successEvent)
-                || notification.getEvents().contains(failureEvent)));
+        return !notificationDAO.findActiveByEvent(
+                AuditLoggerName.buildEvent(type, category, subcategory, event, Result.SUCCESS)).isEmpty()
+                || !notificationDAO.findActiveByEvent(
+                        AuditLoggerName.buildEvent(type, category, subcategory, event, Result.FAILURE)).isEmpty();
     }
 
     @Override
@@ -295,6 +294,13 @@ public class DefaultNotificationManager implements NotificationManager {
             final Object output,
             final Object... input) {
 
+        String currentEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, condition);
+        List<String> candidates = notificationDAO.findActiveByEvent(currentEvent);
+        if (candidates.isEmpty()) {
+            LOG.debug("No active notifications found for event {}", currentEvent);
+            return List.of();
+        }
+
         Any<?> any = null;
 
         if (before instanceof UserTO) {
@@ -330,49 +336,49 @@ public class DefaultNotificationManager implements NotificationManager {
         AnyType anyType = Optional.ofNullable(any).map(Any::getType).orElse(null);
         LOG.debug("Search notification for [{}]{}", anyType, any);
 
+        Predicate<SearchCond> matcher = any == null ? null : anyMatchDAO.matcher(any);
         List<NotificationTask> notifications = new ArrayList<>();
-        for (Notification notification : notificationDAO.findAll()) {
+        for (String key : candidates) {
+            Notification notification = notificationDAO.find(key);
+            if (notification == null || !notification.isActive() || !notification.getEvents().contains(currentEvent)) {
+                LOG.debug("Notification {} not found or not active for event {} anymore, skipping", key, currentEvent);
+                continue;
+            }
+
             if (LOG.isDebugEnabled()) {
                 notification.getAbouts().forEach(
                         about -> LOG.debug("Notification about {} defined: {}", about.getAnyType(), about.get()));
             }
 
-            if (notification.isActive()) {
-                String currentEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, condition);
-                if (!notification.getEvents().contains(currentEvent)) {
-                    LOG.debug("No events found about {}", any);
-                } else if (anyType == null || any == null
-                        || !notification.getAbout(anyType).isPresent()
-                        || anyMatchDAO.matches(any, SearchCondConverter.convert(
-                                searchCondVisitor, notification.getAbout(anyType).get().get()))) {
-
-                    LOG.debug("Creating notification task for event {} about {}", currentEvent, any);
-
-                    final Map<String, Object> model = new HashMap<>();
-                    model.put("who", who);
-                    model.put("type", type);
-                    model.put("category", category);
-                    model.put("subcategory", subcategory);
-                    model.put("event", event);
-                    model.put("condition", condition);
-                    model.put("before", before);
-                    model.put("output", output);
-                    model.put("input", input);
-
-                    if (any instanceof User) {
-                        model.put("user", userDataBinder.getUserTO((User) any, true));
-                    } else if (any instanceof Group) {
-                        model.put("group", groupDataBinder.getGroupTO((Group) any, true));
-                    } else if (any instanceof AnyObject) {
-                        model.put("group", anyObjectDataBinder.getAnyObjectTO((AnyObject) any, true));
-                    }
-
-                    NotificationTask notificationTask = getNotificationTask(notification, any, model);
-                    notificationTask = taskDAO.save(notificationTask);
-                    notifications.add(notificationTask);
+            if (anyType == null || any == null
+                    || !notification.getAbout(anyType).isPresent()
+                    || matcher.test(searchCondCache.get(
+                            notification.getKey(), notification.getAbout(anyType).get().get()))) {
+
+                LOG.debug("Creating notification task for event {} about {}", currentEvent, any);
+
+                final Map<String, Object> model = new HashMap<>();
+                model.put("who", who);
+                model.put("type", type);
+                model.put("category", category);
+                model.put("subcategory", subcategory);
+                model.put("event", event);
+                model.put("condition", condition);
+                model.put("before", before);
+                model.put("output", output);
+                model.put("input", input);
+
+                if (any instanceof User) {
+                    model.put("user", userDataBinder.getUserTO((User) any, true));
+                } else if (any instanceof Group) {
+                    model.put("group", groupDataBinder.getGroupTO((Group) any, true));
+                } else if (any instanceof AnyObject) {
+                    model.put("group", anyObjectDataBinder.getAnyObjectTO((AnyObject) any, true));
                 }
-            } else {
-                LOG.debug("Notification {} is not active, task will not be created", notification.getKey());
+
+                NotificationTask notificationTask = getNotificationTask(notification, any, model);
+                notificationTask = taskDAO.save(notificationTask);
+                notifications.add(notificationTask);
             }
         }
         return notifications;
@@ -28,6 +28,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.to.ExecTO;
@@ -69,6 +70,7 @@ import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
 import org.apache.syncope.core.spring.ImplementationManager;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.common.exceptions.UnknownUidException;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
 import org.identityconnectors.framework.common.objects.AttributeUtil;
@@ -156,6 +158,15 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
     @Autowired
     protected OutboundMatcher outboundMatcher;
 
+    /**
+     * Number of remote reads avoided by propagating to resources with trusted propagation.
+     */
+    protected final AtomicLong avoidedRemoteReads = new AtomicLong();
+
+    public long getAvoidedRemoteReads() {
+        return avoidedRemoteReads.get();
+    }
+
     protected List<PropagationActions> getPropagationActions(final ExternalResource resource) {
         List<PropagationActions> result = new ArrayList<>();
 
@@ -322,8 +333,14 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
             if (task.getAnyTypeKind() == null || !resources.contains(task.getResource().getKey())) {
                 LOG.debug("Delete {} on {}", beforeObj.getUid(), task.getResource().getKey());
 
-                connector.delete(beforeObj.getObjectClass(), beforeObj.getUid(), null, propagationAttempted);
-                result = beforeObj.getUid();
+                try {
+                    connector.delete(beforeObj.getObjectClass(), beforeObj.getUid(), null, propagationAttempted);
+                    result = beforeObj.getUid();
+                } catch (UnknownUidException e) {
+                    // only possible when the remote object was not read before, with trusted propagation
+                    LOG.debug("{} not found on external resource: ignoring delete", beforeObj.getUid());
+                    result = null;
+                }
             } else {
                 result = createOrUpdate(task, beforeObj, connector, propagationAttempted);
             }
@@ -332,17 +349,57 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         return result;
     }
 
+    /**
+     * Builds the remote object expected to exist before propagating the given task, according to own provisioning
+     * state rather than reading it from the External Resource: nothing is expected for {@code CREATE}, otherwise an
+     * object identified by the connector object key - or by the {@code __UID__} value saved on create, if available.
+     *
+     * @param task propagation task
+     * @param provision provision, if any
+     * @return remote object expected to exist before propagation, or null if none
+     */
+    protected ConnectorObject getTrustedBeforeObj(final PropagationTask task, final Provision provision) {
+        String connObjectKey = task.getOldConnObjectKey() == null
+                ? task.getConnObjectKey()
+                : task.getOldConnObjectKey();
+        if (task.getOperation() == ResourceOperation.CREATE || connObjectKey == null) {
+            return null;
+        }
+
+        String uid = connObjectKey;
+        if (provision != null && provision.getUidOnCreate() != null
+                && task.getAnyTypeKind() != null && task.getEntityKey() != null) {
+
+            uid = Optional.ofNullable(anyUtilsFactory.getInstance(task.getAnyTypeKind()).dao().
+                    find(task.getEntityKey())).
+                    flatMap(any -> any.getPlainAttr(provision.getUidOnCreate().getKey())).
+                    flatMap(attr -> attr.getValuesAsStrings().stream().findFirst()).
+                    orElse(connObjectKey);
+        }
+
+        Name name = task.getOldConnObjectKey() == null
+                ? AttributeUtil.getNameFromAttributes(task.getAttributes())
+                : null;
+
+        return new ConnectorObjectBuilder().
+                setObjectClass(new ObjectClass(task.getObjectClassName())).
+                setUid(uid).
+                setName(name == null ? new Name(connObjectKey) : name).
+                build();
+    }
+
     @Override
     public TaskExec execute(final PropagationTaskInfo taskInfo, final String executor) {
         return execute(taskInfo, null, executor);
     }
 
-    @Override
-    public TaskExec execute(
-            final PropagationTaskInfo taskInfo,
-            final PropagationReporter reporter,
-            final String executor) {
-
+    /**
+     * Finds the {@link PropagationTask} for the given task info, or creates a new one if not yet stored.
+     *
+     * @param taskInfo propagation task info
+     * @return propagation task, with attributes set
+     */
+    protected PropagationTask getOrCreateTask(final PropagationTaskInfo taskInfo) {
         PropagationTask task;
         if (taskInfo.getKey() == null) {
             // double-checks that provided External Resource is valid, for further actions
@@ -369,6 +426,17 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         }
         task.setAttributes(attributes);
 
+        return task;
+    }
+
+    @Override
+    public TaskExec execute(
+            final PropagationTaskInfo taskInfo,
+            final PropagationReporter reporter,
+            final String executor) {
+
+        PropagationTask task = getOrCreateTask(taskInfo);
+
         Connector connector = taskInfo.getConnector() == null
                 ? connFactory.getConnector(task.getResource())
                 : taskInfo.getConnector();
@@ -388,8 +456,26 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         AtomicReference<Boolean> propagationAttempted = new AtomicReference<>(false);
 
         ConnectorObject beforeObj = null;
+        // with trusted propagation, beforeObj is only built from own provisioning state, not read remotely
+        boolean trustedBeforeObj = false;
         ConnectorObject afterObj = null;
 
+        // SYNCOPE-1136
+        String anyTypeKind = task.getAnyTypeKind() == null ? "realm" : task.getAnyTypeKind().name().toLowerCase();
+        String operation = task.getOperation().name().toLowerCase();
+        boolean notificationsAvailable = notificationManager.notificationsAvailable(
+                AuditElements.EventCategoryType.PROPAGATION, anyTypeKind, task.getResource().getKey(), operation);
+        boolean auditRequested = auditManager.auditRequested(
+                AuthContextUtils.getUsername(),
+                AuditElements.EventCategoryType.PROPAGATION,
+                anyTypeKind,
+                task.getResource().getKey(),
+                operation);
+
+        // with trusted propagation, remote objects are only read after propagation if needed by someone
+        boolean trusted = task.getResource().isTrustedPropagation();
+        boolean readAfterObj = !trusted || notificationsAvailable || auditRequested || !actions.isEmpty();
+
         Provision provision = null;
         OrgUnit orgUnit = null;
         Uid uid = null;
@@ -398,7 +484,11 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
             provision = task.getResource().getProvision(new ObjectClass(task.getObjectClassName())).orElse(null);
             orgUnit = task.getResource().getOrgUnit();
 
-            if (taskInfo.getBeforeObj() == null) {
+            if (taskInfo.getBeforeObj() == null && trusted && (provision != null || orgUnit != null)) {
+                beforeObj = getTrustedBeforeObj(task, provision);
+                trustedBeforeObj = true;
+                avoidedRemoteReads.incrementAndGet();
+            } else if (taskInfo.getBeforeObj() == null) {
                 // Try to read remote object BEFORE any actual operation
                 beforeObj = provision == null && orgUnit == null
                         ? null
@@ -467,15 +557,20 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 if (uid != null) {
                     task.setConnObjectKey(uid.getUidValue());
                 }
-                try {
-                    afterObj = provision == null && orgUnit == null
-                            ? null
-                            : orgUnit == null
-                                    ? getRemoteObject(task, connector, provision, actions, true)
-                                    : getRemoteObject(task, connector, orgUnit, actions, true);
-                } catch (Exception ignore) {
-                    // ignore exception
-                    LOG.error("Error retrieving after object", ignore);
+                if (!readAfterObj && (provision != null || orgUnit != null)) {
+                    avoidedRemoteReads.incrementAndGet();
+                }
+                if (readAfterObj) {
+                    try {
+                        afterObj = provision == null && orgUnit == null
+                                ? null
+                                : orgUnit == null
+                                        ? getRemoteObject(task, connector, provision, actions, true)
+                                        : getRemoteObject(task, connector, orgUnit, actions, true);
+                    } catch (Exception ignore) {
+                        // ignore exception
+                        LOG.error("Error retrieving after object", ignore);
+                    }
                 }
             }
 
@@ -506,7 +601,7 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 reporter.onSuccessOrNonPriorityResourceFailures(taskInfo,
                         ExecStatus.valueOf(execution.getStatus()),
                         failureReason,
-                        beforeObj,
+                        trustedBeforeObj ? null : beforeObj,
                         afterObj);
             }
         }
@@ -514,20 +609,10 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         for (PropagationActions action : actions) {
             action.after(task, execution, afterObj);
         }
-        // SYNCOPE-1136
-        String anyTypeKind = task.getAnyTypeKind() == null ? "realm" : task.getAnyTypeKind().name().toLowerCase();
-        String operation = task.getOperation().name().toLowerCase();
-        boolean notificationsAvailable = notificationManager.notificationsAvailable(
-                AuditElements.EventCategoryType.PROPAGATION, anyTypeKind, task.getResource().getKey(), operation);
-        boolean auditRequested = auditManager.auditRequested(
-                AuthContextUtils.getUsername(),
-                AuditElements.EventCategoryType.PROPAGATION,
-                anyTypeKind,
-                task.getResource().getKey(),
-                operation);
 
         if (notificationsAvailable || auditRequested) {
             ExecTO execTO = taskDataBinder.getExecTO(execution);
+            ConnectorObject reportedBeforeObj = trustedBeforeObj ? null : beforeObj;
             notificationManager.createTasks(
                     AuthContextUtils.getUsername(),
                     AuditElements.EventCategoryType.PROPAGATION,
@@ -535,7 +620,7 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                     task.getResource().getKey(),
                     operation,
                     result,
-                    beforeObj,
+                    reportedBeforeObj,
                     new Object[] { execTO, afterObj },
                     taskInfo);
 
@@ -546,7 +631,7 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                     task.getResource().getKey(),
                     operation,
                     result,
-                    beforeObj,
+                    reportedBeforeObj,
                     new Object[] { execTO, afterObj },
                     taskInfo);
         }
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.to.PropagationStatus;
+import org.apache.syncope.common.lib.types.ExecStatus;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+
+/**
+ * Extends {@link PriorityPropagationTaskExecutor} by serializing the tasks for resources with NULL priority on
+ * each connector object, via a queue per resource, object class and entity.
+ *
+ * While a task is being executed, further tasks for the same connector object are queued; an update queued after
+ * another update not yet started is merged into it, where the attribute values of the latest update win. This way,
+ * several updates in a row result in a single connector call; each of the merged tasks is anyway reported to its
+ * own {@link PropagationReporter}.
+ */
+public class CoalescingPropagationTaskExecutor extends PriorityPropagationTaskExecutor {
+
+    protected static class Pending {
+
+        protected final PropagationTaskInfo taskInfo;
+
+        /**
+         * Built from the calling thread, as it captures the security context.
+         */
+        protected final PropagationTaskCallable callable;
+
+        protected final List<Pair<PropagationTaskInfo, PropagationReporter>> merged = new ArrayList<>();
+
+        protected final List<CompletableFuture<TaskExec>> futures = new ArrayList<>();
+
+        protected Pending(
+                final PropagationTaskInfo taskInfo,
+                final PropagationReporter reporter,
+                final PropagationTaskCallable callable) {
+
+            this.taskInfo = taskInfo;
+            this.callable = callable;
+            this.merged.add(Pair.of(taskInfo, reporter));
+        }
+
+        protected boolean canMerge(final PropagationTaskInfo other) {
+            return taskInfo.getOperation() == ResourceOperation.UPDATE
+                    && other.getOperation() == ResourceOperation.UPDATE
+                    && other.getOldConnObjectKey() == null
+                    && Objects.equals(taskInfo.getConnObjectKey(), other.getConnObjectKey());
+        }
+
+        protected void merge(final PropagationTaskInfo other, final PropagationReporter reporter) {
+            Map<String, Attribute> attrs = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (String attributes : List.of(taskInfo.getAttributes(), other.getAttributes())) {
+                for (Attribute attr : POJOHelper.deserialize(attributes, Attribute[].class)) {
+                    attrs.put(attr.getName(), attr);
+                }
+            }
+            taskInfo.setAttributes(POJOHelper.serialize(attrs.values()));
+
+            merged.add(Pair.of(other, reporter));
+        }
+    }
+
+    /**
+     * Reports the execution outcome to the reporters of all merged tasks.
+     */
+    protected static class MergedReporter implements PropagationReporter {
+
+        protected final List<Pair<PropagationTaskInfo, PropagationReporter>> merged;
+
+        protected MergedReporter(final List<Pair<PropagationTaskInfo, PropagationReporter>> merged) {
+            this.merged = merged;
+        }
+
+        @Override
+        public void onPriorityResourceFailure(
+                final String failingResource, final Collection<PropagationTaskInfo> taskInfos) {
+
+            merged.get(0).getRight().onPriorityResourceFailure(failingResource, taskInfos);
+        }
+
+        @Override
+        public void onSuccessOrNonPriorityResourceFailures(
+                final PropagationTaskInfo taskInfo,
+                final ExecStatus execStatus,
+                final String failureReason,
+                final ConnectorObject beforeObj,
+                final ConnectorObject afterObj) {
+
+            merged.forEach(pair -> pair.getRight().onSuccessOrNonPriorityResourceFailures(
+                    pair.getLeft(), execStatus, failureReason, beforeObj, afterObj));
+        }
+
+        @Override
+        public List<PropagationStatus> getStatuses() {
+            return merged.get(0).getRight().getStatuses();
+        }
+    }
+
+    /**
+     * Tasks waiting to be executed, per connector object; a queue is present as long as one of its tasks is being
+     * executed.
+     */
+    protected final Map<List<String>, Deque<Pending>> queues = new HashMap<>();
+
+    protected static List<String> queueKey(final PropagationTaskInfo taskInfo) {
+        return List.of(
+                AuthContextUtils.getDomain(),
+                taskInfo.getResource(),
+                Objects.toString(taskInfo.getObjectClassName(), ""),
+                Objects.toString(taskInfo.getEntityKey(), taskInfo.getConnObjectKey()));
+    }
+
+    protected PropagationTaskCallable newCallable(
+            final PropagationTaskInfo taskInfo, final PropagationReporter reporter) {
+
+        return newPropagationTaskCallable(taskInfo, reporter);
+    }
+
+    @Override
+    protected Future<TaskExec> submit(final PropagationTaskInfo taskInfo, final PropagationReporter reporter) {
+        CompletableFuture<TaskExec> future = new CompletableFuture<>();
+
+        List<String> key = queueKey(taskInfo);
+        boolean start = false;
+        synchronized (queues) {
+            Deque<Pending> queue = queues.get(key);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(key, queue);
+                start = true;
+            }
+
+            Pending last = queue.peekLast();
+            if (last != null && last.canMerge(taskInfo)) {
+                LOG.debug("Merging {} into pending {}", taskInfo, last.taskInfo);
+                last.merge(taskInfo, reporter);
+                last.futures.add(future);
+            } else {
+                Pending pending = new Pending(taskInfo, reporter, newCallable(taskInfo, reporter));
+                pending.futures.add(future);
+                queue.addLast(pending);
+            }
+        }
+
+        if (start) {
+            try {
+                executor.execute(() -> drain(key));
+            } catch (RuntimeException e) {
+                synchronized (queues) {
+                    queues.remove(key).forEach(pending -> pending.futures.forEach(f -> f.completeExceptionally(e)));
+                }
+                throw e;
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Executes the tasks queued for the given connector object, one after the other, until none is left.
+     *
+     * @param key queue key
+     */
+    protected void drain(final List<String> key) {
+        while (true) {
+            Pending pending;
+            synchronized (queues) {
+                Deque<Pending> queue = queues.get(key);
+                pending = queue.pollFirst();
+                if (pending == null) {
+                    queues.remove(key);
+                    return;
+                }
+            }
+
+            if (pending.futures.stream().allMatch(Future::isCancelled)) {
+                LOG.debug("Skipping cancelled {}", pending.taskInfo);
+                continue;
+            }
+
+            try {
+                pending.callable.setReporter(new MergedReporter(pending.merged));
+                TaskExec execution = pending.callable.call();
+                pending.futures.forEach(future -> future.complete(execution));
+            } catch (Throwable t) {
+                LOG.error("While executing {}", pending.taskInfo, t);
+                pending.futures.forEach(future -> future.completeExceptionally(t));
+            }
+        }
+    }
+}
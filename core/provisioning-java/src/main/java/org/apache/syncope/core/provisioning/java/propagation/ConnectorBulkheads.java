@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import org.apache.syncope.common.lib.types.ExecStatus;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounds concurrent propagation towards each
+ * {@link org.apache.syncope.core.persistence.api.entity.ConnInstance}, so that a slow connector cannot take all the
+ * threads of the shared propagation executor.
+ *
+ * Each connector gets its own concurrency limit and bounded queue: the limit is adapted to observed latency in AIMD
+ * fashion, growing by one every {@code limit} completions while latency stays within {@link #LATENCY_TOLERANCE} times
+ * the lowest latency seen, and shrinking multiplicatively when latency grows beyond that or executions fail.
+ * Tasks exceeding both limit and queue capacity are rejected straight away.
+ */
+public class ConnectorBulkheads {
+
+    protected static final Logger LOG = LoggerFactory.getLogger(ConnectorBulkheads.class);
+
+    /**
+     * Latency above this multiple of the baseline is taken as a sign of congestion.
+     */
+    protected static final double LATENCY_TOLERANCE = 2.0;
+
+    /**
+     * Limit decrease factor on congestion.
+     */
+    protected static final double LATENCY_BACKOFF = 0.9;
+
+    /**
+     * Limit decrease factor on failure.
+     */
+    protected static final double FAILURE_BACKOFF = 0.5;
+
+    /**
+     * Number of samples after which the baseline latency is measured again, to follow connector changes.
+     */
+    protected static final int BASELINE_SAMPLES = 1000;
+
+    protected static class Entry extends FutureTask<TaskExec> {
+
+        protected Entry(final Callable<TaskExec> callable) {
+            super(callable);
+        }
+
+        protected void reject(final Throwable t) {
+            setException(t);
+        }
+    }
+
+    protected class Bulkhead {
+
+        protected final Deque<Entry> queue = new ArrayDeque<>();
+
+        protected double limit = initialLimit;
+
+        protected int inFlight;
+
+        protected long baseline = Long.MAX_VALUE;
+
+        protected int samples;
+
+        protected final AtomicLong rejected = new AtomicLong();
+
+        protected synchronized void onComplete(final long latency, final boolean failed) {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+
+            if (failed) {
+                limit = Math.max(minLimit, limit * FAILURE_BACKOFF);
+                return;
+            }
+
+            if (++samples >= BASELINE_SAMPLES) {
+                samples = 0;
+                baseline = latency;
+            } else {
+                baseline = Math.min(baseline, latency);
+            }
+
+            if (latency > baseline * LATENCY_TOLERANCE) {
+                limit = Math.max(minLimit, limit * LATENCY_BACKOFF);
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+
+        protected synchronized int getLimit() {
+            return (int) limit;
+        }
+
+        protected synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        protected synchronized int getQueueDepth() {
+            return queue.size();
+        }
+    }
+
+    protected final int initialLimit;
+
+    protected final int minLimit;
+
+    protected final int maxLimit;
+
+    protected final int queueCapacity;
+
+    protected final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public ConnectorBulkheads(final int initialLimit, final int minLimit, final int maxLimit, final int queueCapacity) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.initialLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.queueCapacity = Math.max(0, queueCapacity);
+    }
+
+    /**
+     * Runs the given callable on the given executor as soon as the bulkhead for the given connector allows.
+     *
+     * @param connInstance connector key
+     * @param callable propagation to run
+     * @param executor executor to run on
+     * @return future execution, or empty if the connector has no room left
+     */
+    public Optional<Future<TaskExec>> submit(
+            final String connInstance, final Callable<TaskExec> callable, final Executor executor) {
+
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(connInstance, k -> new Bulkhead());
+        Entry entry = new Entry(callable);
+        synchronized (bulkhead) {
+            if (bulkhead.inFlight < (int) bulkhead.limit) {
+                bulkhead.inFlight++;
+            } else if (bulkhead.queue.size() < queueCapacity) {
+                bulkhead.queue.add(entry);
+                return Optional.of(entry);
+            } else {
+                bulkhead.rejected.incrementAndGet();
+                LOG.debug("No room left for connector {}, rejecting", connInstance);
+                return Optional.empty();
+            }
+        }
+
+        if (!start(bulkhead, entry, executor)) {
+            // the slot was released, queued entries must not wait for unrelated traffic
+            next(bulkhead, executor);
+        }
+        return Optional.of(entry);
+    }
+
+    /**
+     * Hands the given entry, already counted as in flight, to the given executor.
+     *
+     * @param bulkhead bulkhead the entry belongs to
+     * @param entry entry to run
+     * @param executor executor to run on
+     * @return whether the entry was accepted by the executor; if not, the entry is failed and its slot released
+     */
+    protected boolean start(final Bulkhead bulkhead, final Entry entry, final Executor executor) {
+        try {
+            executor.execute(() -> run(bulkhead, entry, executor));
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOG.error("Could not start propagation", e);
+            entry.reject(e);
+            synchronized (bulkhead) {
+                bulkhead.inFlight--;
+            }
+            return false;
+        }
+    }
+
+    protected void run(final Bulkhead bulkhead, final Entry entry, final Executor executor) {
+        try {
+            if (entry.isCancelled()) {
+                synchronized (bulkhead) {
+                    bulkhead.inFlight--;
+                }
+            } else {
+                long start = System.nanoTime();
+                entry.run();
+
+                boolean failed;
+                try {
+                    failed = ExecStatus.FAILURE.name().equals(entry.get().getStatus());
+                } catch (Exception e) {
+                    failed = true;
+                }
+                bulkhead.onComplete(System.nanoTime() - start, failed);
+            }
+        } finally {
+            next(bulkhead, executor);
+        }
+    }
+
+    protected void next(final Bulkhead bulkhead, final Executor executor) {
+        while (true) {
+            Entry entry;
+            synchronized (bulkhead) {
+                if (bulkhead.queue.isEmpty() || bulkhead.inFlight >= (int) bulkhead.limit) {
+                    return;
+                }
+                entry = bulkhead.queue.poll();
+                bulkhead.inFlight++;
+            }
+            start(bulkhead, entry, executor);
+        }
+    }
+
+    protected Map<String, Integer> collect(final ToIntFunction<Bulkhead> metric) {
+        return Collections.unmodifiableMap(bulkheads.entrySet().stream().
+                collect(Collectors.toMap(Map.Entry::getKey, e -> metric.applyAsInt(e.getValue()))));
+    }
+
+    /**
+     * @return current concurrency limit, by connector key
+     */
+    public Map<String, Integer> getLimits() {
+        return collect(Bulkhead::getLimit);
+    }
+
+    /**
+     * @return propagations currently running, by connector key
+     */
+    public Map<String, Integer> getInFlight() {
+        return collect(Bulkhead::getInFlight);
+    }
+
+    /**
+     * @return propagations waiting for a slot, by connector key
+     */
+    public Map<String, Integer> getQueueDepths() {
+        return collect(Bulkhead::getQueueDepth);
+    }
+
+    /**
+     * @return propagations rejected so far, by connector key
+     */
+    public Map<String, Long> getRejected() {
+        return Collections.unmodifiableMap(bulkheads.entrySet().stream().
+                collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().rejected.get())));
+    }
+}
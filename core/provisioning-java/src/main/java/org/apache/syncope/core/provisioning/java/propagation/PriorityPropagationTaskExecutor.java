@@ -21,14 +21,14 @@ package org.apache.syncope.core.provisioning.java.propagation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CompletionService;
-import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -36,13 +36,16 @@ import javax.annotation.Resource;
 import org.apache.syncope.common.lib.types.ExecStatus;
 import org.apache.syncope.core.persistence.api.entity.Exec;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
 import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationException;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.core.task.AsyncTaskExecutor;
 
 /**
  * Sorts the tasks to be executed according to related
@@ -50,11 +53,22 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
  * Tasks related to resources with NULL priority are executed after other tasks, concurrently.
  * Failure during execution of a task related to resource with non-NULL priority are treated as fatal and will interrupt
  * the whole process, resulting in a global failure.
+ * When {@link ConnectorBulkheads} are available, concurrent tasks are bounded per connector and tasks finding no room
+ * are stored as {@link ExecStatus#NOT_ATTEMPTED}, for later execution by
+ * {@link org.apache.syncope.core.provisioning.java.job.RejectedPropagationRetry}.
  */
 public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExecutor {
 
+    /**
+     * Message prefix of the {@link ExecStatus#NOT_ATTEMPTED} executions stored for rejected tasks.
+     */
+    public static final String REJECTED_MESSAGE = "Too many propagations pending on connector ";
+
     @Resource(name = "propagationTaskExecutorAsyncExecutor")
-    protected ThreadPoolTaskExecutor executor;
+    protected AsyncTaskExecutor executor;
+
+    @Autowired(required = false)
+    protected ConnectorBulkheads bulkheads;
 
     /**
      * Creates new instances of {@link PropagationTaskCallable} for usage with
@@ -76,6 +90,71 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
         return callable;
     }
 
+    /**
+     * Submits the given task for concurrent execution.
+     *
+     * @param taskInfo to be executed
+     * @param reporter to report propagation execution status
+     * @return future execution
+     */
+    protected Future<TaskExec> submit(final PropagationTaskInfo taskInfo, final PropagationReporter reporter) {
+        PropagationTaskCallable callable = newPropagationTaskCallable(taskInfo, reporter);
+        if (bulkheads == null) {
+            return executor.submit(callable);
+        }
+
+        return bulkheads.submit(taskInfo.getExternalResource().getConnector().getKey(), callable, executor).
+                orElseGet(() -> CompletableFuture.completedFuture(reject(taskInfo, reporter)));
+    }
+
+    /**
+     * Stores the given task with a {@link ExecStatus#NOT_ATTEMPTED} execution, as the related connector has no room
+     * left; the stored task can be executed again later.
+     *
+     * @param taskInfo rejected task
+     * @param reporter to report propagation execution status
+     * @return rejected execution
+     */
+    protected TaskExec reject(final PropagationTaskInfo taskInfo, final PropagationReporter reporter) {
+        String message = REJECTED_MESSAGE
+                + taskInfo.getExternalResource().getConnector().getDisplayName() + ", not attempted";
+        LOG.warn("{}: {}", message, taskInfo);
+
+        PropagationTask task = getOrCreateTask(taskInfo);
+
+        TaskExec execution = entityFactory.newEntity(TaskExec.class);
+        execution.setStatus(ExecStatus.NOT_ATTEMPTED.name());
+        execution.setExecutor(AuthContextUtils.getUsername());
+        execution.setStart(new Date());
+        execution.setEnd(execution.getStart());
+        execution.setMessage(message);
+        execution.setTask(task);
+        task.add(execution);
+        taskDAO.save(task);
+
+        reporter.onSuccessOrNonPriorityResourceFailures(taskInfo, ExecStatus.NOT_ATTEMPTED, message, null, null);
+
+        return execution;
+    }
+
+    /**
+     * @param future future execution
+     * @return whether the given future execution was rejected, hence already reported
+     */
+    protected static boolean isRejected(final Future<TaskExec> future) {
+        if (!future.isDone() || future.isCancelled()) {
+            return false;
+        }
+
+        try {
+            TaskExec execution = future.get();
+            return ExecStatus.NOT_ATTEMPTED.name().equals(execution.getStatus())
+                    && execution.getMessage() != null && execution.getMessage().startsWith(REJECTED_MESSAGE);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     @Override
     protected void doExecute(
             final Collection<PropagationTaskInfo> taskInfos,
@@ -126,13 +205,13 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
         });
 
         // then process non-priority resources concurrently...
-        CompletionService<TaskExec> completionService = new ExecutorCompletionService<>(executor);
         Map<PropagationTaskInfo, Future<TaskExec>> nullPriority = new HashMap<>(concurrentTasks.size());
         concurrentTasks.forEach(taskInfo -> {
             try {
-                nullPriority.put(
-                        taskInfo,
-                        completionService.submit(newPropagationTaskCallable(taskInfo, reporter)));
+                Future<TaskExec> future = submit(taskInfo, reporter);
+                if (!isRejected(future)) {
+                    nullPriority.put(taskInfo, future);
+                }
             } catch (Exception e) {
                 LOG.error("Unexpected exception", e);
             }
@@ -143,22 +222,19 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
                 nullPriority.forEach((task, exec)
                         -> reporter.onSuccessOrNonPriorityResourceFailures(task, ExecStatus.CREATED, null, null, null));
             } else {
-                final Set<Future<TaskExec>> nullPriorityFutures = new HashSet<>(nullPriority.values());
+                long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(connRequestTimeout[0]);
                 try {
-                    executor.submit(() -> {
-                        while (!nullPriorityFutures.isEmpty()) {
-                            try {
-                                nullPriorityFutures.remove(completionService.take());
-                            } catch (Exception e) {
-                                LOG.error("Unexpected exception", e);
-                            }
+                    for (Future<TaskExec> future : nullPriority.values()) {
+                        try {
+                            future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                        } catch (ExecutionException e) {
+                            LOG.error("Unexpected exception", e);
                         }
-                    }).get(connRequestTimeout[0], TimeUnit.SECONDS);
+                    }
                 } catch (Exception e) {
                     LOG.error("Unexpected exception", e);
                 } finally {
-                    nullPriorityFutures.forEach(future -> future.cancel(true));
-                    nullPriorityFutures.clear();
+                    nullPriority.values().forEach(future -> future.cancel(true));
                     nullPriority.clear();
                 }
             }
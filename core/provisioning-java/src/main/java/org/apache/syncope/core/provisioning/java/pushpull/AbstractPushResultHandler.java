@@ -19,9 +19,7 @@
 package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.BooleanUtils;
@@ -46,19 +44,18 @@ import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.resource.Provision;
 import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.core.provisioning.api.MappingManager;
+import org.apache.syncope.core.provisioning.api.event.AfterHandlingDispatcher;
 import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
 import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
 import org.apache.syncope.core.provisioning.api.pushpull.IgnoreProvisionException;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePushResultHandler;
-import org.apache.syncope.core.provisioning.java.job.AfterHandlingJob;
 import org.apache.syncope.core.provisioning.java.propagation.DefaultPropagationReporter;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -84,7 +81,7 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
     protected MappingManager mappingManager;
 
     @Autowired
-    protected SchedulerFactoryBean scheduler;
+    protected AfterHandlingDispatcher afterHandlingDispatcher;
 
     protected abstract String getName(Any<?> any);
 
@@ -470,8 +467,7 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
                 throw new JobExecutionException(e);
             } finally {
                 if (notificationsAvailable || auditRequested) {
-                    Map<String, Object> jobMap = new HashMap<>();
-                    jobMap.put(AfterHandlingEvent.JOBMAP_KEY, new AfterHandlingEvent(
+                    afterHandlingDispatcher.dispatch(new AfterHandlingEvent(
                             AuthContextUtils.getUsername(),
                             AuditElements.EventCategoryType.PUSH,
                             any.getType().getKind().name().toLowerCase(),
@@ -481,7 +477,6 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
                             beforeObj,
                             output,
                             any));
-                    AfterHandlingJob.schedule(scheduler, jobMap);
                 }
             }
         }
@@ -27,13 +27,14 @@ import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.ConflictResolutionAction;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
@@ -45,7 +46,7 @@ import org.apache.syncope.core.persistence.api.entity.resource.Provision;
 import org.apache.syncope.core.persistence.api.entity.task.PushTask;
 import org.apache.syncope.core.persistence.api.entity.task.PushTaskAnyFilter;
 import org.apache.syncope.core.persistence.api.entity.user.User;
-import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
+import org.apache.syncope.core.persistence.api.search.SearchCondCache;
 import org.apache.syncope.core.provisioning.api.Connector;
 import org.apache.syncope.core.provisioning.api.pushpull.AnyObjectPushResultHandler;
 import org.apache.syncope.core.provisioning.api.pushpull.GroupPushResultHandler;
@@ -74,7 +75,7 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
     protected AnyUtilsFactory anyUtilsFactory;
 
     @Autowired
-    protected SearchCondVisitor searchCondVisitor;
+    protected SearchCondCache searchCondCache;
 
     protected ProvisioningProfile<PushTask, PushActions> profile;
 
@@ -228,21 +229,22 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
                 String filter = anyFilter.map(PushTaskAnyFilter::getFIQLCond).orElse(null);
                 SearchCond cond = StringUtils.isBlank(filter)
                         ? anyDAO.getAllMatchingCond()
-                        : SearchCondConverter.convert(searchCondVisitor, filter);
-                int count = searchDAO.count(
-                        Set.of(profile.getTask().getSourceRealm().getFullPath()),
-                        cond,
-                        provision.getAnyType().getKind());
-                for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1 && !interrupt; page++) {
-                    List<? extends Any<?>> anys = searchDAO.search(
+                        : searchCondCache.get(pushTask.getKey(), filter);
+                SearchAfter after = null;
+                List<? extends Any<?>> anys;
+                do {
+                    Pair<List<Any<?>>, SearchAfter> page = searchDAO.searchAfter(
                             Set.of(profile.getTask().getSourceRealm().getFullPath()),
                             cond,
-                            page,
+                            after,
                             AnyDAO.DEFAULT_PAGE_SIZE,
                             List.of(),
                             provision.getAnyType().getKind());
+                    anys = page.getLeft();
+                    after = page.getRight();
+
                     doHandle(anys, handler, pushTask.getResource());
-                }
+                } while (anys.size() == AnyDAO.DEFAULT_PAGE_SIZE && !interrupt);
             }
         }
 
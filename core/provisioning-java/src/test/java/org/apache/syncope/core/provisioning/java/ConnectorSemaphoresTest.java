@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.core.provisioning.api.TimeoutException;
+import org.identityconnectors.framework.api.ConnectorFacade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConnectorSemaphoresTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void perConnector() throws Exception {
+        ConnectorSemaphores semaphores = new ConnectorSemaphores(1);
+        ConnectorFacade slow = mock(ConnectorFacade.class);
+        ConnectorFacade other = mock(ConnectorFacade.class);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> blocking = executor.submit(() -> semaphores.call(slow, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // the slow connector has no permit left...
+        Future<String> waiting = executor.submit(() -> semaphores.call(slow, () -> "waiting"));
+        // ...while other connectors are not affected
+        assertEquals("other", executor.submit(() -> semaphores.call(other, () -> "other")).get(5, TimeUnit.SECONDS));
+
+        assertThrows(java.util.concurrent.TimeoutException.class, () -> waiting.get(100, TimeUnit.MILLISECONDS));
+        assertFalse(waiting.isDone());
+
+        release.countDown();
+        assertEquals("slow", blocking.get(5, TimeUnit.SECONDS));
+        assertEquals("waiting", waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void interrupted() {
+        ConnectorSemaphores semaphores = new ConnectorSemaphores(1);
+        ConnectorFacade connector = mock(ConnectorFacade.class);
+
+        // the only permit is held: waiting for another one is interrupted, keeping the thread interrupted
+        assertTrue(semaphores.call(connector, () -> {
+            Thread.currentThread().interrupt();
+            assertThrows(TimeoutException.class, () -> semaphores.call(connector, () -> "never"));
+            return Thread.interrupted();
+        }));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.common.lib.types.AuditLoggerName;
+import org.apache.syncope.core.persistence.api.DomainHolder;
+import org.apache.syncope.core.persistence.api.dao.AuditDAO;
+import org.apache.syncope.core.persistence.api.entity.AuditEntry;
+import org.apache.syncope.core.provisioning.api.AuditEntryImpl;
+import org.apache.syncope.core.provisioning.java.utils.RingBuffer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class AsyncAuditWriterTest {
+
+    private static final String DOMAIN = "Two";
+
+    private static DataSource dataSource;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private static DomainHolder domainHolder;
+
+    @BeforeAll
+    public static void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:asyncaudit;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE " + AuditDAO.TABLE + " ("
+                + "EVENT_DATE TIMESTAMP, LOGGER_LEVEL VARCHAR(255) NOT NULL, LOGGER VARCHAR(255) NOT NULL, "
+                + "MESSAGE TEXT NOT NULL, THROWABLE TEXT, WHO VARCHAR(255), ENTITY_KEY VARCHAR(255), "
+                + "EVENT_TYPE VARCHAR(255), EVENT_CATEGORY VARCHAR(255), EVENT_SUBCATEGORY VARCHAR(255), "
+                + "EVENT_NAME VARCHAR(255), EVENT_RESULT VARCHAR(255))");
+        domainHolder = () -> Map.of(DOMAIN, dataSource);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        jdbcTemplate.execute("DROP TABLE " + AuditDAO.TABLE);
+    }
+
+    @BeforeEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM " + AuditDAO.TABLE);
+    }
+
+    private static int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + AuditDAO.TABLE, Integer.class);
+    }
+
+    private static AuditEntry entry(final String event) {
+        return AuditEntryImpl.builder().
+                who("admin").
+                logger(new AuditLoggerName(AuditElements.EventCategoryType.LOGIC, "UserLogic", null, event,
+                        AuditElements.Result.SUCCESS)).
+                date(new Date()).
+                build();
+    }
+
+    @Test
+    public void ringBuffer() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i < 5; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void writeAndDrain() throws InterruptedException {
+        AsyncAuditWriter writer = new AsyncAuditWriter(
+                domainHolder, 1024, 50, 60000L, AsyncAuditWriter.OverflowPolicy.BLOCK);
+        writer.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 100; j++) {
+                    writer.write(DOMAIN, entry("update"), "{}", null);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // full batches are written without waiting for the (long) flush latency
+        long start = System.currentTimeMillis();
+        while (writer.getWritten() < 400 && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(50);
+        }
+        assertEquals(400, writer.getWritten());
+        assertEquals(400, count());
+        assertTrue(writer.getFlushes() >= 8);
+
+        // partial batch is written on drain; afterwards, entries are written synchronously
+        writer.write(DOMAIN, entry("delete"), "{}", new IllegalStateException("test"));
+        writer.drain();
+        writer.write(DOMAIN, entry("delete"), "{}", null);
+
+        assertEquals(402, count());
+        assertEquals(0, writer.getQueueDepth());
+        assertEquals(0, writer.getDropped());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + AuditDAO.TABLE + " WHERE " + AuditDAO.EVENT_NAME_COLUMN + "=?",
+                Integer.class, "delete"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + AuditDAO.TABLE + " WHERE THROWABLE IS NOT NULL", Integer.class));
+
+        // missing values are written as empty strings
+        assertEquals(402, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + AuditDAO.TABLE + " WHERE " + AuditDAO.EVENT_SUBCATEGORY_COLUMN + "=''",
+                Integer.class));
+    }
+
+    @Test
+    public void flushAfterLatency() throws InterruptedException {
+        AsyncAuditWriter writer = new AsyncAuditWriter(
+                domainHolder, 1024, 50, 100L, AsyncAuditWriter.OverflowPolicy.BLOCK);
+        writer.start();
+        try {
+            // the background thread is parked while idle, and woken up by new entries
+            Thread.sleep(200);
+            for (int i = 0; i < 3; i++) {
+                writer.write(DOMAIN, entry("update"), "{}", null);
+            }
+
+            long start = System.currentTimeMillis();
+            while (writer.getWritten() < 3 && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(20);
+            }
+            assertEquals(3, writer.getWritten());
+        } finally {
+            writer.drain();
+        }
+    }
+
+    @Test
+    public void dropWhenFull() {
+        // background thread not started, so the buffer is never emptied
+        AsyncAuditWriter writer = new AsyncAuditWriter(
+                domainHolder, 8, 50, 1000L, AsyncAuditWriter.OverflowPolicy.DROP);
+        for (int i = 0; i < 10; i++) {
+            writer.write(DOMAIN, entry("update"), "{}", null);
+        }
+        assertEquals(8, writer.getQueueDepth());
+        assertEquals(2, writer.getDropped());
+
+        writer.drain();
+        assertEquals(8, count());
+        assertEquals(0, writer.getQueueDepth());
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.event;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.core.persistence.api.DomainHolder;
+import org.apache.syncope.core.persistence.api.dao.OutboxEventDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.OutboxEvent;
+import org.apache.syncope.core.provisioning.api.AuditManager;
+import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
+import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AfterHandlingDispatcherTest extends AbstractTest {
+
+    @Mock
+    private NotificationManager notificationManager;
+
+    @Mock
+    private AuditManager auditManager;
+
+    @Mock
+    private OutboxEventDAO outboxEventDAO;
+
+    @Mock
+    private EntityFactory entityFactory;
+
+    @Mock
+    private DomainHolder domainHolder;
+
+    private AfterHandlingDispatcherImpl dispatcher;
+
+    private AfterHandlingDispatcherImpl dispatcher(final boolean outboxEnabled) {
+        dispatcher = new AfterHandlingDispatcherImpl(2, 10, outboxEnabled, 0L, 3);
+        ReflectionTestUtils.setField(dispatcher, "notificationManager", notificationManager);
+        ReflectionTestUtils.setField(dispatcher, "auditManager", auditManager);
+        ReflectionTestUtils.setField(dispatcher, "outboxEventDAO", outboxEventDAO);
+        ReflectionTestUtils.setField(dispatcher, "entityFactory", entityFactory);
+        ReflectionTestUtils.setField(dispatcher, "domainHolder", domainHolder);
+        return dispatcher;
+    }
+
+    private static AfterHandlingEvent event() {
+        return new AfterHandlingEvent(
+                "admin",
+                AuditElements.EventCategoryType.LOGIC,
+                "UserLogic",
+                null,
+                "create",
+                AuditElements.Result.SUCCESS,
+                null,
+                "output",
+                "input");
+    }
+
+    @AfterEach
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void dispatch() {
+        AfterHandlingEvent event = event();
+        dispatcher(false).dispatch(event);
+
+        verify(notificationManager, timeout(5000)).createTasks(event);
+        verify(auditManager, timeout(5000)).audit(event);
+        verify(outboxEventDAO, never()).save(any());
+    }
+
+    @Test
+    public void dispatchWithOutbox() {
+        OutboxEvent outboxEvent = Mockito.mock(OutboxEvent.class);
+        when(outboxEvent.getKey()).thenReturn("key");
+        when(entityFactory.newEntity(OutboxEvent.class)).thenReturn(outboxEvent);
+        when(outboxEventDAO.save(outboxEvent)).thenReturn(outboxEvent);
+
+        boolean synchronizationActive = TransactionSynchronizationManager.isSynchronizationActive();
+        if (!synchronizationActive) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+        List<TransactionSynchronization> before = TransactionSynchronizationManager.getSynchronizations();
+
+        AfterHandlingEvent event = event();
+        try {
+            dispatcher(true).dispatch(event);
+
+            // nothing is handled until the current transaction is completed
+            verify(auditManager, after(500).never()).audit(any());
+
+            TransactionSynchronizationManager.getSynchronizations().stream().
+                    filter(synchronization -> !before.contains(synchronization)).
+                    forEach(synchronization -> synchronization.afterCompletion(
+                    TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            if (!synchronizationActive) {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        ArgumentCaptor<byte[]> payload = ArgumentCaptor.forClass(byte[].class);
+        verify(outboxEvent).setPayload(payload.capture());
+        AfterHandlingEvent stored = SerializationUtils.deserialize(payload.getValue());
+        assertEquals(event.getEvent(), stored.getEvent());
+        assertArrayEquals(event.getInput(), stored.getInput());
+
+        verify(auditManager, timeout(5000)).audit(event);
+        verify(outboxEventDAO, timeout(5000)).delete("key");
+    }
+
+    @Test
+    public void replay() {
+        when(domainHolder.getDomains()).thenReturn(
+                Map.of(SyncopeConstants.MASTER_DOMAIN, Mockito.mock(DataSource.class)));
+
+        OutboxEvent stale = Mockito.mock(OutboxEvent.class);
+        when(stale.getKey()).thenReturn("stale");
+        when(stale.getPayload()).thenReturn(SerializationUtils.serialize(event()));
+        when(outboxEventDAO.findStale(any(Date.class), eq(3), eq(100))).thenReturn(List.of("stale", "claimed"));
+        when(outboxEventDAO.claim(eq("stale"), any(Date.class))).thenReturn(true);
+        when(outboxEventDAO.claim(eq("claimed"), any(Date.class))).thenReturn(false);
+        when(outboxEventDAO.find("stale")).thenReturn(stale);
+
+        dispatcher(true).replay();
+
+        verify(notificationManager, timeout(5000)).createTasks(any(AfterHandlingEvent.class));
+        verify(outboxEventDAO, timeout(5000)).delete("stale");
+        verify(outboxEventDAO, never()).find("claimed");
+    }
+}
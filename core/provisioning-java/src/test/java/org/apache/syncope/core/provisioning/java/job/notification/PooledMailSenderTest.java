@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+public class PooledMailSenderTest {
+
+    private final JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+
+    private final List<Transport> transports = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        mailSender.setHost("localhost");
+        transports.clear();
+    }
+
+    private PooledMailSender pooledMailSender(
+            final int maxConnections, final int maxMessagesPerConnection, final double maxRate, final Transport... t) {
+
+        return new PooledMailSender(mailSender, maxConnections, maxMessagesPerConnection, maxRate, 2, 10L) {
+
+            @Override
+            protected Transport connect(final JavaMailSenderImpl sender) throws MessagingException {
+                Transport transport = t.length > transports.size() ? t[transports.size()] : mock(Transport.class);
+                when(transport.isConnected()).thenReturn(true);
+                transports.add(transport);
+                connections.incrementAndGet();
+                return transport;
+            }
+        };
+    }
+
+    private MimeMessage message(final String to) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setTo(to);
+        helper.setFrom("syncope@syncope.apache.org");
+        helper.setSubject("Test");
+        helper.setText("text", "<p>html</p>");
+        return message;
+    }
+
+    @Test
+    public void reuseConnections() throws Exception {
+        PooledMailSender sender = pooledMailSender(1, 2, 0, new Transport[0]);
+
+        for (int i = 0; i < 5; i++) {
+            sender.send(message("user" + i + "@syncope.apache.org"));
+        }
+
+        assertEquals(5, sender.getSent());
+        assertEquals(3, sender.getConnections());
+        verify(transports.get(0), times(2)).sendMessage(any(), any());
+        verify(transports.get(0)).close();
+        verify(transports.get(2), times(1)).sendMessage(any(), any());
+        assertEquals(1, sender.getIdleConnections());
+
+        sender.close();
+        assertEquals(0, sender.getIdleConnections());
+        verify(transports.get(2)).close();
+    }
+
+    @Test
+    public void retryTransientFailures() throws Exception {
+        Transport failing = mock(Transport.class);
+        doThrow(new MessagingException("421 Service not available")).when(failing).sendMessage(any(), any());
+        Transport working = mock(Transport.class);
+        doNothing().when(working).sendMessage(any(), any());
+
+        PooledMailSender sender = pooledMailSender(1, 100, 0, failing, working);
+        sender.send(message("user@syncope.apache.org"));
+
+        assertEquals(1, sender.getSent());
+        assertEquals(1, sender.getRetries());
+        // the connection which failed was not reused
+        verify(failing).close();
+        verify(working).sendMessage(any(), any());
+    }
+
+    @Test
+    public void permanentFailures() throws Exception {
+        Transport failing = mock(Transport.class);
+        doThrow(new SendFailedException("550 No such user", null, new Address[0],
+                new Address[0], new Address[] { new InternetAddress("unknown@syncope.apache.org") })).
+                when(failing).sendMessage(any(), any());
+
+        PooledMailSender sender = pooledMailSender(1, 100, 0, failing);
+        assertThrows(SendFailedException.class, () -> sender.send(message("unknown@syncope.apache.org")));
+
+        assertEquals(0, sender.getSent());
+        assertEquals(0, sender.getRetries());
+    }
+
+    @Test
+    public void giveUpAfterMaxRetries() throws Exception {
+        Transport failing = mock(Transport.class);
+        doThrow(new MessagingException("421 Service not available")).when(failing).sendMessage(any(), any());
+
+        PooledMailSender sender = pooledMailSender(1, 100, 0, failing, failing, failing);
+        assertThrows(MessagingException.class, () -> sender.send(message("user@syncope.apache.org")));
+
+        assertEquals(2, sender.getRetries());
+        verify(failing, times(3)).sendMessage(any(), any());
+    }
+
+    @Test
+    public void pace() throws Exception {
+        PooledMailSender sender = pooledMailSender(2, 100, 20, new Transport[0]);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            sender.send(message("user" + i + "@syncope.apache.org"));
+        }
+        // 5 messages at 20 per second: the last one is sent no sooner than 200 ms after the first
+        assertTrue(System.currentTimeMillis() - start >= 190);
+        assertEquals(5, sender.getSent());
+    }
+}
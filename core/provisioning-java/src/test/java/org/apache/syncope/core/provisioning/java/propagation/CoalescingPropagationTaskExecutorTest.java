@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.syncope.common.lib.to.PropagationStatus;
+import org.apache.syncope.common.lib.types.ExecStatus;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class CoalescingPropagationTaskExecutorTest {
+
+    private static class Reporter implements PropagationReporter {
+
+        private final Map<PropagationTaskInfo, ExecStatus> reported = new ConcurrentHashMap<>();
+
+        @Override
+        public void onPriorityResourceFailure(
+                final String failingResource, final Collection<PropagationTaskInfo> taskInfos) {
+        }
+
+        @Override
+        public void onSuccessOrNonPriorityResourceFailures(
+                final PropagationTaskInfo taskInfo,
+                final ExecStatus execStatus,
+                final String failureReason,
+                final ConnectorObject beforeObj,
+                final ConnectorObject afterObj) {
+
+            reported.put(taskInfo, execStatus);
+        }
+
+        @Override
+        public List<PropagationStatus> getStatuses() {
+            return List.of();
+        }
+    }
+
+    private final ExternalResource resource = mock(ExternalResource.class);
+
+    private final List<PropagationTaskInfo> executed = new ArrayList<>();
+
+    private final CountDownLatch firstStarted = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ThreadPoolTaskExecutor executor;
+
+    private CoalescingPropagationTaskExecutor taskExecutor;
+
+    @BeforeEach
+    public void init() {
+        when(resource.getKey()).thenReturn("resource-ldap");
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+
+        taskExecutor = new CoalescingPropagationTaskExecutor() {
+
+            @Override
+            protected PropagationTaskCallable newCallable(
+                    final PropagationTaskInfo taskInfo, final PropagationReporter reporter) {
+
+                return new PropagationTaskCallable() {
+
+                    private PropagationReporter current = reporter;
+
+                    @Override
+                    public void setTaskInfo(final PropagationTaskInfo taskInfo) {
+                    }
+
+                    @Override
+                    public void setReporter(final PropagationReporter reporter) {
+                        this.current = reporter;
+                    }
+
+                    @Override
+                    public TaskExec call() throws Exception {
+                        synchronized (executed) {
+                            executed.add(taskInfo);
+                        }
+                        firstStarted.countDown();
+                        release.await(10, TimeUnit.SECONDS);
+
+                        current.onSuccessOrNonPriorityResourceFailures(
+                                taskInfo, ExecStatus.SUCCESS, null, null, null);
+                        return mock(TaskExec.class);
+                    }
+                };
+            }
+        };
+        taskExecutor.executor = executor;
+    }
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private PropagationTaskInfo taskInfo(
+            final ResourceOperation operation, final String entityKey, final Attribute... attrs) {
+
+        PropagationTaskInfo taskInfo = new PropagationTaskInfo(resource);
+        taskInfo.setOperation(operation);
+        taskInfo.setObjectClassName("__ACCOUNT__");
+        taskInfo.setEntityKey(entityKey);
+        taskInfo.setConnObjectKey("uid=" + entityKey);
+        taskInfo.setAttributes(POJOHelper.serialize(List.of(attrs)));
+        return taskInfo;
+    }
+
+    private static Map<String, List<Object>> attrs(final PropagationTaskInfo taskInfo) {
+        return Stream.of(POJOHelper.deserialize(taskInfo.getAttributes(), Attribute[].class)).
+                collect(Collectors.toMap(Attribute::getName, Attribute::getValue));
+    }
+
+    @Test
+    public void coalesce() throws Exception {
+        Reporter reporter1 = new Reporter();
+        Reporter reporter2 = new Reporter();
+
+        PropagationTaskInfo first = taskInfo(
+                ResourceOperation.UPDATE, "user1", AttributeBuilder.build("mail", "first@syncope.org"));
+        Future<TaskExec> firstExec = taskExecutor.submit(first, reporter1);
+        assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+
+        // queued while the first one is running: merged together
+        PropagationTaskInfo second = taskInfo(ResourceOperation.UPDATE, "user1",
+                AttributeBuilder.build("mail", "second@syncope.org"), AttributeBuilder.build("cn", "User One"));
+        Future<TaskExec> secondExec = taskExecutor.submit(second, reporter1);
+        PropagationTaskInfo third = taskInfo(
+                ResourceOperation.UPDATE, "user1", AttributeBuilder.build("MAIL", "third@syncope.org"));
+        Future<TaskExec> thirdExec = taskExecutor.submit(third, reporter2);
+
+        // not merged, as it follows a delete
+        PropagationTaskInfo delete = taskInfo(ResourceOperation.DELETE, "user1");
+        Future<TaskExec> deleteExec = taskExecutor.submit(delete, reporter2);
+        PropagationTaskInfo fourth = taskInfo(
+                ResourceOperation.UPDATE, "user1", AttributeBuilder.build("cn", "User 1"));
+        Future<TaskExec> fourthExec = taskExecutor.submit(fourth, reporter2);
+
+        // another object: not queued behind user1
+        PropagationTaskInfo other = taskInfo(
+                ResourceOperation.UPDATE, "user2", AttributeBuilder.build("cn", "User Two"));
+        Future<TaskExec> otherExec = taskExecutor.submit(other, reporter2);
+
+        release.countDown();
+        for (Future<TaskExec> future : List.of(firstExec, secondExec, thirdExec, deleteExec, fourthExec, otherExec)) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertSame(secondExec.get(), thirdExec.get());
+
+        assertEquals(5, executed.size());
+        assertEquals(List.of(first, second, delete, fourth), executed.stream().
+                filter(taskInfo -> "user1".equals(taskInfo.getEntityKey())).collect(Collectors.toList()));
+
+        Map<String, List<Object>> merged = attrs(second);
+        assertEquals(2, merged.size());
+        assertEquals(List.of("third@syncope.org"), merged.get("MAIL"));
+        assertEquals(List.of("User One"), merged.get("cn"));
+
+        // each merged task is reported to its own reporter
+        assertEquals(Map.of(first, ExecStatus.SUCCESS, second, ExecStatus.SUCCESS), reporter1.reported);
+        assertEquals(ExecStatus.SUCCESS, reporter2.reported.get(third));
+        assertEquals(4, reporter2.reported.size());
+
+        assertTrue(taskExecutor.queues.isEmpty());
+    }
+}
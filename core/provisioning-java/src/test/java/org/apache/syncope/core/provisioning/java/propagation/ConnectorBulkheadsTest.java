@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.syncope.common.lib.types.ExecStatus;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConnectorBulkheadsTest {
+
+    private ExecutorService executor;
+
+    private static TaskExec exec(final ExecStatus status) {
+        TaskExec exec = mock(TaskExec.class);
+        when(exec.getStatus()).thenReturn(status.name());
+        return exec;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void isolation() throws Exception {
+        ConnectorBulkheads bulkheads = new ConnectorBulkheads(2, 1, 2, 1);
+
+        TaskExec success = exec(ExecStatus.SUCCESS);
+        CountDownLatch latch = new CountDownLatch(1);
+        Callable<TaskExec> slow = () -> {
+            latch.await();
+            return success;
+        };
+
+        Future<TaskExec> first = bulkheads.submit("slow", slow, executor).get();
+        Future<TaskExec> second = bulkheads.submit("slow", slow, executor).get();
+        Future<TaskExec> queued = bulkheads.submit("slow", slow, executor).get();
+        Optional<Future<TaskExec>> rejected = bulkheads.submit("slow", slow, executor);
+        assertTrue(rejected.isEmpty());
+
+        assertEquals(2, bulkheads.getInFlight().get("slow"));
+        assertEquals(1, bulkheads.getQueueDepths().get("slow"));
+        assertEquals(1L, bulkheads.getRejected().get("slow"));
+
+        // other connectors are not affected
+        Future<TaskExec> fast = bulkheads.submit("fast", () -> success, executor).get();
+        assertEquals(success, fast.get(5, TimeUnit.SECONDS));
+
+        latch.countDown();
+        assertEquals(success, first.get(5, TimeUnit.SECONDS));
+        assertEquals(success, second.get(5, TimeUnit.SECONDS));
+        assertEquals(success, queued.get(5, TimeUnit.SECONDS));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bulkheads.getInFlight().get("slow") > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, bulkheads.getInFlight().get("slow"));
+        assertEquals(0, bulkheads.getQueueDepths().get("slow"));
+    }
+
+    @Test
+    public void failureBackoff() throws Exception {
+        ConnectorBulkheads bulkheads = new ConnectorBulkheads(4, 1, 8, 10);
+
+        TaskExec failure = exec(ExecStatus.FAILURE);
+        bulkheads.submit("conn", () -> failure, executor).get().get(5, TimeUnit.SECONDS);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bulkheads.getInFlight().get("conn") > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, bulkheads.getLimits().get("conn"));
+
+        bulkheads.submit("conn", () -> {
+            throw new IllegalStateException();
+        }, executor).get();
+        deadline = System.currentTimeMillis() + 5000;
+        while (bulkheads.getLimits().get("conn") > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, bulkheads.getLimits().get("conn"));
+    }
+
+    @Test
+    public void adaptiveLimit() {
+        ConnectorBulkheads bulkheads = new ConnectorBulkheads(1, 1, 4, 0);
+        ConnectorBulkheads.Bulkhead bulkhead = bulkheads.new Bulkhead();
+
+        // saturated and within latency tolerance: grow
+        bulkhead.inFlight = 1;
+        bulkhead.onComplete(100, false);
+        assertEquals(2, bulkhead.getLimit());
+
+        bulkhead.inFlight = 2;
+        bulkhead.onComplete(150, false);
+        bulkhead.inFlight = 2;
+        bulkhead.onComplete(150, false);
+        bulkhead.inFlight = 2;
+        bulkhead.onComplete(150, false);
+        assertEquals(3, bulkhead.getLimit());
+
+        // not saturated: keep
+        bulkhead.inFlight = 1;
+        bulkhead.onComplete(100, false);
+        assertEquals(3, bulkhead.getLimit());
+
+        // latency beyond tolerance: shrink
+        bulkhead.inFlight = 3;
+        bulkhead.onComplete(1000, false);
+        assertEquals(2, bulkhead.getLimit());
+        assertEquals(2, bulkhead.inFlight);
+    }
+
+    @Test
+    public void rejectedStartDoesNotStallQueue() throws Exception {
+        ConnectorBulkheads bulkheads = new ConnectorBulkheads(1, 1, 1, 1);
+
+        TaskExec success = exec(ExecStatus.SUCCESS);
+        Callable<TaskExec> callable = () -> success;
+
+        // the first start is rejected, after another propagation got queued in the meanwhile
+        AtomicReference<Future<TaskExec>> queued = new AtomicReference<>();
+        AtomicBoolean rejectFirst = new AtomicBoolean(true);
+        Executor flaky = new Executor() {
+
+            @Override
+            public void execute(final Runnable command) {
+                if (rejectFirst.compareAndSet(true, false)) {
+                    queued.set(bulkheads.submit("flaky", callable, this).get());
+                    throw new RejectedExecutionException("busy");
+                }
+                command.run();
+            }
+        };
+
+        Future<TaskExec> rejected = bulkheads.submit("flaky", callable, flaky).get();
+        assertThrows(ExecutionException.class, rejected::get);
+
+        assertEquals(success, queued.get().get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkheads.getInFlight().get("flaky"));
+        assertEquals(0, bulkheads.getQueueDepths().get("flaky"));
+    }
+}
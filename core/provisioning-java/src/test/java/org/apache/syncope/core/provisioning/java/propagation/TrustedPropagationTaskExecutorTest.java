@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.common.lib.types.ExecStatus;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.common.lib.types.TraceLevel;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.persistence.jpa.entity.task.JPATaskExec;
+import org.apache.syncope.core.provisioning.api.AuditManager;
+import org.apache.syncope.core.provisioning.api.Connector;
+import org.apache.syncope.core.provisioning.api.data.TaskDataBinder;
+import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.provisioning.java.pushpull.OutboundMatcher;
+import org.identityconnectors.framework.common.exceptions.UnknownUidException;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TrustedPropagationTaskExecutorTest {
+
+    private static final String CONN_OBJECT_KEY = "uid=user1";
+
+    private final ExternalResource resource = mock(ExternalResource.class);
+
+    private final PropagationTask task = mock(PropagationTask.class);
+
+    private final Connector connector = mock(Connector.class);
+
+    private final OutboundMatcher outboundMatcher = mock(OutboundMatcher.class);
+
+    private final AuditManager auditManager = mock(AuditManager.class);
+
+    private final PropagationReporter reporter = mock(PropagationReporter.class);
+
+    private final Set<Attribute> attributes = Set.of(
+            new Name(CONN_OBJECT_KEY), AttributeBuilder.build("mail", "user1@syncope.org"));
+
+    private PriorityPropagationTaskExecutor taskExecutor;
+
+    @BeforeEach
+    public void init() {
+        when(resource.getKey()).thenReturn("resource-ldap");
+        when(resource.isTrustedPropagation()).thenReturn(true);
+        Optional<? extends Provision> provision = Optional.of(mock(Provision.class));
+        doReturn(provision).when(resource).getProvision(any(ObjectClass.class));
+        when(resource.getCreateTraceLevel()).thenReturn(TraceLevel.NONE);
+        when(resource.getUpdateTraceLevel()).thenReturn(TraceLevel.NONE);
+        when(resource.getDeleteTraceLevel()).thenReturn(TraceLevel.NONE);
+
+        when(task.getResource()).thenReturn(resource);
+        when(task.getObjectClassName()).thenReturn(ObjectClass.ACCOUNT_NAME);
+        when(task.getAttributes()).thenReturn(attributes);
+
+        TaskDAO taskDAO = mock(TaskDAO.class);
+        when(taskDAO.find("task")).thenReturn(task);
+
+        EntityFactory entityFactory = mock(EntityFactory.class);
+        when(entityFactory.newEntity(TaskExec.class)).thenAnswer(ic -> new JPATaskExec());
+
+        taskExecutor = new PriorityPropagationTaskExecutor();
+        taskExecutor.taskDAO = taskDAO;
+        taskExecutor.resourceDAO = mock(ExternalResourceDAO.class);
+        taskExecutor.entityFactory = entityFactory;
+        taskExecutor.outboundMatcher = outboundMatcher;
+        taskExecutor.notificationManager = mock(NotificationManager.class);
+        taskExecutor.auditManager = auditManager;
+        taskExecutor.taskDataBinder = mock(TaskDataBinder.class);
+    }
+
+    private PropagationTaskInfo taskInfo(final ResourceOperation operation) {
+        when(task.getOperation()).thenReturn(operation);
+        when(task.getConnObjectKey()).thenReturn(CONN_OBJECT_KEY);
+
+        PropagationTaskInfo taskInfo = new PropagationTaskInfo(resource);
+        taskInfo.setKey("task");
+        taskInfo.setOperation(operation);
+        taskInfo.setObjectClassName(ObjectClass.ACCOUNT_NAME);
+        taskInfo.setConnObjectKey(CONN_OBJECT_KEY);
+        taskInfo.setConnector(connector);
+        return taskInfo;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void attempted(final Object[] args) {
+        ((AtomicReference<Boolean>) args[args.length - 1]).set(true);
+    }
+
+    @Test
+    public void create() {
+        doAnswer(ic -> {
+            attempted(ic.getArguments());
+            return new Uid(CONN_OBJECT_KEY);
+        }).when(connector).create(any(ObjectClass.class), anySet(), isNull(), any());
+
+        PropagationTaskInfo taskInfo = taskInfo(ResourceOperation.CREATE);
+        TaskExec exec = taskExecutor.execute(taskInfo, reporter, "admin");
+        assertEquals(ExecStatus.SUCCESS.name(), exec.getStatus());
+
+        verify(connector).create(eq(ObjectClass.ACCOUNT), eq(attributes), isNull(), any());
+        verify(connector, never()).getObject(any(), any(), anyBoolean(), any());
+        verify(outboundMatcher, never()).match(any(PropagationTask.class), any(), any(), anyList(), any());
+        verify(reporter).onSuccessOrNonPriorityResourceFailures(
+                eq(taskInfo), eq(ExecStatus.SUCCESS), isNull(), isNull(), any(ConnectorObject.class));
+        assertEquals(2, taskExecutor.getAvoidedRemoteReads());
+    }
+
+    @Test
+    public void update() {
+        doAnswer(ic -> {
+            attempted(ic.getArguments());
+            return new Uid(CONN_OBJECT_KEY);
+        }).when(connector).update(any(ObjectClass.class), any(Uid.class), anySet(), isNull(), any());
+
+        PropagationTaskInfo taskInfo = taskInfo(ResourceOperation.UPDATE);
+        TaskExec exec = taskExecutor.execute(taskInfo, reporter, "admin");
+        assertEquals(ExecStatus.SUCCESS.name(), exec.getStatus());
+
+        // sent to the object identified by the connector object key, without reading it first
+        verify(connector).update(eq(ObjectClass.ACCOUNT), eq(new Uid(CONN_OBJECT_KEY)), anySet(), isNull(), any());
+        verify(outboundMatcher, never()).match(any(PropagationTask.class), any(), any(), anyList(), any());
+        // the object built from own provisioning state is not reported as read before propagation
+        verify(reporter).onSuccessOrNonPriorityResourceFailures(
+                eq(taskInfo), eq(ExecStatus.SUCCESS), isNull(), isNull(), any(ConnectorObject.class));
+        assertEquals(2, taskExecutor.getAvoidedRemoteReads());
+    }
+
+    @Test
+    public void delete() {
+        doAnswer(ic -> {
+            attempted(ic.getArguments());
+            return null;
+        }).when(connector).delete(any(ObjectClass.class), any(Uid.class), isNull(), any());
+
+        PropagationTaskInfo taskInfo = taskInfo(ResourceOperation.DELETE);
+        TaskExec exec = taskExecutor.execute(taskInfo, reporter, "admin");
+        assertEquals(ExecStatus.SUCCESS.name(), exec.getStatus());
+
+        verify(connector).delete(eq(ObjectClass.ACCOUNT), eq(new Uid(CONN_OBJECT_KEY)), isNull(), any());
+        verify(outboundMatcher, never()).match(any(PropagationTask.class), any(), any(), anyList(), any());
+        verify(reporter).onSuccessOrNonPriorityResourceFailures(
+                eq(taskInfo), eq(ExecStatus.SUCCESS), isNull(), isNull(), isNull());
+    }
+
+    @Test
+    public void deleteUnknown() {
+        doAnswer(ic -> {
+            attempted(ic.getArguments());
+            throw new UnknownUidException(new Uid(CONN_OBJECT_KEY), ObjectClass.ACCOUNT);
+        }).when(connector).delete(any(ObjectClass.class), any(Uid.class), isNull(), any());
+
+        PropagationTaskInfo taskInfo = taskInfo(ResourceOperation.DELETE);
+        TaskExec exec = taskExecutor.execute(taskInfo, reporter, "admin");
+
+        // not found on the External Resource: nothing to delete
+        assertEquals(ExecStatus.SUCCESS.name(), exec.getStatus());
+        assertNull(exec.getMessage());
+    }
+
+    @Test
+    public void readAfterObjWhenAudited() {
+        when(auditManager.auditRequested(
+                anyString(), eq(AuditElements.EventCategoryType.PROPAGATION), anyString(), anyString(), anyString())).
+                thenReturn(true);
+        ConnectorObject afterObj = mock(ConnectorObject.class);
+        when(outboundMatcher.match(eq(task), eq(connector), any(Provision.class), anyList(), eq(CONN_OBJECT_KEY))).
+                thenReturn(List.of(afterObj));
+        doAnswer(ic -> {
+            attempted(ic.getArguments());
+            return new Uid(CONN_OBJECT_KEY);
+        }).when(connector).update(any(ObjectClass.class), any(Uid.class), anySet(), isNull(), any());
+
+        PropagationTaskInfo taskInfo = taskInfo(ResourceOperation.UPDATE);
+        taskExecutor.execute(taskInfo, reporter, "admin");
+
+        // only read after propagation
+        verify(outboundMatcher, times(1)).match(any(PropagationTask.class), any(), any(), anyList(), any());
+        verify(auditManager).audit(
+                anyString(),
+                eq(AuditElements.EventCategoryType.PROPAGATION),
+                eq("realm"),
+                eq("resource-ldap"),
+                eq("update"),
+                any(),
+                isNull(),
+                any(),
+                any());
+        assertEquals(1, taskExecutor.getAvoidedRemoteReads());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+
+/**
+ * Task executor starting a new virtual thread for each task, available when running on Java 21 or later.
+ *
+ * Virtual threads are looked up reflectively, so that this class can be compiled for - and loaded by - earlier Java
+ * versions, where {@link #of(java.lang.String)} returns empty. As there is no pool to size, concurrency is unbounded
+ * unless a limit is given to {@link #of(java.lang.String, int)}, or enforced by callers.
+ */
+public final class VirtualThreadTaskExecutor extends ConcurrentTaskExecutor implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadTaskExecutor.class);
+
+    private static final Method OF_VIRTUAL;
+
+    private static final Method NAME;
+
+    private static final Method FACTORY;
+
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method newThreadPerTaskExecutor = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            LOG.debug("Virtual threads not available", e);
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+    public static boolean isSupported() {
+        return NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates a new instance, if supported by the running JVM.
+     *
+     * @param threadNamePrefix prefix for names of created threads, followed by an incrementing counter
+     * @return new instance, or empty if virtual threads are not available
+     */
+    public static Optional<VirtualThreadTaskExecutor> of(final String threadNamePrefix) {
+        return of(threadNamePrefix, 0);
+    }
+
+    /**
+     * Creates a new instance, if supported by the running JVM, running at most the given number of tasks at a time:
+     * further tasks wait on their own virtual thread for a running one to complete.
+     *
+     * @param threadNamePrefix prefix for names of created threads, followed by an incrementing counter
+     * @param maxConcurrency maximum number of tasks running at a time, unbounded if not positive
+     * @return new instance, or empty if virtual threads are not available
+     */
+    public static Optional<VirtualThreadTaskExecutor> of(final String threadNamePrefix, final int maxConcurrency) {
+        if (!isSupported()) {
+            LOG.warn("Virtual threads are not available on Java {}, falling back to platform threads for {}",
+                    System.getProperty("java.version"), threadNamePrefix);
+            return Optional.empty();
+        }
+
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), threadNamePrefix, 0L);
+            ExecutorService executorService = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(
+                    null, (ThreadFactory) FACTORY.invoke(builder));
+            return Optional.of(new VirtualThreadTaskExecutor(executorService, maxConcurrency));
+        } catch (ReflectiveOperationException e) {
+            LOG.error("Could not create virtual thread executor, falling back to platform threads for {}",
+                    threadNamePrefix, e);
+            return Optional.empty();
+        }
+    }
+
+    private final ExecutorService executorService;
+
+    private VirtualThreadTaskExecutor(final ExecutorService executorService, final int maxConcurrency) {
+        super(maxConcurrency > 0 ? limit(executorService, new Semaphore(maxConcurrency)) : executorService);
+        this.executorService = executorService;
+    }
+
+    private static Executor limit(final ExecutorService executorService, final Semaphore permits) {
+        return task -> executorService.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.debug("Interrupted while waiting to run {}", task, e);
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdown();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+public class VirtualThreadTaskExecutorTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadTaskExecutorTest.class);
+
+    private static boolean isVirtual(final Thread thread) throws Exception {
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    @Test
+    public void unsupported() {
+        assumeFalse(VirtualThreadTaskExecutor.isSupported());
+
+        assertTrue(VirtualThreadTaskExecutor.of("Test-").isEmpty());
+    }
+
+    @Test
+    public void execute() throws Exception {
+        assumeTrue(VirtualThreadTaskExecutor.isSupported());
+
+        VirtualThreadTaskExecutor executor = VirtualThreadTaskExecutor.of("Test-").orElseThrow();
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            assertTrue(thread.getName().startsWith("Test-"));
+            assertTrue(isVirtual(thread));
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void maxConcurrency() throws Exception {
+        assumeTrue(VirtualThreadTaskExecutor.isSupported());
+
+        VirtualThreadTaskExecutor executor = VirtualThreadTaskExecutor.of("Test-", 2).orElseThrow();
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+
+            assertEquals(2, peak.get());
+        } finally {
+            executor.destroy();
+        }
+    }
+
+    /**
+     * Compares throughput, threads and peak heap usage of a platform thread pool with virtual threads, at the same
+     * concurrency, for tasks blocking as a remote connector call would: the pool has as many threads as the permits
+     * of the {@link Semaphore} bounding virtual threads. Run with {@code -Dbenchmark=true} on Java 21 or later.
+     */
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @Test
+    public void benchmark() throws Exception {
+        assumeTrue(VirtualThreadTaskExecutor.isSupported());
+
+        int tasks = Integer.getInteger("benchmark.tasks", 5000);
+        long latency = Long.getLong("benchmark.latency", 20);
+        int concurrency = Integer.getInteger("benchmark.concurrency", 25);
+
+        ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+        platform.setCorePoolSize(concurrency);
+        platform.setMaxPoolSize(concurrency);
+        platform.setQueueCapacity(tasks);
+        platform.setThreadNamePrefix("Platform-");
+        platform.initialize();
+        try {
+            run("platform", platform, null, tasks, latency);
+        } finally {
+            platform.shutdown();
+        }
+
+        VirtualThreadTaskExecutor virtual = VirtualThreadTaskExecutor.of("Virtual-").orElseThrow();
+        try {
+            run("virtual", virtual, new Semaphore(concurrency), tasks, latency);
+        } finally {
+            virtual.destroy();
+        }
+    }
+
+    private static void run(
+            final String mode,
+            final AsyncTaskExecutor executor,
+            final Semaphore permits,
+            final int tasks,
+            final long latency)
+            throws Exception {
+
+        List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream().
+                filter(pool -> pool.getType() == MemoryType.HEAP).collect(Collectors.toList());
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long heapBefore = heap.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+        threads.resetPeakThreadCount();
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    if (permits != null) {
+                        permits.acquire();
+                    }
+                    try {
+                        Thread.sleep(latency);
+                    } finally {
+                        if (permits != null) {
+                            permits.release();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long heapPeak = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        assertEquals(tasks, futures.stream().filter(Future::isDone).count());
+        LOG.info("{}: {} tasks in {} ms ({} tasks/s), peak threads {}, peak heap +{} KB",
+                mode, tasks, elapsed, tasks * 1000L / Math.max(1, elapsed),
+                threads.getPeakThreadCount(), (heapPeak - heapBefore) / 1024);
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.syncope.core.starter;
 
+import org.apache.syncope.core.provisioning.java.audit.AsyncAuditWriter;
+import org.apache.syncope.core.provisioning.java.event.AfterHandlingDispatcherImpl;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.stereotype.Component;
@@ -32,5 +34,12 @@ public class SyncopeCoreShutdown extends SyncopeCoreStartStop
     @Override
     public void onApplicationEvent(final ContextClosedEvent event) {
         serviceOps.unregister(getNetworkService());
+
+        // handle pending notification / audit events, then write pending audit entries, while domain DataSources
+        // are still available
+        event.getApplicationContext().getBeansOfType(AfterHandlingDispatcherImpl.class).values().
+                forEach(AfterHandlingDispatcherImpl::shutdown);
+        event.getApplicationContext().getBeansOfType(AsyncAuditWriter.class).values().
+                forEach(AsyncAuditWriter::drain);
     }
 }
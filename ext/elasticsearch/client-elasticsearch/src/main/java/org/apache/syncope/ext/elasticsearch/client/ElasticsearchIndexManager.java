@@ -19,13 +19,20 @@
 package org.apache.syncope.ext.elasticsearch.client;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
+import org.apache.syncope.core.provisioning.api.event.AnyBulkUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
@@ -60,6 +67,9 @@ public class ElasticsearchIndexManager {
     @Autowired
     private ElasticsearchUtils elasticsearchUtils;
 
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
     public boolean existsIndex(final String domain, final AnyTypeKind kind) throws IOException {
         return client.indices().exists(
                 new GetIndexRequest(ElasticsearchUtils.getContextDomainName(domain, kind)), RequestOptions.DEFAULT);
@@ -149,6 +159,36 @@ public class ElasticsearchIndexManager {
         }
     }
 
+    @TransactionalEventListener
+    public void after(final AnyBulkUpdatedEvent event) throws IOException {
+        LOG.debug("About to update index for {} {}", event.getAnyKeys().size(), event.getAnyTypeKind());
+
+        AnyDAO<?> anyDAO = anyUtilsFactory.getInstance(event.getAnyTypeKind()).dao();
+        String index = ElasticsearchUtils.getContextDomainName(event.getDomain(), event.getAnyTypeKind());
+
+        List<String> anyKeys = new ArrayList<>(event.getAnyKeys());
+        for (int i = 0; i < anyKeys.size(); i += AnyDAO.DEFAULT_PAGE_SIZE) {
+            BulkRequest request = new BulkRequest();
+            for (String key : anyKeys.subList(i, Math.min(i + AnyDAO.DEFAULT_PAGE_SIZE, anyKeys.size()))) {
+                Any<?> any = anyDAO.find(key);
+                if (any != null) {
+                    request.add(new IndexRequest(index).id(key).source(elasticsearchUtils.builder(any)));
+                }
+            }
+
+            if (request.numberOfActions() > 0) {
+                BulkResponse response = client.bulk(request, RequestOptions.DEFAULT);
+                if (response.hasFailures()) {
+                    LOG.error("While updating index for {} {}: {}",
+                            request.numberOfActions(), event.getAnyTypeKind(), response.buildFailureMessage());
+                } else {
+                    LOG.debug("Index successfully updated for {} {}",
+                            request.numberOfActions(), event.getAnyTypeKind());
+                }
+            }
+        }
+    }
+
     @TransactionalEventListener
     public void after(final AnyDeletedEvent event) throws IOException {
         LOG.debug("About to delete index for {}[{}]", event.getAnyTypeKind(), event.getAnyKey());
@@ -49,6 +49,7 @@ import org.apache.syncope.core.persistence.api.dao.search.RelationshipCond;
 import org.apache.syncope.core.persistence.api.dao.search.RelationshipTypeCond;
 import org.apache.syncope.core.persistence.api.dao.search.ResourceCond;
 import org.apache.syncope.core.persistence.api.dao.search.RoleCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchAfter;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
@@ -93,14 +94,13 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
         Set<String> dynRealmKeys = new HashSet<>();
         RealmUtils.normalize(adminRealms).forEach(realmPath -> {
             if (realmPath.startsWith("/")) {
-                Realm realm = realmDAO.findByFullPath(realmPath);
-                if (realm == null) {
+                List<String> descendants = realmDAO.findDescendantFullPaths(realmPath);
+                if (descendants.isEmpty()) {
                     SyncopeClientException noRealm = SyncopeClientException.build(ClientExceptionType.InvalidRealm);
                     noRealm.getElements().add("Invalid realm specified: " + realmPath);
                     throw noRealm;
                 } else {
-                    realmDAO.findDescendants(realm).forEach(
-                            descendant -> builder.add(QueryBuilders.termQuery("realm", descendant.getFullPath())));
+                    descendants.forEach(descendant -> builder.add(QueryBuilders.termQuery("realm", descendant)));
                 }
             } else {
                 DynRealm dynRealm = dynRealmDAO.find(realmPath);
@@ -113,8 +113,8 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
             }
         });
         if (!dynRealmKeys.isEmpty()) {
-            realmDAO.findAll().forEach(
-                    descendant -> builder.add(QueryBuilders.termQuery("realm", descendant.getFullPath())));
+            realmDAO.findDescendantFullPaths(SyncopeConstants.ROOT_REALM).forEach(
+                    descendant -> builder.add(QueryBuilders.termQuery("realm", descendant)));
         }
 
         return Pair.of(builder, dynRealmKeys);
@@ -217,6 +217,51 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
                         .map(SearchHit::getId).collect(Collectors.toList()), kind);
     }
 
+    @Override
+    protected <T extends Any<?>> Pair<List<T>, SearchAfter> doSearchAfter(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final SearchAfter after,
+            final int itemsPerPage,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
+        List<SortBuilder<?>> sortBuilders = sortBuilders(kind, orderBy);
+        int sortValues = sortBuilders.size();
+        sortBuilders.add(new FieldSortBuilder("id").order(SortOrder.ASC));
+
+        SearchRequest request = searchRequest(
+                adminRealms,
+                cond,
+                kind,
+                0,
+                (itemsPerPage < 0 ? elasticsearchUtils.getIndexMaxResultWindow() : itemsPerPage),
+                sortBuilders);
+        if (after != null) {
+            List<Object> searchAfter = new ArrayList<>(after.getValues());
+            searchAfter.add(after.getKey());
+            request.source().searchAfter(searchAfter.toArray());
+        }
+
+        SearchHit[] esResult = null;
+        try {
+            esResult = client.search(request, RequestOptions.DEFAULT).getHits().getHits();
+        } catch (Exception e) {
+            LOG.error("While searching in Elasticsearch", e);
+        }
+
+        if (ArrayUtils.isEmpty(esResult)) {
+            return Pair.of(List.of(), null);
+        }
+
+        SearchHit last = esResult[esResult.length - 1];
+        return Pair.of(
+                buildResult(Stream.of(esResult).map(SearchHit::getId).collect(Collectors.toList()), kind),
+                new SearchAfter(
+                        last.getId(),
+                        List.of(ArrayUtils.subarray(last.getSortValues(), 0, sortValues))));
+    }
+
     private QueryBuilder getQueryBuilder(final SearchCond cond, final AnyTypeKind kind) {
         QueryBuilder builder = null;
 
@@ -369,8 +414,8 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
 
         DisMaxQueryBuilder builder = QueryBuilders.disMaxQuery();
         if (cond.isFromGroup()) {
-            realmDAO.findDescendants(realm).forEach(
-                    current -> builder.add(QueryBuilders.termQuery("realm", current.getFullPath())));
+            realmDAO.findDescendantFullPaths(realm.getFullPath()).forEach(
+                    current -> builder.add(QueryBuilders.termQuery("realm", current)));
         } else {
             for (Realm current = realm; current.getParent() != null; current = current.getParent()) {
                 builder.add(QueryBuilders.termQuery("realm", current.getFullPath()));
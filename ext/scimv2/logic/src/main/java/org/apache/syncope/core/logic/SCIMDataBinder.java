@@ -35,6 +35,7 @@ import org.apache.syncope.common.lib.scim.SCIMConf;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.MembershipTO;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.core.logic.scim.SCIMConfManager;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
@@ -636,7 +637,7 @@ public class SCIMDataBinder {
         if (output(attributes, excludedAttributes, "members")) {
             int count = userLogic.search(searchCond,
                     1, 1, List.of(),
-                    SyncopeConstants.ROOT_REALM, false).getLeft();
+                    SyncopeConstants.ROOT_REALM, false, CountMode.EXACT).getLeft();
 
             for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
                 List<UserTO> users = userLogic.search(
@@ -645,7 +646,8 @@ public class SCIMDataBinder {
                         AnyDAO.DEFAULT_PAGE_SIZE,
                         List.of(),
                         SyncopeConstants.ROOT_REALM,
-                        false).
+                        false,
+                        CountMode.NONE).
                         getRight();
                 users.forEach(userTO -> group.getMembers().add(new Member(
                         userTO.getKey(),
@@ -32,6 +32,7 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.AnyTO;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.core.logic.AbstractAnyLogic;
 import org.apache.syncope.core.logic.GroupLogic;
 import org.apache.syncope.core.logic.SCIMDataBinder;
@@ -220,7 +221,8 @@ abstract class AbstractService<R extends SCIMResource> {
                 itemsPerPage,
                 sort,
                 SyncopeConstants.ROOT_REALM,
-                false);
+                false,
+                CountMode.EXACT);
 
         if (result.getLeft() > confManager().get().getGeneralConf().getFilterMaxResults()) {
             throw new BadRequestException(ErrorType.tooMany, "Too many results found");
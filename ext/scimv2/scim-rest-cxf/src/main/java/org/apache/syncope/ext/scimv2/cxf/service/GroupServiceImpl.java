@@ -33,6 +33,7 @@ import org.apache.syncope.common.lib.request.UserUR;
 import org.apache.syncope.common.lib.to.EntityTO;
 import org.apache.syncope.common.lib.to.GroupTO;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.types.CountMode;
 import org.apache.syncope.common.lib.types.PatchOperation;
 import org.apache.syncope.core.logic.SCIMDataBinder;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
@@ -112,7 +113,7 @@ public class GroupServiceImpl extends AbstractService<SCIMGroup> implements Grou
         SearchCond searchCond = SearchCond.getLeaf(membCond);
         int count = userLogic().search(searchCond,
                 1, 1, List.of(),
-                SyncopeConstants.ROOT_REALM, false).getLeft();
+                SyncopeConstants.ROOT_REALM, false, CountMode.EXACT).getLeft();
         for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
             beforeMembers.addAll(userLogic().search(
                     searchCond,
@@ -120,7 +121,8 @@ public class GroupServiceImpl extends AbstractService<SCIMGroup> implements Grou
                     AnyDAO.DEFAULT_PAGE_SIZE,
                     List.of(),
                     SyncopeConstants.ROOT_REALM,
-                    false).
+                    false,
+                    CountMode.NONE).
                     getRight().stream().map(EntityTO::getKey).collect(Collectors.toSet()));
         }
 
@@ -25,12 +25,20 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.ws.rs.core.Response;
+import org.apache.cxf.jaxrs.client.Client;
+import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.syncope.client.console.commons.ConnIdSpecialName;
 import org.apache.syncope.client.lib.SyncopeClient;
@@ -51,11 +59,14 @@ import org.apache.syncope.common.lib.to.MembershipTO;
 import org.apache.syncope.common.lib.to.PagedConnObjectTOResult;
 import org.apache.syncope.common.lib.to.RoleTO;
 import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.types.AnyExportFormat;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
+import org.apache.syncope.common.rest.api.RESTHeaders;
 import org.apache.syncope.common.rest.api.beans.AnyQuery;
 import org.apache.syncope.common.rest.api.beans.ConnObjectTOQuery;
 import org.apache.syncope.common.rest.api.service.RoleService;
+import org.apache.syncope.common.rest.api.service.UserService;
 import org.apache.syncope.fit.AbstractITCase;
 import org.apache.syncope.fit.ElasticsearchDetector;
 import org.junit.jupiter.api.Assertions;
@@ -64,6 +75,54 @@ import org.junit.jupiter.api.Test;
 
 public class SearchITCase extends AbstractITCase {
 
+    @Test
+    public void streamUsers() throws IOException {
+        UserService service = adminClient.getService(UserService.class);
+        Client client = WebClient.client(service);
+        client.accept(RESTHeaders.TEXT_CSV);
+
+        AnyQuery anyQuery = new AnyQuery.Builder().realm(SyncopeConstants.ROOT_REALM).
+                fiql(SyncopeClient.getUserSearchConditionBuilder().is("username").equalTo("*ini").query()).
+                orderBy("username ASC").
+                build();
+
+        Response response = service.stream(anyQuery, AnyExportFormat.CSV, List.of("surname"));
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+        anyQuery.setPage(1);
+        anyQuery.setSize(1000);
+        PagedResult<UserTO> users = userService.search(anyQuery);
+        assertFalse(users.getResult().isEmpty());
+
+        MappingIterator<Map<String, String>> reader = new CsvMapper().readerFor(Map.class).
+                with(CsvSchema.emptySchema().withHeader()).readValues((InputStream) response.getEntity());
+
+        int rows = 0;
+        for (; reader.hasNext(); rows++) {
+            Map<String, String> row = reader.next();
+
+            UserTO user = users.getResult().get(rows);
+            assertEquals(user.getKey(), row.get("key"));
+            assertEquals(user.getUsername(), row.get("name"));
+            assertEquals(user.getStatus(), row.get("status"));
+            assertEquals(user.getPlainAttr("surname").get().getValues().get(0), row.get("surname"));
+        }
+        assertEquals(users.getTotalCount(), rows);
+    }
+
+    @Test
+    public void streamAnyObjectsWithoutType() {
+        try {
+            Response response = anyObjectService.stream(
+                    new AnyQuery.Builder().realm(SyncopeConstants.ROOT_REALM).build(),
+                    AnyExportFormat.NDJSON,
+                    List.of());
+            assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        } catch (SyncopeClientException e) {
+            assertEquals(ClientExceptionType.InvalidSearchExpression, e.getType());
+        }
+    }
+
     @Test
     public void searchUser() {
         // LIKE